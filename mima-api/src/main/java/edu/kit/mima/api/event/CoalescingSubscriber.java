@@ -0,0 +1,86 @@
+package edu.kit.mima.api.event;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Subscriber that delivers notifications to another subscriber using an executor.
+ * <p>
+ * Notifications are coalesced. While a delivery is pending only the latest value of each
+ * identifier is kept, so a subscriber that can't keep up with a sender receives the current state
+ * instead of every intermediate one. Notifications are delivered in the order the identifiers
+ * first occurred since the last delivery. The filters are the ones of the target subscriber.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class CoalescingSubscriber implements Subscriber {
+
+    @NotNull
+    private final Subscriber target;
+    @NotNull
+    private final Executor executor;
+    /*
+     * Latest values by identifier, guarded by this. Non empty iff a delivery is scheduled.
+     */
+    @NotNull
+    private Map<String, Object> pending;
+
+    /**
+     * Create new CoalescingSubscriber.
+     *
+     * @param target   the subscriber to deliver to.
+     * @param executor the executor to deliver with, e.g. {@code SwingUtilities::invokeLater}.
+     */
+    @Contract(pure = true)
+    public CoalescingSubscriber(@NotNull final Subscriber target, @NotNull final Executor executor) {
+        this.target = target;
+        this.executor = executor;
+        this.pending = new LinkedHashMap<>();
+    }
+
+    @Override
+    public <T> void notifySubscription(final String identifier, final T value) {
+        final boolean schedule;
+        synchronized (this) {
+            schedule = pending.isEmpty();
+            pending.put(identifier, value);
+        }
+        if (schedule) {
+            executor.execute(this::deliver);
+        }
+    }
+
+    private void deliver() {
+        final Map<String, Object> values;
+        synchronized (this) {
+            values = pending;
+            pending = new LinkedHashMap<>();
+        }
+        values.forEach(target::notifySubscription);
+    }
+
+    @Override
+    public boolean useOwnerFilter() {
+        return target.useOwnerFilter();
+    }
+
+    @Override
+    public boolean useInvokeFilter() {
+        return target.useInvokeFilter();
+    }
+
+    @Override
+    public Class<?> getOwnerFilter(final String identification) {
+        return target.getOwnerFilter(identification);
+    }
+
+    @Override
+    public Object getInvokerFilter(final String identification) {
+        return target.getInvokerFilter(identification);
+    }
+}
@@ -5,15 +5,21 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Subscription Manger for registering new subscriptions offered and subscribing to channels.
+ * <p>
+ * The manager may be used from any thread. For every offered subscription of a service the
+ * subscribers that pass the owner filter are computed when subscribing and stored in an
+ * immutable dispatch table, which is replaced on every change. Sending a notification only looks
+ * up the table of the service and checks the invoker filters.
  *
  * @author Jannis Weis
  * @since 2019
@@ -21,16 +27,28 @@ import java.util.Set;
 public final class SubscriptionManager {
 
     private static final SubscriptionManager instance = new SubscriptionManager();
+    /*
+     * Invoker filter of subscribers that don't filter by invoker.
+     */
+    private static final Object NO_FILTER = new Object();
 
+    /*
+     * Registrations, only accessed while holding the lock.
+     */
     private final Set<String> allServices;
     private final Map<SubscriptionService<?>, Set<String>> offeredSubscriptions;
     private final Map<String, List<Subscriber>> subscriberMap;
+    /*
+     * Dispatch tables by service. The tables are immutable.
+     */
+    private final Map<SubscriptionService<?>, Map<String, Dispatch>> dispatchTables;
 
     @Contract(pure = true)
     private SubscriptionManager() {
         offeredSubscriptions = new HashMap<>();
         subscriberMap = new HashMap<>();
         allServices = new HashSet<>();
+        dispatchTables = new ConcurrentHashMap<>();
     }
 
     @Contract(pure = true)
@@ -50,14 +68,18 @@ public final class SubscriptionManager {
      */
     public <T> void offerSubscription(
             @NotNull final SubscriptionService<T> service, @NotNull final String... identifiers) {
-        if (!offeredSubscriptions.containsKey(service)) {
-            offeredSubscriptions.put(service, new HashSet<>());
+        synchronized (this) {
+            final var identList = Arrays.asList(identifiers);
+            offeredSubscriptions.computeIfAbsent(service, s -> new HashSet<>()).addAll(identList);
+            allServices.addAll(identList);
+            final Map<String, Dispatch> table = new HashMap<>(
+                    dispatchTables.getOrDefault(service, Collections.emptyMap()));
+            for (final var ident : identifiers) {
+                table.put(ident, createDispatch(service, ident));
+            }
+            dispatchTables.put(service, Collections.unmodifiableMap(table));
         }
-        var list = offeredSubscriptions.get(service);
         service.setSendDelegate(this::notifySubscribers);
-        var identList = Arrays.asList(identifiers);
-        list.addAll(identList);
-        allServices.addAll(identList);
         service.initService(identifiers);
     }
 
@@ -65,16 +87,15 @@ public final class SubscriptionManager {
      * Subscribe an subscriber to a subscription channel. It is possible to subscribe to an channel a
      * priori. If the channel ever gets created the subscriber will be automatically be subscribed to
      * it.
+     * <p>
+     * The owner and invoker filters of the subscriber are read once when subscribing.
      *
      * @param subscriber  the subscriber to subscribe.
      * @param identifiers the identifier for the subscription channel.
      */
-    public void subscribe(final Subscriber subscriber, @NotNull final String... identifiers) {
+    public synchronized void subscribe(final Subscriber subscriber, @NotNull final String... identifiers) {
         for (var ident : identifiers) {
-            if (!subscriberMap.containsKey(ident)) {
-                subscriberMap.put(ident, new ArrayList<>());
-            }
-            subscriberMap.get(ident).add(subscriber);
+            addSubscriber(subscriber, ident);
         }
     }
 
@@ -85,39 +106,82 @@ public final class SubscriptionManager {
      * @param subscriber  the subscriber to subscribe.
      * @param identifiers the identifier for the subscription channel.
      */
-    public void weakSubscribe(final Subscriber subscriber, @NotNull final String... identifiers) {
+    public synchronized void weakSubscribe(final Subscriber subscriber, @NotNull final String... identifiers) {
         for (var ident : identifiers) {
-            if (!allServices.contains(ident)) {
-                continue;
+            if (allServices.contains(ident)) {
+                addSubscriber(subscriber, ident);
+            }
+        }
+    }
+
+    /*
+     * Add a subscriber and update the dispatch tables of all services offering the channel.
+     */
+    private void addSubscriber(final Subscriber subscriber, @NotNull final String identifier) {
+        subscriberMap.computeIfAbsent(identifier, i -> new ArrayList<>()).add(subscriber);
+        for (final var entry : offeredSubscriptions.entrySet()) {
+            if (entry.getValue().contains(identifier)) {
+                final Map<String, Dispatch> table = new HashMap<>(dispatchTables.get(entry.getKey()));
+                table.put(identifier, createDispatch(entry.getKey(), identifier));
+                dispatchTables.put(entry.getKey(), Collections.unmodifiableMap(table));
             }
-            if (!subscriberMap.containsKey(ident)) {
-                subscriberMap.put(ident, new ArrayList<>());
+        }
+    }
+
+    /*
+     * Collect the subscribers of a channel that accept the owners of the service.
+     */
+    @NotNull
+    private Dispatch createDispatch(@NotNull final SubscriptionService<?> service,
+                                    @NotNull final String identifier) {
+        final List<Class<?>> owner = Arrays.asList(service.getOwner());
+        final List<Subscriber> subscribers = new ArrayList<>();
+        final List<Object> invokers = new ArrayList<>();
+        for (final var subscriber : subscriberMap.getOrDefault(identifier, List.of())) {
+            if (subscriber.useOwnerFilter() && !owner.contains(subscriber.getOwnerFilter(identifier))) {
+                continue;
             }
-            subscriberMap.get(ident).add(subscriber);
+            subscribers.add(subscriber);
+            invokers.add(subscriber.useInvokeFilter() ? subscriber.getInvokerFilter(identifier) : NO_FILTER);
         }
+        return new Dispatch(subscribers.toArray(new Subscriber[0]), invokers.toArray());
     }
 
     private <T> void notifySubscribers(final String identification,
                                        final T value,
                                        final SubscriptionService<T> service,
-                                       final Class<?>[] owner,
                                        final Object invoker) {
+        final Map<String, Dispatch> table = dispatchTables.get(service);
+        final Dispatch dispatch = table != null ? table.get(identification) : null;
         /*
          * Ensure the notification sender also is the provider of the subscription.
          */
-        if (!offeredSubscriptions.get(service).contains(identification)) {
+        if (dispatch == null) {
             throw new IllegalSubscriptionSenderException(
                     service + " does not provide \"" + identification + "\"");
         }
-        for (var subscriber :
-                Optional.ofNullable(subscriberMap.get(identification)).orElse(List.of())) {
-            if (subscriber.useOwnerFilter()
-                && !Arrays.asList(owner).contains(subscriber.getOwnerFilter(identification))
-                || subscriber.useInvokeFilter()
-                   && invoker != subscriber.getInvokerFilter(identification)) {
-                continue;
+        final Subscriber[] subscribers = dispatch.subscribers;
+        final Object[] invokers = dispatch.invokers;
+        for (int i = 0; i < subscribers.length; i++) {
+            if (invokers[i] == NO_FILTER || invokers[i] == invoker) {
+                subscribers[i].notifySubscription(identification, value);
             }
-            subscriber.notifySubscription(identification, value);
+        }
+    }
+
+    /*
+     * Subscribers of a channel of a service and their invoker filters.
+     */
+    private static final class Dispatch {
+        @NotNull
+        private final Subscriber[] subscribers;
+        @NotNull
+        private final Object[] invokers;
+
+        @Contract(pure = true)
+        private Dispatch(@NotNull final Subscriber[] subscribers, @NotNull final Object[] invokers) {
+            this.subscribers = subscribers;
+            this.invokers = invokers;
         }
     }
 }
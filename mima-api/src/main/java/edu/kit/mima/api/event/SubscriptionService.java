@@ -2,8 +2,6 @@ package edu.kit.mima.api.event;
 
 import org.jetbrains.annotations.Contract;
 
-import java.util.Optional;
-
 /**
  * Notification Service for Subscriptions.
  *
@@ -13,7 +11,7 @@ import java.util.Optional;
 public class SubscriptionService<T> {
 
     private final Class<?>[] owner;
-    private SubscriptionDelegate<T> sendDelegate;
+    private volatile SubscriptionDelegate<T> sendDelegate;
 
     @Contract(pure = true)
     public SubscriptionService(final Class<?>... owner) {
@@ -24,6 +22,10 @@ public class SubscriptionService<T> {
         this.sendDelegate = sendDelegate;
     }
 
+    Class<?>[] getOwner() {
+        return owner;
+    }
+
     /**
      * Send a notification event.
      *
@@ -36,8 +38,10 @@ public class SubscriptionService<T> {
          * This function may not be overwritten to prevent non subscription services to
          * send notifications.
          */
-        Optional.ofNullable(sendDelegate)
-                .ifPresent(sd -> sd.sendNotify(identification, value, this, owner, invoker));
+        final SubscriptionDelegate<T> delegate = sendDelegate;
+        if (delegate != null) {
+            delegate.sendNotify(identification, value, this, invoker);
+        }
     }
 
     void initService(final String... identifiers) {
@@ -48,7 +52,6 @@ public class SubscriptionService<T> {
                 final String identification,
                 T value,
                 final SubscriptionService<T> service,
-                final Class<?>[] serviceOwner,
                 final Object invoker);
     }
 }
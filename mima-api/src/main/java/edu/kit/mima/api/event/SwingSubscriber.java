@@ -3,10 +3,21 @@ package edu.kit.mima.api.event;
 import javax.swing.*;
 
 /**
+ * Subscriber that handles notifications on the event dispatch thread. Notifications that arrive
+ * faster than they are handled are coalesced, see {@link CoalescingSubscriber}.
+ *
  * @author Jannis Weis
  * @since 2019
  */
 public class SwingSubscriber<T> extends SimpleSubscriber<T> {
+
+    private final Subscriber delivery = new CoalescingSubscriber(new SubscriberAdapter() {
+        @Override
+        public <K> void notifySubscription(final String identifier, final K value) {
+            SwingSubscriber.super.notifySubscription(identifier, value);
+        }
+    }, SwingUtilities::invokeLater);
+
     public SwingSubscriber(final Class<?> classFilter, final Object invokerFilter, final SubscriberEventHandler<T> handler) {
         super(classFilter, invokerFilter, handler);
     }
@@ -25,6 +36,6 @@ public class SwingSubscriber<T> extends SimpleSubscriber<T> {
 
     @Override
     public <T1> void notifySubscription(final String identifier, final T1 value) {
-        SwingUtilities.invokeLater(() -> super.notifySubscription(identifier, value));
+        delivery.notifySubscription(identifier, value);
     }
 }
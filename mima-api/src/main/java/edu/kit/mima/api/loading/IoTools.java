@@ -1,16 +1,30 @@
 package edu.kit.mima.api.loading;
 
 import org.apache.tika.parser.txt.CharsetDetector;
+import org.apache.tika.parser.txt.CharsetMatch;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedReader;
-import java.io.FileInputStream;
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.util.stream.Collectors;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Reader/Writer for saving and writing files as well as writing temporary files.
@@ -21,7 +35,16 @@ import java.util.stream.Collectors;
 public final class IoTools {
 
     private static final String ENCODING = System.getProperty("file.encoding");
-    private static final CharsetDetector CHARSET_DETECTOR = new CharsetDetector();
+    /*
+     * Files larger than this are memory mapped instead of read into the heap.
+     */
+    private static final int MAP_THRESHOLD = 1 << 20;
+    /*
+     * Number of bytes used to detect the charset of a file that isn't UTF-8.
+     */
+    private static final int DETECTION_LENGTH = 1 << 16;
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
 
     @Contract(" -> fail")
     private IoTools() {
@@ -30,6 +53,10 @@ public final class IoTools {
 
     /**
      * Load file from path.
+     * <p>
+     * The file is read once. Files starting with a byte order mark and files that are valid UTF-8
+     * are decoded without detecting the charset. Line terminators are converted to '\n' and a
+     * terminator at the end of the file is removed.
      *
      * @param path file path
      * @return content of file
@@ -37,19 +64,20 @@ public final class IoTools {
      */
     @NotNull
     public static String loadFile(@NotNull final String path) throws IOException {
-        final var charSet =
-                CHARSET_DETECTOR
-                        .setText(new BufferedInputStream(new FileInputStream(path)))
-                        .detect()
-                        .getName();
-        try (final BufferedReader reader =
-                     new BufferedReader(new InputStreamReader(new FileInputStream(path), charSet))) {
-            return reader.lines().collect(Collectors.joining("\n"));
+        try (final FileChannel channel = FileChannel.open(toPath(path), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final ByteBuffer bytes = size > MAP_THRESHOLD
+                                     ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                                     : read(channel, (int) size);
+            return toText(decode(bytes));
         }
     }
 
     /**
      * Save to file.
+     * <p>
+     * The text is written to a temporary file first, which then replaces the file. The file
+     * either has the old or the new content, even if writing fails.
      *
      * @param text text to save in file
      * @param path path to file
@@ -57,8 +85,162 @@ public final class IoTools {
      */
     public static void saveFile(@NotNull final String text, @NotNull final String path)
             throws IOException {
-        try (final PrintWriter writer = new PrintWriter(path, ENCODING)) {
-            writer.write(text);
+        final Path file = toPath(path);
+        final Path target = Files.exists(file) ? file.toRealPath() : file.toAbsolutePath();
+        final Path temp = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".tmp");
+        try {
+            try (final Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(Files.newOutputStream(temp), Charset.forName(ENCODING)))) {
+                writer.write(text);
+            }
+            if (Files.exists(target)) {
+                copyPermissions(target, temp);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (@NotNull final AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @NotNull
+    private static Path toPath(@NotNull final String path) throws FileNotFoundException {
+        try {
+            return Path.of(path);
+        } catch (@NotNull final InvalidPathException e) {
+            throw new FileNotFoundException(path + " (" + e.getReason() + ")");
+        }
+    }
+
+    /*
+     * Temporary files are only accessible by the owner. Keep the permissions of the replaced file.
+     */
+    private static void copyPermissions(@NotNull final Path source, @NotNull final Path target)
+            throws IOException {
+        try {
+            Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
+        } catch (@NotNull final UnsupportedOperationException e) {
+            // Not a posix file system.
+        }
+    }
+
+    @NotNull
+    private static ByteBuffer read(@NotNull final FileChannel channel, final int size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // Read until full or end of file.
+        }
+        return buffer.flip();
+    }
+
+    /*
+     * Decode using the byte order mark, UTF-8 if valid or else the detected charset.
+     */
+    @NotNull
+    private static CharBuffer decode(@NotNull final ByteBuffer bytes) throws CharacterCodingException {
+        if (startsWith(bytes, 0xEF, 0xBB, 0xBF)) {
+            return decode(replacing(StandardCharsets.UTF_8), bytes.position(3));
+        } else if (startsWith(bytes, 0xFE, 0xFF)) {
+            return decode(replacing(StandardCharsets.UTF_16BE), bytes.position(2));
+        } else if (startsWith(bytes, 0xFF, 0xFE)) {
+            return decode(replacing(StandardCharsets.UTF_16LE), bytes.position(2));
+        }
+        try {
+            return decode(StandardCharsets.UTF_8.newDecoder()
+                                  .onMalformedInput(CodingErrorAction.REPORT)
+                                  .onUnmappableCharacter(CodingErrorAction.REPORT), bytes.duplicate());
+        } catch (@NotNull final CharacterCodingException e) {
+            return decode(replacing(detectCharset(bytes)), bytes);
+        }
+    }
+
+    /*
+     * Decoders are only fast on heap buffers. Mapped input is copied in chunks.
+     */
+    @NotNull
+    private static CharBuffer decode(@NotNull final CharsetDecoder decoder, @NotNull final ByteBuffer bytes)
+            throws CharacterCodingException {
+        if (bytes.hasArray()) {
+            return decoder.decode(bytes);
+        }
+        final CharBuffer chars = CharBuffer.allocate(
+                (int) Math.min(MAX_ARRAY_LENGTH, (long) Math.ceil(bytes.remaining() * decoder.maxCharsPerByte())));
+        final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        boolean end;
+        do {
+            final int length = Math.min(chunk.remaining(), bytes.remaining());
+            chunk.put(bytes.slice().limit(length));
+            bytes.position(bytes.position() + length);
+            end = !bytes.hasRemaining();
+            check(decoder.decode(chunk.flip(), chars, end));
+            chunk.compact();
+        } while (!end);
+        check(decoder.flush(chars));
+        return chars.flip();
+    }
+
+    private static void check(@NotNull final CoderResult result) throws CharacterCodingException {
+        if (result.isError() || result.isOverflow()) {
+            result.throwException();
+        }
+    }
+
+    @NotNull
+    private static CharsetDecoder replacing(@NotNull final Charset charset) {
+        return charset.newDecoder()
+                       .onMalformedInput(CodingErrorAction.REPLACE)
+                       .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private static boolean startsWith(@NotNull final ByteBuffer bytes, @NotNull final int... prefix) {
+        if (bytes.remaining() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((bytes.get(bytes.position() + i) & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    private static Charset detectCharset(@NotNull final ByteBuffer bytes) {
+        final byte[] sample = new byte[Math.min(bytes.remaining(), DETECTION_LENGTH)];
+        bytes.duplicate().get(sample);
+        final CharsetMatch match = new CharsetDetector().setText(sample).detect();
+        if (match != null && Charset.isSupported(match.getName())) {
+            return Charset.forName(match.getName());
+        }
+        return Charset.defaultCharset();
+    }
+
+    /*
+     * Convert line terminators to '\n' and remove the last one, in place.
+     */
+    @NotNull
+    private static String toText(@NotNull final CharBuffer chars) {
+        final char[] array = chars.array();
+        final int start = chars.arrayOffset() + chars.position();
+        final int end = chars.arrayOffset() + chars.limit();
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            final char c = array[i];
+            if (c == '\r') {
+                if (i + 1 < end && array[i + 1] == '\n') {
+                    i++;
+                }
+                array[start + length++] = '\n';
+            } else {
+                array[start + length++] = c;
+            }
+        }
+        if (length > 0 && array[start + length - 1] == '\n') {
+            length--;
         }
+        return new String(array, start, length);
     }
 }
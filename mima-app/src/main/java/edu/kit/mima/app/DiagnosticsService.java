@@ -0,0 +1,279 @@
+package edu.kit.mima.app;
+
+import edu.kit.mima.core.MimaCompiler;
+import edu.kit.mima.core.parsing.ParserException;
+import edu.kit.mima.core.parsing.ProcessorException;
+import edu.kit.mima.core.parsing.lang.Punctuation;
+import edu.kit.mima.gui.components.text.editor.EditEventHandler;
+import edu.kit.mima.gui.components.text.editor.Editor;
+import edu.kit.mima.highlighter.Diagnostic;
+import edu.kit.mima.loading.FileManager;
+import edu.kit.mima.preferences.Preferences;
+import edu.kit.mima.preferences.PropertyKey;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles the text of open editors in the background and shows the errors and warnings in the
+ * editors.
+ * <p>
+ * Every edit restarts a timer of the editor, so a burst of keystrokes results in a single
+ * compilation once typing paused. Scheduling a compilation cancels the previous one of the editor
+ * if it didn't start yet and results for outdated text are dropped. Hence at most one compilation
+ * per editor is queued. Compilations run on a fixed number of low priority threads, the event
+ * dispatch thread only copies the text and shows the result.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class DiagnosticsService implements AutoCloseable {
+
+    /*
+     * Time in milliseconds without edits before compiling.
+     */
+    private static final int DELAY = 500;
+    private static final int MAX_DIAGNOSTICS = 100;
+
+    @NotNull
+    private final MimaCompiler compiler;
+    @NotNull
+    private final ExecutorService executor;
+    @NotNull
+    private final Map<Editor, Entry> entries;
+
+    /**
+     * Create new DiagnosticsService.
+     *
+     * @param compiler compiler to use. Shares its cached results with other users.
+     */
+    public DiagnosticsService(@NotNull final MimaCompiler compiler) {
+        this.compiler = compiler;
+        this.entries = new HashMap<>();
+        final int threads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                                               new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "Diagnostics");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Show the diagnostics of an editor. Must be called on the event dispatch thread.
+     *
+     * @param editor      the editor
+     * @param fileManager file manager of the editor
+     */
+    public void register(@NotNull final Editor editor, @NotNull final FileManager fileManager) {
+        unregister(editor);
+        final Entry entry = new Entry(editor, fileManager);
+        entries.put(editor, entry);
+        editor.addEditEventHandler(entry);
+        entry.notifyEdit();
+    }
+
+    /**
+     * Stop showing the diagnostics of an editor. Must be called on the event dispatch thread.
+     *
+     * @param editor the editor
+     */
+    public void unregister(@NotNull final Editor editor) {
+        final Entry entry = entries.remove(editor);
+        if (entry != null) {
+            entry.cancel();
+            editor.removeEditEventHandler(entry);
+        }
+    }
+
+    @Override
+    public void close() {
+        entries.values().forEach(Entry::cancel);
+        entries.clear();
+        executor.shutdownNow();
+    }
+
+    /*
+     * Compile the text and locate the problems.
+     */
+    @NotNull
+    private List<Diagnostic> diagnose(@NotNull final String text, @NotNull final String file,
+                                      @NotNull final String workingDirectory,
+                                      @NotNull final String mimaDirectory) {
+        final List<Diagnostic> diagnostics = new ArrayList<>();
+        try {
+            final var result = compiler.diagnose(text, file, workingDirectory, mimaDirectory);
+            for (final Exception e : result.getFirst()) {
+                // Errors of included files have no position in the text.
+                if (e instanceof ParserException && !(e instanceof ProcessorException)) {
+                    addError(diagnostics, text, (ParserException) e);
+                }
+            }
+            final int[] lines = lineStarts(text);
+            result.getSecond().forEach((line, warnings) -> {
+                if (line >= 0 && line < lines.length) {
+                    addWarning(diagnostics, text, lines[line], String.join("\n", warnings));
+                }
+            });
+        } catch (@NotNull final ParserException e) {
+            // The preprocessor stops at characters it can't read.
+            addError(diagnostics, text, e);
+        }
+        diagnostics.sort(Comparator.comparingInt(Diagnostic::getOffset));
+        return diagnostics.size() > MAX_DIAGNOSTICS ? diagnostics.subList(0, MAX_DIAGNOSTICS) : diagnostics;
+    }
+
+    /*
+     * Errors are located after the token that caused them. Underline the word, string or
+     * character before the position.
+     */
+    private void addError(@NotNull final List<Diagnostic> diagnostics, @NotNull final String text,
+                          @NotNull final ParserException e) {
+        int end = Math.min(e.getPosition(), text.length());
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (end == 0) {
+            if (!text.isEmpty()) {
+                diagnostics.add(new Diagnostic(Diagnostic.Severity.ERROR, 0, 1, e.getMessage()));
+            }
+            return;
+        }
+        int start = end - 1;
+        if (text.charAt(start) == Punctuation.STRING) {
+            final int open = text.lastIndexOf(Punctuation.STRING, start - 1);
+            if (open >= 0 && text.lastIndexOf('\n', start) < open) {
+                start = open;
+            }
+        }
+        while (start > 0 && isWordChar(text.charAt(start)) && isWordChar(text.charAt(start - 1))) {
+            start--;
+        }
+        diagnostics.add(new Diagnostic(Diagnostic.Severity.ERROR, start, end - start, e.getMessage()));
+    }
+
+    private boolean isWordChar(final char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /*
+     * Underline the line without leading and trailing whitespace.
+     */
+    private void addWarning(@NotNull final List<Diagnostic> diagnostics, @NotNull final String text,
+                            final int lineStart, @NotNull final String message) {
+        int end = text.indexOf('\n', lineStart);
+        if (end < 0) {
+            end = text.length();
+        }
+        int start = lineStart;
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start < end) {
+            diagnostics.add(new Diagnostic(Diagnostic.Severity.WARNING, start, end - start, message));
+        }
+    }
+
+    @NotNull
+    private int[] lineStarts(@NotNull final String text) {
+        final List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                starts.add(i + 1);
+            }
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /*
+     * Compilation state of an editor. Only accessed on the event dispatch thread.
+     */
+    private final class Entry implements EditEventHandler {
+
+        @NotNull
+        private final Editor editor;
+        @NotNull
+        private final FileManager fileManager;
+        @NotNull
+        private final Timer timer;
+        @Nullable
+        private Future<?> job;
+        /*
+         * Number of edits. Results of a compilation are only shown if it didn't change.
+         */
+        private int version;
+
+        private Entry(@NotNull final Editor editor, @NotNull final FileManager fileManager) {
+            this.editor = editor;
+            this.fileManager = fileManager;
+            this.timer = new Timer(DELAY, e -> submit());
+            timer.setRepeats(false);
+        }
+
+        @Override
+        public void notifyEdit() {
+            version++;
+            if (job != null) {
+                job.cancel(false);
+                job = null;
+            }
+            timer.restart();
+        }
+
+        private void submit() {
+            if (entries.get(editor) != this || executor.isShutdown()) {
+                return;
+            }
+            final Document document = editor.getPane().getDocument();
+            final String text;
+            try {
+                text = document.getText(0, document.getLength());
+            } catch (@NotNull final BadLocationException e) {
+                e.printStackTrace();
+                return;
+            }
+            final String file = fileManager.getLastFile();
+            final var pref = Preferences.getInstance();
+            final String workingDirectory = pref.readString(PropertyKey.DIRECTORY_WORKING);
+            final String mimaDirectory = pref.readString(PropertyKey.DIRECTORY_MIMA);
+            final int compiledVersion = version;
+            job = executor.submit(() -> {
+                final List<Diagnostic> diagnostics = diagnose(text, file, workingDirectory, mimaDirectory);
+                SwingUtilities.invokeLater(() -> show(compiledVersion, diagnostics));
+            });
+        }
+
+        private void show(final int compiledVersion, @NotNull final List<Diagnostic> diagnostics) {
+            if (entries.get(editor) == this && version == compiledVersion) {
+                job = null;
+                editor.showDiagnostics(diagnostics);
+            }
+        }
+
+        private void cancel() {
+            timer.stop();
+            if (job != null) {
+                job.cancel(false);
+                job = null;
+            }
+        }
+    }
+}
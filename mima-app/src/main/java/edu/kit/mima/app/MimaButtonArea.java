@@ -3,6 +3,7 @@ package edu.kit.mima.app;
 import edu.kit.mima.gui.icon.Icons;
 import edu.kit.mima.api.event.SimpleSubscriber;
 import edu.kit.mima.api.event.SubscriptionManager;
+import edu.kit.mima.api.event.SwingSubscriber;
 import edu.kit.mima.api.history.EditorHistory;
 import edu.kit.mima.api.history.History;
 import edu.kit.mima.core.Debugger;
@@ -34,6 +35,7 @@ public class MimaButtonArea {
     private final IconButton undo;
     private final IconButton redo;
     private final IconButton step;
+    private final IconButton stepBack;
     private final IconButton stop;
     private final ButtonPanelBuilder.Separator separator;
     private final Debugger debugger;
@@ -55,6 +57,7 @@ public class MimaButtonArea {
         undo = new IconButton(Icons.UNDO_INACTIVE, Icons.UNDO);
         redo = new IconButton(Icons.REDO_INACTIVE, Icons.REDO);
         step = new IconButton(Icons.REDO_INACTIVE, Icons.REDO);
+        stepBack = new IconButton(Icons.UNDO_INACTIVE, Icons.UNDO);
         stop = new IconButton(Icons.STOP_INACTIVE, Icons.STOP);
         separator = ButtonPanelBuilder.createSeparator();
         debugger = runActions.getDebugger();
@@ -73,10 +76,11 @@ public class MimaButtonArea {
                      History.POSITION_PROPERTY,
                      History.LENGTH_PROPERTY,
                      EditorTabbedPane.SELECTED_TAB_PROPERTY);
-        sm.subscribe(new SimpleSubscriber<Boolean>((identifier, value) -> {
+        sm.subscribe(new SwingSubscriber<Boolean>((identifier, value) -> {
                          pause.setVisible(value);
                          resume.setVisible(value);
                          step.setVisible(value);
+                         stepBack.setVisible(value);
                          debugButton.setEnabled(!value);
                          debugButton.setRunning(value);
                          runButton.setEnabled(!value);
@@ -85,13 +89,14 @@ public class MimaButtonArea {
                          separator.setVisible(value);
                      }),
                      Debugger.RUNNING_PROPERTY);
-        sm.subscribe(new SimpleSubscriber<Boolean>((identifier, value) -> {
+        sm.subscribe(new SwingSubscriber<Boolean>((identifier, value) -> {
                          pause.setEnabled(!value);
                          resume.setEnabled(value);
                          step.setEnabled(value);
+                         stepBack.setEnabled(value && debugger.canStepBack());
                      }),
                      Debugger.PAUSE_PROPERTY);
-        sm.subscribe(new SimpleSubscriber<Boolean>((identifier, value) -> {
+        sm.subscribe(new SwingSubscriber<Boolean>((identifier, value) -> {
                          runButton.setEnabled(!value);
                          stop.setEnabled(value);
                      }),
@@ -114,6 +119,10 @@ public class MimaButtonArea {
                        .addButton(step)
                        .addAccelerator("F3").setTooltip("Step (F3)")
                        .addAction(debugger::step).setVisible(false)
+                       // Step back
+                       .addButton(stepBack)
+                       .addAccelerator("shift F3").setTooltip("Step Back (Shift+F3)")
+                       .addAction(debugger::stepBack).setVisible(false)
                        // Separator
                        .addSeparator(separator).setVisible(false)
                        // Debug
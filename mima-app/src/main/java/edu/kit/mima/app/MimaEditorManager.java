@@ -2,6 +2,7 @@ package edu.kit.mima.app;
 
 import edu.kit.mima.api.util.Tuple;
 import edu.kit.mima.api.util.ValueTuple;
+import edu.kit.mima.core.MimaCompiler;
 import edu.kit.mima.core.MimaConstants;
 import edu.kit.mima.gui.EditorHotKeys;
 import edu.kit.mima.gui.components.tabbedpane.EditorTabbedPane;
@@ -34,17 +35,21 @@ public class MimaEditorManager implements AutoCloseable {
     private final Map<Editor, FileManager> fileManagers;
     @NotNull
     private final EditorTabbedPane tabbedEditor;
+    @NotNull
+    private final DiagnosticsService diagnosticsService;
     private final MimaUserInterface parent;
     private Tuple<Editor, FileManager> cashed;
 
     /**
      * Create new Editor Manager for Mima App.
      *
-     * @param parent parent App.
+     * @param parent   parent App.
+     * @param compiler compiler for the diagnostics of open editors.
      */
-    public MimaEditorManager(final MimaUserInterface parent) {
+    public MimaEditorManager(final MimaUserInterface parent, @NotNull final MimaCompiler compiler) {
         fileManagers = new HashMap<>();
         tabbedEditor = createEditorPane();
+        diagnosticsService = new DiagnosticsService(compiler);
         this.parent = parent;
     }
 
@@ -86,6 +91,7 @@ public class MimaEditorManager implements AutoCloseable {
         }
         fm.close();
         fileManagers.remove(editor);
+        diagnosticsService.unregister(editor);
     }
 
     /**
@@ -108,6 +114,7 @@ public class MimaEditorManager implements AutoCloseable {
                         parent.fileChanged();
                     }
                 });
+        editor.addIndexListener(index -> parent.breakpointsChanged(editor));
         editor.addEditEventHandler(
                 () -> fm.setText(editor.getText().replaceAll(String.format("%n"), "\n")));
         editor.showCharacterLimit(80); // Todo Preference
@@ -140,6 +147,7 @@ public class MimaEditorManager implements AutoCloseable {
                                                         lastFile.length() - 1), 0));
         tabbedEditor.addTab(lastFile, IconUtil.forFile(lastFile), editor);
         fileManagers.put(editor, fileManager);
+        diagnosticsService.register(editor, fileManager);
     }
 
     /**
@@ -220,5 +228,6 @@ public class MimaEditorManager implements AutoCloseable {
         }
         final var pref = Preferences.getInstance();
         pref.saveString(PropertyKey.LAST_FILE, openFiles.toString());
+        diagnosticsService.close();
     }
 }
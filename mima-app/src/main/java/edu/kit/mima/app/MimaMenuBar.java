@@ -19,6 +19,7 @@ public class MimaMenuBar {
 
     private final MimaUserInterface mimaUI;
     private final FileActions fileActions;
+    private final RunActions runActions;
     @NotNull
     private final JMenuBar menuBar;
 
@@ -27,10 +28,13 @@ public class MimaMenuBar {
      *
      * @param mimaUI      parent app.
      * @param fileActions file loading/savings actions.
+     * @param runActions  actions for running.
      */
-    public MimaMenuBar(final MimaUserInterface mimaUI, final FileActions fileActions) {
+    public MimaMenuBar(final MimaUserInterface mimaUI, final FileActions fileActions,
+                       final RunActions runActions) {
         this.mimaUI = mimaUI;
         this.fileActions = fileActions;
+        this.runActions = runActions;
         this.menuBar = createMenu();
     }
 
@@ -55,6 +59,10 @@ public class MimaMenuBar {
                         .setMnemonic('E')
                         .addItem("Undo", () -> mimaUI.currentEditor().undo())
                         .addItem("Redo", () -> mimaUI.currentEditor().undo())
+                        .addMenu("Run")
+                        .setMnemonic('R')
+                        .addItem("Profile", runActions::profile, "control shift F5")
+                        .addItem("Clear Profile", runActions::clearProfile)
                         .addMenu("Help")
                         .setMnemonic('H')
                         .addItem("Show Help", () -> Help.showWindow(mimaUI))
@@ -54,12 +54,13 @@ public final class MimaUserInterface extends JFrame {
     private static final Dimension FULLSCREEN = Toolkit.getDefaultToolkit().getScreenSize();
     private static final String TITLE = "Mima-IDE";
 
-    private final MimaEditorManager editorManager = new MimaEditorManager(this);
+    private final MimaCompiler mimaCompiler = new MimaCompiler();
+    private final MimaEditorManager editorManager = new MimaEditorManager(this, mimaCompiler);
     private final MimaRunner mimaRunner = new MimaRunner();
     private final Debugger debugger = mimaRunner.debugger();
     private final FileActions fileActions = new FileActions(this, editorManager);
     private final RunActions runActions =
-            new RunActions(this, new MimaCompiler(), mimaRunner, debugger);
+            new RunActions(this, mimaCompiler, mimaRunner, debugger);
 
     @NotNull
     private final FilePathDisplay filePathDisplay;
@@ -153,6 +154,18 @@ public final class MimaUserInterface extends JFrame {
         return editorManager.currentEditor();
     }
 
+    /**
+     * Pass changed breakpoints of the given editor to the debugger if it belongs to the current
+     * file.
+     *
+     * @param editor the editor whose breakpoints have changed.
+     */
+    public void breakpointsChanged(@NotNull final Editor editor) {
+        if (editor == currentEditor()) {
+            debugger.setBreakpoints(editor.getBreakpoints());
+        }
+    }
+
     /**
      * Get the current file manager.
      *
@@ -267,7 +280,7 @@ public final class MimaUserInterface extends JFrame {
                         Icons.ASSEMBLY_FILE, Alignment.EAST);
         contentPane.add(tabFrame, BorderLayout.CENTER);
         setContentPane(contentPane);
-        setJMenuBar(new MimaMenuBar(this, fileActions).getMenuBar());
+        setJMenuBar(new MimaMenuBar(this, fileActions, runActions).getMenuBar());
         pack();
     }
 
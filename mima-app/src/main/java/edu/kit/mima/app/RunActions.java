@@ -2,17 +2,30 @@ package edu.kit.mima.app;
 
 import edu.kit.mima.App;
 import edu.kit.mima.core.Debugger;
+import edu.kit.mima.core.ExecutionResult;
 import edu.kit.mima.core.MimaCompiler;
 import edu.kit.mima.core.MimaConstants;
 import edu.kit.mima.core.MimaRunner;
 import edu.kit.mima.core.MimaRuntimeException;
 import edu.kit.mima.core.Program;
 import edu.kit.mima.core.interpretation.InterpreterException;
+import edu.kit.mima.core.profile.Profiler;
 import edu.kit.mima.logger.LoadingIndicator;
 import edu.kit.mima.preferences.Preferences;
 import edu.kit.mima.preferences.PropertyKey;
 import edu.kit.mima.api.util.FileName;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Actions for mima App.
@@ -77,12 +90,13 @@ public class RunActions {
         return mimaRunner;
     }
 
-    private void executionAction(final boolean debug) {
+    private void executionAction(final boolean debug, final boolean profile) {
         runThread = new Thread(() -> {
             String file = mimaUI.currentFileManager().getLastFile();
             App.logger.log("Executing program: " + FileName.shorten(file));
             LoadingIndicator.start("Executing", 3);
             var pref = Preferences.getInstance();
+            mimaRunner.setProfiling(profile);
             mimaRunner.setProgram(new Program(
                     mimaCompiler.compile(
                             mimaUI.currentEditor().getText(),
@@ -94,7 +108,14 @@ public class RunActions {
                 debugger.start(v -> LoadingIndicator.stop("Executing (done)"),
                                mimaUI.currentEditor().getBreakpoints());
             } else {
-                mimaRunner.start(v -> LoadingIndicator.stop("Executing (done)"));
+                final ExecutionResult result = mimaRunner.start(v -> LoadingIndicator.stop("Executing (done)"));
+                if (result.getTermination().isLimitExceeded()) {
+                    LoadingIndicator.error("Execution stopped: "
+                                           + Objects.requireNonNull(result.getCause()).getMessage());
+                }
+                if (profile) {
+                    showProfile(Objects.requireNonNull(mimaRunner.getProfiler()), file);
+                }
             }
         });
         final Thread.UncaughtExceptionHandler exceptionHandler = (t, e) -> {
@@ -113,17 +134,55 @@ public class RunActions {
         runThread.start();
     }
 
+    /**
+     * Show the execution counts of a profiled run as heat map in the editor and write the call
+     * stacks in collapsed format next to the program file.
+     *
+     * @param profiler the profiler of the run
+     * @param file     the program file
+     */
+    private void showProfile(@NotNull final Profiler profiler, @NotNull final String file) {
+        final Map<Integer, Long> counts = profiler.getInstructionCounts();
+        final long max = counts.values().stream().mapToLong(Long::longValue).max().orElse(1);
+        final Map<Integer, Double> heat = new HashMap<>();
+        counts.forEach((line, count) -> heat.merge(line, (double) count / max, Math::max));
+        SwingUtilities.invokeLater(() -> mimaUI.currentEditor().setLineHeat(heat));
+        profiler.getRoutines().forEach(routine -> App.logger.log(routine.toString()));
+        final Path stacks = Path.of(file + ".folded");
+        try (Writer writer = Files.newBufferedWriter(stacks, StandardCharsets.UTF_8)) {
+            profiler.writeCollapsedStacks(writer);
+            App.logger.log("Profile written to: " + FileName.shorten(stacks.toString()));
+        } catch (@NotNull final IOException e) {
+            App.logger.error("Could not write profile: " + e.getMessage());
+        }
+    }
+
     /**
      * Start code execution.
      */
     public void run() {
-        executionAction(false);
+        executionAction(false, false);
+    }
+
+    /**
+     * Start code execution with profiling. Afterwards the execution counts are shown next to the
+     * line numbers.
+     */
+    public void profile() {
+        executionAction(false, true);
+    }
+
+    /**
+     * Remove the execution counts of the last profiled run from the editor.
+     */
+    public void clearProfile() {
+        mimaUI.currentEditor().setLineHeat(Map.of());
     }
 
     /**
      * Start code debugger.
      */
     public void debug() {
-        executionAction(true);
+        executionAction(true, false);
     }
 }
@@ -0,0 +1,238 @@
+package edu.kit.mima.formatter;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Output buffer of the {@link MimaFormatter}.
+ * <p>
+ * Text is indented while it is written: every newline is followed by the indentation of the
+ * current depth and spaces in front of a newline are removed. Regions remove their leading and
+ * trailing whitespace and blocks additionally limit runs of newlines, without copying the text
+ * written so far.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+/* default */ final class FormatBuffer {
+
+    /* default */ static final String TAB = "    ";
+    /*
+     * Indentation of the first line of a scope. Replaced by a tab when converting to a string, so
+     * it isn't removed on empty lines like the indentation after a newline.
+     */
+    /* default */ static final char INDENT = '\t';
+    private static final int MAX_NEWLINES = 2;
+
+    @NotNull
+    private final StringBuilder sb;
+    private int depth;
+    private boolean skipWhitespace;
+    /*
+     * Index of the last newline and end of its indentation, or -1 if it was trimmed.
+     */
+    private int lastNewline;
+    private int lastNewlineEnd;
+    private int newlines;
+    /*
+     * Depth of the innermost open block, or -1 if there is none.
+     */
+    private int blockDepth;
+
+    /**
+     * Create new FormatBuffer. Leading whitespace is removed.
+     */
+    @Contract(pure = true)
+    /* default */ FormatBuffer() {
+        sb = new StringBuilder();
+        skipWhitespace = true;
+        lastNewline = -1;
+        lastNewlineEnd = -1;
+        blockDepth = -1;
+    }
+
+    /**
+     * Get the current length.
+     *
+     * @return the number of written characters
+     */
+    /* default */ int length() {
+        return sb.length();
+    }
+
+    /**
+     * Append text.
+     *
+     * @param text text to append
+     * @return this buffer
+     */
+    @NotNull
+    /* default */ FormatBuffer append(@NotNull final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            append(text.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Append a character.
+     *
+     * @param c character to append
+     * @return this buffer
+     */
+    @NotNull
+    /* default */ FormatBuffer append(final char c) {
+        if (skipWhitespace) {
+            if (c <= ' ') {
+                return this;
+            }
+            skipWhitespace = false;
+        }
+        if (c == '\n') {
+            newline();
+        } else {
+            sb.append(c);
+        }
+        return this;
+    }
+
+    /**
+     * Open a scope. Text in the scope is indented by one more level.
+     *
+     * @return the region of the scope
+     */
+    @NotNull
+    /* default */ Region openScope() {
+        final Region region = new Region(this);
+        depth++;
+        return region;
+    }
+
+    /**
+     * Open a block. Runs of newlines in the block directly are limited to one empty line.
+     *
+     * @return the region of the block
+     */
+    @NotNull
+    /* default */ Region openBlock() {
+        final Region region = new Region(this);
+        blockDepth = depth;
+        return region;
+    }
+
+    /**
+     * Close a region and remove its trailing whitespace. Regions have to be closed in reverse
+     * order of opening.
+     *
+     * @param region the region
+     */
+    /* default */ void close(@NotNull final Region region) {
+        depth = region.depth;
+        blockDepth = region.blockDepth;
+        trimEnd(region.start);
+        skipWhitespace = region.skipWhitespace && sb.length() == region.start;
+    }
+
+    /**
+     * Whether the text written since a position ends with a newline or a tab.
+     *
+     * @param start the position
+     * @return true if a line break or tab was written last
+     */
+    /* default */ boolean endsWithBreak(final int start) {
+        final int length = sb.length();
+        if (lastNewline >= start && length == lastNewlineEnd) {
+            return true;
+        }
+        final int lineStart = lastNewline >= start ? lastNewlineEnd : start;
+        if (length - lineStart < TAB.length()) {
+            return false;
+        }
+        for (int i = length - TAB.length(); i < length; i++) {
+            if (sb.charAt(i) != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove trailing whitespace.
+     */
+    /* default */ void trimEnd() {
+        trimEnd(0);
+    }
+
+    /*
+     * Remove trailing whitespace written after a position.
+     */
+    private void trimEnd(final int start) {
+        int length = sb.length();
+        while (length > start && sb.charAt(length - 1) <= ' ') {
+            length--;
+        }
+        sb.setLength(length);
+        if (lastNewlineEnd > length) {
+            lastNewline = -1;
+            lastNewlineEnd = -1;
+        }
+    }
+
+    /*
+     * Write a newline unless it exceeds the limit of the block and indent the next line.
+     */
+    private void newline() {
+        final int length = sb.length();
+        newlines = lastNewline >= 0 && length == lastNewlineEnd ? newlines + 1 : 1;
+        if (newlines > MAX_NEWLINES && depth == blockDepth) {
+            return;
+        }
+        int end = length;
+        while (end > 0 && sb.charAt(end - 1) == ' ') {
+            end--;
+        }
+        sb.setLength(end);
+        lastNewline = end;
+        sb.append('\n');
+        for (int i = 0; i < depth; i++) {
+            sb.append(TAB);
+        }
+        lastNewlineEnd = sb.length();
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder(sb.length());
+        for (int i = 0; i < sb.length(); i++) {
+            final char c = sb.charAt(i);
+            if (c == INDENT) {
+                result.append(TAB);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Region of the buffer that was opened.
+     */
+    /* default */ static final class Region {
+        private final int start;
+        private final int depth;
+        private final int blockDepth;
+        private final boolean skipWhitespace;
+
+        /*
+         * Save the state of the buffer and remove leading whitespace of the region.
+         */
+        private Region(@NotNull final FormatBuffer buffer) {
+            this.start = buffer.sb.length();
+            this.depth = buffer.depth;
+            this.blockDepth = buffer.blockDepth;
+            this.skipWhitespace = buffer.skipWhitespace;
+            buffer.skipWhitespace = true;
+        }
+    }
+}
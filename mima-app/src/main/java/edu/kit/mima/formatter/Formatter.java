@@ -18,4 +18,18 @@ public interface Formatter {
      */
     @NotNull
     String format(String text);
+
+    /**
+     * Format the part of a given input that covers a range. By default the whole input is
+     * formatted.
+     *
+     * @param text  text to format.
+     * @param start start of the range.
+     * @param end   end of the range.
+     * @return the formatted text and the range of the input it replaces.
+     */
+    @NotNull
+    default TextEdit format(@NotNull final String text, final int start, final int end) {
+        return new TextEdit(0, text.length(), format(text));
+    }
 }
@@ -10,17 +10,23 @@ import edu.kit.mima.syntax.SyntaxParser;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Formatter that formats Mima Code.
+ * <p>
+ * The syntax tree is walked once and written to a single {@link FormatBuffer}, which takes care of
+ * the indentation. Formatting a range only writes the lines of the top level blocks that intersect
+ * the range.
  *
  * @author Jannis Weis
  * @since 2018
  */
 public class MimaFormatter implements Formatter {
 
-    private static final String TAB = "    ";
+    private static final String TAB = FormatBuffer.TAB;
     private SyntaxToken<?>[] tokens;
+    private FormatBuffer out;
 
     /**
      * Format String.
@@ -30,142 +36,226 @@ public class MimaFormatter implements Formatter {
      */
     @NotNull
     public String format(final String input) {
+        final SyntaxNode root = parse(input);
+        out = new FormatBuffer();
+        printNode(root);
+        out.trimEnd();
+        return out.toString();
+    }
+
+    /**
+     * Format the top level lines that intersect a range. The replaced range starts at the first of
+     * these lines and ends at the line after the last one, or at the next block if only blank
+     * lines follow in its block. So the result is the same as the corresponding part of the
+     * formatted input.
+     *
+     * @param input input string
+     * @param start start of the range
+     * @param end   end of the range
+     * @return the formatted lines and the range they replace
+     */
+    @NotNull
+    @Override
+    public TextEdit format(@NotNull final String input, final int start, final int end) {
+        final List<SyntaxNode> blocks = parse(input).children();
+        int firstBlock = -1;
+        int firstLine = -1;
+        int lastBlock = -1;
+        int lastLine = -1;
+        for (int i = 0; i < blocks.size() && startOf(blocks.get(i)) <= end; i++) {
+            final List<SyntaxNode> lines = blocks.get(i).children();
+            for (int j = 0; j < lines.size() && startOf(lines.get(j)) <= end; j++) {
+                if (endOf(lines.get(j)) >= start) {
+                    if (firstBlock < 0) {
+                        firstBlock = i;
+                        firstLine = j;
+                    }
+                    lastBlock = i;
+                    lastLine = j;
+                }
+            }
+        }
+        if (firstBlock < 0) {
+            return new TextEdit(start, start, "");
+        }
+        if (endsBlock(blocks.get(lastBlock).children(), lastLine)) {
+            lastLine = blocks.get(lastBlock).children().size() - 1;
+        }
+        out = new FormatBuffer();
+        for (int i = firstBlock; i <= lastBlock; i++) {
+            final List<SyntaxNode> lines = blocks.get(i).children();
+            final int to = i == lastBlock ? lastLine : lines.size() - 1;
+            final FormatBuffer.Region block = out.openBlock();
+            lines.subList(i == firstBlock ? firstLine : 0, to + 1).forEach(this::printNode);
+            if (to == lines.size() - 1) {
+                out.close(block);
+                out.append("\n\n");
+            }
+        }
+        final List<SyntaxNode> lines = blocks.get(lastBlock).children();
+        final int replaceStart = firstBlock == 0 && firstLine == 0
+                                 ? 0 : startOf(blocks.get(firstBlock).children().get(firstLine));
+        final int replaceEnd;
+        if (lastLine < lines.size() - 1) {
+            replaceEnd = startOf(lines.get(lastLine + 1));
+        } else if (lastBlock < blocks.size() - 1) {
+            replaceEnd = startOf(blocks.get(lastBlock + 1));
+        } else {
+            replaceEnd = input.length();
+            out.trimEnd();
+        }
+        return new TextEdit(replaceStart, replaceEnd, out.toString());
+    }
+
+    /*
+     * Parse the input into a syntax tree.
+     */
+    @NotNull
+    private SyntaxNode parse(@NotNull final String input) {
         tokens = new SyntaxParser(input, InstructionSet.MIMA_X).parse();
-        final SyntaxTree tree = new SyntaxTree(tokens);
-        final SyntaxNode root = tree.root();
-        return printNode(root).replaceAll(" *\n", "\n").replaceAll("\t", TAB).trim();
+        return new SyntaxTree(tokens).root();
+    }
+
+    /*
+     * Whether only blank lines follow the given line of a block.
+     */
+    private static boolean endsBlock(@NotNull final List<SyntaxNode> lines, final int line) {
+        for (final SyntaxNode node : lines.subList(line + 1, lines.size())) {
+            for (final SyntaxNode child : node.children()) {
+                if (child.getType() != NodeType.NEW_LINE) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int startOf(@NotNull final SyntaxNode node) {
+        return tokens[node.getBegin()].getOffset();
+    }
+
+    private int endOf(@NotNull final SyntaxNode node) {
+        final SyntaxToken<?> token = tokens[node.getEnd()];
+        return token.getOffset() + token.getLength();
     }
 
     /**
      * Print a Node.
      *
      * @param node node to print
-     * @return string representation of node
      */
-    @NotNull
-    private String printNode(@NotNull final SyntaxNode node) {
-        final StringBuilder sb = new StringBuilder();
-        String s = "";
+    private void printNode(@NotNull final SyntaxNode node) {
         switch (node.getType()) {
             case ROOT:
             case JUMP:
-                for (final var n : node.children()) {
-                    sb.append(printNode(n));
-                }
-                s = sb.toString();
+                node.children().forEach(this::printNode);
                 break;
             case SCOPE:
-                for (final var n : node.children()) {
-                    sb.append(printNode(n).replaceAll("\n", "\n" + TAB));
+                if (node.children().isEmpty()) {
+                    break;
                 }
-                s = '\t' + sb.toString().trim() + '\n';
+                out.append(FormatBuffer.INDENT);
+                final FormatBuffer.Region scope = out.openScope();
+                node.children().forEach(this::printNode);
+                out.close(scope);
+                out.append('\n');
                 break;
             case LINE:
-                s = printLine(node);
+                printLine(node);
                 break;
             case BLOCK:
-                for (final var n : node.children()) {
-                    sb.append(printNode(n));
-                }
-                s = sb.toString().trim().replaceAll("\n\n+", "\n\n") + "\n\n";
+                final FormatBuffer.Region block = out.openBlock();
+                node.children().forEach(this::printNode);
+                out.close(block);
+                out.append("\n\n");
                 break;
             case LEAF:
-                s = printLeaf(node);
+                printLeaf(node);
                 break;
             case COMMENT:
             case INSTRUCTION_END:
-                s = tokens[node.getBegin()].getValue().toString() + ' ';
+                out.append(tokens[node.getBegin()].getValue().toString()).append(' ');
                 break;
             case INSTRUCTION:
-                s = printInstruction(node);
+                printInstruction(node);
                 break;
             case JUMP_DEL:
-                s = sb.append(tokens[node.getBegin()].getValue().toString()).toString();
+                out.append(tokens[node.getBegin()].getValue().toString());
                 break;
             case SCOPE_CLOSED:
             case SCOPE_OPEN:
-                s = tokens[node.getBegin()].getValue().toString() + '\n';
+                out.append(tokens[node.getBegin()].getValue().toString()).append('\n');
                 break;
             case NEW_LINE:
             default:
                 break;
         }
-        return s;
     }
 
     /**
      * Print instruction Node.
      *
      * @param node node to print
-     * @return String representation of node
      */
-    @NotNull
-    private String printInstruction(@NotNull final SyntaxNode node) {
-        final StringBuilder sb = new StringBuilder();
+    private void printInstruction(@NotNull final SyntaxNode node) {
         final var iterator = node.children().iterator();
         if (!iterator.hasNext()) {
-            return sb.toString();
+            return;
         }
         var n = iterator.next();
         if (n.getType() == NodeType.COMMENT) {
             boolean comment = true;
-            sb.append(printNode(n));
+            printNode(n);
             while (iterator.hasNext() && comment) {
                 n = iterator.next();
                 if (n.getType() == NodeType.COMMENT) {
-                    sb.append(' ').append(printNode(n));
+                    out.append(' ');
+                    printNode(n);
                 } else {
                     comment = false;
-                    sb.append('\n');
-                    maybeJump(iterator, sb, n);
+                    out.append('\n');
+                    maybeJump(iterator, n);
                 }
             }
         } else {
-            maybeJump(iterator, sb, n);
+            maybeJump(iterator, n);
         }
-        iterator.forEachRemaining(c -> sb.append(printNode(c)));
-        return sb.toString();
+        iterator.forEachRemaining(this::printNode);
     }
 
     /**
-     * Parse a Node that may be followed by a jump delimiter. Starts at next node in iterator.
+     * Print a Node that may be followed by a jump delimiter. Starts at next node in iterator.
      *
      * @param iterator iterator of parent node
-     * @param sb       string builder to which Strings a appended
      */
-    private void maybeJump(@NotNull final Iterator<SyntaxNode> iterator,
-                           @NotNull final StringBuilder sb) {
+    private void maybeJump(@NotNull final Iterator<SyntaxNode> iterator) {
         if (!iterator.hasNext()) {
             return;
         }
         final var n = iterator.next();
-        maybeJump(iterator, sb, n);
+        maybeJump(iterator, n);
     }
 
     /**
-     * Parse a Node that may be followed by a jump delimiter.
+     * Print a Node that may be followed by a jump delimiter.
      *
      * @param iterator iterator of parent node
-     * @param sb       string builder to which Strings a appended
      * @param current  current node in iterator
      */
     private void maybeJump(@NotNull final Iterator<SyntaxNode> iterator,
-                           @NotNull final StringBuilder sb,
                            @NotNull final SyntaxNode current) {
-        SyntaxNode current1 = current;
-        sb.append(printNode(current1));
-        if (current1.getType() == NodeType.JUMP) {
-            if (iterator.hasNext()) {
-                current1 = iterator.next();
-                if (current1.getType() == NodeType.SCOPE_OPEN) {
-                    sb.append(' ').append(printNode(current1));
-                } else if (current1.getType() == NodeType.NEW_LINE) {
-                    sb.append("\n").append(TAB);
-                } else {
-                    sb.append("\n").append(TAB).append(printNode(current1));
-                }
+        printNode(current);
+        if (current.getType() == NodeType.JUMP && iterator.hasNext()) {
+            final SyntaxNode next = iterator.next();
+            if (next.getType() == NodeType.SCOPE_OPEN) {
+                out.append(' ');
+                printNode(next);
+            } else if (next.getType() == NodeType.NEW_LINE) {
+                out.append('\n').append(TAB);
+            } else {
+                out.append('\n').append(TAB);
+                printNode(next);
             }
-
         }
     }
 
@@ -173,51 +263,44 @@ public class MimaFormatter implements Formatter {
      * Print Line Node.
      *
      * @param node node to print
-     * @return String representation of node
      */
-    @NotNull
-    private String printLine(@NotNull final SyntaxNode node) {
-        final StringBuilder sb = new StringBuilder();
+    private void printLine(@NotNull final SyntaxNode node) {
+        final int start = out.length();
         final var iterator = node.children().iterator();
-        maybeJump(iterator, sb);
-        iterator.forEachRemaining(n -> sb.append(printNode(n)));
-        final String s = sb.toString();
-        if (s.length() == 0 || (s.charAt(s.length() - 1) != '\n' && !s.endsWith(TAB))) {
-            sb.append('\n');
+        maybeJump(iterator);
+        iterator.forEachRemaining(this::printNode);
+        if (out.length() == start || !out.endsWithBreak(start)) {
+            out.append('\n');
         }
-        return sb.toString();
     }
 
     /**
      * Print Leaf Node.
      *
      * @param node node to print
-     * @return String representation of node
      */
-    @NotNull
-    private String printLeaf(@NotNull final SyntaxNode node) {
+    private void printLeaf(@NotNull final SyntaxNode node) {
         final SyntaxToken<?> token = tokens[node.getBegin()];
-        return switch (token.getType()) {
-            case JUMP_POINT, KEYWORD -> token.getValue().toString() + ' ';
+        switch (token.getType()) {
+            case JUMP_POINT, KEYWORD -> out.append(token.getValue().toString()).append(' ');
             case PUNCTUATION -> printPunctuation(token.getValue().toString().charAt(0));
-            default -> token.getValue().toString();
-        };
+            default -> out.append(token.getValue().toString());
+        }
     }
 
     /**
      * Print punctuation char.
      *
      * @param c chat to print
-     * @return String representation of node
      */
-    @NotNull
-    private String printPunctuation(final char c) {
+    private void printPunctuation(final char c) {
         if (c == Punctuation.DEFINITION_DELIMITER) {
-            return ' ' + String.valueOf(c) + ' ';
+            out.append(' ').append(c).append(' ');
         } else if (c == Punctuation.COMMA) {
-            return String.valueOf(c) + ' ';
+            out.append(c).append(' ');
+        } else {
+            out.append(c);
         }
-        return String.valueOf(c);
     }
 
 }
@@ -0,0 +1,66 @@
+package edu.kit.mima.formatter;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Replacement of a range of a text.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class TextEdit {
+
+    @NotNull
+    private final String text;
+    private final int start;
+    private final int end;
+
+    /**
+     * Create new TextEdit.
+     *
+     * @param start start of the replaced range
+     * @param end   end of the replaced range (exclusive)
+     * @param text  text to replace the range with
+     */
+    @Contract(pure = true)
+    public TextEdit(final int start, final int end, @NotNull final String text) {
+        this.start = start;
+        this.end = end;
+        this.text = text;
+    }
+
+    /**
+     * Get the start of the replaced range.
+     *
+     * @return the start offset
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Get the end of the replaced range.
+     *
+     * @return the end offset (exclusive)
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the text that replaces the range.
+     *
+     * @return the new text
+     */
+    @NotNull
+    public String getText() {
+        return text;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return "[" + start + ", " + end + "): " + text;
+    }
+}
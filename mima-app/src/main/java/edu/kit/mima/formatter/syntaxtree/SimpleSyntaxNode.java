@@ -84,8 +84,15 @@ public class SimpleSyntaxNode implements SyntaxNode {
             return;
         }
         child.setParent(this);
-        children.add(child);
-        updateIndex();
+        if (children.isEmpty() || children.get(children.size() - 1).compareTo(child) < 0) {
+            // Children are mostly added in order. Appending keeps them sorted.
+            children.add(child);
+            begin = children.get(0).getBegin();
+            end = child.getEnd();
+        } else {
+            children.add(child);
+            updateIndex();
+        }
     }
 
     @Override
@@ -118,7 +125,13 @@ public class SimpleSyntaxNode implements SyntaxNode {
 
     @Override
     public void removeAll() {
+        final List<SyntaxNode> removed = new ArrayList<>(children);
         children.clear();
+        for (final var c : removed) {
+            if (c.parent() == this) {
+                c.setParent(null);
+            }
+        }
     }
 
     @Override
@@ -69,10 +69,12 @@ public class SyntaxTree {
     private void buildScopes() {
         final Stack<SyntaxNode> scopes = new Stack<>();
         scopes.add(root);
-        for (final var n : new ArrayList<>(root.children())) {
+        final List<SyntaxNode> nodes = new ArrayList<>(root.children());
+        root.removeAll();
+        for (final var n : nodes) {
             if (n.getType() == NodeType.SCOPE_OPEN) {
                 scopes.peek().addChild(n);
-                scopes.add(new SimpleSyntaxNode(NodeType.SCOPE, n.getBegin(), -1, null));
+                scopes.add(new SimpleSyntaxNode(NodeType.SCOPE, n.getBegin(), n.getEnd(), null));
             } else if (n.getType() == NodeType.SCOPE_CLOSED && !scopes.isEmpty()) {
                 final SyntaxNode scope = scopes.pop();
                 scopes.peek().addChild(scope);
@@ -3,6 +3,7 @@ package edu.kit.mima.gui;
 import edu.kit.mima.core.parsing.lang.Punctuation;
 import edu.kit.mima.formatter.Formatter;
 import edu.kit.mima.formatter.MimaFormatter;
+import edu.kit.mima.formatter.TextEdit;
 import edu.kit.mima.gui.components.text.editor.Editor;
 import edu.kit.mima.preferences.Preferences;
 import edu.kit.mima.preferences.PropertyKey;
@@ -55,7 +56,21 @@ public enum EditorHotKeys implements ActionListener {
 
         @Override
         public void actionPerformed(final ActionEvent e) {
-            editor.setText(formatter.format(editor.getText()));
+            final int start = editor.getPane().getSelectionStart();
+            final int end = editor.getPane().getSelectionEnd();
+            if (start == end) {
+                editor.setText(formatter.format(editor.getText()));
+                return;
+            }
+            final String text = editor.getText();
+            final TextEdit edit = formatter.format(text, start, end);
+            if (text.substring(edit.getStart(), edit.getEnd()).equals(edit.getText())) {
+                return;
+            }
+            try {
+                editor.replace(edit.getText(), edit.getStart(), edit.getEnd() - edit.getStart());
+            } catch (@NotNull final BadLocationException ignored) {
+            }
         }
     },
     REDO("control shift Z") {
@@ -15,6 +15,7 @@ import javax.swing.border.CompoundBorder;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellEditor;
 import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableModel;
 import java.awt.*;
 import java.util.HashMap;
 import java.util.Map;
@@ -83,6 +84,16 @@ public class ImmutableScrollTable extends OverlayScrollPane {
         tableModel.setDataVector(data, tableHeader);
     }
 
+    /**
+     * Set the model of the table. Replaces the data set by {@link #setContent(Object[][])}, which
+     * can't be used with the model afterwards.
+     *
+     * @param model the table model.
+     */
+    public void setModel(@NotNull final TableModel model) {
+        table.setModel(model);
+    }
+
     public void setIcon(final Icon icon, final int row, final int column) {
         iconMap.put(new Pair<>(row, column), icon);
         maxIconSize.put(column, Math.max(icon.getIconWidth(), maxIconSize.getOrDefault(column, 0)));
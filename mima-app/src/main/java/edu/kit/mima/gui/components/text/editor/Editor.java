@@ -6,6 +6,7 @@ import edu.kit.mima.core.interpretation.SimpleBreakpoint;
 import edu.kit.mima.gui.components.BreakpointComponent;
 import edu.kit.mima.gui.components.text.editor.view.HighlightViewFactory;
 import edu.kit.mima.gui.components.text.numberedpane.NumberedTextPane;
+import edu.kit.mima.highlighter.Diagnostic;
 import edu.kit.mima.highlighter.Highlighter;
 import edu.kit.mima.preferences.ColorKey;
 import edu.kit.mima.preferences.Preferences;
@@ -190,6 +191,19 @@ public class Editor extends NumberedTextPane implements UserPreferenceChangedLis
         pane.getStyledDocument().insertString(offset, text, new SimpleAttributeSet());
     }
 
+    /**
+     * Replace a range of the text.
+     *
+     * @param text   text to insert instead
+     * @param offset start of the range
+     * @param length length of the range
+     * @throws BadLocationException if the range is outside bounds
+     */
+    public void replace(final String text, final int offset, final int length)
+            throws BadLocationException {
+        ((AbstractDocument) pane.getStyledDocument()).replace(offset, length, text, new SimpleAttributeSet());
+    }
+
     /**
      * Select line in editor.
      *
@@ -241,6 +255,18 @@ public class Editor extends NumberedTextPane implements UserPreferenceChangedLis
         this.highlighter = highlighter;
     }
 
+    /**
+     * Show problems of the text. Replaces the previously shown problems. Has no effect without a
+     * highlighter.
+     *
+     * @param diagnostics the problems
+     */
+    public void showDiagnostics(@NotNull final List<Diagnostic> diagnostics) {
+        if (highlighter != null) {
+            highlighter.showDiagnostics(pane, diagnostics);
+        }
+    }
+
     /**
      * Add an action that should be performed after an edit to the text has been occurred.
      *
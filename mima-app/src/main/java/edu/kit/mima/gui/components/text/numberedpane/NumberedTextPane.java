@@ -16,6 +16,7 @@ import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * An LineNumber wrapper for a {@link JTextPane}.
@@ -163,6 +164,16 @@ public class NumberedTextPane extends JPanel {
         return numberingPane.getComponentMap().values();
     }
 
+    /**
+     * Show a heat map of the lines next to the line numbers.
+     *
+     * @param lineHeat map from line index to heat between 0 and 1. An empty map removes the heat
+     *                 map.
+     */
+    public void setLineHeat(@NotNull final Map<Integer, Double> lineHeat) {
+        numberingPane.setLineHeat(lineHeat);
+    }
+
     /**
      * Get the JTextPane of the NumberedTextPane.
      *
@@ -12,12 +12,13 @@ import javax.swing.border.MatteBorder;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Document;
 import java.awt.*;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
 
 /**
  * Panel that shows line numbering for a {@link JTextPane}. It also highlights the current selected
- * line.
+ * line and can show a heat map of the lines, e.g. the execution counts of a profiled run.
  *
  * @author Jannis Weis
  * @since 2018
@@ -26,8 +27,12 @@ class NumberingPane extends JPanel {
 
     private static final Dimension NUMBER_SIZE = new Dimension(30, 30);
     private static final int OFFSET_MULTIPLIER = 5;
+    private static final Color DEFAULT_HEAT_COLOR = new Color(255, 96, 0);
+    private static final int MAX_HEAT_ALPHA = 160;
     @NotNull
     private final TreeMap<Integer, IndexComponent> componentMap;
+    @NotNull
+    private Map<Integer, Double> lineHeat;
     private final HighlightTextPane pane;
     private final JScrollPane scrollPane;
 
@@ -35,6 +40,7 @@ class NumberingPane extends JPanel {
     private Color numberingColor;
     private Color currentNumberColor;
     private Color currentBackground;
+    private Color heatColor;
     private int actionThresholdX;
 
     /**
@@ -47,6 +53,7 @@ class NumberingPane extends JPanel {
         this.pane = pane;
         this.scrollPane = scrollPane;
         componentMap = new TreeMap<>();
+        lineHeat = new HashMap<>();
         this.addMouseWheelListener(
                 ev -> {
                     var bar = scrollPane.getVerticalScrollBar();
@@ -60,6 +67,10 @@ class NumberingPane extends JPanel {
         numberingColor = UIManager.getColor("Numbering.foreground");
         currentNumberColor = UIManager.getColor("Numbering.selectedForeground");
         currentBackground = UIManager.getColor("Numbering.selectedBackground");
+        heatColor = UIManager.getColor("Numbering.heatBackground");
+        if (heatColor == null) {
+            heatColor = DEFAULT_HEAT_COLOR;
+        }
         font = UIManager.getFont("Numbering.font");
         setBackground(UIManager.getColor("Numbering.background"));
         setBorder(new MatteBorder(0, 0, 0, 1, UIManager.getColor("Border.line1")));
@@ -154,6 +165,13 @@ class NumberingPane extends JPanel {
             final int line,
             final int digits,
             @NotNull final Point p) {
+        final Double heat = lineHeat.get(line);
+        if (heat != null && heat > 0) {
+            g.setColor(new Color(heatColor.getRed(), heatColor.getGreen(), heatColor.getBlue(),
+                                 (int) Math.ceil(Math.min(heat, 1) * MAX_HEAT_ALPHA)));
+            int y = p.y + metrics.getSecond().getDescent() - metrics.getSecond().getHeight();
+            g.fillRect(0, y, getWidth() - 1, metrics.getSecond().getHeight());
+        }
         g.setColor(numberingColor);
         final String number = Integer.toString(line + 1);
         final int padding =
@@ -198,6 +216,18 @@ class NumberingPane extends JPanel {
         return componentMap;
     }
 
+    /**
+     * Set the heat of the lines. Lines are highlighted with an intensity proportional to their
+     * heat.
+     *
+     * @param lineHeat map from line index to heat between 0 and 1. Lines without heat are not
+     *                 highlighted.
+     */
+    public void setLineHeat(@NotNull final Map<Integer, Double> lineHeat) {
+        this.lineHeat = lineHeat;
+        repaint();
+    }
+
     /**
      * Get the area for interaction with the numbering. Mouse listeners should check for this value
      * when implementing an action. This is however only a recommendation and not enforced.
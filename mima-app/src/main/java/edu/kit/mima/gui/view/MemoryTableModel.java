@@ -0,0 +1,280 @@
+package edu.kit.mima.gui.view;
+
+import edu.kit.mima.core.Mima;
+import edu.kit.mima.core.MimaRunner;
+import edu.kit.mima.core.data.MachineWord;
+import edu.kit.mima.core.data.WordMemory;
+import edu.kit.mima.core.interpretation.environment.Environment;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Table model of the Mima memory.
+ * <p>
+ * The first row shows the accumulator followed by the labeled memory cells and the unlabeled
+ * memory cells with a non negative address, both ordered by address. Only cells that are in use
+ * and inside the address range are shown. The model holds the values of the last {@link
+ * #update()}, which only fires row level events for the runs of cells whose values have changed.
+ * The rows are only rebuilt if the used addresses or the labels change.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class MemoryTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"Address", "Value"};
+    private static final String STACK_POINTER_POSTFIX = " [SP]";
+    private static final String ACCUMULATOR = "accumulator";
+
+    @NotNull
+    private final MimaRunner mimaRunner;
+    private boolean binaryView;
+    private int rangeStart;
+    private int rangeEnd;
+    private int wordLength;
+    /*
+     * Labels by address of the environment the labels were collected from. The number of
+     * definitions is used to notice definitions made while running.
+     */
+    @NotNull
+    private Map<Integer, String> labels;
+    @Nullable
+    private Environment labelEnvironment;
+    private int labelDefinitionCount;
+    /*
+     * Used addresses the rows were built from, or null if the rows have to be rebuilt.
+     */
+    @Nullable
+    private int[] usedAddresses;
+    /*
+     * Address, label and value of every row. The first row is the accumulator and has no address.
+     */
+    @NotNull
+    private int[] rowAddresses;
+    @NotNull
+    private String[] rowLabels;
+    @NotNull
+    private int[] rowValues;
+    private int stackPointer;
+    private int stackPointerRow;
+
+    /**
+     * Create new MemoryTableModel. The model is empty until it is updated.
+     *
+     * @param mimaRunner the runner of the mima to display.
+     */
+    @Contract(pure = true)
+    public MemoryTableModel(@NotNull final MimaRunner mimaRunner) {
+        this.mimaRunner = mimaRunner;
+        rangeStart = Integer.MIN_VALUE;
+        rangeEnd = Integer.MAX_VALUE;
+        labels = Map.of();
+        rowAddresses = new int[0];
+        rowLabels = new String[0];
+        rowValues = new int[0];
+        stackPointerRow = -1;
+    }
+
+    /**
+     * Update the model to the current state of the mima.
+     */
+    public void update() {
+        final Mima mima = mimaRunner.getMima();
+        final WordMemory memory = mima.getMemory();
+        final int[] used = memory.getUsedAddresses();
+        final boolean layoutChanged = updateLabels()
+                                      || wordLength != memory.getWordLength()
+                                      || !Arrays.equals(used, usedAddresses);
+        final int previousStackPointerRow = stackPointerRow;
+        stackPointer = mima.getStackPointerValue();
+        wordLength = memory.getWordLength();
+        if (layoutChanged) {
+            usedAddresses = used;
+            buildRows(used);
+        }
+        stackPointerRow = indexOf(stackPointer);
+        if (layoutChanged) {
+            rowValues[0] = mima.getAccumulatorValue();
+            for (int row = 1; row < rowValues.length; row++) {
+                rowValues[row] = memory.loadIntValue(rowAddresses[row]);
+            }
+            fireTableDataChanged();
+            return;
+        }
+        int changedStart = -1;
+        for (int row = 0; row < rowValues.length; row++) {
+            final int value = row == 0 ? mima.getAccumulatorValue()
+                                       : memory.loadIntValue(rowAddresses[row]);
+            if (rowValues[row] != value) {
+                rowValues[row] = value;
+                if (changedStart < 0) {
+                    changedStart = row;
+                }
+            } else if (changedStart >= 0) {
+                fireTableRowsUpdated(changedStart, row - 1);
+                changedStart = -1;
+            }
+        }
+        if (changedStart >= 0) {
+            fireTableRowsUpdated(changedStart, rowValues.length - 1);
+        }
+        if (previousStackPointerRow != stackPointerRow) {
+            if (previousStackPointerRow >= 0) {
+                fireTableRowsUpdated(previousStackPointerRow, previousStackPointerRow);
+            }
+            if (stackPointerRow >= 0) {
+                fireTableRowsUpdated(stackPointerRow, stackPointerRow);
+            }
+        }
+    }
+
+    /*
+     * Collect the labels of the current environment if it or its definitions have changed. Names of
+     * inner environments shadow the names of outer ones.
+     */
+    private boolean updateLabels() {
+        final Environment environment = mimaRunner.getCurrentEnvironment();
+        int definitionCount = 0;
+        for (Environment scope = environment; scope != null; scope = scope.returnToParent()) {
+            definitionCount += scope.getDefinitions().get(0).size();
+        }
+        if (environment == labelEnvironment && definitionCount == labelDefinitionCount) {
+            return false;
+        }
+        final Map<Integer, String> addressLabels = new HashMap<>();
+        final Set<String> names = new HashSet<>();
+        for (Environment scope = environment; scope != null; scope = scope.returnToParent()) {
+            for (final var entry : scope.getDefinitions().get(0).entrySet()) {
+                if (names.add(entry.getKey())) {
+                    addressLabels.putIfAbsent(entry.getValue().intValue(), entry.getKey());
+                }
+            }
+        }
+        labels = addressLabels;
+        labelEnvironment = environment;
+        labelDefinitionCount = definitionCount;
+        return true;
+    }
+
+    /*
+     * Build the rows from the used addresses in ascending order.
+     */
+    private void buildRows(@NotNull final int[] used) {
+        int count = 1;
+        final int[] addresses = new int[used.length + 1];
+        final String[] addressLabels = new String[used.length + 1];
+        for (final int address : used) {
+            final String label = labels.get(address);
+            if (label != null && isInRange(address)) {
+                addresses[count] = address;
+                addressLabels[count++] = label;
+            }
+        }
+        for (final int address : used) {
+            if (address >= 0 && isInRange(address) && !labels.containsKey(address)) {
+                addresses[count++] = address;
+            }
+        }
+        rowAddresses = Arrays.copyOf(addresses, count);
+        rowLabels = Arrays.copyOf(addressLabels, count);
+        rowValues = new int[count];
+    }
+
+    @Contract(pure = true)
+    private boolean isInRange(final int address) {
+        return address >= rangeStart && address < rangeEnd;
+    }
+
+    /**
+     * Get the row of a memory cell.
+     *
+     * @param address the address of the cell
+     * @return the row or -1 if the cell isn't shown
+     */
+    public int indexOf(final int address) {
+        for (int row = 1; row < rowAddresses.length; row++) {
+            if (rowAddresses[row] == address) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the row of the cell the stack pointer points to.
+     *
+     * @return the row or -1 if the cell isn't shown
+     */
+    public int getStackPointerRow() {
+        return stackPointerRow;
+    }
+
+    /**
+     * Set the range of addresses to show. The accumulator is always shown.
+     *
+     * @param start first address to show
+     * @param end   end of the range (exclusive)
+     */
+    public void setAddressRange(final int start, final int end) {
+        if (rangeStart != start || rangeEnd != end) {
+            rangeStart = start;
+            rangeEnd = end;
+            usedAddresses = null;
+            update();
+        }
+    }
+
+    /**
+     * Set whether to use the binary representation of the memory values.
+     *
+     * @param binaryView true if binary should be used.
+     */
+    public void setBinaryView(final boolean binaryView) {
+        if (this.binaryView != binaryView) {
+            this.binaryView = binaryView;
+            if (rowValues.length > 0) {
+                fireTableRowsUpdated(0, rowValues.length - 1);
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowValues.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(final int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @NotNull
+    @Override
+    public Object getValueAt(final int rowIndex, final int columnIndex) {
+        if (columnIndex == 1) {
+            return binaryView
+                   ? new MachineWord(rowValues[rowIndex], wordLength).binaryRepresentation()
+                   : String.valueOf(rowValues[rowIndex]);
+        }
+        if (rowIndex == 0) {
+            return ACCUMULATOR;
+        }
+        final int address = rowAddresses[rowIndex];
+        final String label = rowLabels[rowIndex];
+        final String text = label != null ? address + " (" + label + ')' : String.valueOf(address);
+        return address == stackPointer ? text + STACK_POINTER_POSTFIX : text;
+    }
+}
@@ -0,0 +1,117 @@
+package edu.kit.mima.highlighter;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Problem found in a range of the text of an editor.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class Diagnostic {
+
+    @NotNull
+    private final Severity severity;
+    @NotNull
+    private final String message;
+    private final int offset;
+    private final int length;
+
+    /**
+     * Create new Diagnostic.
+     *
+     * @param severity severity of the problem
+     * @param offset   start of the range
+     * @param length   length of the range
+     * @param message  description of the problem
+     */
+    @Contract(pure = true)
+    public Diagnostic(@NotNull final Severity severity, final int offset, final int length,
+                      @NotNull final String message) {
+        this.severity = severity;
+        this.offset = offset;
+        this.length = length;
+        this.message = message;
+    }
+
+    /**
+     * Get the severity.
+     *
+     * @return the severity
+     */
+    @NotNull
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Get the start of the range.
+     *
+     * @return the offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the length of the range.
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Get the description of the problem.
+     *
+     * @return the message
+     */
+    @NotNull
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final Diagnostic that = (Diagnostic) o;
+        return offset == that.offset
+               && length == that.length
+               && severity == that.severity
+               && message.equals(that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(severity, message, offset, length);
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return severity + "[" + offset + ", " + (offset + length) + "): " + message;
+    }
+
+    /**
+     * Severity of a diagnostic.
+     */
+    public enum Severity {
+        /**
+         * The code can't be compiled.
+         */
+        ERROR,
+        /**
+         * The code probably has a bug.
+         */
+        WARNING
+    }
+}
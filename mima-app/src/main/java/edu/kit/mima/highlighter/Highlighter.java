@@ -3,6 +3,7 @@ package edu.kit.mima.highlighter;
 import edu.kit.mima.api.history.FileHistoryObject;
 
 import javax.swing.*;
+import java.util.List;
 
 /**
  * Highlighter for {@link edu.kit.mima.gui.components.text.editor.Editor}.
@@ -19,4 +20,13 @@ public interface Highlighter {
      * @param fhs  history change object
      */
     void updateHighlighting(JTextPane pane, FileHistoryObject fhs);
+
+    /**
+     * Show problems of the text. Replaces the previously shown problems.
+     *
+     * @param pane        TextPane to style
+     * @param diagnostics the problems
+     */
+    default void showDiagnostics(final JTextPane pane, final List<Diagnostic> diagnostics) {
+    }
 }
@@ -10,20 +10,44 @@ import edu.kit.mima.preferences.ColorKey;
 import edu.kit.mima.preferences.Preferences;
 import edu.kit.mima.preferences.PropertyKey;
 import edu.kit.mima.preferences.UserPreferenceChangedListener;
+import edu.kit.mima.syntax.IncrementalSyntaxParser;
 import edu.kit.mima.syntax.SyntaxColor;
-import edu.kit.mima.syntax.SyntaxParser;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.Position;
 import javax.swing.text.Style;
 import javax.swing.text.StyleConstants;
 import javax.swing.text.StyleContext;
 import javax.swing.text.StyledDocument;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Highlighter for Mima Code.
+ * <p>
+ * Changes to the document are tracked, so only the part of the text affected by an edit is parsed
+ * and restyled. See {@link IncrementalSyntaxParser}. Parsing happens in the background and results
+ * in an immutable list of spans. The document is only styled on the event dispatch thread, starting
+ * with the visible part of the text pane. The rest is styled in small steps to keep the editor
+ * responsive. Spans that already have the right style are skipped.
+ * <p>
+ * If the document is edited before a result is applied, the result is discarded and the affected
+ * range is parsed again.
+ * <p>
+ * Diagnostics are shown as jagged underlines on top of the syntax highlighting. Their ranges move
+ * with edits until new diagnostics replace them.
  *
  * @author Jannis Weis
  * @since 2018
@@ -31,18 +55,52 @@ import java.awt.*;
 public class MimaHighlighter implements Highlighter, FileEventHandler,
                                                 UserPreferenceChangedListener {
 
-    private InstructionSet currentInstructionSet;
+    /*
+     * Number of spans styled per event outside of the visible area.
+     */
+    private static final int SPANS_PER_STEP = 256;
+
+    @NotNull
+    private final IncrementalSyntaxParser parser;
+    @NotNull
+    private final DocumentListener changeListener;
+    @NotNull
+    private final Map<Color, Style> styles;
+    @NotNull
+    private final List<Mark> marks;
+    private StyleContext context;
+    private Style plainStyle;
+    private Style errorStyle;
+    private Style errorMarkStyle;
+    private Style warningMarkStyle;
     private Color errorColor;
+    private Color warningColor;
     private Color textColor;
+    @Nullable
+    private JTextPane textPane;
+    @Nullable
+    private StyledDocument document;
+    @Nullable
+    private HighlightWorker worker;
+    @Nullable
+    private Application application;
+    private boolean rerun;
+    private int changeStart = -1;
+    private int changeEnd = -1;
 
     /**
      * Create new Mima Highlighter.
      */
     public MimaHighlighter() {
-        currentInstructionSet = InstructionSet.MIMA;
+        parser = new IncrementalSyntaxParser(InstructionSet.MIMA);
+        changeListener = new EditListener();
+        styles = new HashMap<>();
+        marks = new ArrayList<>();
         final var pref = Preferences.getInstance();
         textColor = pref.readColor(ColorKey.EDITOR_TEXT);
         errorColor = pref.readColor(ColorKey.SYNTAX_ERROR);
+        warningColor = pref.readColor(ColorKey.SYNTAX_WARNING);
+        createStyles();
     }
 
     @Override
@@ -54,48 +112,228 @@ public class MimaHighlighter implements Highlighter, FileEventHandler,
             case REPLACE -> fhs.getOldText().isBlank() && fhs.getText().isBlank();
         };
         if (update) {
-            new HighlightWorker(textPane).execute();
+            highlight(textPane);
         }
     }
 
-    /**
-     * Update the style groups for syntax highlighting.
+    /*
+     * Start parsing the changed text in the background. Only one parse runs at a time, requests
+     * made while it runs are merged into one.
      */
-    private void update(@NotNull final JTextPane textPane) {
-        textPane.setIgnoreRepaint(true);
-        final StyledDocument document = textPane.getStyledDocument();
-        final StyleContext context = new StyleContext();
-        final Style error = context.addStyle("Error", null);
-        error.addAttribute(HighlightView.JAGGED_UNDERLINE, errorColor);
-
+    private void highlight(@NotNull final JTextPane textPane) {
+        attach(textPane);
+        if (worker != null) {
+            rerun = true;
+            return;
+        }
+        cancelApplication();
+        final StyledDocument doc = textPane.getStyledDocument();
         try {
-            final String text = document.getText(0, document.getLength());
+            final String text = doc.getText(0, doc.getLength());
+            worker = new HighlightWorker(textPane, doc, text, changeStart, changeEnd);
+            changeStart = -1;
+            changeEnd = -1;
+            rerun = false;
+            worker.execute();
+        } catch (@NotNull final BadLocationException e) {
+            e.printStackTrace();
+        }
+    }
 
-            textPane.getHighlighter().removeAllHighlights();
+    /*
+     * Track edits of the document of the text pane. A new document has to be styled completely.
+     */
+    private void attach(@NotNull final JTextPane textPane) {
+        this.textPane = textPane;
+        final StyledDocument doc = textPane.getStyledDocument();
+        if (doc != document) {
+            if (document != null) {
+                document.removeDocumentListener(changeListener);
+            }
+            document = doc;
+            doc.addDocumentListener(changeListener);
+            application = null;
+            marks.clear();
+            changeStart = -1;
+            changeEnd = -1;
+            parser.reset();
+        }
+    }
 
-            final SyntaxToken<?>[] tokens = new SyntaxParser(text, currentInstructionSet).parse();
-            for (final var token : tokens) {
-                final Style style;
-                if (token.getColor() == SyntaxColor.ERROR) {
-                    style = error;
-                } else {
-                    style = context.addStyle(token.toString(), null);
-                    StyleConstants.setForeground(style, token.getColor());
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the ranges of the old and new diagnostics are restyled.
+     */
+    @Override
+    public void showDiagnostics(@NotNull final JTextPane textPane,
+                                @NotNull final List<Diagnostic> diagnostics) {
+        attach(textPane);
+        final List<Diagnostic> shown = new ArrayList<>(marks.size());
+        for (final Mark mark : marks) {
+            shown.add(mark.toDiagnostic());
+        }
+        if (shown.equals(diagnostics)) {
+            return;
+        }
+        for (final Mark mark : marks) {
+            markChanged(mark.getStart(), mark.getEnd());
+        }
+        marks.clear();
+        final StyledDocument doc = textPane.getStyledDocument();
+        try {
+            for (final Diagnostic diagnostic : diagnostics) {
+                final int start = Math.max(0, Math.min(diagnostic.getOffset(), doc.getLength()));
+                final int end = Math.min(diagnostic.getOffset() + diagnostic.getLength(), doc.getLength());
+                if (start < end) {
+                    marks.add(new Mark(doc.createPosition(start), doc.createPosition(end), diagnostic));
+                    markChanged(start, end);
                 }
-                document.setCharacterAttributes(token.getOffset(), token.getLength(), style, true);
             }
         } catch (@NotNull final BadLocationException e) {
             e.printStackTrace();
-        } finally {
-            textPane.setIgnoreRepaint(false);
         }
+        highlight(textPane);
+    }
+
+    /*
+     * Called on the event dispatch thread with the result of a worker.
+     */
+    private void parsed(@NotNull final HighlightWorker finished, @Nullable final Highlighting highlighting) {
+        worker = null;
+        if (finished.document != document) {
+            parser.reset();
+            rerun = true;
+        } else if (highlighting == null) {
+            parser.reset();
+        } else if (!finished.edits.isEmpty()) {
+            // The parser already recolored the usages of the spans outside of the damaged range.
+            int[] range = {highlighting.getStyledStart(), highlighting.getStyledEnd()};
+            for (final int[] edit : finished.edits) {
+                range = extend(range, edit[0], edit[1], edit[2] != 0);
+            }
+            markChanged(range[0], range[1]);
+            rerun = true;
+        } else {
+            finished.textPane.getHighlighter().removeAllHighlights();
+            application = new Application(finished.document, highlighting);
+            application.applyVisible(finished.textPane);
+            if (!application.isDone()) {
+                final Application current = application;
+                SwingUtilities.invokeLater(() -> step(current));
+            }
+        }
+        if (rerun && textPane != null) {
+            highlight(textPane);
+        }
+    }
+
+    private void step(@NotNull final Application current) {
+        if (current == application && !current.step(SPANS_PER_STEP)) {
+            SwingUtilities.invokeLater(() -> step(current));
+        }
+    }
+
+    /*
+     * Stop styling the document. The range that wasn't styled yet is parsed again.
+     */
+    private void cancelApplication() {
+        if (application != null) {
+            if (!application.isDone()) {
+                markChanged(application.getRemainingStart(), application.getRemainingEnd());
+            }
+            application = null;
+        }
+    }
+
+    private void markChanged(final int start, final int end) {
+        if (start >= end) {
+            return;
+        }
+        if (changeStart < 0) {
+            changeStart = start;
+            changeEnd = end;
+        } else {
+            changeStart = Math.min(changeStart, start);
+            changeEnd = Math.max(changeEnd, end);
+        }
+    }
+
+    /*
+     * Extend a range of changed text by an edit. The result covers the edit and the text of the
+     * range after the edit. An empty range is marked by a negative start.
+     */
+    @NotNull
+    private static int[] extend(@NotNull final int[] range, final int offset, final int length,
+                                final boolean insert) {
+        final int start = range[0];
+        final int end = range[1];
+        if (start < 0) {
+            return new int[]{offset, insert ? offset + length : offset};
+        } else if (insert) {
+            return new int[]{Math.min(start, offset),
+                    Math.max(end >= offset ? end + length : end, offset + length)};
+        } else {
+            return new int[]{Math.min(start, offset),
+                    end > offset ? Math.max(offset, end - length) : offset};
+        }
+    }
+
+    /*
+     * Called on the event dispatch thread for every edit of the document.
+     */
+    private void changed(final int offset, final int length, final boolean insert) {
+        final boolean cancelled = application != null && !application.isDone();
+        cancelApplication();
+        final int[] range = extend(new int[]{changeStart, changeEnd}, offset, length, insert);
+        changeStart = range[0];
+        changeEnd = range[1];
+        if (worker != null) {
+            worker.edits.add(new int[]{offset, length, insert ? 1 : 0});
+        }
+        if (cancelled && textPane != null) {
+            final JTextPane pane = textPane;
+            SwingUtilities.invokeLater(() -> highlight(pane));
+        }
+    }
+
+    /*
+     * Styles are shared by all updates and only created once per color.
+     */
+    private void createStyles() {
+        context = new StyleContext();
+        styles.clear();
+        plainStyle = context.addStyle("Plain", null);
+        errorStyle = context.addStyle("Error", null);
+        errorStyle.addAttribute(HighlightView.JAGGED_UNDERLINE, errorColor);
+        errorMarkStyle = context.addStyle("Error Diagnostic", null);
+        errorMarkStyle.addAttribute(HighlightView.JAGGED_UNDERLINE, errorColor);
+        warningMarkStyle = context.addStyle("Warning Diagnostic", null);
+        warningMarkStyle.addAttribute(HighlightView.JAGGED_UNDERLINE, warningColor);
+    }
+
+    @NotNull
+    private Style getStyle(@NotNull final Span span) {
+        if (span.error) {
+            return errorStyle;
+        }
+        return styles.computeIfAbsent(span.color, color -> {
+            final Style style = context.addStyle("Syntax " + Integer.toHexString(color.getRGB()), null);
+            StyleConstants.setForeground(style, color);
+            return style;
+        });
+    }
+
+    @NotNull
+    private Style getMarkStyle(@NotNull final Mark mark) {
+        return mark.diagnostic.getSeverity() == Diagnostic.Severity.ERROR ? errorMarkStyle : warningMarkStyle;
     }
 
     @Override
     public void fileLoadedEvent(@NotNull final String filePath) {
-        currentInstructionSet = filePath.endsWith(MimaConstants.MIMA_EXTENSION)
-                                ? InstructionSet.MIMA
-                                : InstructionSet.MIMA_X;
+        parser.setInstructionSet(filePath.endsWith(MimaConstants.MIMA_EXTENSION)
+                                 ? InstructionSet.MIMA
+                                 : InstructionSet.MIMA_X);
     }
 
     @Override
@@ -113,22 +351,370 @@ public class MimaHighlighter implements Highlighter, FileEventHandler,
             final var pref = Preferences.getInstance();
             textColor = pref.readColor(ColorKey.EDITOR_TEXT);
             errorColor = pref.readColor(ColorKey.SYNTAX_ERROR);
+            warningColor = pref.readColor(ColorKey.SYNTAX_WARNING);
+            createStyles();
+            parser.reset();
         }
     }
 
-    private final class HighlightWorker extends SwingWorker<Object, Object> {
+    private final class EditListener implements DocumentListener {
+
+        @Override
+        public void insertUpdate(@NotNull final DocumentEvent e) {
+            changed(e.getOffset(), e.getLength(), true);
+        }
+
+        @Override
+        public void removeUpdate(@NotNull final DocumentEvent e) {
+            changed(e.getOffset(), e.getLength(), false);
+        }
 
+        @Override
+        public void changedUpdate(final DocumentEvent e) {
+            // Attribute changes don't affect the text.
+        }
+    }
+
+    /*
+     * Parses the text in the background. The edits made while parsing are recorded to find the
+     * range the result would have covered.
+     */
+    private final class HighlightWorker extends SwingWorker<Highlighting, Object> {
+
+        @NotNull
         private final JTextPane textPane;
+        @NotNull
+        private final StyledDocument document;
+        @NotNull
+        private final String text;
+        @NotNull
+        private final List<int[]> edits;
+        private final int start;
+        private final int end;
 
-        private HighlightWorker(final JTextPane textPane) {
+        private HighlightWorker(@NotNull final JTextPane textPane, @NotNull final StyledDocument document,
+                                @NotNull final String text, final int start, final int end) {
             this.textPane = textPane;
+            this.document = document;
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.edits = new ArrayList<>();
         }
 
         @NotNull
         @Override
-        protected Object doInBackground() {
-            update(textPane);
-            return 0;
+        protected Highlighting doInBackground() {
+            final List<SyntaxToken<?>> tokens = parser.update(text, start, end);
+            final List<Span> spans = new ArrayList<>(tokens.size());
+            for (final var token : tokens) {
+                spans.add(new Span(token.getOffset(), token.getLength(), token.getColor(),
+                                   token.getColor() == SyntaxColor.ERROR));
+            }
+            return new Highlighting(parser.getDamageStart(), parser.getDamageEnd(), spans);
+        }
+
+        @Override
+        protected void done() {
+            Highlighting highlighting = null;
+            try {
+                highlighting = get();
+            } catch (@NotNull final InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+            parsed(this, highlighting);
+        }
+    }
+
+    /*
+     * Styling of the document with a result. The part of the damaged range not covered by a span
+     * has no highlighting.
+     */
+    private final class Application {
+
+        @NotNull
+        private final StyledDocument document;
+        @NotNull
+        private final Highlighting highlighting;
+        @NotNull
+        private final boolean[] applied;
+        /*
+         * Index of the next span to style.
+         */
+        private int next;
+        /*
+         * Text of the damaged range before this offset is styled.
+         */
+        private int cleared;
+        /*
+         * Range styled by applyVisible.
+         */
+        private int visibleStart;
+        private int visibleEnd;
+
+        private Application(@NotNull final StyledDocument document, @NotNull final Highlighting highlighting) {
+            this.document = document;
+            this.highlighting = highlighting;
+            this.applied = new boolean[highlighting.getSpans().size()];
+            this.cleared = highlighting.getStart();
+        }
+
+        /*
+         * Style the part of the result inside the viewport of the text pane.
+         */
+        private void applyVisible(@NotNull final JTextPane pane) {
+            final Rectangle rect = pane.getVisibleRect();
+            if (rect.isEmpty()) {
+                return;
+            }
+            final Element root = document.getDefaultRootElement();
+            final int first = root.getElementIndex(pane.viewToModel2D(rect.getLocation()));
+            final int last = root.getElementIndex(
+                    pane.viewToModel2D(new Point(rect.x + rect.width, rect.y + rect.height)));
+            visibleStart = root.getElement(first).getStartOffset();
+            visibleEnd = root.getElement(last).getEndOffset();
+            final int viewEnd = visibleEnd;
+            int cursor = Math.max(highlighting.getStart(), visibleStart);
+            final List<Span> spans = highlighting.getSpans();
+            for (int i = 0; i < spans.size() && spans.get(i).offset < viewEnd; i++) {
+                final Span span = spans.get(i);
+                if (span.getEnd() <= visibleStart) {
+                    continue;
+                }
+                clear(cursor, Math.min(span.offset, highlighting.getEnd()));
+                style(span);
+                applied[i] = true;
+                cursor = Math.max(cursor, span.getEnd());
+                visibleStart = Math.min(visibleStart, span.offset);
+                visibleEnd = Math.max(visibleEnd, span.getEnd());
+            }
+            clear(cursor, Math.min(viewEnd, highlighting.getEnd()));
+        }
+
+        /*
+         * Style the next spans outside of the visible range. Returns whether the document is
+         * styled completely.
+         */
+        private boolean step(final int count) {
+            final List<Span> spans = highlighting.getSpans();
+            int styled = 0;
+            while (next < spans.size() && styled < count) {
+                final Span span = spans.get(next);
+                if (!applied[next]) {
+                    clearOutsideVisible(cleared, Math.min(span.offset, highlighting.getEnd()));
+                    style(span);
+                    styled++;
+                }
+                cleared = Math.max(cleared, span.getEnd());
+                next++;
+            }
+            if (next == spans.size()) {
+                clearOutsideVisible(cleared, highlighting.getEnd());
+                cleared = Math.max(cleared, highlighting.getEnd());
+            }
+            return isDone();
+        }
+
+        private boolean isDone() {
+            return next == highlighting.getSpans().size() && cleared >= highlighting.getEnd();
+        }
+
+        private int getRemainingStart() {
+            final List<Span> spans = highlighting.getSpans();
+            return next < spans.size() ? Math.min(cleared, spans.get(next).offset) : cleared;
+        }
+
+        private int getRemainingEnd() {
+            return highlighting.getStyledEnd();
+        }
+
+        private void clearOutsideVisible(final int from, final int to) {
+            clear(from, Math.min(to, visibleStart));
+            clear(Math.max(from, visibleEnd), to);
+        }
+
+        private void clear(final int from, final int to) {
+            if (from < to && !isStyled(from, to, plainStyle)) {
+                document.setCharacterAttributes(from, to - from, plainStyle, true);
+                underline(from, to);
+            }
+        }
+
+        private void style(@NotNull final Span span) {
+            final Style style = getStyle(span);
+            if (!isStyled(span.offset, span.getEnd(), style)) {
+                document.setCharacterAttributes(span.offset, span.length, style, true);
+                underline(span.offset, span.getEnd());
+            }
+        }
+
+        /*
+         * Add the underlines of the diagnostics in the range.
+         */
+        private void underline(final int from, final int to) {
+            for (final Mark mark : marks) {
+                final int start = Math.max(from, mark.getStart());
+                final int end = Math.min(to, mark.getEnd());
+                if (start < end) {
+                    document.setCharacterAttributes(start, end - start, getMarkStyle(mark), false);
+                }
+            }
+        }
+
+        /*
+         * Whether the range is part of a single run of text with the attributes of the style and
+         * no diagnostic.
+         */
+        private boolean isStyled(final int from, final int to, @NotNull final AttributeSet style) {
+            for (final Mark mark : marks) {
+                if (mark.getStart() < to && mark.getEnd() > from) {
+                    return false;
+                }
+            }
+            final Element element = document.getCharacterElement(from);
+            return element.getStartOffset() <= from && element.getEndOffset() >= to
+                   && element.getAttributes().isEqual(style);
+        }
+    }
+
+    /*
+     * Diagnostic with a range that moves with edits.
+     */
+    private static final class Mark {
+
+        @NotNull
+        private final Position start;
+        @NotNull
+        private final Position end;
+        @NotNull
+        private final Diagnostic diagnostic;
+
+        private Mark(@NotNull final Position start, @NotNull final Position end,
+                     @NotNull final Diagnostic diagnostic) {
+            this.start = start;
+            this.end = end;
+            this.diagnostic = diagnostic;
+        }
+
+        private int getStart() {
+            return start.getOffset();
+        }
+
+        private int getEnd() {
+            return end.getOffset();
+        }
+
+        @NotNull
+        private Diagnostic toDiagnostic() {
+            return new Diagnostic(diagnostic.getSeverity(), getStart(), getEnd() - getStart(),
+                                  diagnostic.getMessage());
+        }
+    }
+
+    /**
+     * Immutable result of parsing the text.
+     */
+    /* default */ static final class Highlighting {
+
+        @NotNull
+        private final List<Span> spans;
+        private final int start;
+        private final int end;
+
+        /**
+         * Create new Highlighting.
+         *
+         * @param start start of the damaged range
+         * @param end   end of the damaged range (exclusive)
+         * @param spans the styled spans sorted by offset
+         */
+        /* default */ Highlighting(final int start, final int end, @NotNull final List<Span> spans) {
+            this.start = start;
+            this.end = end;
+            this.spans = Collections.unmodifiableList(spans);
+        }
+
+        /**
+         * Get the start of the damaged range. Text of the range not covered by a span has no
+         * highlighting.
+         *
+         * @return the start offset
+         */
+        /* default */ int getStart() {
+            return start;
+        }
+
+        /**
+         * Get the end of the damaged range.
+         *
+         * @return the end offset (exclusive)
+         */
+        /* default */ int getEnd() {
+            return end;
+        }
+
+        /**
+         * Get the start of the styled text. Covers the damaged range and all spans.
+         *
+         * @return the start offset
+         */
+        /* default */ int getStyledStart() {
+            return spans.isEmpty() ? start : Math.min(start, spans.get(0).offset);
+        }
+
+        /**
+         * Get the end of the styled text. Covers the damaged range and all spans.
+         *
+         * @return the end offset (exclusive)
+         */
+        /* default */ int getStyledEnd() {
+            return spans.isEmpty() ? end : Math.max(end, spans.get(spans.size() - 1).getEnd());
+        }
+
+        /**
+         * Get the spans to style.
+         *
+         * @return the spans sorted by offset
+         */
+        @NotNull
+        /* default */ List<Span> getSpans() {
+            return spans;
+        }
+    }
+
+    /**
+     * Immutable range of text with the same highlighting.
+     */
+    /* default */ static final class Span {
+
+        @NotNull
+        private final Color color;
+        private final int offset;
+        private final int length;
+        private final boolean error;
+
+        /**
+         * Create new Span.
+         *
+         * @param offset the offset
+         * @param length the length
+         * @param color  the color
+         * @param error  whether the span is marked as error
+         */
+        /* default */ Span(final int offset, final int length, @NotNull final Color color, final boolean error) {
+            this.offset = offset;
+            this.length = length;
+            this.color = color;
+            this.error = error;
+        }
+
+        /**
+         * Get the end of the span.
+         *
+         * @return the end offset (exclusive)
+         */
+        /* default */ int getEnd() {
+            return offset + length;
         }
     }
 }
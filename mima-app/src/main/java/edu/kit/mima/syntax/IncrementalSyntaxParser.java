@@ -0,0 +1,366 @@
+package edu.kit.mima.syntax;
+
+import edu.kit.mima.core.instruction.InstructionSet;
+import edu.kit.mima.core.parsing.lang.Punctuation;
+import edu.kit.mima.core.token.AtomSyntaxToken;
+import edu.kit.mima.core.token.SyntaxToken;
+import edu.kit.mima.core.token.TokenType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parser for syntax highlighting that only parses the part of the text affected by an edit.
+ * <p>
+ * The text is split into segments each ending after an instruction end or a scope delimiter.
+ * Segments are parsed independently with a {@link SyntaxParser}. On update the changed range is
+ * found by comparing the new text with the last one. Parsing starts again at the segment
+ * containing the change and stops as soon as a segment boundary behind the change lines up with a
+ * boundary of the old text. The remaining segments are kept and only moved by the length
+ * difference.
+ * <p>
+ * Identifiers used inside of calls are resolved against the definitions of all segments in the
+ * same way the {@link SyntaxParser} resolves them for a whole file. If the definitions of the
+ * parsed segments changed, usages outside of them are recolored as well.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class IncrementalSyntaxParser {
+
+    private static final int JUMP = 0;
+    private static final int REFERENCE = 1;
+    private static final int CONSTANT = 2;
+
+    @NotNull
+    private final List<Segment> segments;
+    @NotNull
+    private InstructionSet instructionSet;
+    @Nullable
+    private String text;
+    private int damageStart;
+    private int damageEnd;
+
+    /**
+     * Create new IncrementalSyntaxParser.
+     *
+     * @param instructionSet instruction set for input. Is needed to determine valid functions.
+     */
+    public IncrementalSyntaxParser(@NotNull final InstructionSet instructionSet) {
+        this.instructionSet = instructionSet;
+        this.segments = new ArrayList<>();
+    }
+
+    /**
+     * Set the instruction set. If it differs from the current one the next update parses the
+     * whole text.
+     *
+     * @param instructionSet the instruction set
+     */
+    public synchronized void setInstructionSet(@NotNull final InstructionSet instructionSet) {
+        if (this.instructionSet != instructionSet) {
+            this.instructionSet = instructionSet;
+            reset();
+        }
+    }
+
+    /**
+     * Discard the parsed text. The next update parses the whole text.
+     */
+    public synchronized void reset() {
+        text = null;
+        segments.clear();
+    }
+
+    /**
+     * Parse the new text. The changed range is determined by comparing it with the last text.
+     *
+     * @param newText the new text
+     * @return the tokens to restyle sorted by offset
+     * @see #update(String, int, int)
+     */
+    @NotNull
+    public List<SyntaxToken<?>> update(@NotNull final String newText) {
+        return update(newText, -1, -1);
+    }
+
+    /**
+     * Parse the new text.
+     * <p>
+     * The range of the new text known to have been edited since the last update is parsed in
+     * addition to the range found by comparing both texts. Comparing alone can't tell where an
+     * edit of repetitive text happened, e.g. which of two equal characters was removed.
+     * <p>
+     * Returns all tokens between {@link #getDamageStart()} and {@link #getDamageEnd()} and the
+     * tokens outside of this range whose color changed. Text in the range not covered by a token
+     * has no highlighting.
+     *
+     * @param newText     the new text
+     * @param changeStart start of the edited range. Negative if unknown
+     * @param changeEnd   end of the edited range (exclusive). Equal to changeStart for removals
+     * @return the tokens to restyle sorted by offset
+     */
+    @NotNull
+    public synchronized List<SyntaxToken<?>> update(@NotNull final String newText,
+                                                    final int changeStart, final int changeEnd) {
+        final String oldText = text == null ? "" : text;
+        final boolean full = text == null;
+        final boolean hint = changeStart >= 0;
+        text = newText;
+        int prefix = 0;
+        int suffix = 0;
+        if (!full) {
+            final int max = Math.min(oldText.length(), newText.length());
+            while (prefix < max && oldText.charAt(prefix) == newText.charAt(prefix)) {
+                prefix++;
+            }
+            if (prefix == oldText.length() && prefix == newText.length()
+                && (!hint || changeStart == changeEnd)) {
+                damageStart = prefix;
+                damageEnd = prefix;
+                return Collections.emptyList();
+            }
+            if (hint) {
+                prefix = Math.max(0, Math.min(prefix, changeStart));
+            }
+            while (suffix < max - prefix && oldText.charAt(oldText.length() - 1 - suffix)
+                                            == newText.charAt(newText.length() - 1 - suffix)) {
+                suffix++;
+            }
+            if (hint) {
+                suffix = Math.max(0, Math.min(suffix, newText.length() - changeEnd));
+            }
+        }
+        final int delta = newText.length() - oldText.length();
+        final int damagedEnd = newText.length() - suffix;
+
+        final int first = segmentAt(prefix);
+        final int start = first < segments.size() ? segments.get(first).start : 0;
+        final List<Segment> parsed = new ArrayList<>();
+        int resume = segments.size();
+        int next = first + 1;
+        int segmentStart = start;
+        final SyntaxTokenStream stream = new SyntaxTokenStream(newText, start, -1);
+        SyntaxToken<?> token;
+        while ((token = stream.next()) != null) {
+            if (!isBoundary(token)) {
+                continue;
+            }
+            final int end = token.getOffset() + 1;
+            parsed.add(parse(newText, segmentStart, end));
+            segmentStart = end;
+            if (end >= damagedEnd) {
+                final int oldStart = end - delta;
+                while (next < segments.size() && segments.get(next).start < oldStart) {
+                    next++;
+                }
+                if (next < segments.size() && segments.get(next).start == oldStart) {
+                    resume = next;
+                    break;
+                }
+            }
+        }
+        if (resume == segments.size() && segmentStart < newText.length()) {
+            parsed.add(parse(newText, segmentStart, newText.length()));
+            segmentStart = newText.length();
+        }
+        damageStart = start;
+        damageEnd = segmentStart;
+
+        final List<Segment> replaced = segments.subList(first, resume);
+        final List<SyntaxParser.Symbol> oldDefinitions = definitions(replaced);
+        final List<SyntaxParser.Symbol> newDefinitions = definitions(parsed);
+        final Set<String> changedNames = new HashSet<>();
+        if (!oldDefinitions.equals(newDefinitions)) {
+            oldDefinitions.forEach(symbol -> changedNames.add(symbol.getName()));
+            newDefinitions.forEach(symbol -> changedNames.add(symbol.getName()));
+        }
+        replaced.clear();
+        replaced.addAll(parsed);
+        for (int i = first + parsed.size(); i < segments.size(); i++) {
+            segments.get(i).start += delta;
+        }
+        return resolve(first, first + parsed.size(), changedNames);
+    }
+
+    /**
+     * Get the start of the range parsed by the last update.
+     *
+     * @return start offset of the range
+     */
+    public synchronized int getDamageStart() {
+        return damageStart;
+    }
+
+    /**
+     * Get the end of the range parsed by the last update.
+     *
+     * @return end offset of the range (exclusive)
+     */
+    public synchronized int getDamageEnd() {
+        return damageEnd;
+    }
+
+    /*
+     * Index of the segment containing the offset.
+     */
+    private int segmentAt(final int offset) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (segments.get(mid).start <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private boolean isBoundary(@NotNull final SyntaxToken<?> token) {
+        if (token.getType() != TokenType.PUNCTUATION) {
+            return false;
+        }
+        final char c = token.getValue().toString().charAt(0);
+        return c == Punctuation.INSTRUCTION_END
+               || c == Punctuation.SCOPE_OPEN
+               || c == Punctuation.SCOPE_CLOSED;
+    }
+
+    @NotNull
+    private Segment parse(@NotNull final String input, final int start, final int end) {
+        final SyntaxParser parser = new SyntaxParser(input, instructionSet, start, end - 1);
+        final SyntaxToken<?>[] tokens = parser.parse();
+        return new Segment(start, tokens, parser.getSymbols());
+    }
+
+    @NotNull
+    private List<SyntaxParser.Symbol> definitions(@NotNull final List<Segment> segmentList) {
+        final List<SyntaxParser.Symbol> definitions = new ArrayList<>();
+        for (final Segment segment : segmentList) {
+            for (final SyntaxParser.Symbol symbol : segment.symbols) {
+                if (symbol.getKind() != SyntaxParser.Symbol.Kind.USAGE) {
+                    definitions.add(symbol);
+                }
+            }
+        }
+        return definitions;
+    }
+
+    /*
+     * Color the usages of the parsed segments [from, to) and the usages of names whose
+     * definitions changed.
+     */
+    @NotNull
+    private List<SyntaxToken<?>> resolve(final int from, final int to, @NotNull final Set<String> changedNames) {
+        final Map<String, long[]> definitions = new HashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            final List<SyntaxParser.Symbol> symbols = segments.get(i).symbols;
+            for (int j = 0; j < symbols.size(); j++) {
+                final SyntaxParser.Symbol symbol = symbols.get(j);
+                final int kind = switch (symbol.getKind()) {
+                    case JUMP -> JUMP;
+                    case REFERENCE -> REFERENCE;
+                    case CONSTANT -> CONSTANT;
+                    case USAGE -> -1;
+                };
+                if (kind >= 0) {
+                    final long[] positions = definitions.computeIfAbsent(symbol.getName(), n -> {
+                        final long[] p = new long[3];
+                        Arrays.fill(p, Long.MAX_VALUE);
+                        return p;
+                    });
+                    positions[kind] = Math.min(positions[kind], position(i, j));
+                }
+            }
+        }
+        final List<SyntaxToken<?>> result = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            final Segment segment = segments.get(i);
+            final boolean inside = i >= from && i < to;
+            if (inside) {
+                result.addAll(Arrays.asList(segment.tokens));
+            } else if (changedNames.isEmpty()) {
+                continue;
+            }
+            final List<SyntaxParser.Symbol> symbols = segment.symbols;
+            for (int j = 0; j < symbols.size(); j++) {
+                final SyntaxParser.Symbol symbol = symbols.get(j);
+                final SyntaxToken<?> usage = symbol.getToken();
+                if (usage == null || (!inside && !changedNames.contains(symbol.getName()))) {
+                    continue;
+                }
+                final Color color = color(definitions.get(symbol.getName()), position(i, j));
+                if (inside) {
+                    usage.setColor(color);
+                } else if (usage.getColor() != color) {
+                    usage.setColor(color);
+                    result.add(new AtomSyntaxToken<>(usage.getType(), usage.getValue(), color,
+                                                     usage.getOffset() + segment.start - segment.origin,
+                                                     usage.getLength()));
+                }
+            }
+        }
+        result.sort(Comparator.comparingInt(SyntaxToken::getOffset));
+        return result;
+    }
+
+    private long position(final int segment, final int index) {
+        return ((long) segment << Integer.SIZE) | index;
+    }
+
+    /*
+     * Resolve a usage like the SyntaxParser does. Definitions parsed before the usage take
+     * precedence, otherwise a jump defined later is used.
+     */
+    @NotNull
+    private Color color(@Nullable final long[] definitions, final long position) {
+        if (definitions == null) {
+            return SyntaxColor.ERROR;
+        } else if (definitions[JUMP] < position) {
+            return SyntaxColor.JUMP;
+        } else if (definitions[REFERENCE] < position) {
+            return SyntaxColor.REFERENCE;
+        } else if (definitions[CONSTANT] < position) {
+            return SyntaxColor.CONSTANT;
+        } else if (definitions[JUMP] != Long.MAX_VALUE) {
+            return SyntaxColor.JUMP;
+        }
+        return SyntaxColor.ERROR;
+    }
+
+    /*
+     * Independently parsed part of the text.
+     */
+    private static final class Segment {
+
+        /*
+         * Offset the tokens were created at.
+         */
+        private final int origin;
+        @NotNull
+        private final SyntaxToken<?>[] tokens;
+        @NotNull
+        private final List<SyntaxParser.Symbol> symbols;
+        private int start;
+
+        private Segment(final int start, @NotNull final SyntaxToken<?>[] tokens,
+                        @NotNull final List<SyntaxParser.Symbol> symbols) {
+            this.origin = start;
+            this.start = start;
+            this.tokens = tokens;
+            this.symbols = symbols;
+        }
+    }
+}
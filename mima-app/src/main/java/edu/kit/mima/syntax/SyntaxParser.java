@@ -13,10 +13,14 @@ import edu.kit.mima.core.token.Token;
 import edu.kit.mima.core.token.TokenType;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -40,6 +44,8 @@ public class SyntaxParser extends Processor<SyntaxToken<?>, SyntaxTokenStream> {
     @NotNull
     private final List<String> constants;
     private final List<SyntaxToken<?>> unresolvedJumps;
+    @NotNull
+    private final List<Symbol> symbols;
     private boolean insideCall = false;
 
     /**
@@ -58,6 +64,7 @@ public class SyntaxParser extends Processor<SyntaxToken<?>, SyntaxTokenStream> {
         this.references = new ArrayList<>();
         this.constants = new ArrayList<>();
         this.unresolvedJumps = new ArrayList<>();
+        this.symbols = new ArrayList<>();
         this.instructions = Set.of(instructionSet.getInstructions());
     }
 
@@ -87,10 +94,26 @@ public class SyntaxParser extends Processor<SyntaxToken<?>, SyntaxTokenStream> {
                 t.setColor(SyntaxColor.JUMP);
             }
         }
-        return tokens.stream()
-                       .filter(t -> t.getType() != TokenType.EMPTY && t.getType() != TokenType.ERROR)
-                       .sorted(Comparator.comparingInt(SyntaxToken::getOffset))
-                       .toArray(SyntaxToken<?>[]::new);
+        final SyntaxToken<?>[] result = tokens.stream()
+                                              .filter(t -> t.getType() != TokenType.EMPTY
+                                                           && t.getType() != TokenType.ERROR)
+                                              .sorted(Comparator.comparingInt(SyntaxToken::getOffset))
+                                              .toArray(SyntaxToken<?>[]::new);
+        final Set<SyntaxToken<?>> emitted = Collections.newSetFromMap(new IdentityHashMap<>());
+        emitted.addAll(Arrays.asList(result));
+        symbols.removeIf(s -> s.getToken() != null && !emitted.contains(s.getToken()));
+        return result;
+    }
+
+    /**
+     * Get the definitions and the identifiers used inside of calls in the order they were parsed.
+     * Only usages returned by {@link #parse()} are included.
+     *
+     * @return the symbols
+     */
+    @NotNull
+    /* default */ List<Symbol> getSymbols() {
+        return symbols;
     }
 
     @NotNull
@@ -103,6 +126,7 @@ public class SyntaxParser extends Processor<SyntaxToken<?>, SyntaxTokenStream> {
                                                          expression.getOffset(),
                                                          expression.getLength());
             jumps.add(token.getValue().toString());
+            symbols.add(new Symbol(Symbol.Kind.JUMP, token.getValue().toString(), null));
             return token;
         } else {
             return Objects.requireNonNullElseGet(expression, EmptySyntaxToken::new);
@@ -197,9 +221,11 @@ public class SyntaxParser extends Processor<SyntaxToken<?>, SyntaxTokenStream> {
             tokens.add(next());
             t = parseDefinitionBody(SyntaxColor.CONSTANT);
             constants.add(t.getValue().toString());
+            symbols.add(new Symbol(Symbol.Kind.CONSTANT, t.getValue().toString(), null));
         } else {
             t = parseDefinitionBody(SyntaxColor.REFERENCE);
             references.add(t.getValue().toString());
+            symbols.add(new Symbol(Symbol.Kind.REFERENCE, t.getValue().toString(), null));
         }
         return t;
     }
@@ -229,6 +255,7 @@ public class SyntaxParser extends Processor<SyntaxToken<?>, SyntaxTokenStream> {
         token.setColor(SyntaxColor.ERROR);
         if (insideCall) {
             var name = token.getValue().toString();
+            symbols.add(new Symbol(Symbol.Kind.USAGE, name, token));
             if (jumps.contains(name)) {
                 token.setColor(SyntaxColor.JUMP);
             } else if (references.contains(name)) {
@@ -245,7 +272,8 @@ public class SyntaxParser extends Processor<SyntaxToken<?>, SyntaxTokenStream> {
     @NotNull
     protected SyntaxToken<?> parseDelimiter() {
         SyntaxToken<?> token = next();
-        switch (token.getValue().toString().charAt(0)) {
+        final String value = token.getValue().toString();
+        switch (value.isEmpty() ? CharInputStream.EMPTY_CHAR : value.charAt(0)) {
             case Punctuation.JUMP_DELIMITER,
                          Punctuation.INSTRUCTION_END,
                          Punctuation.DEFINITION_BEGIN,
@@ -304,4 +332,78 @@ public class SyntaxParser extends Processor<SyntaxToken<?>, SyntaxTokenStream> {
                                                   final boolean skipLast) {
         return super.delimited(del, parser, skipLast, true);
     }
+
+    /**
+     * Definition or usage of a name encountered while parsing.
+     */
+    /* default */ static final class Symbol {
+
+        @NotNull
+        private final Kind kind;
+        @NotNull
+        private final String name;
+        @Nullable
+        private final SyntaxToken<?> token;
+
+        /* default */ Symbol(@NotNull final Kind kind, @NotNull final String name,
+                            @Nullable final SyntaxToken<?> token) {
+            this.kind = kind;
+            this.name = name;
+            this.token = token;
+        }
+
+        /**
+         * Get the kind of the symbol.
+         *
+         * @return the kind
+         */
+        @NotNull
+        /* default */ Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Get the defined or used name.
+         *
+         * @return the name
+         */
+        @NotNull
+        /* default */ String getName() {
+            return name;
+        }
+
+        /**
+         * Get the identifier token of a usage.
+         *
+         * @return the token. Null for definitions
+         */
+        @Nullable
+        /* default */ SyntaxToken<?> getToken() {
+            return token;
+        }
+
+        @Override
+        public boolean equals(@Nullable final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Symbol other = (Symbol) obj;
+            return kind == other.kind && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, name);
+        }
+
+        /* default */ enum Kind {
+            JUMP,
+            REFERENCE,
+            CONSTANT,
+            USAGE
+        }
+    }
 }
@@ -52,7 +52,7 @@ public class SyntaxTokenStream extends TokenStream {
     @Override
     protected @Nullable
     SyntaxToken<?> readNext() {
-        readWhile(c -> isWhitespace(c) && c != NEW_LINE);
+        skipWhile(c -> isWhitespace(c) && c != NEW_LINE);
         if (input.isEmpty()) {
             return null;
         }
@@ -0,0 +1,66 @@
+package edu.kit.mima.formatter;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link MimaFormatter}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+class MimaFormatterTest {
+
+    private static final String BLOCKS = "un+ :\n    LDVR(0);\n    RET();\n\nun! :\n    LDVR(0);\n    RET();\n";
+    private static final String SCOPES = "#Compute the factorial.\n"
+                                         + "LDC(5);\nCALL(FACTORIAL);\nStop :\n    HALT();\n\n"
+                                         + "#Call point.\nFACTORIAL : {\n    #Init\n    STV(arg);\n\n"
+                                         + "    LDV(arg);\n    JMN(Stop); #Only positive numbers\n\n"
+                                         + "    COMPUTE : {\n        EQL(comp);\n        JMN(BASE);\n"
+                                         + "        RET();\n    }\n}\n\nBASE : LDC(1);\nRET();\n";
+
+    @Test
+    void rangesMatchFullFormat() {
+        assertRangesMatch(BLOCKS);
+        assertRangesMatch(SCOPES);
+    }
+
+    @Test
+    void rangesKeepFullFormat() {
+        assertRangesKeepFormat(BLOCKS);
+        assertRangesKeepFormat(SCOPES);
+    }
+
+    /*
+     * Formatting any range of formatted input has to replace text with the same text.
+     */
+    private static void assertRangesMatch(@NotNull final String input) {
+        final MimaFormatter formatter = new MimaFormatter();
+        final String formatted = formatter.format(input);
+        for (int start = 0; start <= formatted.length(); start++) {
+            for (int end = start; end <= formatted.length(); end++) {
+                final TextEdit edit = formatter.format(formatted, start, end);
+                assertEquals(formatted.substring(edit.getStart(), edit.getEnd()), edit.getText(),
+                             "range " + start + '-' + end);
+            }
+        }
+    }
+
+    /*
+     * Applying the format of any range must not change the format of the whole input.
+     */
+    private static void assertRangesKeepFormat(@NotNull final String input) {
+        final MimaFormatter formatter = new MimaFormatter();
+        final String formatted = formatter.format(input);
+        for (int start = 0; start <= input.length(); start++) {
+            for (int end = start; end <= input.length(); end++) {
+                final TextEdit edit = formatter.format(input, start, end);
+                final String result = input.substring(0, edit.getStart()) + edit.getText()
+                                      + input.substring(edit.getEnd());
+                assertEquals(formatted, formatter.format(result), "range " + start + '-' + end);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+import json
+import sys
+from typing import Dict, Tuple
+
+THRESHOLD = 0.05
+
+
+def key(result: dict) -> str:
+    params = result.get('params', {})
+    suffix = ','.join('{}={}'.format(k, v) for k, v in sorted(params.items()))
+    name = result['benchmark'].replace('edu.kit.mima.benchmark.', '')
+    return '{}[{}]'.format(name, suffix) if suffix else name
+
+
+def load(path: str) -> Dict[str, Tuple[float, float, str]]:
+    with open(path) as file:
+        results = json.load(file)
+    return {key(r): (r['primaryMetric']['score'],
+                     r['primaryMetric']['scoreError'],
+                     r['primaryMetric']['scoreUnit']) for r in results}
+
+
+def compare(baseline_path: str, current_path: str) -> int:
+    baseline = load(baseline_path)
+    current = load(current_path)
+    regressions = 0
+    width = max(len(k) for k in baseline.keys() | current.keys())
+    print('{:<{w}} {:>14} {:>14} {:>8}'.format('benchmark', 'baseline', 'current', 'ratio', w=width))
+    for name in sorted(baseline.keys() | current.keys()):
+        if name not in current:
+            print('{:<{w}} {:>14.3f} {:>14} {:>8}'.format(name, baseline[name][0], '-', 'removed', w=width))
+            continue
+        if name not in baseline:
+            print('{:<{w}} {:>14} {:>14.3f} {:>8}'.format(name, '-', current[name][0], 'new', w=width))
+            continue
+        old, old_error, unit = baseline[name]
+        new, new_error, _ = current[name]
+        ratio = new / old if old else float('inf')
+        # All benchmarks measure average time, so a ratio above 1 is a slowdown.
+        significant = abs(new - old) > old_error + new_error and abs(ratio - 1) > THRESHOLD
+        marker = ''
+        if significant:
+            marker = ' slower' if ratio > 1 else ' faster'
+            regressions += ratio > 1
+        print('{:<{w}} {:>14.3f} {:>14.3f} {:>8.3f} {}{}'.format(name, old, new, ratio, unit, marker,
+                                                                w=width))
+    return regressions
+
+
+if __name__ == '__main__':
+    if len(sys.argv) != 3:
+        print('usage: compare.py <baseline.json> <current.json>')
+        sys.exit(2)
+    sys.exit(1 if compare(sys.argv[1], sys.argv[2]) else 0)
@@ -0,0 +1,98 @@
+package edu.kit.mima.benchmark;
+
+import edu.kit.mima.core.data.MachineWord;
+import edu.kit.mima.core.logic.ArithmeticLogicUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the operations of the {@link ArithmeticLogicUnit} on packed ints and on {@link
+ * MachineWord}s.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class ArithmeticLogicUnitBenchmark {
+
+    @Param({"24"})
+    private int wordLength;
+
+    private ArithmeticLogicUnit alu;
+    private int x;
+    private int y;
+    private MachineWord wordX;
+    private MachineWord wordY;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        alu = new ArithmeticLogicUnit(wordLength);
+        x = MachineWord.normalize(random.nextInt(), wordLength);
+        y = MachineWord.normalize(random.nextInt(), wordLength);
+        wordX = new MachineWord(x, wordLength);
+        wordY = new MachineWord(y, wordLength);
+    }
+
+    @Benchmark
+    public int add() {
+        return alu.add(x, y);
+    }
+
+    @Benchmark
+    public int and() {
+        return alu.and(x, y);
+    }
+
+    @Benchmark
+    public int or() {
+        return alu.or(x, y);
+    }
+
+    @Benchmark
+    public int xor() {
+        return alu.xor(x, y);
+    }
+
+    @Benchmark
+    public int negativeIfEquals() {
+        return alu.negativeIfEquals(x, y);
+    }
+
+    @Benchmark
+    public int rar() {
+        return alu.rar(x);
+    }
+
+    @Benchmark
+    public int not() {
+        return alu.not(x);
+    }
+
+    @Benchmark
+    public MachineWord addWord() {
+        return alu.add(wordX, wordY);
+    }
+
+    @Benchmark
+    public MachineWord rarWord() {
+        return alu.rar(wordX);
+    }
+}
@@ -0,0 +1,153 @@
+package edu.kit.mima.benchmark;
+
+import edu.kit.mima.core.MimaConstants;
+import edu.kit.mima.core.instruction.InstructionSet;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Programs used as benchmark input. Either one of the shipped sample programs or a synthetic
+ * program generated with a given size.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class BenchmarkPrograms {
+
+    /**
+     * Name of the synthetic loop program.
+     */
+    public static final String LOOP = "loop";
+    /**
+     * Name of the synthetic loop program whose body is nested in scopes.
+     */
+    public static final String SCOPED_LOOP = "scopedLoop";
+    /**
+     * Name of the synthetic program consisting of many concatenated sample programs.
+     */
+    public static final String LARGE_FILE = "largeFile";
+
+    /*
+     * Number of iterations of the synthetic loops.
+     */
+    private static final int LOOP_ITERATIONS = 10000;
+    /*
+     * Number of copies of the sample program in the large file.
+     */
+    private static final int LARGE_FILE_COPIES = 200;
+
+    @Contract(" -> fail")
+    private BenchmarkPrograms() {
+        assert false : "utility class constructor";
+    }
+
+    /**
+     * Get the source of the program with the given name.
+     *
+     * @param name name of a sample file or one of the synthetic program names.
+     * @return program source
+     */
+    @NotNull
+    public static String source(@NotNull final String name) {
+        return switch (name) {
+            case LOOP -> loop(LOOP_ITERATIONS);
+            case SCOPED_LOOP -> scopedLoop(LOOP_ITERATIONS);
+            case LARGE_FILE -> largeFile(LARGE_FILE_COPIES);
+            default -> sample(name);
+        };
+    }
+
+    /**
+     * Get the instruction set of the program with the given name.
+     *
+     * @param name name of a sample file or one of the synthetic program names.
+     * @return the instruction set
+     */
+    @NotNull
+    public static InstructionSet instructionSet(@NotNull final String name) {
+        return switch (name) {
+            case LOOP, SCOPED_LOOP -> InstructionSet.MIMA_X;
+            case LARGE_FILE -> InstructionSet.MIMA;
+            default -> MimaConstants.instructionSetForFile(name);
+        };
+    }
+
+    /**
+     * Load a sample program.
+     *
+     * @param fileName file name of the sample
+     * @return program source
+     */
+    @NotNull
+    public static String sample(@NotNull final String fileName) {
+        try (InputStream in = BenchmarkPrograms.class.getResourceAsStream("/sample/" + fileName)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No such sample: " + fileName);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (@NotNull final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Create a program that increments a variable in a tight loop.
+     *
+     * @param iterations number of loop iterations
+     * @return program source
+     */
+    @NotNull
+    public static String loop(final int iterations) {
+        return "§define i = 0, one = 1;\n"
+               + "LDC(1); STV(one);\n"
+               + "LDC(" + -iterations + "); STV(i);\n"
+               + "Loop : LDV(i); ADD(one); STV(i); JMN(Loop);\n"
+               + "HALT();\n";
+    }
+
+    /**
+     * Create a program that increments a variable in a loop whose body is nested in scopes that
+     * define their own symbols and access the outer ones.
+     *
+     * @param iterations number of loop iterations
+     * @return program source
+     */
+    @NotNull
+    public static String scopedLoop(final int iterations) {
+        return "§define i = 0, one = 1;\n"
+               + "LDC(1); STV(one);\n"
+               + "LDC(" + -iterations + "); STV(i);\n"
+               + "Loop : {\n"
+               + "    §define const step = 1;\n"
+               + "    {\n"
+               + "        §define tmp = 2;\n"
+               + "        LDV(i); ADD(one); STV(tmp);\n"
+               + "        LDV(tmp); STV(i);\n"
+               + "    }\n"
+               + "    LDV(i);\n"
+               + "    JMN(Loop);\n"
+               + "}\n"
+               + "HALT();\n";
+    }
+
+    /**
+     * Create a large program by concatenating copies of the sample program, each in its own scope.
+     *
+     * @param copies number of copies
+     * @return program source
+     */
+    @NotNull
+    public static String largeFile(final int copies) {
+        final String body = sample("sample.mima");
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < copies; i++) {
+            sb.append("{\n").append(body).append("\n}\n");
+        }
+        return sb.toString();
+    }
+}
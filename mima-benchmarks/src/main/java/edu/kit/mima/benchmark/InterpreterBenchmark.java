@@ -0,0 +1,136 @@
+package edu.kit.mima.benchmark;
+
+import edu.kit.mima.core.Mima;
+import edu.kit.mima.core.Program;
+import edu.kit.mima.core.bytecode.Bytecode;
+import edu.kit.mima.core.bytecode.BytecodeCompiler;
+import edu.kit.mima.core.bytecode.BytecodeEngine;
+import edu.kit.mima.core.controller.DebugController;
+import edu.kit.mima.core.data.PagedMemory;
+import edu.kit.mima.core.instruction.InstructionSet;
+import edu.kit.mima.core.instruction.MimaInstruction;
+import edu.kit.mima.core.instruction.MimaXInstruction;
+import edu.kit.mima.core.interpretation.Interpreter;
+import edu.kit.mima.core.interpretation.environment.GlobalEnvironment;
+import edu.kit.mima.core.parsing.Parser;
+import edu.kit.mima.core.token.Token;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for executing programs with the interpreter and the bytecode engine. Programs run
+ * without debugger on the calling thread, so only evaluation is measured.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class InterpreterBenchmark {
+
+    /*
+     * Debug controller that never pauses.
+     */
+    private static final DebugController NO_DEBUG = new DebugController() {
+        @Override
+        public void pause() {
+        }
+
+        @Override
+        public void resume() {
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public void afterInstruction(final Token<?> nextInstruction) {
+        }
+    };
+
+    @Param({"sample.mima", "fibonacci.mimax", "factorial.mimax",
+            BenchmarkPrograms.LOOP, BenchmarkPrograms.SCOPED_LOOP})
+    private String program;
+
+    private Program parsed;
+    private Bytecode bytecode;
+
+    @Setup
+    public void setup() {
+        final var result = new Parser(BenchmarkPrograms.source(program)).parse();
+        if (!result.getSecond().isEmpty()) {
+            throw new IllegalStateException("Invalid benchmark program: " + result.getSecond());
+        }
+        parsed = new Program(result.getFirst(), BenchmarkPrograms.instructionSet(program));
+        bytecode = new BytecodeCompiler(parsed).compile();
+    }
+
+    @Benchmark
+    public Mima interpreter() {
+        return interpret(false);
+    }
+
+    @Benchmark
+    public Mima iterativeInterpreter() {
+        return interpret(true);
+    }
+
+    @Benchmark
+    public Mima bytecodeEngine() {
+        final Mima mima = createMima(parsed.getInstructionSet());
+        new BytecodeEngine(bytecode, mima).run(v -> {
+        });
+        return mima;
+    }
+
+    @Benchmark
+    public Bytecode bytecodeCompiler() {
+        return new BytecodeCompiler(parsed).compile();
+    }
+
+    @NotNull
+    private Mima interpret(final boolean iterative) {
+        final InstructionSet instructionSet = parsed.getInstructionSet();
+        final Mima mima = createMima(instructionSet);
+        final Interpreter interpreter = new Interpreter(mima, NO_DEBUG, e -> {
+            throw new IllegalStateException(e);
+        });
+        interpreter.setIterative(iterative);
+        final GlobalEnvironment globalEnvironment = new GlobalEnvironment(parsed, interpreter, v -> {
+        });
+        globalEnvironment.setupGlobalFunctions(MimaInstruction.values());
+        if (instructionSet == InstructionSet.MIMA_X) {
+            globalEnvironment.setupExtendedInstructionSet();
+            globalEnvironment.setupGlobalFunctions(MimaXInstruction.values());
+        }
+        interpreter.evaluateTopLevel(parsed.getProgramToken(), globalEnvironment);
+        return mima;
+    }
+
+    @NotNull
+    private static Mima createMima(@NotNull final InstructionSet instructionSet) {
+        return new Mima(instructionSet.getWordLength(), instructionSet.getConstWordLength(),
+                        new PagedMemory(instructionSet.getWordLength(), instructionSet.getConstWordLength()));
+    }
+}
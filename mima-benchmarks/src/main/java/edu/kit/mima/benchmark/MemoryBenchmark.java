@@ -0,0 +1,89 @@
+package edu.kit.mima.benchmark;
+
+import edu.kit.mima.core.data.MemoryMap;
+import edu.kit.mima.core.data.PagedMemory;
+import edu.kit.mima.core.data.WordMemory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for loading and storing values in {@link MemoryMap} and {@link PagedMemory}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class MemoryBenchmark {
+
+    private static final int WORD_LENGTH = 24;
+    private static final int OPERATIONS = 1024;
+
+    @Param({"map", "paged"})
+    private String memoryType;
+
+    /*
+     * Addresses of the memory accesses. Mostly small addresses as in typical programs, some on the
+     * stack at the top of the address space.
+     */
+    private int[] addresses;
+    private WordMemory memory;
+
+    @Setup
+    public void setup() {
+        memory = "paged".equals(memoryType)
+                 ? new PagedMemory(WORD_LENGTH, WORD_LENGTH)
+                 : new MemoryMap(WORD_LENGTH, 100);
+        final Random random = new Random(42);
+        addresses = new int[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            addresses[i] = random.nextInt(8) == 0 ? -random.nextInt(256) : random.nextInt(4096);
+            memory.storeIntValue(addresses[i], i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int load() {
+        int sum = 0;
+        for (final int address : addresses) {
+            sum += memory.loadIntValue(address);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void store() {
+        for (int i = 0; i < addresses.length; i++) {
+            memory.storeIntValue(addresses[i], i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public Object loadWord() {
+        Object last = null;
+        for (final int address : addresses) {
+            last = memory.loadValue(address);
+        }
+        return last;
+    }
+}
@@ -0,0 +1,62 @@
+package edu.kit.mima.benchmark;
+
+import edu.kit.mima.core.parsing.Parser;
+import edu.kit.mima.core.parsing.inputstream.TokenStream;
+import edu.kit.mima.core.parsing.preprocessor.PreProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for tokenizing, preprocessing and parsing programs.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({"sample.mima", "fibonacci.mimax", "factorial.mimax", BenchmarkPrograms.LARGE_FILE})
+    private String program;
+
+    private String source;
+
+    @Setup
+    public void setup() {
+        source = BenchmarkPrograms.source(program);
+    }
+
+    @Benchmark
+    public void tokenize(final Blackhole blackhole) {
+        final TokenStream tokenStream = new TokenStream(source);
+        while (!tokenStream.isEmpty()) {
+            blackhole.consume(tokenStream.next());
+        }
+    }
+
+    @Benchmark
+    public Object preProcess() {
+        return new PreProcessor(source, program, "", "", false).process();
+    }
+
+    @Benchmark
+    public Object parse() {
+        return new Parser(source).parse();
+    }
+}
@@ -0,0 +1,49 @@
+package edu.kit.mima.benchmark;
+
+import edu.kit.mima.core.instruction.InstructionSet;
+import edu.kit.mima.syntax.SyntaxParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link SyntaxParser} used for highlighting in the editor.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class SyntaxParserBenchmark {
+
+    @Param({"factorial.mimax", BenchmarkPrograms.LARGE_FILE})
+    private String program;
+
+    private String source;
+    private InstructionSet instructionSet;
+
+    @Setup
+    public void setup() {
+        source = BenchmarkPrograms.source(program);
+        instructionSet = BenchmarkPrograms.instructionSet(program);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return new SyntaxParser(source, instructionSet).parse();
+    }
+}
@@ -12,7 +12,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -34,16 +36,64 @@ public final class CodeChecker {
      * @param token Program token to check
      */
     public static void checkCode(@Nullable final ProgramToken token) {
-        if (token == null) {
-            return;
-        }
-        List<String> warnings = new ArrayList<>(checkReferenceDuplicates(token));
         var logger = MimaCoreDefaults.getLogger();
-        for (String s : warnings) {
+        for (String s : findWarnings(token)) {
             logger.warning(s);
         }
     }
 
+    /**
+     * Search for probable bugs without reporting them.
+     *
+     * @param token Program token to check
+     * @return the warnings
+     */
+    @NotNull
+    public static List<String> findWarnings(@Nullable final ProgramToken token) {
+        if (token == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(checkReferenceDuplicates(token));
+    }
+
+    /**
+     * Search for probable bugs and locate them at the definitions they refer to.
+     *
+     * @param token Program token to check
+     * @return the warnings by index of the line they refer to
+     */
+    @NotNull
+    public static Map<Integer, List<String>> findLineWarnings(@Nullable final ProgramToken token) {
+        final Map<Integer, List<String>> warnings = new TreeMap<>();
+        if (token == null) {
+            return warnings;
+        }
+        final ProgramQuery query = new ProgramQuery(token);
+        addLineWarnings(warnings, query.whereEqual(Token::getType, TokenType.JUMP_POINT).get());
+        addLineWarnings(warnings, query.whereEqual(Token::getType, TokenType.CONSTANT).or()
+                                          .whereEqual(Token::getType, TokenType.REFERENCE).get());
+        return warnings;
+    }
+
+    /*
+     * Definitions store the index of their line as file position.
+     */
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these
+    types*/
+    private static void addLineWarnings(@NotNull final Map<Integer, List<String>> warnings,
+                                        @NotNull final List<Token<?>> definitions) {
+        final Map<String, List<Token<?>>> byName = definitions.stream().collect(Collectors.groupingBy(
+                t -> ((Token<Token<?>>) t).getValue().getValue().toString()));
+        byName.forEach((name, tokens) -> {
+            if (tokens.size() > 1) {
+                for (final Token<?> t : tokens) {
+                    warnings.computeIfAbsent(t.getOffset(), line -> new ArrayList<>())
+                            .add("Multiple Definitions: \"" + name + '\"');
+                }
+            }
+        });
+    }
+
     /**
      * Search for duplicate reference declarations. this may be a bug in the program and results in
      * not expected behaviour.
@@ -16,7 +16,8 @@ public interface CodeRunner {
     @NotNull
     Debugger debugger();
 
-    void start(Consumer<Value<?>> callback);
+    @NotNull
+    ExecutionResult start(Consumer<Value<?>> callback);
 
     void stop();
 
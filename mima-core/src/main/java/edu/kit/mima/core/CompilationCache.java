@@ -0,0 +1,265 @@
+package edu.kit.mima.core;
+
+import edu.kit.mima.api.loading.IoTools;
+import edu.kit.mima.core.parsing.preprocessor.SourceLoader;
+import edu.kit.mima.core.token.ProgramToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Content addressed cache of the results of the {@link MimaCompiler}.
+ * <p>
+ * Included files are cached by path together with their modification time, size and the hash of
+ * their content. A file is only loaded again if its modification time or size changed, or if it
+ * was modified so shortly before being loaded that a later change could have kept the modification
+ * time.
+ * <p>
+ * Compiled programs are cached by the hash of the input and the compile options. Each entry
+ * remembers the hashes of all files the preprocessor tried to include, including the ones that
+ * didn't exist. The entry is only used as long as all of them still have the same content.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+/* default */ final class CompilationCache {
+
+    private static final int MAX_PROGRAMS = 16;
+    private static final int MAX_SOURCES = 256;
+    /*
+     * Time in milliseconds a modification may be before loading a file and still not be covered
+     * by the modification time. Coarser than the resolution of common file systems.
+     */
+    private static final long MODIFICATION_RESOLUTION = 2000;
+
+    @NotNull
+    private final Map<String, Source> sources;
+    @NotNull
+    private final Map<String, Compilation> compilations;
+
+    /**
+     * Create new CompilationCache.
+     */
+    /* default */ CompilationCache() {
+        sources = lruMap(MAX_SOURCES);
+        compilations = lruMap(MAX_PROGRAMS);
+    }
+
+    @NotNull
+    private static <T> Map<String, T> lruMap(final int capacity) {
+        return new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, T> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Hash text content.
+     *
+     * @param text the text
+     * @return the hash of the text
+     */
+    @NotNull
+    /* default */ static String hash(@NotNull final String text) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new BigInteger(1, digest.digest(text.getBytes(StandardCharsets.UTF_8))).toString(16);
+        } catch (@NotNull final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get a valid compilation.
+     *
+     * @param key key of the compilation
+     * @return the compilation or null if not cached or an included file changed
+     */
+    @Nullable
+    /* default */ synchronized Compilation get(@NotNull final String key) {
+        final Compilation compilation = compilations.get(key);
+        if (compilation == null) {
+            return null;
+        }
+        for (final var include : compilation.includes.entrySet()) {
+            if (!Objects.equals(currentHash(include.getKey()), include.getValue())) {
+                compilations.remove(key);
+                return null;
+            }
+        }
+        return compilation;
+    }
+
+    /**
+     * Add a compilation.
+     *
+     * @param key         key of the compilation
+     * @param compilation the compilation
+     */
+    /* default */ synchronized void put(@NotNull final String key, @NotNull final Compilation compilation) {
+        compilations.put(key, compilation);
+    }
+
+    /**
+     * Create a loader using the cached files. The hash of every requested path is recorded. Paths
+     * that can't be loaded are recorded with a null hash.
+     *
+     * @param includes map to record the hashes in
+     * @return the loader
+     */
+    @NotNull
+    /* default */ SourceLoader loader(@NotNull final Map<String, String> includes) {
+        return path -> {
+            try {
+                final Source source = load(path);
+                includes.put(path, source.hash);
+                return source.text;
+            } catch (@NotNull final IOException e) {
+                includes.put(path, null);
+                throw e;
+            }
+        };
+    }
+
+    @Nullable
+    private String currentHash(@NotNull final String path) {
+        try {
+            return load(path).hash;
+        } catch (@NotNull final IOException e) {
+            return null;
+        }
+    }
+
+    @NotNull
+    private synchronized Source load(@NotNull final String path) throws IOException {
+        final File file = new File(path);
+        if (!file.isFile()) {
+            sources.remove(path);
+            throw new FileNotFoundException(path);
+        }
+        final long modified = file.lastModified();
+        final long size = file.length();
+        final Source cached = sources.get(path);
+        if (cached != null && cached.modified == modified && cached.size == size
+            && modified + MODIFICATION_RESOLUTION < cached.loaded) {
+            return cached;
+        }
+        final long loaded = System.currentTimeMillis();
+        final String text = IoTools.loadFile(path);
+        final Source source = new Source(text, modified, size, loaded);
+        sources.put(path, source);
+        return source;
+    }
+
+    /*
+     * Loaded file.
+     */
+    private static final class Source {
+        @NotNull
+        private final String text;
+        @NotNull
+        private final String hash;
+        private final long modified;
+        private final long size;
+        private final long loaded;
+
+        private Source(@NotNull final String text, final long modified, final long size, final long loaded) {
+            this.text = text;
+            this.hash = CompilationCache.hash(text);
+            this.modified = modified;
+            this.size = size;
+            this.loaded = loaded;
+        }
+    }
+
+    /**
+     * Result of a compilation.
+     */
+    /* default */ static final class Compilation {
+        @NotNull
+        private final ProgramToken programToken;
+        @NotNull
+        private final List<Exception> errors;
+        @NotNull
+        private final Map<String, String> includes;
+        @Nullable
+        private List<String> warnings;
+        @Nullable
+        private Map<Integer, List<String>> lineWarnings;
+
+        /**
+         * Create new Compilation.
+         *
+         * @param programToken the compiled program
+         * @param errors       errors found while compiling
+         * @param includes     hashes of the files the preprocessor tried to include by path
+         */
+        /* default */ Compilation(@NotNull final ProgramToken programToken,
+                                  @NotNull final List<Exception> errors,
+                                  @NotNull final Map<String, String> includes) {
+            this.programToken = programToken;
+            this.errors = Collections.unmodifiableList(errors);
+            this.includes = includes;
+        }
+
+        /**
+         * Get the compiled program.
+         *
+         * @return the program token
+         */
+        @NotNull
+        /* default */ ProgramToken getProgramToken() {
+            return programToken;
+        }
+
+        /**
+         * Get the errors found while compiling.
+         *
+         * @return the errors
+         */
+        @NotNull
+        /* default */ List<Exception> getErrors() {
+            return errors;
+        }
+
+        /**
+         * Get the warnings of the {@link CodeChecker}. They are only searched once.
+         *
+         * @return the warnings
+         */
+        @NotNull
+        /* default */ synchronized List<String> getWarnings() {
+            if (warnings == null) {
+                warnings = Collections.unmodifiableList(CodeChecker.findWarnings(programToken));
+            }
+            return warnings;
+        }
+
+        /**
+         * Get the warnings of the {@link CodeChecker} by line. They are only searched once.
+         *
+         * @return the warnings by index of the line they refer to
+         */
+        @NotNull
+        /* default */ synchronized Map<Integer, List<String>> getLineWarnings() {
+            if (lineWarnings == null) {
+                lineWarnings = Collections.unmodifiableMap(CodeChecker.findLineWarnings(programToken));
+            }
+            return lineWarnings;
+        }
+    }
+}
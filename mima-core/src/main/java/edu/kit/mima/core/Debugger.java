@@ -2,6 +2,9 @@ package edu.kit.mima.core;
 
 import edu.kit.mima.core.interpretation.Breakpoint;
 import edu.kit.mima.core.interpretation.Value;
+import edu.kit.mima.core.interpretation.Watchpoint;
+import edu.kit.mima.core.interpretation.WatchpointHit;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.function.Consumer;
@@ -24,6 +27,49 @@ public interface Debugger {
 
     void step();
 
+    /**
+     * Replace the breakpoints of the running program. Has no effect if the debugger isn't running.
+     *
+     * @param breakpoints the new breakpoints
+     */
+    void setBreakpoints(Collection<Breakpoint> breakpoints);
+
+    /**
+     * Set the watchpoints. They are used by the running program and all later runs. Execution
+     * pauses after the instruction that triggered a watchpoint.
+     *
+     * @param watchpoints the watchpoints
+     */
+    void setWatchpoints(Collection<Watchpoint> watchpoints);
+
+    /**
+     * Get the memory access that caused the current pause.
+     *
+     * @return the watchpoint hit. Null if execution isn't paused by a watchpoint.
+     */
+    @Nullable
+    WatchpointHit getWatchpointHit();
+
+    /**
+     * Return to the state before the previous instruction. Does nothing if the execution history
+     * doesn't reach back that far.
+     */
+    void stepBack();
+
+    /**
+     * Return to the last instruction at a breakpoint that was executed before the current one. If
+     * no breakpoint was hit execution returns to the oldest state kept in the history. Conditions
+     * and hit counts of breakpoints are ignored.
+     */
+    void runBackToBreakpoint();
+
+    /**
+     * Returns whether the debugger is paused and can return to a previous instruction.
+     *
+     * @return true if stepping back is possible
+     */
+    boolean canStepBack();
+
     boolean isRunning();
 
     boolean isPaused();
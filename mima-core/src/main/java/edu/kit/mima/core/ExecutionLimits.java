@@ -0,0 +1,141 @@
+package edu.kit.mima.core;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Limits for a single run of a program. Exceeding a limit ends execution with the corresponding
+ * {@link Termination}.
+ * <p>
+ * The step limit counts executed instructions and is deterministic. Every evaluated statement that
+ * calls an instruction is one step, including one that fails. Definitions and scopes are not
+ * steps, so both execution modes count the same steps for a program. The timeout is checked
+ * periodically, so execution may take slightly longer. The memory limit bounds the number of
+ * memory cells in use (see {@link edu.kit.mima.core.data.WordMemory#getUsedCellCount()}).
+ * <p>
+ * Instances are immutable.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class ExecutionLimits {
+
+    /**
+     * Limits that never end execution.
+     */
+    public static final ExecutionLimits NONE = new ExecutionLimits(Long.MAX_VALUE, null, Integer.MAX_VALUE);
+
+    private final long maxSteps;
+    @Nullable
+    private final Duration timeout;
+    private final int maxMemoryCells;
+
+    private ExecutionLimits(final long maxSteps, @Nullable final Duration timeout, final int maxMemoryCells) {
+        this.maxSteps = maxSteps;
+        this.timeout = timeout;
+        this.maxMemoryCells = maxMemoryCells;
+    }
+
+    /**
+     * Create limits with the given maximum number of executed instructions.
+     *
+     * @param maxSteps maximum number of steps
+     * @return new limits
+     * @throws IllegalArgumentException if maxSteps is negative
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public ExecutionLimits withMaxSteps(final long maxSteps) {
+        if (maxSteps < 0) {
+            throw new IllegalArgumentException("negative step limit: " + maxSteps);
+        }
+        return new ExecutionLimits(maxSteps, timeout, maxMemoryCells);
+    }
+
+    /**
+     * Create limits with the given wall-clock timeout.
+     *
+     * @param timeout the timeout. Null for no timeout.
+     * @return new limits
+     * @throws IllegalArgumentException if the timeout is negative
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public ExecutionLimits withTimeout(@Nullable final Duration timeout) {
+        if (timeout != null && timeout.isNegative()) {
+            throw new IllegalArgumentException("negative timeout: " + timeout);
+        }
+        return new ExecutionLimits(maxSteps, timeout, maxMemoryCells);
+    }
+
+    /**
+     * Create limits with the given maximum number of memory cells in use.
+     *
+     * @param maxMemoryCells maximum number of memory cells
+     * @return new limits
+     * @throws IllegalArgumentException if maxMemoryCells is negative
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public ExecutionLimits withMaxMemoryCells(final int maxMemoryCells) {
+        if (maxMemoryCells < 0) {
+            throw new IllegalArgumentException("negative memory limit: " + maxMemoryCells);
+        }
+        return new ExecutionLimits(maxSteps, timeout, maxMemoryCells);
+    }
+
+    /**
+     * Get the maximum number of executed instructions.
+     *
+     * @return maximum number of steps. {@link Long#MAX_VALUE} if unlimited.
+     */
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * Get the wall-clock timeout.
+     *
+     * @return the timeout. Null if there is none.
+     */
+    @Nullable
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Get the maximum number of memory cells in use.
+     *
+     * @return maximum number of cells. {@link Integer#MAX_VALUE} if unlimited.
+     */
+    public int getMaxMemoryCells() {
+        return maxMemoryCells;
+    }
+
+    /**
+     * Get the value of {@link System#nanoTime()} at which a run started at the given time times
+     * out.
+     *
+     * @param startNanos start of the run
+     * @return the deadline. {@link Long#MAX_VALUE} if there is no timeout.
+     */
+    public long getDeadline(final long startNanos) {
+        if (timeout == null) {
+            return Long.MAX_VALUE;
+        }
+        final long nanos = timeout.toNanos();
+        return nanos > Long.MAX_VALUE - startNanos ? Long.MAX_VALUE : startNanos + nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionLimits{"
+               + "maxSteps=" + (maxSteps == Long.MAX_VALUE ? "none" : maxSteps)
+               + ", timeout=" + (timeout == null ? "none" : timeout)
+               + ", maxMemoryCells=" + (maxMemoryCells == Integer.MAX_VALUE ? "none" : maxMemoryCells)
+               + '}';
+    }
+}
@@ -0,0 +1,28 @@
+package edu.kit.mima.core;
+
+import edu.kit.mima.core.bytecode.BytecodeEngine;
+import edu.kit.mima.core.interpretation.Interpreter;
+
+/**
+ * Modes of execution for {@link MimaRunner}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public enum ExecutionMode {
+    /**
+     * Execute the program token with the {@link Interpreter}.
+     */
+    INTERPRETER,
+    /**
+     * Execute the program token with the {@link Interpreter} evaluating iteratively. See {@link
+     * Interpreter#setIterative(boolean)}.
+     */
+    ITERATIVE_INTERPRETER,
+    /**
+     * Lower the program to bytecode and execute it with the {@link BytecodeEngine}. Only used for
+     * runs without debugger. Programs the {@link edu.kit.mima.core.bytecode.BytecodeCompiler}
+     * rejects are executed with the {@link Interpreter} instead.
+     */
+    BYTECODE
+}
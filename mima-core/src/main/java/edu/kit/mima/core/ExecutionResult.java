@@ -0,0 +1,88 @@
+package edu.kit.mima.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Result of a single run of a program.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class ExecutionResult {
+
+    @NotNull
+    private final Termination termination;
+    private final long steps;
+    @NotNull
+    private final Duration wallTime;
+    @Nullable
+    private final Exception cause;
+
+    /**
+     * Create new ExecutionResult.
+     *
+     * @param termination the reason execution ended
+     * @param steps       number of executed instructions
+     * @param wallTime    time used for execution
+     * @param cause       the exception that ended execution. Null if the program halted or was
+     *                    stopped.
+     */
+    public ExecutionResult(@NotNull final Termination termination,
+                           final long steps,
+                           @NotNull final Duration wallTime,
+                           @Nullable final Exception cause) {
+        this.termination = termination;
+        this.steps = steps;
+        this.wallTime = wallTime;
+        this.cause = cause;
+    }
+
+    /**
+     * Get the reason execution ended.
+     *
+     * @return the termination
+     */
+    @NotNull
+    public Termination getTermination() {
+        return termination;
+    }
+
+    /**
+     * Get the number of executed instructions.
+     *
+     * @return number of steps
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get the time used for execution.
+     *
+     * @return the wall time
+     */
+    @NotNull
+    public Duration getWallTime() {
+        return wallTime;
+    }
+
+    /**
+     * Get the exception that ended execution. This is a {@link LimitExceededException} if a limit
+     * was exceeded.
+     *
+     * @return the cause. Null if the program halted or was stopped.
+     */
+    @Nullable
+    public Exception getCause() {
+        return cause;
+    }
+
+    @Override
+    public String toString() {
+        return termination + (cause == null ? "" : " (" + cause.getMessage() + ")")
+               + " after " + steps + " steps, " + wallTime.toMillis() + "ms";
+    }
+}
@@ -0,0 +1,40 @@
+package edu.kit.mima.core;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Gets thrown during execution if one of the {@link ExecutionLimits} is exceeded. Execution
+ * engines catch it and report the {@link Termination} instead of failing.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class LimitExceededException extends MimaRuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    private final Termination termination;
+
+    /**
+     * Create new LimitExceededException.
+     *
+     * @param termination the exceeded limit
+     * @param message     exception message
+     */
+    public LimitExceededException(@NotNull final Termination termination, final String message) {
+        super(message);
+        assert termination.isLimitExceeded() : "not a limit: " + termination;
+        this.termination = termination;
+    }
+
+    /**
+     * Get the termination corresponding to the exceeded limit.
+     *
+     * @return the termination
+     */
+    @NotNull
+    public Termination getTermination() {
+        return termination;
+    }
+}
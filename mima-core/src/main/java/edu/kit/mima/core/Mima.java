@@ -3,11 +3,16 @@ package edu.kit.mima.core;
 import edu.kit.mima.api.util.Tuple;
 import edu.kit.mima.api.util.ValueTuple;
 import edu.kit.mima.core.data.MachineWord;
-import edu.kit.mima.core.data.Memory;
 import edu.kit.mima.core.data.MemoryMap;
+import edu.kit.mima.core.data.WordMemory;
+import edu.kit.mima.core.interpretation.WatchTable;
 import edu.kit.mima.core.interpretation.environment.Environment;
+import edu.kit.mima.core.logic.ArithmeticLogicUnit;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
 
 /**
@@ -21,14 +26,19 @@ public class Mima {
     private final int constWordLength;
 
     @NotNull
-    private final MemoryMap memoryMap;
+    private final WordMemory memory;
     @NotNull
     private final MachineWord accumulator;
     @NotNull
     private final MachineWord stackPointer;
+    @NotNull
+    private final ArithmeticLogicUnit arithmeticLogicUnit;
 
     @NotNull
     private final Stack<Tuple<Integer, Environment>> returnStack;
+    @Nullable
+    private volatile WatchTable watchTable;
+    private boolean watchesSuspended;
 
     /**
      * Construct new Mima object with the given number of bits for memory and argument {@link
@@ -38,11 +48,25 @@ public class Mima {
      * @param constWordLength number of bits in argument values
      */
     public Mima(final int wordLength, final int constWordLength) {
+        this(wordLength, constWordLength, new MemoryMap(wordLength, 100));
+    }
+
+    /**
+     * Construct new Mima object with the given number of bits for memory and argument {@link
+     * MachineWord}s that uses the given memory.
+     *
+     * @param wordLength      number of bits in memory
+     * @param constWordLength number of bits in argument values
+     * @param memory          the memory to use. Its word length must match wordLength.
+     */
+    public Mima(final int wordLength, final int constWordLength, @NotNull final WordMemory memory) {
+        assert memory.getWordLength() == wordLength : "memory word length must match";
         this.wordLength = wordLength;
         this.constWordLength = constWordLength;
-        memoryMap = new MemoryMap(wordLength, 100);
+        this.memory = memory;
         accumulator = new MachineWord(0, wordLength);
         stackPointer = accumulator.clone();
+        arithmeticLogicUnit = new ArithmeticLogicUnit(wordLength);
         returnStack = new Stack<>();
     }
 
@@ -52,8 +76,8 @@ public class Mima {
      * @return memory
      */
     @NotNull
-    public Memory<MachineWord> getMemory() {
-        return memoryMap;
+    public WordMemory getMemory() {
+        return memory;
     }
 
     /**
@@ -82,7 +106,12 @@ public class Mima {
      */
     @NotNull
     public MachineWord loadValue(final int address) {
-        return memoryMap.loadValue(address);
+        final MachineWord value = memory.loadValue(address);
+        final WatchTable table = watchTable;
+        if (table != null && !watchesSuspended) {
+            table.loaded(address, value.intValue());
+        }
+        return value;
     }
 
     /**
@@ -92,7 +121,85 @@ public class Mima {
      * @param value   value to store
      */
     public void storeValue(final int address, @NotNull final MachineWord value) {
-        memoryMap.storeValue(address, value);
+        final WatchTable table = watchTable;
+        if (table == null || watchesSuspended || !table.watchesWrite(address)) {
+            memory.storeValue(address, value);
+            return;
+        }
+        final int oldValue = memory.loadIntValue(address);
+        memory.storeValue(address, value);
+        table.stored(address, oldValue, memory.loadIntValue(address));
+    }
+
+    /**
+     * Load the packed value from memory without allocating a new {@link MachineWord}.
+     *
+     * @param address memory address
+     * @return value in memory
+     */
+    public int loadIntValue(final int address) {
+        final int value = memory.loadIntValue(address);
+        final WatchTable table = watchTable;
+        if (table != null && !watchesSuspended) {
+            table.loaded(address, value);
+        }
+        return value;
+    }
+
+    /**
+     * Store a packed value in memory without allocating a new {@link MachineWord}.
+     *
+     * @param address memory address
+     * @param value   value to store
+     */
+    public void storeIntValue(final int address, final int value) {
+        final WatchTable table = watchTable;
+        if (table == null || watchesSuspended || !table.watchesWrite(address)) {
+            memory.storeIntValue(address, value);
+            return;
+        }
+        final int oldValue = memory.loadIntValue(address);
+        memory.storeIntValue(address, value);
+        table.stored(address, oldValue, memory.loadIntValue(address));
+    }
+
+    /**
+     * Set the watchpoints that are checked on every memory access through this mima. Accesses
+     * through {@link #getMemory()} aren't watched.
+     *
+     * @param watchTable the compiled watchpoints. Null if memory isn't watched.
+     */
+    public void setWatchTable(@Nullable final WatchTable watchTable) {
+        this.watchTable = watchTable;
+    }
+
+    /**
+     * Get the watchpoints that are checked on memory access.
+     *
+     * @return the compiled watchpoints. Null if memory isn't watched.
+     */
+    @Nullable
+    public WatchTable getWatchTable() {
+        return watchTable;
+    }
+
+    /**
+     * Suspend or resume checking watchpoints, e.g. while execution is replayed.
+     *
+     * @param suspended true if watchpoints should not be checked
+     */
+    public void setWatchesSuspended(final boolean suspended) {
+        this.watchesSuspended = suspended;
+    }
+
+    /**
+     * Get the arithmetic logic unit operating on the word length of this mima.
+     *
+     * @return the alu
+     */
+    @NotNull
+    public ArithmeticLogicUnit getArithmeticLogicUnit() {
+        return arithmeticLogicUnit;
     }
 
     /**
@@ -111,7 +218,25 @@ public class Mima {
      * @param value value to set to
      */
     public void setAccumulator(@NotNull final MachineWord value) {
-        accumulator.setValue(value.intValue());
+        setAccumulatorValue(value.intValue());
+    }
+
+    /**
+     * Get the packed accumulator value.
+     *
+     * @return accumulator value
+     */
+    public int getAccumulatorValue() {
+        return accumulator.intValue();
+    }
+
+    /**
+     * Set the packed accumulator value. The value is truncated to the word length.
+     *
+     * @param value value to set to
+     */
+    public void setAccumulatorValue(final int value) {
+        accumulator.setValue(MachineWord.normalize(value, wordLength));
     }
 
     /**
@@ -143,6 +268,26 @@ public class Mima {
         return returnStack.pop();
     }
 
+    /**
+     * Save the entries of the return stack.
+     *
+     * @return the entries of the return stack, bottom first
+     */
+    @NotNull
+    public List<Tuple<Integer, Environment>> saveReturnStack() {
+        return new ArrayList<>(returnStack);
+    }
+
+    /**
+     * Replace the entries of the return stack with entries saved by {@link #saveReturnStack()}.
+     *
+     * @param routines the entries of the return stack, bottom first
+     */
+    public void restoreReturnStack(@NotNull final List<Tuple<Integer, Environment>> routines) {
+        returnStack.clear();
+        returnStack.addAll(routines);
+    }
+
     /**
      * Get the stackPointer.
      *
@@ -153,22 +298,129 @@ public class Mima {
         return stackPointer;
     }
 
+    /**
+     * Get the packed stack pointer value.
+     *
+     * @return stack pointer value
+     */
+    public int getStackPointerValue() {
+        return stackPointer.intValue();
+    }
+
     /**
      * Set the stack pointer value.
      *
      * @param address address to set stack pointer to
      */
     public void setStackPointer(final int address) {
-        stackPointer.setValue(address);
+        stackPointer.setValue(MachineWord.normalize(address, wordLength));
+    }
+
+    /**
+     * Save the state of the mima, i.e. its memory, registers and return stack. The memory is
+     * forked, so taking a snapshot of a {@link edu.kit.mima.core.data.PagedMemory} only copies its
+     * page table.
+     *
+     * @return the snapshot
+     */
+    @NotNull
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Return to the state saved in a snapshot. The snapshot can be restored again afterwards.
+     *
+     * @param snapshot snapshot of a mima with the same word lengths
+     * @throws IllegalArgumentException if the word lengths don't match
+     */
+    public void restore(@NotNull final Snapshot snapshot) {
+        if (snapshot.wordLength != wordLength || snapshot.constWordLength != constWordLength) {
+            throw new IllegalArgumentException("word lengths of snapshot must match");
+        }
+        memory.restore(snapshot.memory);
+        setAccumulatorValue(snapshot.accumulator);
+        setStackPointer(snapshot.stackPointer);
+        restoreReturnStack(snapshot.returnStack);
+    }
+
+    /**
+     * Create a new mima in the same state as this one. Changes to either mima don't affect the
+     * other one. Watchpoints aren't copied.
+     *
+     * @return the copy
+     */
+    @NotNull
+    public Mima fork() {
+        final Mima copy = new Mima(wordLength, constWordLength, memory.fork());
+        copy.setAccumulatorValue(getAccumulatorValue());
+        copy.setStackPointer(getStackPointerValue());
+        copy.restoreReturnStack(returnStack);
+        return copy;
     }
 
     /**
      * Reset the memory.
      */
     public void reset() {
-        memoryMap.empty();
+        memory.empty();
         accumulator.setValue(0);
         stackPointer.setValue(0);
     }
 
+    /**
+     * Saved state of a {@link Mima}. Snapshots are immutable and can be {@link #fork() forked}
+     * concurrently, e.g. to run many inputs starting from a common state.
+     */
+    public static final class Snapshot {
+        private final int wordLength;
+        private final int constWordLength;
+        @NotNull
+        private final WordMemory memory;
+        private final int accumulator;
+        private final int stackPointer;
+        @NotNull
+        private final List<Tuple<Integer, Environment>> returnStack;
+
+        private Snapshot(@NotNull final Mima mima) {
+            wordLength = mima.wordLength;
+            constWordLength = mima.constWordLength;
+            memory = mima.memory.fork();
+            accumulator = mima.getAccumulatorValue();
+            stackPointer = mima.getStackPointerValue();
+            returnStack = List.copyOf(mima.returnStack);
+        }
+
+        /**
+         * Create a new mima in the saved state.
+         *
+         * @return the new mima
+         */
+        @NotNull
+        public Mima fork() {
+            final Mima mima = new Mima(wordLength, constWordLength, memory.fork());
+            mima.restoreReturnStack(returnStack);
+            mima.setAccumulatorValue(accumulator);
+            mima.setStackPointer(stackPointer);
+            return mima;
+        }
+
+        /**
+         * Get the number of bits used in memory.
+         *
+         * @return number of bits of one word in memory
+         */
+        public int getWordLength() {
+            return wordLength;
+        }
+
+        /**
+         * Get the number of bits used in arguments.
+         *
+         * @return number of bits of one argument
+         */
+        public int getConstWordLength() {
+            return constWordLength;
+        }
+    }
 }
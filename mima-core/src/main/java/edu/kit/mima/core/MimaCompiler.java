@@ -1,22 +1,34 @@
 package edu.kit.mima.core;
 
+import edu.kit.mima.api.util.Tuple;
+import edu.kit.mima.api.util.ValueTuple;
 import edu.kit.mima.core.parsing.Parser;
+import edu.kit.mima.core.parsing.ParserException;
+import edu.kit.mima.core.parsing.ProcessorException;
 import edu.kit.mima.core.parsing.preprocessor.PreProcessor;
 import edu.kit.mima.core.token.ProgramToken;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Compiler for Mima Code.
+ * <p>
+ * Results are cached. Compiling the same input again skips preprocessing, parsing and checking as
+ * long as none of the included files changed.
  *
  * @author Jannis Weis
  * @since 2018
  */
 public class MimaCompiler {
 
+    @NotNull
+    private final CompilationCache cache = new CompilationCache();
+
     /**
      * Compile given input.
      *
@@ -54,34 +66,95 @@ public class MimaCompiler {
             final boolean throwErrors,
             final boolean preProcess,
             final boolean performCheck) {
-        final List<Exception> errors = new ArrayList<>();
-        String text = input;
-        if (preProcess) {
-            final var processed =
-                    new PreProcessor(input, filePath, workingDirectory, mimaDirectory, true).process();
-            errors.addAll(processed.getSecond());
-            text = processed.getFirst();
-        }
-        final var parsed = new Parser(text).parse();
-        final var programToken = parsed.getFirst();
-        errors.addAll(parsed.getSecond());
+        final CompilationCache.Compilation compilation =
+                lookup(input, filePath, workingDirectory, mimaDirectory, preProcess);
+        final List<Exception> errors = compilation.getErrors();
         if (!errors.isEmpty() && throwErrors) {
             final String message =
                     errors.stream().map(Exception::getMessage).collect(Collectors.joining("\n"));
             throw new IllegalArgumentException("Invalid Tokens \n" + message);
         }
         if (performCheck) {
-            checkCode(programToken);
+            checkCode(compilation);
         }
-        return programToken;
+        return compilation.getProgramToken();
+    }
+
+    /**
+     * Find the errors and warnings of the given input without reporting them. Results are shared
+     * with {@link #compile(String, String, String, String)}.
+     * <p>
+     * Errors of the input itself have its position. Errors of included files are {@link
+     * ProcessorException}s without position, their message names the file and the line in it.
+     *
+     * @param input            file input.
+     * @param filePath         path to file.
+     * @param workingDirectory working directory
+     * @param mimaDirectory    mima directory
+     * @return the errors and the warnings by index of the line they refer to.
+     */
+    @NotNull
+    public Tuple<List<Exception>, Map<Integer, List<String>>> diagnose(
+            @NotNull final String input,
+            @NotNull final String filePath,
+            @NotNull final String workingDirectory,
+            @NotNull final String mimaDirectory) {
+        final CompilationCache.Compilation compilation =
+                lookup(input, filePath, workingDirectory, mimaDirectory, true);
+        return new ValueTuple<>(compilation.getErrors(), compilation.getLineWarnings());
+    }
+
+    @NotNull
+    private CompilationCache.Compilation lookup(
+            @NotNull final String input,
+            @NotNull final String filePath,
+            @NotNull final String workingDirectory,
+            @NotNull final String mimaDirectory,
+            final boolean preProcess) {
+        final String key = String.join("\0", CompilationCache.hash(input), filePath,
+                                       workingDirectory, mimaDirectory, String.valueOf(preProcess));
+        CompilationCache.Compilation compilation = cache.get(key);
+        if (compilation == null) {
+            compilation = compile(input, filePath, workingDirectory, mimaDirectory, preProcess);
+            cache.put(key, compilation);
+        }
+        return compilation;
+    }
+
+    @NotNull
+    private CompilationCache.Compilation compile(
+            @NotNull final String input,
+            @NotNull final String filePath,
+            @NotNull final String workingDirectory,
+            @NotNull final String mimaDirectory,
+            final boolean preProcess) {
+        final List<Exception> errors = new ArrayList<>();
+        final Map<String, String> includes = new HashMap<>();
+        if (!preProcess) {
+            final var parsed = new Parser(input).parse();
+            errors.addAll(parsed.getSecond());
+            return new CompilationCache.Compilation(parsed.getFirst(), errors, includes);
+        }
+        final var preProcessor = new PreProcessor(input, filePath, workingDirectory, mimaDirectory,
+                                                  true, cache.loader(includes));
+        final var processed = preProcessor.process();
+        errors.addAll(processed.getSecond());
+        final var parsed = new Parser(processed.getFirst()).parse();
+        for (final ParserException e : parsed.getSecond()) {
+            errors.add(preProcessor.locate(e));
+        }
+        return new CompilationCache.Compilation(parsed.getFirst(), errors, includes);
     }
 
     /**
      * Check Code for probable bugs.
      *
-     * @param programToken program to check
+     * @param compilation compilation to check
      */
-    private void checkCode(final ProgramToken programToken) {
-        CodeChecker.checkCode(programToken);
+    private void checkCode(@NotNull final CompilationCache.Compilation compilation) {
+        final var logger = MimaCoreDefaults.getLogger();
+        for (final String warning : compilation.getWarnings()) {
+            logger.warning(warning);
+        }
     }
 }
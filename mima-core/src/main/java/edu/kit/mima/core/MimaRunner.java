@@ -2,22 +2,36 @@ package edu.kit.mima.core;
 
 import edu.kit.mima.api.event.SubscriptionManager;
 import edu.kit.mima.api.event.SubscriptionService;
+import edu.kit.mima.core.bytecode.Bytecode;
+import edu.kit.mima.core.bytecode.BytecodeCompiler;
+import edu.kit.mima.core.bytecode.BytecodeEngine;
+import edu.kit.mima.core.bytecode.UnsupportedProgramException;
 import edu.kit.mima.core.controller.ThreadDebugController;
+import edu.kit.mima.core.data.PagedMemory;
+import edu.kit.mima.core.data.WordMemory;
 import edu.kit.mima.core.instruction.InstructionSet;
 import edu.kit.mima.core.instruction.MimaInstruction;
 import edu.kit.mima.core.instruction.MimaXInstruction;
 import edu.kit.mima.core.interpretation.Breakpoint;
 import edu.kit.mima.core.interpretation.ExceptionHandler;
+import edu.kit.mima.core.interpretation.ExecutionHistory;
 import edu.kit.mima.core.interpretation.Interpreter;
 import edu.kit.mima.core.interpretation.Value;
+import edu.kit.mima.core.interpretation.Watchpoint;
+import edu.kit.mima.core.interpretation.WatchpointHit;
 import edu.kit.mima.core.interpretation.environment.Environment;
 import edu.kit.mima.core.interpretation.environment.GlobalEnvironment;
+import edu.kit.mima.core.profile.Profiler;
 import edu.kit.mima.core.token.Token;
+import edu.kit.mima.core.trace.TraceSink;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -45,6 +59,23 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
     private Mima mima;
     private Program program;
     private GlobalEnvironment globalEnvironment;
+    @NotNull
+    private ExecutionMode executionMode;
+    @NotNull
+    private ExecutionLimits limits;
+    @Nullable
+    private TraceSink traceSink;
+    private boolean profiling;
+    @Nullable
+    private Profiler profiler;
+    private long historyLimit;
+    @Nullable
+    private ExecutionHistory history;
+    @Nullable
+    private Bytecode bytecode;
+    private boolean bytecodeUnsupported;
+    @Nullable
+    private BytecodeEngine bytecodeEngine;
 
     /**
      * Create new MimaRunner.
@@ -55,27 +86,106 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
                 .offerSubscription(subscriptionService,
                                    RUNNING_PROPERTY, MimaDebugger.PAUSE_PROPERTY, MimaDebugger.RUNNING_PROPERTY);
         debugger = new MimaDebugger();
-        interpreter = new Interpreter(0, null, null);
         sharedException = new AtomicReference<>();
-        mima = new Mima(InstructionSet.MIMA_X.getWordLength(), InstructionSet.MIMA_X.getConstWordLength());
+        executionMode = ExecutionMode.INTERPRETER;
+        limits = ExecutionLimits.NONE;
+        historyLimit = ExecutionHistory.DEFAULT_MAX_BYTES;
+        mima = createMima(InstructionSet.MIMA_X, null);
+        interpreter = new Interpreter(mima, null, null);
+    }
+
+    /**
+     * Create a mima for the given instruction set. The memory covers the whole address space that
+     * can be reached with the argument word length of the instruction set.
+     *
+     * @param instructionSet the instruction set
+     * @param history        the history to record memory writes to. Null if they aren't recorded.
+     * @return new Mima
+     */
+    @NotNull
+    private static Mima createMima(@NotNull final InstructionSet instructionSet,
+                                   @Nullable final ExecutionHistory history) {
+        final WordMemory memory = new PagedMemory(instructionSet.getWordLength(),
+                                                  instructionSet.getConstWordLength());
+        return new Mima(instructionSet.getWordLength(), instructionSet.getConstWordLength(),
+                        history == null ? memory : history.record(memory));
     }
 
     /**
-     * Start the Execution.
+     * Start the Execution. Blocks until the program halts, fails, exceeds one of the {@link
+     * #getLimits() limits} or is stopped. Programs that can't be lowered to bytecode are
+     * interpreted even if the execution mode is {@link ExecutionMode#BYTECODE}.
      *
      * @param callback callback to execute with accumulator after program execution.
+     * @return the result of execution. Failures are thrown instead.
      */
-    public void start(final Consumer<Value<?>> callback) {
+    @NotNull
+    public ExecutionResult start(final Consumer<Value<?>> callback) {
+        if (executionMode == ExecutionMode.BYTECODE && lowerProgram()) {
+            return startBytecode(callback);
+        }
         mima.reset();
-        setupInterpreter(callback);
+        setupInterpreter(callback, false);
+        interpreter.setLimits(limits);
         threadDebugController.setBreaks(Collections.emptyList());
         threadDebugController.start();
         subscriptionService.notifyEvent(MimaRunner.RUNNING_PROPERTY, true, this);
+        final long start = System.nanoTime();
         do {
             threadDebugController.resume();
             checkForException();
         } while (threadDebugController.isActive() && isRunning());
+        final Duration wallTime = Duration.ofNanos(System.nanoTime() - start);
+        subscriptionService.notifyEvent(MimaRunner.RUNNING_PROPERTY, false, this);
+        return new ExecutionResult(Objects.requireNonNullElse(interpreter.getTermination(), Termination.STOPPED),
+                                   interpreter.getSteps(), wallTime, interpreter.getTerminationCause());
+    }
+
+    /*
+     * Lower the program to bytecode if it hasn't been lowered yet. Returns false if the program
+     * can't be executed as bytecode.
+     */
+    private boolean lowerProgram() {
+        if (program == null) {
+            throw new IllegalStateException("must parse program before starting");
+        }
+        if (bytecode == null && !bytecodeUnsupported) {
+            try {
+                bytecode = new BytecodeCompiler(program).compile();
+            } catch (@NotNull final UnsupportedProgramException e) {
+                bytecodeUnsupported = true;
+            }
+        }
+        return bytecode != null;
+    }
+
+    /**
+     * Start the execution of the program lowered to bytecode. Execution happens on the calling
+     * thread.
+     *
+     * @param callback callback to execute with accumulator after program execution.
+     * @return the result of execution
+     */
+    @NotNull
+    private ExecutionResult startBytecode(final Consumer<Value<?>> callback) {
+        mima = createMima(program.getInstructionSet(), null);
+        globalEnvironment = null;
+        final BytecodeEngine engine = new BytecodeEngine(Objects.requireNonNull(bytecode), mima);
+        engine.setLimits(limits);
+        engine.setTraceSink(createTraceSink());
+        bytecodeEngine = engine;
+        subscriptionService.notifyEvent(MimaRunner.RUNNING_PROPERTY, true, this);
+        final long start = System.nanoTime();
+        final Termination termination;
+        try {
+            termination = engine.run(callback);
+        } catch (@NotNull final IllegalArgumentException | IllegalStateException e) {
+            stop();
+            throw new RuntimeException(e);
+        }
+        final Duration wallTime = Duration.ofNanos(System.nanoTime() - start);
         subscriptionService.notifyEvent(MimaRunner.RUNNING_PROPERTY, false, this);
+        return new ExecutionResult(termination, engine.getSteps(), wallTime, engine.getTerminationCause());
     }
 
     /**
@@ -85,6 +195,7 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
         boolean debuggerWasRunning = debugger.isRunning();
         debugger.active = false;
         interpreter.setRunning(false);
+        Optional.ofNullable(bytecodeEngine).ifPresent(BytecodeEngine::stop);
         Optional.ofNullable(threadDebugController).ifPresent(ThreadDebugController::stop);
         if (debugger.active) {
             subscriptionService.notifyEvent(MimaDebugger.RUNNING_PROPERTY, false, debugger);
@@ -102,8 +213,7 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
      */
     private void createGlobalEnvironment(final Consumer<Value<?>> callback) {
         final InstructionSet instructionSet = program.getInstructionSet();
-        mima = new Mima(instructionSet.getWordLength(), instructionSet.getConstWordLength());
-        globalEnvironment = new GlobalEnvironment(program, mima, interpreter, callback);
+        globalEnvironment = new GlobalEnvironment(program, interpreter, callback);
         globalEnvironment.setupGlobalFunctions(MimaInstruction.values());
         if (instructionSet == InstructionSet.MIMA_X) {
             globalEnvironment.setupExtendedInstructionSet();
@@ -114,32 +224,54 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
     /**
      * Start the interpreter.
      *
-     * @param callback callback to execute with accumulator after program execution.
+     * @param callback      callback to execute with accumulator after program execution.
+     * @param recordHistory whether execution should be recorded to allow stepping back
      */
-    private void setupInterpreter(final Consumer<Value<?>> callback) {
+    private void setupInterpreter(final Consumer<Value<?>> callback, final boolean recordHistory) {
         if (program == null) {
             throw new IllegalStateException("must parse program before starting");
         }
         sharedException.set(null);
-        interpreter = new Interpreter(program.getInstructionSet().getConstWordLength(), null, this);
+        bytecodeEngine = null;
+        history = recordHistory && historyLimit > 0
+                  ? new ExecutionHistory(historyLimit, ExecutionHistory.DEFAULT_CHECKPOINT_INTERVAL)
+                  : null;
+        mima = createMima(program.getInstructionSet(), history);
+        interpreter = new Interpreter(mima, null, this);
+        interpreter.setIterative(executionMode == ExecutionMode.ITERATIVE_INTERPRETER || history != null);
+        interpreter.setHistory(history);
+        interpreter.setTraceSink(createTraceSink());
         createGlobalEnvironment(callback);
         threadDebugController = new ThreadDebugController(
-                new Thread(() -> interpreter.evaluateTopLevel(program.getProgramToken(), globalEnvironment)),
+                () -> interpreter.evaluateTopLevel(program.getProgramToken(), globalEnvironment),
                 () -> {
                     if (debugger.isRunning()) {
                         debugger.pause();
                     }
                 });
+        threadDebugController.setMima(mima);
         interpreter.setDebugController(threadDebugController);
     }
 
     /**
-     * Check if exception has occurred during execution.
+     * Create the sink for the next run. Creates a new profiler if profiling is enabled.
+     *
+     * @return the trace sink. Null if the run isn't traced.
+     */
+    @Nullable
+    private TraceSink createTraceSink() {
+        profiler = profiling ? new Profiler(program.getProgramToken()) : null;
+        if (profiler == null) {
+            return traceSink;
+        }
+        return traceSink == null ? profiler : traceSink.andThen(profiler);
+    }
+
+    /**
+     * Wait until execution pauses or finishes and check if exception has occurred.
      */
     private void checkForException() {
-        while (interpreter.isRunning() && threadDebugController.isActive()) {
-            Thread.onSpinWait();
-        }
+        threadDebugController.awaitPause();
         if (sharedException.get() != null) {
             stop();
             throw new RuntimeException(sharedException.get());
@@ -162,6 +294,8 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
             throw new MimaRuntimeException("Can't change program during execution");
         }
         this.program = program;
+        this.bytecode = null;
+        this.bytecodeUnsupported = false;
         this.mima.reset();
 
     }
@@ -173,6 +307,9 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
      */
     @Nullable
     public Token<?> getCurrentStatement() {
+        if (bytecodeEngine != null) {
+            return bytecodeEngine.getCurrentToken();
+        }
         return interpreter.getCurrentToken();
     }
 
@@ -201,7 +338,137 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
      * @return true if running
      */
     public boolean isRunning() {
-        return interpreter.isRunning();
+        return interpreter.isRunning() || (bytecodeEngine != null && bytecodeEngine.isRunning());
+    }
+
+    /**
+     * Get the execution mode.
+     *
+     * @return the execution mode
+     */
+    @NotNull
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Set the execution mode. Debugging always uses the {@link Interpreter}, which evaluates
+     * iteratively if the mode is {@link ExecutionMode#ITERATIVE_INTERPRETER} or the debugger records
+     * a history (see {@link #setHistoryLimit(long)}).
+     *
+     * @param executionMode the execution mode
+     */
+    public void setExecutionMode(@NotNull final ExecutionMode executionMode) {
+        if (isRunning()) {
+            throw new MimaRuntimeException("Can't change execution mode during execution");
+        }
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * Get the limits for runs started with {@link #start(Consumer)}.
+     *
+     * @return the limits
+     */
+    @NotNull
+    public ExecutionLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Set the limits for runs started with {@link #start(Consumer)}. Runs of the debugger are not
+     * limited, as they are paused and resumed by the user.
+     *
+     * @param limits the limits
+     */
+    public void setLimits(@NotNull final ExecutionLimits limits) {
+        if (isRunning()) {
+            throw new MimaRuntimeException("Can't change limits during execution");
+        }
+        this.limits = limits;
+    }
+
+    /**
+     * Get the sink executed instructions are recorded to.
+     *
+     * @return the trace sink. Null if execution isn't traced.
+     */
+    @Nullable
+    public TraceSink getTraceSink() {
+        return traceSink;
+    }
+
+    /**
+     * Set the sink executed instructions are recorded to. Applies to runs with and without
+     * debugger.
+     *
+     * @param traceSink the trace sink. Null if execution should not be traced.
+     */
+    public void setTraceSink(@Nullable final TraceSink traceSink) {
+        if (isRunning()) {
+            throw new MimaRuntimeException("Can't change trace sink during execution");
+        }
+        this.traceSink = traceSink;
+    }
+
+    /**
+     * Returns whether runs are profiled.
+     *
+     * @return true if profiling is enabled
+     */
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    /**
+     * Set whether runs with and without debugger are profiled. Every run gets a new {@link
+     * Profiler}, see {@link #getProfiler()}.
+     *
+     * @param profiling true if runs should be profiled
+     */
+    public void setProfiling(final boolean profiling) {
+        if (isRunning()) {
+            throw new MimaRuntimeException("Can't change profiling during execution");
+        }
+        this.profiling = profiling;
+    }
+
+    /**
+     * Get the profiler of the last or current run.
+     *
+     * @return the profiler. Null if the run isn't profiled.
+     */
+    @Nullable
+    public Profiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Get the memory limit of the history recorded by the debugger.
+     *
+     * @return limit in bytes. 0 if no history is recorded.
+     */
+    public long getHistoryLimit() {
+        return historyLimit;
+    }
+
+    /**
+     * Set the memory limit of the history the debugger records to be able to step back. Once the
+     * limit is reached the oldest steps are discarded.
+     *
+     * @param historyLimit limit in bytes. 0 if no history should be recorded.
+     * @throws IllegalArgumentException if the limit is positive but smaller than {@link
+     *                                  ExecutionHistory#getMinimumSize(int)}
+     */
+    public void setHistoryLimit(final long historyLimit) {
+        if (isRunning()) {
+            throw new MimaRuntimeException("Can't change history limit during execution");
+        }
+        if (historyLimit != 0
+            && historyLimit < ExecutionHistory.getMinimumSize(ExecutionHistory.DEFAULT_CHECKPOINT_INTERVAL)) {
+            throw new IllegalArgumentException("history limit too small: " + historyLimit);
+        }
+        this.historyLimit = historyLimit;
     }
 
     /**
@@ -217,6 +484,8 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
     private class MimaDebugger implements Debugger {
         private boolean active = false;
         private boolean paused = false;
+        @NotNull
+        private Collection<Watchpoint> watchpoints = Collections.emptyList();
 
         private void continueExecution() {
             do {
@@ -241,8 +510,9 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
             subscriptionService.notifyEvent(Debugger.PAUSE_PROPERTY, true, this);
 
             mima.reset();
-            setupInterpreter(callback);
+            setupInterpreter(callback, true);
             threadDebugController.setBreaks(breakpoints);
+            threadDebugController.setWatches(watchpoints);
             threadDebugController.start();
 
             subscriptionService.notifyEvent(Debugger.RUNNING_PROPERTY, true, this);
@@ -273,6 +543,69 @@ public class MimaRunner implements ExceptionHandler, CodeRunner {
             continueExecution();
         }
 
+        @Override
+        public void setBreakpoints(@NotNull final Collection<Breakpoint> breakpoints) {
+            if (isRunning()) {
+                threadDebugController.setBreaks(breakpoints);
+            }
+        }
+
+        @Override
+        public void setWatchpoints(@NotNull final Collection<Watchpoint> watchpoints) {
+            this.watchpoints = List.copyOf(watchpoints);
+            if (isRunning()) {
+                threadDebugController.setWatches(this.watchpoints);
+            }
+        }
+
+        @Nullable
+        @Override
+        public WatchpointHit getWatchpointHit() {
+            return isPaused() ? threadDebugController.getWatchpointHit() : null;
+        }
+
+        @Override
+        public void stepBack() {
+            if (canStepBack()) {
+                seek(getCurrentStep() - 1);
+            }
+        }
+
+        @Override
+        public void runBackToBreakpoint() {
+            if (!canStepBack()) {
+                return;
+            }
+            final ExecutionHistory executionHistory = Objects.requireNonNull(history);
+            final long step = executionHistory.findStep(
+                    threadDebugController::hasBreakpoint, getCurrentStep());
+            seek(step < 0 ? executionHistory.getFirstStep() : step);
+        }
+
+        @Override
+        public boolean canStepBack() {
+            return isPaused() && history != null && history.getFirstStep() >= 0
+                   && history.getFirstStep() < getCurrentStep();
+        }
+
+        /*
+         * The step of the instruction execution is paused at.
+         */
+        private long getCurrentStep() {
+            return interpreter.getStatements() - 1;
+        }
+
+        /*
+         * Return to the given step and pause there.
+         */
+        private void seek(final long step) {
+            interpreter.seek(step);
+            paused = true;
+            threadDebugController.setAutoPause(true);
+            subscriptionService.notifyEvent(Debugger.PAUSE_PROPERTY, true, this);
+            continueExecution();
+        }
+
         @Override
         public boolean isRunning() {
             return MimaRunner.this.isRunning() && active;
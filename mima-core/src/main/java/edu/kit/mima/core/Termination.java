@@ -0,0 +1,43 @@
+package edu.kit.mima.core;
+
+/**
+ * Reasons for the execution of a program to end.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public enum Termination {
+    /**
+     * The program executed HALT.
+     */
+    HALTED,
+    /**
+     * Execution was stopped from outside.
+     */
+    STOPPED,
+    /**
+     * The program failed with an error.
+     */
+    FAILED,
+    /**
+     * The maximum number of steps of the {@link ExecutionLimits} was reached.
+     */
+    STEP_LIMIT,
+    /**
+     * The timeout of the {@link ExecutionLimits} expired.
+     */
+    TIMEOUT,
+    /**
+     * The maximum number of memory cells of the {@link ExecutionLimits} was exceeded.
+     */
+    MEMORY_LIMIT;
+
+    /**
+     * Returns whether execution ended because an {@link ExecutionLimits} was exceeded.
+     *
+     * @return true if a limit was exceeded
+     */
+    public boolean isLimitExceeded() {
+        return this == STEP_LIMIT || this == TIMEOUT || this == MEMORY_LIMIT;
+    }
+}
@@ -0,0 +1,106 @@
+package edu.kit.mima.core.batch;
+
+import edu.kit.mima.core.instruction.InstructionSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A program to be executed by {@link BatchRunner}. Consists of the program source, the instruction
+ * set and an optional memory image that is loaded into memory before execution.
+ * <p>
+ * The source is run through the preprocessor. Includes are resolved against the working directory
+ * of the {@link BatchRunner}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class BatchJob {
+
+    @NotNull
+    private final String name;
+    @NotNull
+    private final String source;
+    @NotNull
+    private final InstructionSet instructionSet;
+    @NotNull
+    private final Map<Integer, Integer> memoryImage;
+
+    /**
+     * Create new BatchJob with empty initial memory.
+     *
+     * @param name           name of the job used to identify its result
+     * @param source         program source
+     * @param instructionSet instruction set of the program
+     */
+    public BatchJob(@NotNull final String name,
+                    @NotNull final String source,
+                    @NotNull final InstructionSet instructionSet) {
+        this(name, source, instructionSet, Collections.emptyMap());
+    }
+
+    /**
+     * Create new BatchJob.
+     *
+     * @param name           name of the job used to identify its result
+     * @param source         program source
+     * @param instructionSet instruction set of the program
+     * @param memoryImage    values to store in memory before execution. Mapping from address to
+     *                       value.
+     */
+    public BatchJob(@NotNull final String name,
+                    @NotNull final String source,
+                    @NotNull final InstructionSet instructionSet,
+                    @NotNull final Map<Integer, Integer> memoryImage) {
+        this.name = name;
+        this.source = source;
+        this.instructionSet = instructionSet;
+        this.memoryImage = Map.copyOf(memoryImage);
+    }
+
+    /**
+     * Get the name of the job.
+     *
+     * @return the name
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the program source.
+     *
+     * @return the source
+     */
+    @NotNull
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Get the instruction set of the program.
+     *
+     * @return the instruction set
+     */
+    @NotNull
+    public InstructionSet getInstructionSet() {
+        return instructionSet;
+    }
+
+    /**
+     * Get the initial memory image.
+     *
+     * @return unmodifiable mapping from address to value
+     */
+    @NotNull
+    public Map<Integer, Integer> getMemoryImage() {
+        return memoryImage;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,146 @@
+package edu.kit.mima.core.batch;
+
+import edu.kit.mima.core.Termination;
+import edu.kit.mima.core.data.MachineWord;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Result of executing a {@link BatchJob}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class BatchResult {
+
+    @NotNull
+    private final BatchJob job;
+    @NotNull
+    private final Termination termination;
+    @Nullable
+    private final MachineWord accumulator;
+    @NotNull
+    private final Map<Integer, MachineWord> memory;
+    private final long steps;
+    @NotNull
+    private final Duration wallTime;
+    @Nullable
+    private final Exception error;
+
+    /**
+     * Create new BatchResult.
+     *
+     * @param job         the executed job
+     * @param termination the reason execution ended
+     * @param accumulator the final accumulator. Null if the program did not halt.
+     * @param memory      snapshot of the final memory
+     * @param steps       number of executed instructions
+     * @param wallTime    time used for executing the job
+     * @param error       the error that occurred. Null if the program halted normally.
+     */
+    /* default */ BatchResult(@NotNull final BatchJob job,
+                              @NotNull final Termination termination,
+                              @Nullable final MachineWord accumulator,
+                              @NotNull final Map<Integer, MachineWord> memory,
+                              final long steps,
+                              @NotNull final Duration wallTime,
+                              @Nullable final Exception error) {
+        this.job = job;
+        this.termination = termination;
+        this.accumulator = accumulator;
+        this.memory = Collections.unmodifiableMap(memory);
+        this.steps = steps;
+        this.wallTime = wallTime;
+        this.error = error;
+    }
+
+    /**
+     * Get the executed job.
+     *
+     * @return the job
+     */
+    @NotNull
+    public BatchJob getJob() {
+        return job;
+    }
+
+    /**
+     * Get the reason execution ended.
+     *
+     * @return the termination
+     */
+    @NotNull
+    public Termination getTermination() {
+        return termination;
+    }
+
+    /**
+     * Returns whether the program halted without error.
+     *
+     * @return true if successful
+     */
+    public boolean isSuccessful() {
+        return termination == Termination.HALTED;
+    }
+
+    /**
+     * Get the value of the accumulator after the program halted.
+     *
+     * @return the accumulator. Null if the program did not halt.
+     */
+    @Nullable
+    public MachineWord getAccumulator() {
+        return accumulator;
+    }
+
+    /**
+     * Get the memory after execution. Only contains addresses that have been written to.
+     *
+     * @return unmodifiable mapping from address to value
+     */
+    @NotNull
+    public Map<Integer, MachineWord> getMemory() {
+        return memory;
+    }
+
+    /**
+     * Get the number of executed instructions.
+     *
+     * @return number of steps
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get the time used for executing the job. Compilation is shared between jobs with the same
+     * source and not included.
+     *
+     * @return the wall time
+     */
+    @NotNull
+    public Duration getWallTime() {
+        return wallTime;
+    }
+
+    /**
+     * Get the error that occurred during compilation or execution. If a limit was exceeded this is
+     * a {@link edu.kit.mima.core.LimitExceededException}.
+     *
+     * @return the error. Null if the program halted normally.
+     */
+    @Nullable
+    public Exception getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return job + (error == null ? " -> " + accumulator : " " + termination + ": " + error.getMessage())
+               + " (" + steps + " steps, " + wallTime.toMillis() + "ms)";
+    }
+}
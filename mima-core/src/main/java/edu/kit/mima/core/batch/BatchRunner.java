@@ -0,0 +1,454 @@
+package edu.kit.mima.core.batch;
+
+import edu.kit.mima.core.ExecutionLimits;
+import edu.kit.mima.core.ExecutionMode;
+import edu.kit.mima.core.Mima;
+import edu.kit.mima.core.MimaCompiler;
+import edu.kit.mima.core.Program;
+import edu.kit.mima.core.Termination;
+import edu.kit.mima.core.bytecode.Bytecode;
+import edu.kit.mima.core.bytecode.BytecodeCompiler;
+import edu.kit.mima.core.bytecode.BytecodeEngine;
+import edu.kit.mima.core.bytecode.UnsupportedProgramException;
+import edu.kit.mima.core.controller.DebugController;
+import edu.kit.mima.core.data.MachineWord;
+import edu.kit.mima.core.data.PagedMemory;
+import edu.kit.mima.core.instruction.InstructionSet;
+import edu.kit.mima.core.instruction.MimaInstruction;
+import edu.kit.mima.core.instruction.MimaXInstruction;
+import edu.kit.mima.core.interpretation.Interpreter;
+import edu.kit.mima.core.interpretation.environment.GlobalEnvironment;
+import edu.kit.mima.core.token.Token;
+import edu.kit.mima.core.trace.TraceSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Headless runner that executes many {@link BatchJob}s in parallel on a thread pool.
+ * <p>
+ * Every job runs on its own {@link Mima} on a pool thread. Jobs are executed with the {@link
+ * Interpreter} unless another {@link ExecutionMode} is set, e.g. {@link ExecutionMode#BYTECODE} to
+ * run them with the {@link BytecodeEngine}. Programs that can't be lowered to bytecode are
+ * interpreted in any mode. Sources are preprocessed, so includes are resolved
+ * relative to the {@link #setWorkingDirectory(String) working directory}. Jobs with the same
+ * source and instruction set share a single compilation, so running one program against many
+ * memory images only parses and lowers it once. Runaway programs can be bounded
+ * with {@link ExecutionLimits}, which end them with a result instead of blocking a pool thread.
+ * Jobs can start from a common {@link Mima.Snapshot}, e.g. the state after running a shared
+ * prologue, which every job forks copy-on-write instead of rebuilding it.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class BatchRunner implements AutoCloseable {
+
+    /*
+     * Debug controller that never pauses.
+     */
+    private static final DebugController NO_DEBUG = new DebugController() {
+        @Override
+        public void pause() {
+        }
+
+        @Override
+        public void resume() {
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public void afterInstruction(final Token<?> nextInstruction) {
+        }
+    };
+
+    @NotNull
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    @NotNull
+    private final Map<ProgramKey, CompiledProgram> compiled;
+    @NotNull
+    private volatile ExecutionLimits limits;
+    @NotNull
+    private volatile ExecutionMode executionMode;
+    @NotNull
+    private volatile String workingDirectory;
+    @NotNull
+    private volatile String mimaDirectory;
+    @Nullable
+    private volatile Function<BatchJob, TraceSink> traceFactory;
+    @Nullable
+    private volatile Mima.Snapshot initialState;
+
+    /**
+     * Create new BatchRunner using a work-stealing pool with one thread per available processor.
+     */
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create new BatchRunner using a work-stealing pool with the given parallelism.
+     *
+     * @param parallelism number of threads used for execution
+     */
+    public BatchRunner(final int parallelism) {
+        this(new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * Create new BatchRunner that executes jobs on the given executor. The executor is not shut
+     * down by {@link #close()}.
+     *
+     * @param executor the executor to use
+     */
+    public BatchRunner(@NotNull final ExecutorService executor) {
+        this(executor, false);
+    }
+
+    private BatchRunner(@NotNull final ExecutorService executor, final boolean ownsExecutor) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        compiled = new ConcurrentHashMap<>();
+        limits = ExecutionLimits.NONE;
+        executionMode = ExecutionMode.INTERPRETER;
+        workingDirectory = "";
+        mimaDirectory = "";
+    }
+
+    /**
+     * Run all jobs and wait for them to finish. Errors of individual jobs are reported in their
+     * result and do not affect the other jobs.
+     *
+     * @param jobs the jobs to run
+     * @return results in the iteration order of the jobs
+     */
+    @NotNull
+    public List<BatchResult> run(@NotNull final Collection<BatchJob> jobs) {
+        final List<CompletableFuture<BatchResult>> futures = jobs.stream()
+                .map(this::submit)
+                .collect(Collectors.toList());
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    /**
+     * Submit a single job for execution.
+     *
+     * @param job the job to run
+     * @return future that completes with the result of the job
+     */
+    @NotNull
+    public CompletableFuture<BatchResult> submit(@NotNull final BatchJob job) {
+        return CompletableFuture.supplyAsync(() -> execute(job), executor);
+    }
+
+    /**
+     * Get the limits every job is executed with.
+     *
+     * @return the limits
+     */
+    @NotNull
+    public ExecutionLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Set the limits every job is executed with. Only affects jobs that start executing afterwards.
+     *
+     * @param limits the limits
+     */
+    public void setLimits(@NotNull final ExecutionLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Get the mode jobs are executed in.
+     *
+     * @return the execution mode
+     */
+    @NotNull
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Set the mode jobs are executed in. Defaults to {@link ExecutionMode#INTERPRETER}. Only affects
+     * jobs that start executing afterwards.
+     *
+     * @param executionMode the execution mode
+     */
+    public void setExecutionMode(@NotNull final ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * Set the directory includes of the job sources are resolved against. Defaults to the empty
+     * path, which resolves them relative to the current directory of the process. Only affects
+     * jobs that start executing afterwards.
+     *
+     * @param workingDirectory the working directory
+     */
+    public void setWorkingDirectory(@NotNull final String workingDirectory) {
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * Set the mima directory includes are resolved against if they aren't found in the working
+     * directory. Only affects jobs that start executing afterwards.
+     *
+     * @param mimaDirectory the mima directory
+     */
+    public void setMimaDirectory(@NotNull final String mimaDirectory) {
+        this.mimaDirectory = mimaDirectory;
+    }
+
+    /**
+     * Set the factory for the trace sink of each job. Jobs run in parallel, so every job should get
+     * its own sink. Only affects jobs that start executing afterwards.
+     *
+     * @param traceFactory function creating the trace sink of a job. Null if jobs should not be
+     *                     traced.
+     */
+    public void setTraceFactory(@Nullable final Function<BatchJob, TraceSink> traceFactory) {
+        this.traceFactory = traceFactory;
+    }
+
+    /**
+     * Set the state every job starts in. The memory image of a job is applied on top of it. Only
+     * affects jobs that start executing afterwards.
+     *
+     * @param initialState snapshot to fork for every job. Null if jobs start with an empty mima.
+     */
+    public void setInitialState(@Nullable final Mima.Snapshot initialState) {
+        this.initialState = initialState;
+    }
+
+    /**
+     * Discard all compiled programs.
+     */
+    public void clearCache() {
+        compiled.clear();
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /*
+     * Compile and execute the job on the calling thread.
+     */
+    @NotNull
+    private BatchResult execute(@NotNull final BatchJob job) {
+        final ExecutionMode mode = executionMode;
+        final Mima mima;
+        final Program program;
+        final Bytecode bytecode;
+        try {
+            mima = createMima(job.getInstructionSet());
+            final CompiledProgram compiledProgram = compiled.computeIfAbsent(
+                    new ProgramKey(job, workingDirectory, mimaDirectory), CompiledProgram::new);
+            program = compiledProgram.getProgram();
+            bytecode = mode == ExecutionMode.BYTECODE ? compiledProgram.getBytecode() : null;
+            job.getMemoryImage().forEach(mima::storeIntValue);
+        } catch (@NotNull final RuntimeException e) {
+            return new BatchResult(job, Termination.FAILED, null, Collections.emptyMap(),
+                                   0, Duration.ZERO, e);
+        }
+        final Function<BatchJob, TraceSink> factory = traceFactory;
+        final TraceSink traceSink = factory != null ? factory.apply(job) : null;
+        return bytecode != null
+               ? runBytecode(job, bytecode, mima, traceSink)
+               : interpret(job, program, mima, traceSink, mode == ExecutionMode.ITERATIVE_INTERPRETER);
+    }
+
+    /*
+     * Execute the job with the bytecode engine.
+     */
+    @NotNull
+    private BatchResult runBytecode(@NotNull final BatchJob job, @NotNull final Bytecode bytecode,
+                                    @NotNull final Mima mima, @Nullable final TraceSink traceSink) {
+        final BytecodeEngine engine = new BytecodeEngine(bytecode, mima);
+        engine.setLimits(limits);
+        engine.setTraceSink(traceSink);
+        final MachineWord[] accumulator = new MachineWord[1];
+        Termination termination = Termination.FAILED;
+        Exception error = null;
+        final long start = System.nanoTime();
+        try {
+            termination = engine.run(v -> accumulator[0] = (MachineWord) v.getValue());
+            error = engine.getTerminationCause();
+        } catch (@NotNull final RuntimeException e) {
+            error = e;
+        }
+        final Duration wallTime = Duration.ofNanos(System.nanoTime() - start);
+        return new BatchResult(job, termination, accumulator[0], mima.getMemory().getMapping(),
+                               engine.getSteps(), wallTime, error);
+    }
+
+    /*
+     * Execute the job with the interpreter.
+     */
+    @NotNull
+    private BatchResult interpret(@NotNull final BatchJob job, @NotNull final Program program,
+                                  @NotNull final Mima mima, @Nullable final TraceSink traceSink,
+                                  final boolean iterative) {
+        final Interpreter interpreter = new Interpreter(mima, NO_DEBUG, e -> {
+            /* Failures are reported as the termination cause */
+        });
+        interpreter.setIterative(iterative);
+        interpreter.setLimits(limits);
+        interpreter.setTraceSink(traceSink);
+        final MachineWord[] accumulator = new MachineWord[1];
+        final GlobalEnvironment globalEnvironment = new GlobalEnvironment(
+                program, interpreter, v -> accumulator[0] = (MachineWord) v.getValue());
+        globalEnvironment.setupGlobalFunctions(MimaInstruction.values());
+        if (program.getInstructionSet() == InstructionSet.MIMA_X) {
+            globalEnvironment.setupExtendedInstructionSet();
+            globalEnvironment.setupGlobalFunctions(MimaXInstruction.values());
+        }
+        Termination termination = Termination.FAILED;
+        Exception error = null;
+        final long start = System.nanoTime();
+        try {
+            interpreter.evaluateTopLevel(program.getProgramToken(), globalEnvironment);
+            termination = Objects.requireNonNull(interpreter.getTermination());
+            error = interpreter.getTerminationCause();
+        } catch (@NotNull final RuntimeException e) {
+            error = e;
+        }
+        final Duration wallTime = Duration.ofNanos(System.nanoTime() - start);
+        return new BatchResult(job, termination, accumulator[0], mima.getMemory().getMapping(),
+                               interpreter.getSteps(), wallTime, error);
+    }
+
+    /*
+     * Create the mima for a job. Forks the initial state if there is one.
+     */
+    @NotNull
+    private Mima createMima(@NotNull final InstructionSet instructionSet) {
+        final Mima.Snapshot state = initialState;
+        if (state == null) {
+            return new Mima(instructionSet.getWordLength(), instructionSet.getConstWordLength(),
+                            new PagedMemory(instructionSet.getWordLength(),
+                                            instructionSet.getConstWordLength()));
+        }
+        if (state.getWordLength() != instructionSet.getWordLength()
+            || state.getConstWordLength() != instructionSet.getConstWordLength()) {
+            throw new IllegalArgumentException("initial state doesn't match instruction set " + instructionSet);
+        }
+        return state.fork();
+    }
+
+    /*
+     * Key identifying programs that compile to the same program. Includes are resolved against the
+     * directories, so they are part of the key.
+     */
+    private static final class ProgramKey {
+        @NotNull
+        private final String source;
+        @NotNull
+        private final InstructionSet instructionSet;
+        @NotNull
+        private final String workingDirectory;
+        @NotNull
+        private final String mimaDirectory;
+
+        private ProgramKey(@NotNull final BatchJob job, @NotNull final String workingDirectory,
+                           @NotNull final String mimaDirectory) {
+            this.source = job.getSource();
+            this.instructionSet = job.getInstructionSet();
+            this.workingDirectory = workingDirectory;
+            this.mimaDirectory = mimaDirectory;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final ProgramKey that = (ProgramKey) o;
+            return instructionSet == that.instructionSet && source.equals(that.source)
+                   && workingDirectory.equals(that.workingDirectory)
+                   && mimaDirectory.equals(that.mimaDirectory);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, instructionSet, workingDirectory, mimaDirectory);
+        }
+    }
+
+    /*
+     * Program that is compiled once on first access and lowered to bytecode once it is first run
+     * with the bytecode engine. Compilation errors are remembered and rethrown on every access.
+     * Programs the bytecode compiler rejects have no bytecode.
+     */
+    private static final class CompiledProgram {
+        @NotNull
+        private final ProgramKey key;
+        @Nullable
+        private Program program;
+        @Nullable
+        private Bytecode bytecode;
+        @Nullable
+        private RuntimeException error;
+        private boolean bytecodeUnsupported;
+
+        private CompiledProgram(@NotNull final ProgramKey key) {
+            this.key = key;
+        }
+
+        @NotNull
+        private synchronized Program getProgram() {
+            if (program == null && error == null) {
+                try {
+                    final var programToken = new MimaCompiler().compile(
+                            key.source, "", key.workingDirectory, key.mimaDirectory, true, true, false);
+                    program = new Program(programToken, key.instructionSet);
+                } catch (@NotNull final RuntimeException e) {
+                    error = e;
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+            return Objects.requireNonNull(program);
+        }
+
+        @Nullable
+        private synchronized Bytecode getBytecode() {
+            if (bytecode == null && !bytecodeUnsupported) {
+                try {
+                    bytecode = new BytecodeCompiler(getProgram()).compile();
+                } catch (@NotNull final UnsupportedProgramException e) {
+                    bytecodeUnsupported = true;
+                }
+            }
+            return bytecode;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package edu.kit.mima.core.bytecode;
+
+import edu.kit.mima.api.util.Tuple;
+import edu.kit.mima.core.instruction.InstructionSet;
+import edu.kit.mima.core.token.Token;
+import edu.kit.mima.core.token.TokenType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Linear representation of a program created by {@link BytecodeCompiler}. The layout of the code
+ * array is described in {@link Opcode}. Jump targets and memory addresses are already resolved.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class Bytecode {
+
+    @NotNull
+    private final int[] code;
+    @NotNull
+    private final Token<?>[] tokens;
+    @NotNull
+    private final String[] messages;
+    @NotNull
+    private final int[] instructionTable;
+    @NotNull
+    private final int[] jumpIndices;
+    @NotNull
+    private final InstructionSet instructionSet;
+
+    /**
+     * Create new Bytecode.
+     *
+     * @param code             instruction array
+     * @param tokens           the statement token of each instruction
+     * @param messages         messages referenced by {@link Opcode#FAIL}
+     * @param instructionTable program counter for each instruction index. -1 if there is none.
+     * @param jumpIndices      instruction index of the target of each jump. -1 if there is none.
+     * @param instructionSet   the instruction set of the program
+     */
+    /* default */ Bytecode(@NotNull final int[] code,
+                           @NotNull final Token<?>[] tokens,
+                           @NotNull final String[] messages,
+                           @NotNull final int[] instructionTable,
+                           @NotNull final int[] jumpIndices,
+                           @NotNull final InstructionSet instructionSet) {
+        assert code.length == tokens.length * Opcode.STRIDE : "every instruction needs a token";
+        assert jumpIndices.length == tokens.length : "every instruction needs a jump index";
+        this.code = code;
+        this.tokens = tokens;
+        this.messages = messages;
+        this.instructionTable = instructionTable;
+        this.jumpIndices = jumpIndices;
+        this.instructionSet = instructionSet;
+    }
+
+    /**
+     * Get the code array. Must not be modified.
+     *
+     * @return the code
+     */
+    @NotNull
+    /* default */ int[] getCode() {
+        return code;
+    }
+
+    /**
+     * Get the number of instructions.
+     *
+     * @return number of instructions
+     */
+    public int size() {
+        return tokens.length;
+    }
+
+    /**
+     * Get the opcode of the instruction at the given program counter.
+     *
+     * @param pc program counter
+     * @return opcode of instruction
+     */
+    public int getOpcode(final int pc) {
+        return Opcode.opcode(code[pc * Opcode.STRIDE]);
+    }
+
+    /**
+     * Get the operand of the instruction at the given program counter.
+     *
+     * @param pc program counter
+     * @return operand of instruction
+     */
+    public int getOperand(final int pc) {
+        return code[pc * Opcode.STRIDE + 1];
+    }
+
+    /**
+     * Get the statement token the instruction at the given program counter was compiled from.
+     *
+     * @param pc program counter
+     * @return the token or null if pc is out of range
+     */
+    @Nullable
+    public Token<?> getToken(final int pc) {
+        return pc >= 0 && pc < tokens.length ? tokens[pc] : null;
+    }
+
+    /**
+     * Get the offset in the source file of the statement the instruction at the given program
+     * counter was compiled from. Jump points of the statement are skipped, so this is the offset
+     * of the instruction itself.
+     *
+     * @param pc program counter
+     * @return the offset or -1 if pc is out of range
+     */
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    public int getOffset(final int pc) {
+        if (pc < 0 || pc >= tokens.length) {
+            return -1;
+        }
+        Token<?> token = tokens[pc];
+        while (token.getType() == TokenType.JUMP_POINT) {
+            token = ((Tuple<Token<?>, Token<?>>) token).getSecond();
+        }
+        return token.getOffset();
+    }
+
+    /**
+     * Get the message with the given index.
+     *
+     * @param index index of message
+     * @return the message
+     */
+    @NotNull
+    public String getMessage(final int index) {
+        return messages[index];
+    }
+
+    /**
+     * Get the program counter of the instruction with the given instruction index.
+     *
+     * @param instructionIndex the instruction index
+     * @return program counter or -1 if there is no such instruction
+     */
+    public int programCounterOf(final int instructionIndex) {
+        if (instructionIndex < 0 || instructionIndex >= instructionTable.length) {
+            return -1;
+        }
+        return instructionTable[instructionIndex];
+    }
+
+    /**
+     * Get the instruction index of the target of the jump at the given program counter. This is the
+     * index the interpreter jumps to, while the operand of a resolved jump is a program counter.
+     *
+     * @param pc program counter
+     * @return the instruction index or -1 if the instruction isn't a jump with a known target
+     */
+    public int getJumpIndex(final int pc) {
+        return pc >= 0 && pc < jumpIndices.length ? jumpIndices[pc] : -1;
+    }
+
+    /**
+     * Get the instruction set of the program.
+     *
+     * @return the instruction set
+     */
+    @NotNull
+    public InstructionSet getInstructionSet() {
+        return instructionSet;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (int pc = 0; pc < tokens.length; pc++) {
+            final int instruction = code[pc * Opcode.STRIDE];
+            sb.append(pc).append('\t').append(Opcode.name(Opcode.opcode(instruction)))
+                    .append(' ').append(code[pc * Opcode.STRIDE + 1]);
+            final int spCount = Opcode.spCount(instruction);
+            if (spCount > 0) {
+                sb.append(" + ").append(spCount).append(" * SP");
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,670 @@
+package edu.kit.mima.core.bytecode;
+
+import edu.kit.mima.api.util.Tuple;
+import edu.kit.mima.core.Program;
+import edu.kit.mima.core.data.MachineWord;
+import edu.kit.mima.core.instruction.InstructionSet;
+import edu.kit.mima.core.interpretation.ValueType;
+import edu.kit.mima.core.token.BinaryToken;
+import edu.kit.mima.core.token.ListToken;
+import edu.kit.mima.core.token.ProgramToken;
+import edu.kit.mima.core.token.Token;
+import edu.kit.mima.core.token.TokenType;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lowers the {@link ProgramToken} of a {@link Program} to {@link Bytecode}.
+ * <p>
+ * Nested scopes are laid out inline between {@link Opcode#ENTER} and {@link Opcode#END}. As in the
+ * interpreter, entering a scope or taking a jump suspends the instruction following it, and falling
+ * off the end of a scope continues with the most recently suspended instruction. Identifiers, jump
+ * points and definitions are resolved lexically at compile time in the same order the {@link
+ * edu.kit.mima.core.interpretation.Interpreter} would resolve them. Statements that would fail
+ * during interpretation are compiled to {@link Opcode#FAIL}, so the error is only raised once the
+ * statement is reached.
+ * <p>
+ * The interpreter binds a definition when it is executed, so binding it at compile time is only
+ * valid if every definition of a scope is executed exactly once and before the statements
+ * following it. Programs in which control flow can reach a definition other than by falling
+ * through from the start of its scope are rejected with an {@link UnsupportedProgramException}:
+ * <ul>
+ * <li>a jump point of the scope precedes its last definition,</li>
+ * <li>a statement preceding the last definition jumps, calls or returns,</li>
+ * <li>the program jumps to an instruction index or address and defines anything,</li>
+ * <li>a definition body depends on the stack pointer.</li>
+ * </ul>
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class BytecodeCompiler {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    @NotNull
+    private final ProgramToken programToken;
+    @NotNull
+    private final InstructionSet instructionSet;
+    private final int wordLength;
+    private final int constWordLength;
+    @NotNull
+    private final List<Token<?>> tokens;
+    @NotNull
+    private final List<String> messages;
+    @NotNull
+    private final Map<String, Integer> messageIndices;
+    @NotNull
+    private final List<Integer> labels;
+    @NotNull
+    private final List<Integer> labelIndices;
+    @NotNull
+    private final List<int[]> labelFixups;
+    @NotNull
+    private final List<int[]> indexFixups;
+    @NotNull
+    private final Map<Integer, Integer> instructionTable;
+    @NotNull
+    private int[] code;
+    private int size;
+    private boolean hasDefinitions;
+    private boolean hasIndexJumps;
+
+    /**
+     * Create new BytecodeCompiler for the given program.
+     *
+     * @param program the program to compile
+     */
+    public BytecodeCompiler(@NotNull final Program program) {
+        this.programToken = program.getProgramToken();
+        this.instructionSet = program.getInstructionSet();
+        this.wordLength = instructionSet.getWordLength();
+        this.constWordLength = instructionSet.getConstWordLength();
+        tokens = new ArrayList<>();
+        messages = new ArrayList<>();
+        messageIndices = new HashMap<>();
+        labels = new ArrayList<>();
+        labelIndices = new ArrayList<>();
+        labelFixups = new ArrayList<>();
+        indexFixups = new ArrayList<>();
+        instructionTable = new HashMap<>();
+        code = new int[INITIAL_CAPACITY * Opcode.STRIDE];
+    }
+
+    /**
+     * Compile the program.
+     *
+     * @return the compiled bytecode
+     * @throws UnsupportedProgramException if the bytecode wouldn't behave like the interpreter.
+     */
+    @NotNull
+    public Bytecode compile() {
+        tokens.clear();
+        messages.clear();
+        messageIndices.clear();
+        labels.clear();
+        labelIndices.clear();
+        labelFixups.clear();
+        indexFixups.clear();
+        instructionTable.clear();
+        size = 0;
+        hasDefinitions = false;
+        hasIndexJumps = false;
+        compileProgram(programToken, null);
+        emit(Opcode.END, 0, false, 0, programToken);
+        if (hasDefinitions && hasIndexJumps) {
+            throw new UnsupportedProgramException("jumps to instruction indices may skip definitions");
+        }
+        return link();
+    }
+
+    /*
+     * Resolve jump targets and create the bytecode.
+     */
+    @NotNull
+    private Bytecode link() {
+        final int maxIndex = instructionTable.keySet().stream().mapToInt(i -> i).max().orElse(-1);
+        final int[] table = new int[maxIndex + 1];
+        Arrays.fill(table, -1);
+        instructionTable.forEach((index, pc) -> table[index] = pc);
+        final int[] jumpIndices = new int[size];
+        Arrays.fill(jumpIndices, -1);
+        for (final int[] fixup : labelFixups) {
+            code[fixup[0] * Opcode.STRIDE + 1] = labels.get(fixup[1]);
+            jumpIndices[fixup[0]] = labelIndices.get(fixup[1]);
+        }
+        for (final int[] fixup : indexFixups) {
+            jumpIndices[fixup[0]] = fixup[1];
+            final int pc = fixup[1] >= 0 && fixup[1] < table.length ? table[fixup[1]] : -1;
+            if (pc < 0) {
+                /* Jumping by index fails once the jump is taken */
+                final boolean conditional = code[fixup[0] * Opcode.STRIDE] == Opcode.JMN;
+                code[fixup[0] * Opcode.STRIDE] = conditional ? Opcode.JMN_INDEX : Opcode.JMP_INDEX;
+                code[fixup[0] * Opcode.STRIDE + 1] = fixup[1];
+            } else {
+                code[fixup[0] * Opcode.STRIDE + 1] = pc;
+            }
+        }
+        return new Bytecode(Arrays.copyOf(code, size * Opcode.STRIDE),
+                            tokens.toArray(new Token<?>[0]),
+                            messages.toArray(new String[0]),
+                            table,
+                            jumpIndices,
+                            instructionSet);
+    }
+
+    /*
+     * Compile a program token in a new scope.
+     */
+    private void compileProgram(@NotNull final ProgramToken program, @Nullable final Scope parent) {
+        final Scope scope = new Scope(parent);
+        final Token<?>[] statements = program.getValue();
+        checkDefinitionOrder(program);
+        final List<List<Integer>> jumpPoints = new ArrayList<>(statements.length);
+        for (int i = 0; i < statements.length; i++) {
+            jumpPoints.add(null);
+        }
+        program.getJumps().forEach((label, index) -> {
+            final int id = labels.size();
+            labels.add(-1);
+            labelIndices.add(program.getInstructionIndex(index));
+            scope.jumps.put(label.getValue().toString(), id);
+            if (index >= 0 && index < statements.length) {
+                if (jumpPoints.get(index) == null) {
+                    jumpPoints.set(index, new ArrayList<>());
+                }
+                jumpPoints.get(index).add(id);
+            }
+        });
+        final List<Integer> indexList = program.getIndexList();
+        for (int i = 0; i < statements.length; i++) {
+            if (jumpPoints.get(i) != null) {
+                for (final int id : jumpPoints.get(i)) {
+                    labels.set(id, size);
+                }
+            }
+            if (!isScope(statements[i]) && i < indexList.size()) {
+                instructionTable.putIfAbsent(indexList.get(i), size);
+            }
+            compileStatement(statements[i], statements[i], scope);
+        }
+    }
+
+    /*
+     * Check that the definitions of the scope are only reached by falling through from its start,
+     * so they are executed once and in order as they are compiled.
+     */
+    private void checkDefinitionOrder(@NotNull final ProgramToken program) {
+        final Token<?>[] statements = program.getValue();
+        int lastDefinition = -1;
+        for (int i = 0; i < statements.length; i++) {
+            if (unwrap(statements[i]).getType() == TokenType.DEFINITION) {
+                lastDefinition = i;
+            }
+        }
+        if (lastDefinition < 0) {
+            return;
+        }
+        hasDefinitions = true;
+        for (final var jump : program.getJumps().entrySet()) {
+            if (jump.getValue() <= lastDefinition) {
+                throw new UnsupportedProgramException("jump point " + jump.getKey().getValue()
+                                                      + " precedes a definition");
+            }
+        }
+        for (int i = 0; i <= lastDefinition; i++) {
+            if (transfersControl(statements[i])) {
+                throw new UnsupportedProgramException(statements[i].simpleName()
+                                                      + " may skip or repeat a definition");
+            }
+        }
+    }
+
+    /*
+     * Whether the statement or any statement of a scope it opens may jump.
+     */
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private static boolean transfersControl(@NotNull final Token<?> statement) {
+        final Token<?> token = unwrap(statement);
+        if (token.getType() == TokenType.PROGRAM) {
+            return Arrays.stream(((ProgramToken) token).getValue())
+                    .anyMatch(BytecodeCompiler::transfersControl);
+        }
+        if (token.getType() != TokenType.CALL) {
+            return false;
+        }
+        final String name = ((BinaryToken<Token<?>, ListToken<Token<?>>>) token).getFirst().getValue().toString();
+        return switch (name) {
+            case "JMP", "JMN", "JIND", "CALL", "RET" -> true;
+            default -> false;
+        };
+    }
+
+    /*
+     * Compile a single statement.
+     */
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private void compileStatement(@NotNull final Token<?> token, @NotNull final Token<?> statement,
+                                  @NotNull final Scope scope) {
+        switch (token.getType()) {
+            case PROGRAM -> {
+                final int enter = size;
+                emit(Opcode.ENTER, 0, false, -1, statement);
+                compileProgram((ProgramToken) token, scope);
+                emit(Opcode.END, 0, false, 0, token);
+                code[enter * Opcode.STRIDE + 1] = size;
+            }
+            case JUMP_POINT -> compileStatement(((Tuple<Token<?>, Token<?>>) token).getSecond(),
+                                                statement, scope);
+            case DEFINITION -> compileDefinition((ListToken<Token<?>>) token.getValue(), statement, scope);
+            case CALL -> compileCall((BinaryToken<Token<?>, ListToken<Token<?>>>) token, statement, scope);
+            case NUMBER, BINARY, IDENTIFICATION, EMPTY -> {
+                final Argument argument = evaluate(token, scope);
+                if (argument.error != null) {
+                    emitFail(argument.error, statement);
+                }
+            }
+            default -> emitFail("Unexpected: " + token, statement);
+        }
+    }
+
+    /*
+     * Definitions only bind names. They don't produce any instructions unless they fail.
+     */
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private void compileDefinition(@NotNull final ListToken<Token<?>> definitions,
+                                   @NotNull final Token<?> statement,
+                                   @NotNull final Scope scope) {
+        for (final Token<?> token : definitions.getValue()) {
+            final var definition = (BinaryToken<Token<?>, Token<?>>) token;
+            final String name = definition.getFirst().getValue().toString();
+            final boolean isReference = definition.getType() == TokenType.REFERENCE;
+            if (!isReference && definition.getType() != TokenType.CONSTANT) {
+                emitFail("unexpected def type: " + definition.getType(), statement);
+                return;
+            }
+            final int value;
+            if (isReference && definition.getSecond().getType() == TokenType.EMPTY) {
+                value = scope.reservedIndex;
+                scope.reservedIndex--;
+            } else {
+                final Argument argument = evaluate(definition.getSecond(), scope);
+                if (argument.error != null) {
+                    emitFail(argument.error, statement);
+                    return;
+                }
+                if (argument.spCount != 0) {
+                    throw new UnsupportedProgramException("definition of " + name
+                                                          + " depends on the stack pointer");
+                }
+                if (argument.type == ValueType.VOID || argument.type == ValueType.JUMP_REFERENCE) {
+                    emitFail("Not a definition body: " + definition.getSecond(), statement);
+                    return;
+                }
+                if (!inArgumentRange(argument.value)) {
+                    emitFail("Index out of range", statement);
+                    return;
+                }
+                value = argument.value;
+            }
+            if (scope.variables.containsKey(name) || scope.constants.containsKey(name)) {
+                emitFail("\"" + name + "\" already defined in scope", statement);
+                return;
+            }
+            (isReference ? scope.variables : scope.constants).put(name, value);
+        }
+    }
+
+    /*
+     * Compile a function call.
+     */
+    private void compileCall(@NotNull final BinaryToken<Token<?>, ListToken<Token<?>>> call,
+                             @NotNull final Token<?> statement,
+                             @NotNull final Scope scope) {
+        final String name = call.getFirst().getValue().toString();
+        final List<Token<?>> argumentTokens = call.getSecond().getValue();
+        final Argument[] args = new Argument[argumentTokens.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = evaluate(argumentTokens.get(i), scope);
+            if (args[i].error != null) {
+                emitFailedInstruction(args[i].error, statement);
+                return;
+            }
+        }
+        final int argNum = argumentNumber(name);
+        if (argNum < 0) {
+            emitFailedInstruction("Undefined variable: " + name, statement);
+            return;
+        }
+        if (args.length != argNum) {
+            emitFailedInstruction("invalid number of arguments", statement);
+            return;
+        }
+        switch (name) {
+            case "LDC" -> {
+                final Argument arg = args[0];
+                if (!isReferenceValue(arg)) {
+                    emitFailedInstruction("can't pass a reference", statement);
+                } else if (wordLength != constWordLength && arg.spCount == 0 && arg.value < 0) {
+                    emitFailedInstruction("can't pass negative values", statement);
+                } else {
+                    emit(Opcode.LDC, arg.spCount, false, arg.value, statement);
+                }
+            }
+            case "LDV" -> emitMemoryInstruction(Opcode.LDV, args[0], statement);
+            case "STV" -> emitMemoryInstruction(Opcode.STV, args[0], statement);
+            case "LDIV" -> emitMemoryInstruction(Opcode.LDIV, args[0], statement);
+            case "STIV" -> emitMemoryInstruction(Opcode.STIV, args[0], statement);
+            case "ADD" -> emitMemoryInstruction(Opcode.ADD, args[0], statement);
+            case "AND" -> emitMemoryInstruction(Opcode.AND, args[0], statement);
+            case "OR" -> emitMemoryInstruction(Opcode.OR, args[0], statement);
+            case "XOR" -> emitMemoryInstruction(Opcode.XOR, args[0], statement);
+            case "EQL" -> emitMemoryInstruction(Opcode.EQL, args[0], statement);
+            case "JIND" -> {
+                hasIndexJumps = true;
+                emitMemoryInstruction(Opcode.JIND, args[0], statement);
+            }
+            case "RAR" -> emit(Opcode.RAR, 0, false, 0, statement);
+            case "NOT" -> emit(Opcode.NOT, 0, false, 0, statement);
+            case "ADC" -> {
+                if (!isReferenceValue(args[0])) {
+                    emitFailedInstruction("can't pass a reference", statement);
+                } else {
+                    emit(Opcode.ADC, args[0].spCount, false, args[0].value, statement);
+                }
+            }
+            case "LDSP" -> emit(Opcode.LDSP, 0, false, 0, statement);
+            case "STSP" -> emit(Opcode.STSP, 0, false, 0, statement);
+            case "SP" -> {
+                /* Only has a value as an argument, but is still a step */
+                emit(Opcode.NOP, 0, false, 0, statement);
+            }
+            case "LDVR" -> emitRelativeInstruction(Opcode.LDVR, args, statement);
+            case "STVR" -> emitRelativeInstruction(Opcode.STVR, args, statement);
+            case "JMP" -> emitJump(Opcode.JMP, Opcode.JMP_INDEX, args[0], statement);
+            case "JMN" -> emitJump(Opcode.JMN, Opcode.JMN_INDEX, args[0], statement);
+            case "CALL" -> {
+                final Argument arg = args[0];
+                if (!isJumpReference(arg)) {
+                    emitFailedInstruction("must pass jump reference", statement);
+                } else if (arg.type != ValueType.JUMP_REFERENCE) {
+                    emitFailedInstruction("Undefined variable: " + arg.value, statement);
+                } else {
+                    emitLabelJump(Opcode.CALL, arg.value, statement);
+                }
+            }
+            case "RET" -> emit(Opcode.RET, 0, false, 0, statement);
+            case "HALT" -> emit(Opcode.HALT, 0, false, 0, statement);
+            default -> emitFailedInstruction("Undefined variable: " + name, statement);
+        }
+    }
+
+    private void emitMemoryInstruction(final int opcode, @NotNull final Argument arg,
+                                       @NotNull final Token<?> statement) {
+        if (arg.type != ValueType.NUMBER && arg.type != ValueType.CONSTANT
+            && arg.type != ValueType.MEMORY_REFERENCE) {
+            emitFailedInstruction("must pass a memory address", statement);
+        } else if (arg.type != ValueType.MEMORY_REFERENCE && arg.spCount == 0 && arg.value < 0) {
+            emitFailedInstruction("illegal memory address", statement);
+        } else {
+            emit(opcode, arg.spCount, arg.type != ValueType.MEMORY_REFERENCE, arg.value, statement);
+        }
+    }
+
+    private void emitRelativeInstruction(final int opcode, @NotNull final Argument[] args,
+                                         @NotNull final Token<?> statement) {
+        if (!isReferenceValue(args[0]) || !isReferenceValue(args[1])) {
+            emitFailedInstruction("can't pass a reference", statement);
+            return;
+        }
+        final int offset = args[0].value + args[1].value;
+        final int spCount = args[0].spCount + args[1].spCount;
+        if (spCount == 0 && offset < 0) {
+            emitFailedInstruction("illegal memory address", statement);
+        } else {
+            emit(opcode, spCount, true, offset, statement);
+        }
+    }
+
+    private void emitJump(final int opcode, final int indexOpcode, @NotNull final Argument arg,
+                          @NotNull final Token<?> statement) {
+        if (!isJumpReference(arg)) {
+            emitFailedInstruction("must pass jump reference", statement);
+        } else if (arg.type == ValueType.JUMP_REFERENCE) {
+            emitLabelJump(opcode, arg.value, statement);
+        } else if (arg.spCount != 0) {
+            hasIndexJumps = true;
+            emit(indexOpcode, arg.spCount, false, arg.value, statement);
+        } else {
+            hasIndexJumps = true;
+            indexFixups.add(new int[]{size, arg.value});
+            emit(opcode, 0, false, -1, statement);
+        }
+    }
+
+    private void emitLabelJump(final int opcode, final int label, @NotNull final Token<?> statement) {
+        labelFixups.add(new int[]{size, label});
+        emit(opcode, 0, false, -1, statement);
+    }
+
+    private void emitFail(@NotNull final String message, @NotNull final Token<?> statement) {
+        emit(Opcode.FAIL, 0, false, message(message), statement);
+    }
+
+    /*
+     * A failing instruction is still counted as a step, which FAIL is not.
+     */
+    private void emitFailedInstruction(@NotNull final String message, @NotNull final Token<?> statement) {
+        emit(Opcode.NOP, 0, false, 0, statement);
+        emitFail(message, statement);
+    }
+
+    private void emit(final int opcode, final int spCount, final boolean checked, final int operand,
+                      @NotNull final Token<?> statement) {
+        if ((size + 1) * Opcode.STRIDE > code.length) {
+            code = Arrays.copyOf(code, code.length * 2);
+        }
+        code[size * Opcode.STRIDE] = Opcode.instruction(opcode, spCount, checked && spCount != 0);
+        code[size * Opcode.STRIDE + 1] = operand;
+        tokens.add(statement);
+        size++;
+    }
+
+    private int message(@NotNull final String message) {
+        return messageIndices.computeIfAbsent(message, m -> {
+            messages.add(m);
+            return messages.size() - 1;
+        });
+    }
+
+    /*
+     * Evaluate an argument token. Values are known at compile time except for the stack pointer.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private Argument evaluate(@NotNull final Token<?> token, @NotNull final Scope scope) {
+        switch (token.getType()) {
+            case NUMBER -> {
+                try {
+                    return checkedNumber(Integer.parseInt(token.getValue().toString()));
+                } catch (@NotNull final NumberFormatException e) {
+                    return Argument.error("Index out of range");
+                }
+            }
+            case BINARY -> {
+                final String binary = token.getValue().toString();
+                if (binary.length() > constWordLength) {
+                    return Argument.error("too many bits");
+                }
+                return checkedNumber(binary.isEmpty() ? 0 : Integer.parseInt(binary, 2));
+            }
+            case IDENTIFICATION -> {
+                final String name = token.getValue().toString();
+                for (Scope s = scope; s != null; s = s.parent) {
+                    if (s.variables.containsKey(name)) {
+                        return new Argument(ValueType.MEMORY_REFERENCE, s.variables.get(name), 0);
+                    }
+                }
+                for (Scope s = scope; s != null; s = s.parent) {
+                    if (s.constants.containsKey(name)) {
+                        return new Argument(ValueType.CONSTANT, s.constants.get(name), 0);
+                    }
+                }
+                for (Scope s = scope; s != null; s = s.parent) {
+                    if (s.jumps.containsKey(name)) {
+                        return new Argument(ValueType.JUMP_REFERENCE, s.jumps.get(name), 0);
+                    }
+                }
+                return Argument.error("Undefined Identification: " + name);
+            }
+            case CALL -> {
+                final var call = (BinaryToken<Token<?>, ListToken<Token<?>>>) token;
+                final String name = call.getFirst().getValue().toString();
+                if (argumentNumber(name) < 0) {
+                    return Argument.error("Undefined variable: " + name);
+                }
+                if (!"SP".equals(name)) {
+                    return Argument.error("Not a value: " + token.simpleName());
+                }
+                if (!call.getSecond().getValue().isEmpty()) {
+                    return Argument.error("invalid number of arguments");
+                }
+                return new Argument(ValueType.NUMBER, 0, 1);
+            }
+            case EMPTY -> {
+                return new Argument(ValueType.VOID, 0, 0);
+            }
+            default -> {
+                return Argument.error("Unexpected: " + token);
+            }
+        }
+    }
+
+    @NotNull
+    private Argument checkedNumber(final int number) {
+        final int value = MachineWord.normalize(number, constWordLength);
+        if (!inArgumentRange(value)) {
+            return Argument.error("Index out of range");
+        }
+        return new Argument(ValueType.NUMBER, value, 0);
+    }
+
+    private boolean inArgumentRange(final int value) {
+        final boolean sameLength = constWordLength == wordLength;
+        final int maxValue = sameLength ? (2 << (wordLength - 1)) - 1 : (2 << constWordLength) - 1;
+        final int minValue = sameLength ? -(2 << (wordLength - 1)) : 0;
+        return value >= minValue && value <= maxValue;
+    }
+
+    @Contract(pure = true)
+    private static boolean isReferenceValue(@NotNull final Argument argument) {
+        return argument.type == ValueType.CONSTANT || argument.type == ValueType.NUMBER;
+    }
+
+    @Contract(pure = true)
+    private static boolean isJumpReference(@NotNull final Argument argument) {
+        return argument.type == ValueType.JUMP_REFERENCE || isReferenceValue(argument);
+    }
+
+    /*
+     * Whether the token opens a new scope.
+     */
+    private static boolean isScope(@NotNull final Token<?> token) {
+        return unwrap(token).getType() == TokenType.PROGRAM;
+    }
+
+    /*
+     * Strip the jump points from a statement.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private static Token<?> unwrap(@NotNull final Token<?> statement) {
+        Token<?> token = statement;
+        while (token.getType() == TokenType.JUMP_POINT) {
+            token = ((Tuple<Token<?>, Token<?>>) token).getSecond();
+        }
+        return token;
+    }
+
+    /*
+     * Number of arguments of the function with given name. -1 if the function isn't defined for the
+     * instruction set.
+     */
+    private int argumentNumber(@NotNull final String name) {
+        final int argNum = switch (name) {
+            case "RAR", "NOT", "HALT" -> 0;
+            case "LDC", "LDV", "STV", "LDIV", "STIV", "ADD", "AND", "OR", "XOR", "EQL", "JMP", "JMN",
+                    "JIND" -> 1;
+            default -> -1;
+        };
+        if (argNum >= 0 || instructionSet != InstructionSet.MIMA_X) {
+            return argNum;
+        }
+        return switch (name) {
+            case "LDSP", "STSP", "SP", "RET" -> 0;
+            case "ADC", "CALL" -> 1;
+            case "LDVR", "STVR" -> 2;
+            default -> -1;
+        };
+    }
+
+    /*
+     * Compile time environment of a scope.
+     */
+    private static final class Scope {
+        @Nullable
+        private final Scope parent;
+        @NotNull
+        private final Map<String, Integer> variables;
+        @NotNull
+        private final Map<String, Integer> constants;
+        @NotNull
+        private final Map<String, Integer> jumps;
+        private int reservedIndex;
+
+        private Scope(@Nullable final Scope parent) {
+            this.parent = parent;
+            variables = new HashMap<>();
+            constants = new HashMap<>();
+            jumps = new HashMap<>();
+            reservedIndex = parent == null ? -1 : parent.reservedIndex;
+        }
+    }
+
+    /*
+     * Statically evaluated argument. The runtime value is value + spCount * stack pointer.
+     */
+    private static final class Argument {
+        @Nullable
+        private final ValueType type;
+        private final int value;
+        private final int spCount;
+        @Nullable
+        private final String error;
+
+        private Argument(@Nullable final ValueType type, final int value, final int spCount) {
+            this(type, value, spCount, null);
+        }
+
+        private Argument(@Nullable final ValueType type, final int value, final int spCount,
+                         @Nullable final String error) {
+            this.type = type;
+            this.value = value;
+            this.spCount = spCount;
+            this.error = error;
+        }
+
+        @NotNull
+        @Contract("_ -> new")
+        private static Argument error(@NotNull final String message) {
+            return new Argument(null, 0, 0, message);
+        }
+    }
+}
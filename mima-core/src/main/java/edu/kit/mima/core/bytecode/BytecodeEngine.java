@@ -0,0 +1,408 @@
+package edu.kit.mima.core.bytecode;
+
+import edu.kit.mima.core.ExecutionLimits;
+import edu.kit.mima.core.LimitExceededException;
+import edu.kit.mima.core.Mima;
+import edu.kit.mima.core.Termination;
+import edu.kit.mima.core.data.MachineWord;
+import edu.kit.mima.core.interpretation.InterpreterException;
+import edu.kit.mima.core.interpretation.Value;
+import edu.kit.mima.core.interpretation.ValueType;
+import edu.kit.mima.core.logic.ArithmeticLogicUnit;
+import edu.kit.mima.core.token.Token;
+import edu.kit.mima.core.trace.TraceSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Execution engine for {@link Bytecode}. Runs the instructions in a single dispatch loop without
+ * any allocation per instruction. Accumulator and stack pointer are kept in local variables and
+ * written back to the {@link Mima} once execution ends.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class BytecodeEngine {
+
+    /*
+     * Number of instructions between checks whether execution has been stopped from outside or
+     * has timed out.
+     */
+    private static final int STOP_CHECK_MASK = (1 << 12) - 1;
+
+    @NotNull
+    private final Bytecode bytecode;
+    @NotNull
+    private final Mima mima;
+    private volatile boolean running;
+    private int programCounter;
+    private long steps;
+    @NotNull
+    private int[] returnStack;
+    /*
+     * Program counters suspended by entering a scope or jumping, with the number of times each has
+     * been suspended in a row.
+     */
+    @NotNull
+    private int[] resumeStack;
+    @NotNull
+    private int[] resumeCounts;
+    private int resumePointer;
+    @NotNull
+    private ExecutionLimits limits;
+    @Nullable
+    private Termination termination;
+    @Nullable
+    private Exception terminationCause;
+    @Nullable
+    private TraceSink traceSink;
+
+    /**
+     * Create new BytecodeEngine.
+     *
+     * @param bytecode the program to execute
+     * @param mima     the mima to execute on
+     */
+    public BytecodeEngine(@NotNull final Bytecode bytecode, @NotNull final Mima mima) {
+        assert bytecode.getInstructionSet().getWordLength() == mima.getWordLength()
+                : "word length of program and mima must match";
+        this.bytecode = bytecode;
+        this.mima = mima;
+        returnStack = new int[16];
+        resumeStack = new int[16];
+        resumeCounts = new int[16];
+        limits = ExecutionLimits.NONE;
+    }
+
+    /**
+     * Run the program until it halts, fails, exceeds a limit or {@link #stop()} is called.
+     *
+     * @param callback callback to execute with the accumulator once the program halts.
+     * @return the reason execution ended. Never {@link Termination#FAILED} as failures are thrown.
+     * @throws InterpreterException  if the program fails
+     * @throws IllegalStateException if returning from a routine with an empty return stack
+     */
+    @NotNull
+    public Termination run(@NotNull final Consumer<Value<?>> callback) {
+        running = true;
+        termination = null;
+        terminationCause = null;
+        final int[] code = bytecode.getCode();
+        final int length = code.length;
+        final int wordLength = mima.getWordLength();
+        final ArithmeticLogicUnit alu = mima.getArithmeticLogicUnit();
+        int acc = mima.getAccumulatorValue();
+        int sp = mima.getStackPointerValue();
+        int returnPointer = 0;
+        resumePointer = 0;
+        int pc = 0;
+        int current = 0;
+        long count = 0;
+        final long maxSteps = limits.getMaxSteps();
+        final long deadline = limits.getDeadline(System.nanoTime());
+        final TraceSink trace = traceSink;
+        mima.getMemory().setCellLimit(limits.getMaxMemoryCells());
+        try {
+            while (pc < length) {
+                current = pc;
+                final int instruction = code[pc];
+                if (instruction >= Opcode.FAIL && instruction <= Opcode.END) {
+                    switch (instruction) {
+                        case Opcode.FAIL -> throw new InterpreterException(
+                                bytecode.getMessage(code[pc + 1]));
+                        case Opcode.ENTER -> {
+                            suspend(code, code[pc + 1] * Opcode.STRIDE);
+                            pc += Opcode.STRIDE;
+                        }
+                        default -> pc = resume();
+                    }
+                    continue;
+                }
+                if ((count & STOP_CHECK_MASK) == 0) {
+                    if (!running) {
+                        termination = Termination.STOPPED;
+                        return termination;
+                    }
+                    if (System.nanoTime() > deadline) {
+                        final long timeout = Objects.requireNonNull(limits.getTimeout()).toMillis();
+                        throw new LimitExceededException(Termination.TIMEOUT,
+                                                         "timeout of " + timeout + "ms expired");
+                    }
+                }
+                if (count == maxSteps) {
+                    throw new LimitExceededException(Termination.STEP_LIMIT,
+                                                     "more than " + count + " steps executed");
+                }
+                int operand = code[pc + 1];
+                if (instruction > Opcode.OPCODE_MASK) {
+                    operand += Opcode.spCount(instruction) * sp;
+                    if ((instruction & Opcode.CHECKED) != 0 && operand < 0) {
+                        throw new InterpreterException("illegal memory address");
+                    }
+                }
+                if (trace != null && instruction != Opcode.NOP) {
+                    record(trace, count, pc / Opcode.STRIDE, instruction & Opcode.OPCODE_MASK,
+                           operand, acc, sp);
+                }
+                count++;
+                pc += Opcode.STRIDE;
+                switch (instruction & Opcode.OPCODE_MASK) {
+                    case Opcode.LDC -> acc = MachineWord.normalize(operand, wordLength);
+                    case Opcode.LDV, Opcode.LDVR -> acc = mima.loadIntValue(operand);
+                    case Opcode.STV, Opcode.STVR -> mima.storeIntValue(operand, acc);
+                    case Opcode.LDIV -> acc = mima.loadIntValue(mima.loadIntValue(operand));
+                    case Opcode.STIV -> mima.storeIntValue(mima.loadIntValue(operand), acc);
+                    case Opcode.RAR -> acc = alu.rar(acc);
+                    case Opcode.NOT -> acc = alu.not(acc);
+                    case Opcode.ADD -> acc = alu.add(acc, mima.loadIntValue(operand));
+                    case Opcode.AND -> acc = alu.and(acc, mima.loadIntValue(operand));
+                    case Opcode.OR -> acc = alu.or(acc, mima.loadIntValue(operand));
+                    case Opcode.XOR -> acc = alu.xor(acc, mima.loadIntValue(operand));
+                    case Opcode.EQL -> acc = alu.negativeIfEquals(acc, mima.loadIntValue(operand));
+                    case Opcode.ADC -> acc = alu.add(acc, operand);
+                    case Opcode.LDSP -> acc = sp;
+                    case Opcode.STSP -> {
+                        mima.storeIntValue(acc, mima.loadIntValue(acc));
+                        sp = acc;
+                    }
+                    case Opcode.JMP -> {
+                        suspend(code, pc);
+                        pc = operand * Opcode.STRIDE;
+                    }
+                    case Opcode.JMN -> {
+                        if (acc < 0) {
+                            suspend(code, pc);
+                            pc = operand * Opcode.STRIDE;
+                        }
+                    }
+                    case Opcode.JMP_INDEX -> {
+                        final int target = jumpTarget(operand);
+                        suspend(code, pc);
+                        pc = target;
+                    }
+                    case Opcode.JMN_INDEX -> {
+                        if (acc < 0) {
+                            final int target = jumpTarget(operand);
+                            suspend(code, pc);
+                            pc = target;
+                        }
+                    }
+                    case Opcode.JIND -> {
+                        final int target = jumpTarget(mima.loadIntValue(operand));
+                        suspend(code, pc);
+                        pc = target;
+                    }
+                    case Opcode.CALL -> {
+                        if (returnPointer == returnStack.length) {
+                            returnStack = Arrays.copyOf(returnStack, returnPointer * 2);
+                        }
+                        returnStack[returnPointer++] = pc;
+                        suspend(code, pc);
+                        pc = operand * Opcode.STRIDE;
+                    }
+                    case Opcode.RET -> {
+                        if (returnPointer == 0) {
+                            throw new IllegalStateException("nowhere to return to");
+                        }
+                        suspend(code, pc);
+                        pc = returnStack[--returnPointer];
+                    }
+                    case Opcode.HALT -> {
+                        termination = Termination.HALTED;
+                        return termination;
+                    }
+                    case Opcode.NOP -> {
+                        /* do nothing */
+                    }
+                    default -> throw new InterpreterException("Unexpected opcode: " + instruction);
+                }
+            }
+            throw new InterpreterException("Reached end of program without HALT");
+        } catch (@NotNull final LimitExceededException e) {
+            termination = e.getTermination();
+            terminationCause = e;
+            return termination;
+        } catch (@NotNull final RuntimeException e) {
+            termination = Termination.FAILED;
+            terminationCause = e;
+            throw e;
+        } finally {
+            programCounter = current;
+            steps = count;
+            mima.setAccumulatorValue(acc);
+            mima.setStackPointer(sp);
+            mima.getMemory().setCellLimit(Integer.MAX_VALUE);
+            running = false;
+            if (termination == Termination.HALTED) {
+                callback.accept(new Value<>(ValueType.NUMBER, mima.getAccumulator()));
+            }
+        }
+    }
+
+    /*
+     * Record an instruction the way the interpreter records it. Jumps record the instruction index of
+     * their target instead of a program counter and jumps by index record the plain jump opcode.
+     */
+    private void record(@NotNull final TraceSink trace, final long step, final int pc, final int opcode,
+                        final int operand, final int acc, final int sp) {
+        final int tracedOpcode;
+        final int tracedOperand;
+        switch (opcode) {
+            case Opcode.JMP, Opcode.JMN, Opcode.CALL -> {
+                tracedOpcode = opcode;
+                tracedOperand = bytecode.getJumpIndex(pc);
+            }
+            case Opcode.JMP_INDEX -> {
+                tracedOpcode = Opcode.JMP;
+                tracedOperand = operand;
+            }
+            case Opcode.JMN_INDEX -> {
+                tracedOpcode = Opcode.JMN;
+                tracedOperand = operand;
+            }
+            default -> {
+                tracedOpcode = opcode;
+                tracedOperand = operand;
+            }
+        }
+        trace.record(step, bytecode.getOffset(pc), tracedOpcode, tracedOperand, acc, sp);
+    }
+
+    /*
+     * Suspend the program counter to continue with once the current scope ends. A program counter
+     * at the end of a scope would only continue with the one suspended before it and is skipped.
+     */
+    private void suspend(@NotNull final int[] code, final int pc) {
+        if (code[pc] == Opcode.END) {
+            return;
+        }
+        if (resumePointer > 0 && resumeStack[resumePointer - 1] == pc) {
+            resumeCounts[resumePointer - 1]++;
+            return;
+        }
+        if (resumePointer == resumeStack.length) {
+            resumeStack = Arrays.copyOf(resumeStack, resumePointer * 2);
+            resumeCounts = Arrays.copyOf(resumeCounts, resumePointer * 2);
+        }
+        resumeStack[resumePointer] = pc;
+        resumeCounts[resumePointer++] = 0;
+    }
+
+    /*
+     * Continue with the most recently suspended program counter.
+     */
+    private int resume() {
+        if (resumePointer == 0) {
+            throw new InterpreterException("Reached end of program without HALT");
+        }
+        final int pc = resumeStack[resumePointer - 1];
+        if (resumeCounts[resumePointer - 1] > 0) {
+            resumeCounts[resumePointer - 1]--;
+        } else {
+            resumePointer--;
+        }
+        return pc;
+    }
+
+    /*
+     * Program counter of the instruction with the given instruction index.
+     */
+    private int jumpTarget(final int instructionIndex) {
+        final int target = bytecode.programCounterOf(instructionIndex);
+        if (target < 0) {
+            throw new InterpreterException("illegal jump target: " + instructionIndex);
+        }
+        return target * Opcode.STRIDE;
+    }
+
+    /**
+     * Stop the execution. Execution stops within a bounded number of instructions.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Returns whether the engine is running.
+     *
+     * @return true if running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Get the limits of execution.
+     *
+     * @return the limits
+     */
+    @NotNull
+    public ExecutionLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Set the limits for execution. Exceeding a limit ends execution with the corresponding {@link
+     * Termination} instead of an exception.
+     *
+     * @param limits the limits
+     */
+    public void setLimits(@NotNull final ExecutionLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Set the sink every executed instruction is recorded to. Must not be changed during
+     * execution.
+     *
+     * @param traceSink the trace sink. Null if execution should not be traced.
+     */
+    public void setTraceSink(@Nullable final TraceSink traceSink) {
+        this.traceSink = traceSink;
+    }
+
+    /**
+     * Get the reason the last run ended.
+     *
+     * @return the termination. Null if no run has finished yet.
+     */
+    @Nullable
+    public Termination getTermination() {
+        return termination;
+    }
+
+    /**
+     * Get the exception that ended the last run.
+     *
+     * @return the cause. Null if the program halted or was stopped.
+     */
+    @Nullable
+    public Exception getTerminationCause() {
+        return terminationCause;
+    }
+
+    /**
+     * Get the number of instructions executed by the last or current run. Only updated once a run
+     * finishes. Every statement of the program that calls an instruction is one step, as it is for
+     * {@link edu.kit.mima.core.interpretation.Interpreter#getSteps()}.
+     *
+     * @return number of executed instructions
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get the token of the instruction execution stopped at.
+     *
+     * @return current token. Null if none.
+     */
+    @Nullable
+    public Token<?> getCurrentToken() {
+        return bytecode.getToken(programCounter / Opcode.STRIDE);
+    }
+}
@@ -0,0 +1,242 @@
+package edu.kit.mima.core.bytecode;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opcodes used in {@link Bytecode}.
+ * <p>
+ * Every instruction occupies {@link #STRIDE} ints. The first int holds the opcode in the lower
+ * {@link #OPCODE_BITS} bits followed by the modifier bits, the second int holds the operand. If
+ * the modifier bits are set the effective operand is the operand plus {@link #spCount(int)} times
+ * the current stack pointer. If additionally {@link #CHECKED} is set the effective operand has to be
+ * a legal memory address.
+ * <p>
+ * Every opcode up to {@link #NOP} executes a single instruction of the program and counts as one
+ * step. The remaining opcodes are bookkeeping of the engine and are neither counted nor traced.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class Opcode {
+
+    /**
+     * Number of ints used for a single instruction.
+     */
+    public static final int STRIDE = 2;
+    /**
+     * Number of bits used for the opcode.
+     */
+    public static final int OPCODE_BITS = 8;
+    /**
+     * Mask for the opcode.
+     */
+    public static final int OPCODE_MASK = (1 << OPCODE_BITS) - 1;
+    /**
+     * Modifier bit signalling that the effective operand has to be checked to be a legal address.
+     */
+    public static final int CHECKED = 1 << (OPCODE_BITS + 2);
+
+    /**
+     * Load constant to accumulator.
+     */
+    public static final int LDC = 0;
+    /**
+     * Load value from memory.
+     */
+    public static final int LDV = 1;
+    /**
+     * Store value to memory.
+     */
+    public static final int STV = 2;
+    /**
+     * Load value indirect from memory.
+     */
+    public static final int LDIV = 3;
+    /**
+     * Store value indirect to memory.
+     */
+    public static final int STIV = 4;
+    /**
+     * Rotate accumulator right.
+     */
+    public static final int RAR = 5;
+    /**
+     * Invert accumulator.
+     */
+    public static final int NOT = 6;
+    /**
+     * Add memory value to accumulator.
+     */
+    public static final int ADD = 7;
+    /**
+     * And memory value with accumulator.
+     */
+    public static final int AND = 8;
+    /**
+     * Or memory value with accumulator.
+     */
+    public static final int OR = 9;
+    /**
+     * Xor memory value with accumulator.
+     */
+    public static final int XOR = 10;
+    /**
+     * Set accumulator to -1 if equal to memory value, 0 else.
+     */
+    public static final int EQL = 11;
+    /**
+     * Add constant to accumulator.
+     */
+    public static final int ADC = 12;
+    /**
+     * Load stack pointer to accumulator.
+     */
+    public static final int LDSP = 13;
+    /**
+     * Store accumulator to stack pointer.
+     */
+    public static final int STSP = 14;
+    /**
+     * Load value from address relative to the stack pointer.
+     */
+    public static final int LDVR = 15;
+    /**
+     * Store value to address relative to the stack pointer.
+     */
+    public static final int STVR = 16;
+    /**
+     * Jump to the instruction at the operand.
+     */
+    public static final int JMP = 17;
+    /**
+     * Jump to the instruction at the operand if the accumulator is negative.
+     */
+    public static final int JMN = 18;
+    /**
+     * Jump to the instruction with the instruction index given by the operand.
+     */
+    public static final int JMP_INDEX = 19;
+    /**
+     * Jump to the instruction with the instruction index given by the operand if the accumulator is
+     * negative.
+     */
+    public static final int JMN_INDEX = 20;
+    /**
+     * Jump to the instruction with the instruction index stored at the operand address.
+     */
+    public static final int JIND = 21;
+    /**
+     * Call the subroutine at the operand.
+     */
+    public static final int CALL = 22;
+    /**
+     * Return from subroutine.
+     */
+    public static final int RET = 23;
+    /**
+     * Halt the program.
+     */
+    public static final int HALT = 24;
+    /**
+     * Does nothing. Stands in for instructions that have no effect of their own, e.g. an
+     * instruction that fails.
+     */
+    public static final int NOP = 25;
+    /**
+     * Fail with the message at the operand index. Not counted as a step, a failing instruction is
+     * preceded by a {@link #NOP}.
+     */
+    public static final int FAIL = 26;
+    /**
+     * Enter a scope. The operand is the instruction to continue with once the scope ends.
+     */
+    public static final int ENTER = 27;
+    /**
+     * End of a scope. Continues with the most recently suspended instruction, which is the one
+     * after the last entered scope or taken jump that hasn't been continued with yet. Fails if
+     * there is none.
+     */
+    public static final int END = 28;
+
+    private static final String[] NAMES = new String[]{
+            "LDC", "LDV", "STV", "LDIV", "STIV", "RAR", "NOT", "ADD", "AND", "OR", "XOR", "EQL",
+            "ADC", "LDSP", "STSP", "LDVR", "STVR", "JMP", "JMN", "JMP_INDEX", "JMN_INDEX", "JIND",
+            "CALL", "RET", "HALT", "NOP", "FAIL", "ENTER", "END"
+    };
+    private static final Map<String, Integer> OPCODES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < NAMES.length; i++) {
+            OPCODES.put(NAMES[i], i);
+        }
+    }
+
+    @Contract(" -> fail")
+    private Opcode() {
+        assert false : "constant class";
+    }
+
+    /**
+     * Get the opcode of an instruction word.
+     *
+     * @param instruction the instruction word
+     * @return the opcode
+     */
+    @Contract(pure = true)
+    public static int opcode(final int instruction) {
+        return instruction & OPCODE_MASK;
+    }
+
+    /**
+     * Get the number of times the stack pointer is added to the operand of an instruction word.
+     *
+     * @param instruction the instruction word
+     * @return stack pointer multiplier between 0 and 3
+     */
+    @Contract(pure = true)
+    public static int spCount(final int instruction) {
+        return (instruction >>> OPCODE_BITS) & 3;
+    }
+
+    /**
+     * Create an instruction word.
+     *
+     * @param opcode  the opcode
+     * @param spCount number of times the stack pointer should be added to the operand
+     * @param checked whether the effective operand has to be a legal address
+     * @return the instruction word
+     */
+    @Contract(pure = true)
+    public static int instruction(final int opcode, final int spCount, final boolean checked) {
+        assert spCount >= 0 && spCount <= 3 : "stack pointer count out of range";
+        return opcode | (spCount << OPCODE_BITS) | (checked ? CHECKED : 0);
+    }
+
+    /**
+     * Get the name of an opcode.
+     *
+     * @param opcode the opcode
+     * @return name of opcode
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static String name(final int opcode) {
+        return opcode >= 0 && opcode < NAMES.length ? NAMES[opcode] : "UNKNOWN";
+    }
+
+    /**
+     * Get the opcode with the given name. Instructions of the Mima(X) map to the opcode with the
+     * same name.
+     *
+     * @param name name of the opcode
+     * @return the opcode or -1 if there is none with the given name
+     */
+    @Contract(pure = true)
+    public static int forName(@NotNull final String name) {
+        return OPCODES.getOrDefault(name, -1);
+    }
+}
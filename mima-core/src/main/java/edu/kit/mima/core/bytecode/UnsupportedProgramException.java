@@ -0,0 +1,25 @@
+package edu.kit.mima.core.bytecode;
+
+import edu.kit.mima.core.MimaRuntimeException;
+
+/**
+ * Gets thrown by {@link BytecodeCompiler} if a program can't be lowered to bytecode that behaves
+ * like the interpreter. Such programs have to be executed with the {@link
+ * edu.kit.mima.core.interpretation.Interpreter} instead.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class UnsupportedProgramException extends MimaRuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create new UnsupportedProgramException.
+     *
+     * @param message exception message
+     */
+    public UnsupportedProgramException(final String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,11 @@
 package edu.kit.mima.core.controller;
 
+import edu.kit.mima.core.Mima;
 import edu.kit.mima.core.interpretation.Breakpoint;
-import edu.kit.mima.core.interpretation.SimpleBreakpoint;
+import edu.kit.mima.core.interpretation.ConditionalBreakpoint;
+import edu.kit.mima.core.interpretation.WatchTable;
+import edu.kit.mima.core.interpretation.Watchpoint;
+import edu.kit.mima.core.interpretation.WatchpointHit;
 import edu.kit.mima.core.token.Token;
 import edu.kit.mima.core.token.TokenType;
 import org.jetbrains.annotations.Contract;
@@ -9,38 +13,66 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Optional;
 
 /**
  * Implementation of {@link DebugController} using a threat to handle control flow.
+ * <p>
+ * The working thread blocks on a monitor while paused and the controlling thread blocks in {@link
+ * #awaitPause()} until the working thread pauses or finishes, so neither side consumes cpu time
+ * while waiting. Calls to {@link #resume()} are remembered if the working thread is not paused yet,
+ * similar to {@link java.util.concurrent.locks.LockSupport#unpark(Thread)}.
+ * <p>
+ * Breakpoints are compiled into a bitmap indexed by line whenever they are set, so checking for a
+ * breakpoint after an instruction is a single array lookup. Conditions of {@link
+ * ConditionalBreakpoint}s are only evaluated on lines that have one. {@link Watchpoint}s are
+ * compiled into a {@link WatchTable} checked by the mima on memory access. Execution pauses after
+ * the instruction that triggered a watchpoint.
  *
  * @author Jannis Weis
  * @since 2018
  */
 public class ThreadDebugController implements DebugController {
 
+    private final Object lock = new Object();
     private final Thread workingThread;
     private final Runnable pauseCallback;
+    @NotNull
+    private volatile BreakTable breakTable;
     @Nullable
-    private Collection<Breakpoint> breaks;
-    private boolean isActive;
-    private boolean autoPause;
-    private boolean shouldDie;
+    private Mima mima;
+    @Nullable
+    private WatchpointHit pendingHit;
+    @Nullable
+    private WatchpointHit lastHit;
+    private volatile boolean isActive;
+    private volatile boolean autoPause;
+    private volatile boolean pauseRequested;
+    private volatile boolean shouldDie;
+    private boolean resumePermit;
+    private boolean finished;
 
     /**
      * Create new ThreadDebugController.
      *
-     * @param workingThread the working thread.
+     * @param task          the task to execute on the working thread.
      * @param pauseCallback callback for pause events if a breakpoint is hit.
      */
     @Contract(pure = true)
-    public ThreadDebugController(final Thread workingThread, final Runnable pauseCallback) {
+    public ThreadDebugController(@NotNull final Runnable task, final Runnable pauseCallback) {
         isActive = false;
         autoPause = false;
-        breaks = new HashSet<>();
+        breakTable = BreakTable.EMPTY;
         this.pauseCallback = pauseCallback;
-        this.workingThread = workingThread;
+        this.workingThread = new Thread(() -> {
+            try {
+                task.run();
+            } finally {
+                synchronized (lock) {
+                    finished = true;
+                    lock.notifyAll();
+                }
+            }
+        });
     }
 
     /**
@@ -52,77 +84,184 @@ public class ThreadDebugController implements DebugController {
         return isActive;
     }
 
+    /**
+     * Block the calling thread until the working thread is paused, stopped or has finished.
+     */
+    public void awaitPause() {
+        synchronized (lock) {
+            try {
+                while (isActive && !finished) {
+                    lock.wait();
+                }
+            } catch (@NotNull final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Pause the task. If called from the working thread it blocks until {@link #resume()} or
+     * {@link #stop()} is called. If called from any other thread the working thread pauses after
+     * the next instruction.
+     */
     @Override
     public void pause() {
-        synchronized (workingThread) {
+        if (Thread.currentThread() != workingThread) {
+            pauseRequested = true;
+            return;
+        }
+        synchronized (lock) {
+            if (resumePermit) {
+                resumePermit = false;
+                return;
+            }
             isActive = false;
+            lock.notifyAll();
             try {
-                workingThread.wait();
+                while (!isActive && !shouldDie) {
+                    lock.wait();
+                }
             } catch (@NotNull final InterruptedException e) {
                 isActive = true;
             }
+            resumePermit = false;
         }
     }
 
     @Override
     public void resume() {
-        if (workingThread == null) {
-            return;
-        }
-        synchronized (workingThread) {
+        synchronized (lock) {
             isActive = true;
-            workingThread.interrupt();
+            resumePermit = true;
+            lock.notifyAll();
         }
     }
 
     @Override
     public void start() {
-        if (workingThread == null) {
-            return;
-        }
         isActive = true;
         workingThread.start();
     }
 
     @Override
     public void stop() {
-        if (workingThread == null) {
-            return;
-        }
         autoPause = false;
-        shouldDie = true;
-        synchronized (workingThread) {
+        pauseRequested = false;
+        synchronized (lock) {
+            shouldDie = true;
             isActive = false;
-            try {
-                workingThread.interrupt();
-                workingThread.join();
-            } catch (@NotNull final InterruptedException ignored) {
-                /*doesn't matter thread should die*/
-            }
+            lock.notifyAll();
+        }
+        if (Thread.currentThread() == workingThread || !workingThread.isAlive()) {
+            return;
+        }
+        try {
+            workingThread.join();
+        } catch (@NotNull final InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        shouldDie = false;
     }
 
     @Override
     public void afterInstruction(final Token<?> currentInstruction) {
-        if (shouldDie || breaks == null) {
+        if (shouldDie) {
             return;
         }
-        if (autoPause || Optional.ofNullable(currentInstruction)
-                                 .map(t -> breaks.contains(new SimpleBreakpoint(t.getOffset()))
-                                           && t.getType() != TokenType.PROGRAM)
-                                 .orElse(false)) {
+        final WatchpointHit hit = pendingHit;
+        if (autoPause || pauseRequested || hit != null || isBreakpointHit(currentInstruction)) {
+            pauseRequested = false;
+            pendingHit = null;
+            lastHit = hit;
             pauseCallback.run();
         }
     }
 
+    /*
+     * Returns whether the instruction is at a breakpoint that should pause. Counts the hit for
+     * conditional breakpoints.
+     */
+    private boolean isBreakpointHit(@Nullable final Token<?> instruction) {
+        if (instruction == null) {
+            return false;
+        }
+        final BreakTable table = breakTable;
+        final int offset = instruction.getOffset();
+        if (!table.contains(offset) || instruction.getType() == TokenType.PROGRAM) {
+            return false;
+        }
+        final ConditionalBreakpoint conditional = table.conditionals[offset];
+        if (conditional == null) {
+            return true;
+        }
+        if (mima != null && !conditional.test(mima)) {
+            return false;
+        }
+        return ++table.hits[offset] >= conditional.getHitCount();
+    }
+
     /**
-     * Set break points.
+     * Set break points. The breakpoints are compiled immediately, later changes to the collection
+     * have no effect until it is set again. Hit counts of breakpoints that stay on the same line
+     * are kept.
      *
      * @param breaks break point collection.
      */
-    public void setBreaks(@NotNull final Collection<Breakpoint> breaks) {
-        this.breaks = breaks;
+    public void setBreaks(@NotNull final Collection<? extends Breakpoint> breaks) {
+        breakTable = new BreakTable(breaks, breakTable);
+    }
+
+    /**
+     * Returns whether there is a breakpoint at the given line.
+     *
+     * @param lineIndex the line
+     * @return true if a breakpoint is set at the line
+     */
+    public boolean hasBreakpoint(final int lineIndex) {
+        return breakTable.contains(lineIndex);
+    }
+
+    /**
+     * Set watchpoints. They are compiled immediately and installed in the {@link #setMima(Mima)
+     * mima}, which has to be set before.
+     *
+     * @param watchpoints watchpoint collection.
+     */
+    public void setWatches(@NotNull final Collection<Watchpoint> watchpoints) {
+        if (mima == null) {
+            return;
+        }
+        mima.setWatchTable(watchpoints.isEmpty()
+                           ? null
+                           : new WatchTable(watchpoints, mima.getConstWordLength(), this::watchpointHit));
+    }
+
+    /*
+     * Remember the first watchpoint hit of the current instruction. Called on the working thread.
+     */
+    private void watchpointHit(@NotNull final WatchpointHit hit) {
+        if (pendingHit == null) {
+            pendingHit = hit;
+        }
+    }
+
+    /**
+     * Get the memory access that caused the last pause.
+     *
+     * @return the watchpoint hit. Null if the last pause wasn't caused by a watchpoint.
+     */
+    @Nullable
+    public WatchpointHit getWatchpointHit() {
+        return lastHit;
+    }
+
+    /**
+     * Set the mima conditions of breakpoints are evaluated on. If none is set conditions are
+     * assumed to hold.
+     *
+     * @param mima the mima of the task
+     */
+    public void setMima(@Nullable final Mima mima) {
+        this.mima = mima;
     }
 
     /**
@@ -133,4 +272,57 @@ public class ThreadDebugController implements DebugController {
     public void setAutoPause(final boolean autoPause) {
         this.autoPause = autoPause;
     }
+
+    /*
+     * Compiled breakpoints. Bitmap of lines with a breakpoint and the conditional breakpoints with
+     * their hit counts by line.
+     */
+    private static final class BreakTable {
+        private static final BreakTable EMPTY = new BreakTable(new long[0], new ConditionalBreakpoint[0]);
+
+        @NotNull
+        private final long[] bits;
+        @NotNull
+        private final ConditionalBreakpoint[] conditionals;
+        @NotNull
+        private final int[] hits;
+
+        @Contract(pure = true)
+        private BreakTable(@NotNull final long[] bits, @NotNull final ConditionalBreakpoint[] conditionals) {
+            this.bits = bits;
+            this.conditionals = conditionals;
+            this.hits = new int[conditionals.length];
+        }
+
+        private BreakTable(@NotNull final Collection<? extends Breakpoint> breaks,
+                           @NotNull final BreakTable previous) {
+            this(new long[(maxLine(breaks) >> 6) + 1], new ConditionalBreakpoint[maxLine(breaks) + 1]);
+            for (final Breakpoint breakpoint : breaks) {
+                final int line = breakpoint.getLineIndex();
+                if (line < 0) {
+                    continue;
+                }
+                bits[line >> 6] |= 1L << line;
+                if (breakpoint instanceof ConditionalBreakpoint) {
+                    conditionals[line] = (ConditionalBreakpoint) breakpoint;
+                    if (line < previous.conditionals.length && conditionals[line].equals(previous.conditionals[line])) {
+                        hits[line] = previous.hits[line];
+                    }
+                }
+            }
+        }
+
+        private static int maxLine(@NotNull final Collection<? extends Breakpoint> breaks) {
+            int max = -1;
+            for (final Breakpoint breakpoint : breaks) {
+                max = Math.max(max, breakpoint.getLineIndex());
+            }
+            return max;
+        }
+
+        private boolean contains(final int line) {
+            final int word = line >> 6;
+            return line >= 0 && word < bits.length && (bits[word] & (1L << line)) != 0;
+        }
+    }
 }
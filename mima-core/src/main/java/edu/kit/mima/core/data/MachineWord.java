@@ -6,19 +6,22 @@ import org.jetbrains.annotations.NotNull;
 
 /**
  * MachineWord used in {@link Mima}. Stores integer value with given number of bits.
+ * <p>
+ * The value is kept as a packed int that is sign extended to the word length. The bit array and
+ * binary representations are derived lazily from the packed value.
  *
  * @author Jannis Weis
  * @since 2018
  */
 public class MachineWord {
 
+    private static final int INT_BITS = Integer.SIZE;
+
     private final int wordLength;
-    private boolean calculated = false;
     /**
-     * Bits with msb at index length - 1 and lsb at index 0.
+     * Packed value sign extended from bit wordLength - 1.
      */
-    private boolean[] bits;
-    private int intValue;
+    private int value;
 
     /**
      * Create new MachineWord with the given number of bits bits.length must be equal to wordLength
@@ -32,8 +35,7 @@ public class MachineWord {
             throw new IllegalArgumentException("too many bits");
         }
         this.wordLength = wordLength;
-        this.bits = new boolean[wordLength];
-        System.arraycopy(bits, 0, this.bits, 0, bits.length);
+        setBits(bits);
     }
 
     /**
@@ -47,10 +49,13 @@ public class MachineWord {
             throw new IllegalArgumentException("too many bits");
         }
         this.wordLength = wordLength;
-        this.bits = new boolean[wordLength];
+        int packed = 0;
         for (int i = 0; i < bits.length; i++) {
-            this.bits[i] = bits[i];
+            if (bits[i]) {
+                packed |= 1 << i;
+            }
         }
+        this.value = normalize(packed, wordLength);
     }
 
     /**
@@ -77,6 +82,26 @@ public class MachineWord {
         return new MachineWord(word.intValue(), wordLength);
     }
 
+    /**
+     * Truncate the value to the given number of bits and sign extend it from the most significant
+     * remaining bit.
+     *
+     * @param value      value to normalize
+     * @param wordLength number of bits
+     * @return value as it would be stored in a word of the given length
+     */
+    @Contract(pure = true)
+    public static int normalize(final int value, final int wordLength) {
+        if (wordLength <= 0) {
+            return 0;
+        }
+        if (wordLength >= INT_BITS) {
+            return value;
+        }
+        final int shift = INT_BITS - wordLength;
+        return (value << shift) >> shift;
+    }
+
     /**
      * Get the binary representation of this machine value.
      *
@@ -84,11 +109,11 @@ public class MachineWord {
      */
     @NotNull
     public String binaryRepresentation() {
-        final StringBuilder sb = new StringBuilder();
-        for (final boolean bit : bits) {
-            sb.append(bit ? 1 : 0);
+        final char[] chars = new char[wordLength];
+        for (int i = 0; i < wordLength; i++) {
+            chars[wordLength - 1 - i] = bit(i) ? '1' : '0';
         }
-        return sb.reverse().toString();
+        return new String(chars);
     }
 
     @NotNull
@@ -101,7 +126,9 @@ public class MachineWord {
     @Override
     @SuppressWarnings("MethodDoesntCallSuperMethod")
     public MachineWord clone() {
-        return new MachineWord(bits, wordLength);
+        final MachineWord word = new MachineWord(0, wordLength);
+        word.value = value;
+        return word;
     }
 
     /**
@@ -114,21 +141,34 @@ public class MachineWord {
     }
 
     /**
-     * Get the bits.
+     * Get the bits. The returned array is a copy derived from the current value. Modifying it does
+     * not affect this word. Use {@link #setBits(boolean[])} to write changes back.
      *
-     * @return bits array
+     * @return bits array with lsb at index 0 and msb at index length - 1
      */
+    @NotNull
     public boolean[] getBits() {
+        final boolean[] bits = new boolean[wordLength];
+        for (int i = 0; i < wordLength; i++) {
+            bits[i] = bit(i);
+        }
         return bits;
     }
 
     /**
      * Set the bits.
      *
-     * @param bits bits array
+     * @param bits bits array with lsb at index 0
      */
-    public void setBits(final boolean[] bits) {
-        this.bits = bits;
+    public void setBits(@NotNull final boolean[] bits) {
+        int packed = 0;
+        final int length = Math.min(bits.length, wordLength);
+        for (int i = 0; i < length; i++) {
+            if (bits[i]) {
+                packed |= 1 << i;
+            }
+        }
+        value = normalize(packed, wordLength);
     }
 
     /**
@@ -139,9 +179,7 @@ public class MachineWord {
     @Contract(" -> this")
     @NotNull
     public final MachineWord invert() {
-        for (int i = 0; i < wordLength; i++) {
-            bits[i] = !bits[i];
-        }
+        value = ~value;
         return this;
     }
 
@@ -151,7 +189,7 @@ public class MachineWord {
      * @return 1 if msb is set else 0
      */
     public int msb() {
-        return bits[wordLength - 1] ? 1 : 0;
+        return value < 0 ? 1 : 0;
     }
 
     /**
@@ -160,7 +198,7 @@ public class MachineWord {
      * @return 1 if lsb is set else 0.
      */
     public int lsb() {
-        return bits[0] ? 1 : 0;
+        return value & 1;
     }
 
     /**
@@ -169,24 +207,6 @@ public class MachineWord {
      * @return Integer value
      */
     public int intValue() {
-        if (calculated) {
-            return intValue;
-        }
-        int value = 0;
-        final boolean isNegative = msb() == 1;
-        if (isNegative) {
-            value++;
-        }
-        for (int i = 0; i < bits.length - 1; i++) {
-            if (bits[i] ^ isNegative) {
-                value += Math.pow(2, i);
-            }
-        }
-        if (isNegative) {
-            value *= -1;
-        }
-        this.intValue = value;
-        calculated = true;
         return value;
     }
 
@@ -196,22 +216,17 @@ public class MachineWord {
      * @param value value
      */
     public void setValue(final int value) {
-        assert (!(value > (Math.pow(2, wordLength - 1) - 1)))
-               && (!(value < (-1 * Math.pow(2, wordLength - 1))))
+        assert wordLength <= 0
+               || wordLength >= INT_BITS
+               || (value >= -(1 << (wordLength - 1)) && value <= (1 << (wordLength - 1)) - 1)
                 : "value must be > 0 for unsigned data";
-        calculated = false;
-        bits = new boolean[wordLength];
-        final boolean isNegative = value < 0;
-        int val = Math.abs(value);
-        if (isNegative) {
-            val--;
-        }
-        final String bitValue = new StringBuilder(Integer.toBinaryString(val)).reverse().toString();
-        for (int i = 0; i < Math.min(wordLength, bitValue.length()); i++) {
-            bits[i] = bitValue.charAt(i) == '1';
-        }
-        if (isNegative) {
-            invert();
-        }
+        this.value = normalize(value, wordLength);
+    }
+
+    /*
+     * Value of the bit at the given index. Index 0 is the lsb.
+     */
+    private boolean bit(final int index) {
+        return ((value >>> index) & 1) != 0;
     }
 }
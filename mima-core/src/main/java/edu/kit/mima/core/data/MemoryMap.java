@@ -1,5 +1,7 @@
 package edu.kit.mima.core.data;
 
+import edu.kit.mima.core.LimitExceededException;
+import edu.kit.mima.core.Termination;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashMap;
@@ -11,10 +13,11 @@ import java.util.Map;
  * @author Jannis Weis
  * @since 2018
  */
-public class MemoryMap implements Memory<MachineWord> {
+public class MemoryMap implements WordMemory {
     private final int machineWordLength;
     private final int initialCapacity;
     private Map<Integer, MachineWord> memory;
+    private int cellLimit = Integer.MAX_VALUE;
 
     /**
      * Create new MemoryMap using the given number of bits for machine words. Has an initial capacity
@@ -37,14 +40,52 @@ public class MemoryMap implements Memory<MachineWord> {
             return memory.get(index).clone();
         }
         final MachineWord entry = new MachineWord(0, machineWordLength);
-        memory.put(index, entry);
+        putNew(index, entry);
         return entry;
     }
 
     @Override
     public void storeValue(final int index, @NotNull final MachineWord value) {
-        assert !(memory.size() >= Math.pow(2, machineWordLength)) : "no more memory addresses";
-        memory.put(index, new MachineWord(value.intValue(), machineWordLength));
+        storeIntValue(index, value.intValue());
+    }
+
+    /**
+     * {@inheritDoc} Does not copy the stored word.
+     */
+    @Override
+    public int loadIntValue(final int index) {
+        final MachineWord entry = memory.get(index);
+        if (entry != null) {
+            return entry.intValue();
+        }
+        putNew(index, new MachineWord(0, machineWordLength));
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc} Existing words are updated in place.
+     */
+    @Override
+    public void storeIntValue(final int index, final int value) {
+        final MachineWord entry = memory.get(index);
+        if (entry != null) {
+            entry.setValue(MachineWord.normalize(value, machineWordLength));
+        } else {
+            assert !(memory.size() >= Math.pow(2, machineWordLength)) : "no more memory addresses";
+            putNew(index, new MachineWord(MachineWord.normalize(value, machineWordLength),
+                                          machineWordLength));
+        }
+    }
+
+    /*
+     * Add a new cell to the mapping.
+     */
+    private void putNew(final int index, @NotNull final MachineWord entry) {
+        if (memory.size() >= cellLimit) {
+            throw new LimitExceededException(Termination.MEMORY_LIMIT,
+                                             "more than " + cellLimit + " memory cells used");
+        }
+        memory.put(index, entry);
     }
 
     @Override
@@ -59,13 +100,60 @@ public class MemoryMap implements Memory<MachineWord> {
         }
     }
 
+    @Override
+    public int getWordLength() {
+        return machineWordLength;
+    }
+
     /**
      * Empties the memoryMap. Restores initial capacity
      */
+    @Override
     public void empty() {
         memory = new HashMap<>();
         for (int i = 0; i < initialCapacity; i++) {
             memory.put(i, new MachineWord(0, machineWordLength));
         }
     }
+
+    @Override
+    public boolean isUsed(final int index) {
+        return memory.containsKey(index);
+    }
+
+    @Override
+    public void release(final int index) {
+        memory.remove(index);
+    }
+
+    /**
+     * {@inheritDoc} Cells are in use once they have been loaded or stored.
+     */
+    @Override
+    public int getUsedCellCount() {
+        return memory.size();
+    }
+
+    @Override
+    public void setCellLimit(final int cellLimit) {
+        this.cellLimit = cellLimit;
+    }
+
+    @NotNull
+    @Override
+    public WordMemory fork() {
+        final MemoryMap copy = new MemoryMap(machineWordLength, initialCapacity);
+        copy.restore(this);
+        return copy;
+    }
+
+    @Override
+    public void restore(@NotNull final WordMemory source) {
+        if (source.getWordLength() != machineWordLength) {
+            throw new IllegalArgumentException("word length of memory must match");
+        }
+        final Map<Integer, MachineWord> copy = new HashMap<>();
+        source.getMapping().forEach((index, value) -> copy.put(index, value.clone()));
+        memory = copy;
+    }
 }
@@ -0,0 +1,376 @@
+package edu.kit.mima.core.data;
+
+import edu.kit.mima.core.LimitExceededException;
+import edu.kit.mima.core.Termination;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementation of {@link WordMemory} backed by lazily allocated pages of packed int values.
+ * <p>
+ * The whole address space of the given number of address bits is covered. Addresses are reduced to
+ * the address bits and interpreted in two's complement, so negative addresses share cells with the
+ * upper half of the address space: with 24 address bits -1 and 2^24 - 1 are the same cell, and
+ * every address from 2^23 upwards is reported as its negative alias in the {@link #getMapping()
+ * mapping}. Pages are only allocated on the first store into them. Loading from an unallocated page
+ * yields 0. Written pages are tracked as dirty, so {@link #reset()} and {@link #empty()} only touch
+ * pages that have been written to since the memory was last emptied.
+ * <p>
+ * Unlike {@link MemoryMap} only stores put cells into use. Loads never add a cell to the mapping
+ * and an empty memory has no cells in use, so a view of the mapping starts out empty instead of
+ * listing a block of prefilled cells.
+ * <p>
+ * {@link #fork() Forks} share the written pages copy-on-write. Forking only copies the page table,
+ * a shared page is copied by the first memory that writes to it. A memory that is never written
+ * to after it has been forked, e.g. a snapshot, can be forked and restored from concurrently.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class PagedMemory implements WordMemory {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int WRITTEN_WORDS = PAGE_SIZE / Long.SIZE;
+
+    private final int machineWordLength;
+    private final int addressBits;
+    private final int addressMask;
+    @NotNull
+    private final int[][] pages;
+    /*
+     * Bitmap of cells that have been written to. Used to build the mapping of the memory.
+     */
+    @NotNull
+    private final long[][] written;
+    @NotNull
+    private final long[] dirtyPageMap;
+    /*
+     * Bitmap of pages that may be shared with another memory. They are copied before the next
+     * write.
+     */
+    @NotNull
+    private final long[] sharedPageMap;
+    @NotNull
+    private int[] dirtyPages;
+    private int dirtyPageCount;
+    private int usedCells;
+    private int cellLimit;
+
+    /**
+     * Create new PagedMemory using the given number of bits for machine words and addresses.
+     *
+     * @param machineWordLength number of bits in machineWord
+     * @param addressBits       number of bits in an address
+     */
+    public PagedMemory(final int machineWordLength, final int addressBits) {
+        assert addressBits > PAGE_BITS && addressBits < Integer.SIZE : "unsupported address size";
+        this.machineWordLength = machineWordLength;
+        this.addressBits = addressBits;
+        this.addressMask = (1 << addressBits) - 1;
+        final int pageCount = 1 << (addressBits - PAGE_BITS);
+        pages = new int[pageCount][];
+        written = new long[pageCount][];
+        dirtyPageMap = new long[(pageCount + Long.SIZE - 1) / Long.SIZE];
+        sharedPageMap = new long[dirtyPageMap.length];
+        dirtyPages = new int[16];
+        dirtyPageCount = 0;
+        cellLimit = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Create new PagedMemory that uses the word length as address length.
+     *
+     * @param machineWordLength number of bits in machineWord and addresses
+     */
+    public PagedMemory(final int machineWordLength) {
+        this(machineWordLength, machineWordLength);
+    }
+
+    @NotNull
+    @Override
+    public MachineWord loadValue(final int index) {
+        return new MachineWord(loadIntValue(index), machineWordLength);
+    }
+
+    @Override
+    public void storeValue(final int index, @NotNull final MachineWord value) {
+        storeIntValue(index, value.intValue());
+    }
+
+    @Override
+    public int loadIntValue(final int index) {
+        final int address = index & addressMask;
+        final int[] page = pages[address >>> PAGE_BITS];
+        return page == null ? 0 : page[address & PAGE_MASK];
+    }
+
+    @Override
+    public void storeIntValue(final int index, final int value) {
+        final int address = index & addressMask;
+        final int pageIndex = address >>> PAGE_BITS;
+        int[] page = pages[pageIndex];
+        if (page == null) {
+            page = new int[PAGE_SIZE];
+            pages[pageIndex] = page;
+            written[pageIndex] = new long[WRITTEN_WORDS];
+        } else if (isShared(pageIndex)) {
+            page = unshare(pageIndex);
+        }
+        final int cell = address & PAGE_MASK;
+        final long[] cells = written[pageIndex];
+        if ((cells[cell >>> 6] & (1L << cell)) == 0) {
+            useCell();
+            cells[cell >>> 6] |= 1L << cell;
+        }
+        markDirty(pageIndex);
+        page[cell] = MachineWord.normalize(value, machineWordLength);
+    }
+
+    /*
+     * Replace a shared page by a private copy.
+     */
+    @NotNull
+    private int[] unshare(final int pageIndex) {
+        sharedPageMap[pageIndex >>> 6] &= ~(1L << pageIndex);
+        final int[] page = pages[pageIndex].clone();
+        pages[pageIndex] = page;
+        written[pageIndex] = written[pageIndex].clone();
+        return page;
+    }
+
+    /*
+     * Account for a newly written cell.
+     */
+    private void useCell() {
+        if (usedCells >= cellLimit) {
+            throw new LimitExceededException(Termination.MEMORY_LIMIT,
+                                             "more than " + cellLimit + " memory cells used");
+        }
+        usedCells++;
+    }
+
+    /**
+     * {@inheritDoc} Only cells that have been written to are in use.
+     */
+    @Override
+    public boolean isUsed(final int index) {
+        final int address = index & addressMask;
+        final long[] cells = written[address >>> PAGE_BITS];
+        final int cell = address & PAGE_MASK;
+        return cells != null && (cells[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    @Override
+    public void release(final int index) {
+        if (!isUsed(index)) {
+            return;
+        }
+        final int address = index & addressMask;
+        final int pageIndex = address >>> PAGE_BITS;
+        final int[] page = isShared(pageIndex) ? unshare(pageIndex) : pages[pageIndex];
+        final int cell = address & PAGE_MASK;
+        written[pageIndex][cell >>> 6] &= ~(1L << cell);
+        page[cell] = 0;
+        usedCells--;
+    }
+
+    /**
+     * {@inheritDoc} Only addresses that have been written to are contained in the mapping. The
+     * returned map is a snapshot and does not reflect later changes.
+     */
+    @Override
+    public Map<Integer, MachineWord> getMapping() {
+        final Map<Integer, MachineWord> mapping = new HashMap<>();
+        for (int i = 0; i < dirtyPageCount; i++) {
+            final int pageIndex = dirtyPages[i];
+            final long[] cells = written[pageIndex];
+            for (int w = 0; w < cells.length; w++) {
+                long bits = cells[w];
+                while (bits != 0) {
+                    final int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    final int address = (pageIndex << PAGE_BITS) | cell;
+                    mapping.put(MachineWord.normalize(address, addressBits),
+                                new MachineWord(pages[pageIndex][cell], machineWordLength));
+                }
+            }
+        }
+        return mapping;
+    }
+
+    /**
+     * {@inheritDoc} Collects the written addresses without creating the mapping.
+     */
+    @NotNull
+    @Override
+    public int[] getUsedAddresses() {
+        final int[] addresses = new int[usedCells];
+        int count = 0;
+        for (int i = 0; i < dirtyPageCount; i++) {
+            final int pageIndex = dirtyPages[i];
+            final long[] cells = written[pageIndex];
+            for (int w = 0; w < cells.length; w++) {
+                long bits = cells[w];
+                while (bits != 0) {
+                    final int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    addresses[count++] = MachineWord.normalize((pageIndex << PAGE_BITS) | cell,
+                                                               addressBits);
+                }
+            }
+        }
+        Arrays.sort(addresses);
+        return addresses;
+    }
+
+    /**
+     * {@inheritDoc} Written addresses stay part of the mapping.
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < dirtyPageCount; i++) {
+            final int pageIndex = dirtyPages[i];
+            if (isShared(pageIndex)) {
+                unshare(pageIndex);
+            }
+            Arrays.fill(pages[pageIndex], 0);
+        }
+    }
+
+    @Override
+    public void empty() {
+        for (int i = 0; i < dirtyPageCount; i++) {
+            final int pageIndex = dirtyPages[i];
+            if (isShared(pageIndex)) {
+                sharedPageMap[pageIndex >>> 6] &= ~(1L << pageIndex);
+                pages[pageIndex] = null;
+                written[pageIndex] = null;
+            } else {
+                Arrays.fill(pages[pageIndex], 0);
+                Arrays.fill(written[pageIndex], 0L);
+            }
+        }
+        clearDirty();
+        usedCells = 0;
+    }
+
+    /**
+     * {@inheritDoc} Written pages are shared with the fork until either memory writes to them.
+     */
+    @NotNull
+    @Override
+    public PagedMemory fork() {
+        final PagedMemory copy = new PagedMemory(machineWordLength, addressBits);
+        copy.restore(this);
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc} If the source is a PagedMemory with the same address size its written pages
+     * are shared until either memory writes to them.
+     */
+    @Override
+    public void restore(@NotNull final WordMemory source) {
+        if (source.getWordLength() != machineWordLength) {
+            throw new IllegalArgumentException("word length of memory must match");
+        }
+        if (source == this) {
+            return;
+        }
+        if (!(source instanceof PagedMemory) || ((PagedMemory) source).addressBits != addressBits) {
+            final int limit = cellLimit;
+            cellLimit = Integer.MAX_VALUE;
+            empty();
+            source.getMapping().forEach((index, value) -> storeIntValue(index, value.intValue()));
+            cellLimit = limit;
+            return;
+        }
+        final PagedMemory other = (PagedMemory) source;
+        for (int i = 0; i < dirtyPageCount; i++) {
+            final int pageIndex = dirtyPages[i];
+            sharedPageMap[pageIndex >>> 6] &= ~(1L << pageIndex);
+            pages[pageIndex] = null;
+            written[pageIndex] = null;
+        }
+        clearDirty();
+        for (int i = 0; i < other.dirtyPageCount; i++) {
+            final int pageIndex = other.dirtyPages[i];
+            other.markShared(pageIndex);
+            markShared(pageIndex);
+            pages[pageIndex] = other.pages[pageIndex];
+            written[pageIndex] = other.written[pageIndex];
+            markDirty(pageIndex);
+        }
+        usedCells = other.usedCells;
+    }
+
+    /**
+     * {@inheritDoc} Only cells that have been written to are in use.
+     */
+    @Override
+    public int getUsedCellCount() {
+        return usedCells;
+    }
+
+    @Override
+    public void setCellLimit(final int cellLimit) {
+        this.cellLimit = cellLimit;
+    }
+
+    @Override
+    public int getWordLength() {
+        return machineWordLength;
+    }
+
+    /**
+     * Get the number of bits used for addresses.
+     *
+     * @return number of address bits
+     */
+    public int getAddressBits() {
+        return addressBits;
+    }
+
+    /*
+     * Mark page as dirty if it isn't already.
+     */
+    private void markDirty(final int pageIndex) {
+        final int word = pageIndex >>> 6;
+        final long bit = 1L << pageIndex;
+        if ((dirtyPageMap[word] & bit) != 0) {
+            return;
+        }
+        dirtyPageMap[word] |= bit;
+        if (dirtyPageCount == dirtyPages.length) {
+            dirtyPages = Arrays.copyOf(dirtyPages, dirtyPageCount * 2);
+        }
+        dirtyPages[dirtyPageCount++] = pageIndex;
+    }
+
+    private boolean isShared(final int pageIndex) {
+        return (sharedPageMap[pageIndex >>> 6] & (1L << pageIndex)) != 0;
+    }
+
+    /*
+     * Mark page as shared. Doesn't write to the bitmap if the page is already shared, so memories
+     * that aren't written to can be forked concurrently.
+     */
+    private void markShared(final int pageIndex) {
+        if (!isShared(pageIndex)) {
+            sharedPageMap[pageIndex >>> 6] |= 1L << pageIndex;
+        }
+    }
+
+    private void clearDirty() {
+        for (int i = 0; i < dirtyPageCount; i++) {
+            final int pageIndex = dirtyPages[i];
+            dirtyPageMap[pageIndex >>> 6] &= ~(1L << pageIndex);
+        }
+        dirtyPageCount = 0;
+    }
+}
@@ -0,0 +1,104 @@
+package edu.kit.mima.core.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * {@link Memory} of {@link MachineWord}s that additionally offers access to the packed int values.
+ * The int based accessors do not allocate words and should be preferred during execution.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public interface WordMemory extends Memory<MachineWord> {
+
+    /**
+     * Load the packed value from memory.
+     *
+     * @param index index in memory
+     * @return value at index
+     */
+    int loadIntValue(int index);
+
+    /**
+     * Store a packed value to memory. The value is truncated to the word length.
+     *
+     * @param index index to store at
+     * @param value value to store
+     */
+    void storeIntValue(int index, int value);
+
+    /**
+     * Get the number of bits of the stored words.
+     *
+     * @return number of bits in one machine word
+     */
+    int getWordLength();
+
+    /**
+     * Empties the memory. Afterwards the memory is in the same state as after construction.
+     */
+    void empty();
+
+    /**
+     * Returns whether the cell is in use, i.e. part of the mapping.
+     *
+     * @param index index of the cell
+     * @return true if the cell is in use
+     */
+    boolean isUsed(int index);
+
+    /**
+     * Take a cell out of use. Its value becomes 0 and it is no longer part of the mapping. Used to
+     * undo the write that put the cell into use. Has no effect if the cell isn't in use.
+     *
+     * @param index index of the cell
+     */
+    void release(int index);
+
+    /**
+     * Get the number of memory cells in use, i.e. the cells that are part of the mapping.
+     *
+     * @return number of used cells
+     */
+    int getUsedCellCount();
+
+    /**
+     * Get the addresses of the cells in use, i.e. the keys of the mapping, in ascending order.
+     *
+     * @return the used addresses. Changes to the array don't affect the memory.
+     */
+    @NotNull
+    default int[] getUsedAddresses() {
+        final int[] addresses = getMapping().keySet().stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(addresses);
+        return addresses;
+    }
+
+    /**
+     * Set the maximum number of cells in use. Using a further cell throws a {@link
+     * edu.kit.mima.core.LimitExceededException}. Cells already in use are not affected.
+     *
+     * @param cellLimit maximum number of used cells. {@link Integer#MAX_VALUE} for no limit.
+     */
+    void setCellLimit(int cellLimit);
+
+    /**
+     * Create a copy of the memory. Changes to either memory don't affect the other one. The cell
+     * limit is not copied.
+     *
+     * @return the copy
+     */
+    @NotNull
+    WordMemory fork();
+
+    /**
+     * Replace the contents of the memory with the contents of the given memory, which isn't
+     * changed.
+     *
+     * @param source the memory to copy, usually a {@link #fork()} of this memory
+     * @throws IllegalArgumentException if the word length of the source differs
+     */
+    void restore(@NotNull WordMemory source);
+}
@@ -1,5 +1,6 @@
 package edu.kit.mima.core.instruction;
 
+import edu.kit.mima.core.Mima;
 import edu.kit.mima.core.interpretation.Value;
 import edu.kit.mima.core.interpretation.environment.Environment;
 
@@ -19,7 +20,8 @@ public interface Instruction {
      *
      * @param arguments   function arguments array
      * @param environment runtime environment
+     * @param mima        the mima the instruction is executed on
      * @param callback    callback for method return value
      */
-    void apply(List<Value<?>> arguments, Environment environment, Consumer<Value<?>> callback);
+    void apply(List<Value<?>> arguments, Environment environment, Mima mima, Consumer<Value<?>> callback);
 }
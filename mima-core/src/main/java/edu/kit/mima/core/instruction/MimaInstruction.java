@@ -5,14 +5,13 @@ import edu.kit.mima.core.data.MachineWord;
 import edu.kit.mima.core.interpretation.Value;
 import edu.kit.mima.core.interpretation.ValueType;
 import edu.kit.mima.core.interpretation.environment.Environment;
-import edu.kit.mima.core.logic.ArithmeticLogicUnit;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
-import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
 
 /**
  * Instructions for Mima.
@@ -28,13 +27,14 @@ public enum MimaInstruction implements Instruction {
     LDC("LDC", 1) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
             final var argument = InstructionTools.getReferenceValue(arguments, 0);
             final MachineWord value = (MachineWord) argument.getValue();
             if (!(mima.getWordLength() == mima.getConstWordLength()) && (value.intValue() < 0)) {
                 InstructionTools.fail("can't pass negative values");
             }
-            mima.setAccumulator(value);
+            mima.setAccumulatorValue(value.intValue());
             return null;
         }
     },
@@ -43,10 +43,11 @@ public enum MimaInstruction implements Instruction {
      */
     LDV("LDV", 1) {
         @Override
-        protected MachineWord applyInternal(@NotNull final List<Value<?>> arguments,
-                                            final Environment environment) {
+        protected MachineWord applyInternal(
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
             final var argument = InstructionTools.getMemoryReference(arguments, 0);
-            mima.setAccumulator(mima.loadValue(((MachineWord) argument.getValue()).intValue()));
+            mima.setAccumulatorValue(mima.loadIntValue(((MachineWord) argument.getValue()).intValue()));
             return null;
         }
     },
@@ -56,9 +57,10 @@ public enum MimaInstruction implements Instruction {
     STV("STV", 1) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
             final var argument = InstructionTools.getMemoryReference(arguments, 0);
-            mima.storeValue(((MachineWord) argument.getValue()).intValue(), mima.getAccumulator());
+            mima.storeIntValue(((MachineWord) argument.getValue()).intValue(), mima.getAccumulatorValue());
             return null;
         }
     },
@@ -68,11 +70,11 @@ public enum MimaInstruction implements Instruction {
     LDIV("LDIV", 1) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
             final var argument = InstructionTools.getMemoryReference(arguments, 0);
-            mima.setAccumulator(
-                    mima.loadValue(
-                            mima.loadValue(((MachineWord) argument.getValue()).intValue()).intValue()));
+            mima.setAccumulatorValue(
+                    mima.loadIntValue(mima.loadIntValue(((MachineWord) argument.getValue()).intValue())));
             return null;
         }
     },
@@ -82,11 +84,12 @@ public enum MimaInstruction implements Instruction {
     STIV("STIV", 1) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
             final var argument = InstructionTools.getMemoryReference(arguments, 0);
-            mima.storeValue(
-                    mima.loadValue(((MachineWord) argument.getValue()).intValue()).intValue(),
-                    mima.getAccumulator());
+            mima.storeIntValue(
+                    mima.loadIntValue(((MachineWord) argument.getValue()).intValue()),
+                    mima.getAccumulatorValue());
             return null;
         }
     },
@@ -96,8 +99,9 @@ public enum MimaInstruction implements Instruction {
     RAR("RAR", 0) {
         @Override
         protected MachineWord applyInternal(
-                final List<Value<?>> arguments, final Environment environment) {
-            mima.setAccumulator(arithmeticLogicUnit.rar(mima.getAccumulator()));
+                final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
+            mima.setAccumulatorValue(mima.getArithmeticLogicUnit().rar(mima.getAccumulatorValue()));
             return null;
         }
     },
@@ -107,8 +111,9 @@ public enum MimaInstruction implements Instruction {
     NOT("NOT", 0) {
         @Override
         protected MachineWord applyInternal(
-                final List<Value<?>> arguments, final Environment environment) {
-            mima.setAccumulator(mima.getAccumulator().invert());
+                final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
+            mima.setAccumulatorValue(mima.getArithmeticLogicUnit().not(mima.getAccumulatorValue()));
             return null;
         }
     },
@@ -118,8 +123,9 @@ public enum MimaInstruction implements Instruction {
     ADD("ADD", 1) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
-            return applyAlu(arguments, arithmeticLogicUnit::add);
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
+            return applyAlu(arguments, mima, mima.getArithmeticLogicUnit()::add);
         }
     },
     /**
@@ -128,8 +134,9 @@ public enum MimaInstruction implements Instruction {
     AND("AND", 1) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
-            return applyAlu(arguments, arithmeticLogicUnit::and);
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
+            return applyAlu(arguments, mima, mima.getArithmeticLogicUnit()::and);
         }
     },
     /**
@@ -138,8 +145,9 @@ public enum MimaInstruction implements Instruction {
     OR("OR", 1) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
-            return applyAlu(arguments, arithmeticLogicUnit::or);
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
+            return applyAlu(arguments, mima, mima.getArithmeticLogicUnit()::or);
         }
     },
     /**
@@ -148,8 +156,9 @@ public enum MimaInstruction implements Instruction {
     XOR("XOR", 1) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
-            return applyAlu(arguments, arithmeticLogicUnit::xor);
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
+            return applyAlu(arguments, mima, mima.getArithmeticLogicUnit()::xor);
         }
     },
     /**
@@ -158,14 +167,12 @@ public enum MimaInstruction implements Instruction {
     EQL("EQL", 1) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
-            return applyAlu(arguments, arithmeticLogicUnit::negativeIfEquals);
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
+            return applyAlu(arguments, mima, mima.getArithmeticLogicUnit()::negativeIfEquals);
         }
     };
 
-    private static Mima mima;
-    private static ArithmeticLogicUnit arithmeticLogicUnit;
-
     private final String instruction;
     private final int argNum;
 
@@ -180,16 +187,6 @@ public enum MimaInstruction implements Instruction {
         this.argNum = argNum;
     }
 
-    /**
-     * Set the mima controlled by the instructions.
-     *
-     * @param mima Mima
-     */
-    public static void setMima(@NotNull final Mima mima) {
-        MimaInstruction.mima = mima;
-        arithmeticLogicUnit = new ArithmeticLogicUnit(mima.getWordLength());
-    }
-
     @Override
     public String toString() {
         return instruction;
@@ -198,9 +195,10 @@ public enum MimaInstruction implements Instruction {
     @Override
     public void apply(@NotNull final List<Value<?>> arguments,
                       final Environment environment,
+                      @NotNull final Mima mima,
                       @NotNull final Consumer<Value<?>> callback) {
         InstructionTools.checkArgNumber(arguments, this.argNum);
-        callback.accept(new Value<>(ValueType.NUMBER, this.applyInternal(arguments, environment)));
+        callback.accept(new Value<>(ValueType.NUMBER, this.applyInternal(arguments, environment, mima)));
     }
 
     /**
@@ -208,17 +206,20 @@ public enum MimaInstruction implements Instruction {
      *
      * @param arguments   argument list
      * @param environment execution environment
+     * @param mima        the mima to execute on
      * @return return value of instruction
      */
-    protected abstract @Nullable MachineWord applyInternal(List<Value<?>> arguments, Environment environment);
+    protected abstract @Nullable MachineWord applyInternal(List<Value<?>> arguments, Environment environment,
+                                                           Mima mima);
 
     protected @Nullable MachineWord applyAlu(
             @NotNull final List<Value<?>> arguments,
-            @NotNull final BiFunction<MachineWord, MachineWord, MachineWord> func) {
+            @NotNull final Mima mima,
+            @NotNull final IntBinaryOperator func) {
         final var argument = InstructionTools.getMemoryReference(arguments, 0);
-        mima.setAccumulator(func.apply(
-                        MachineWord.cast(mima.getAccumulator(), mima.getWordLength()),
-                        mima.loadValue((((MachineWord) argument.getValue()).intValue()))));
+        mima.setAccumulatorValue(func.applyAsInt(
+                mima.getAccumulatorValue(),
+                mima.loadIntValue(((MachineWord) argument.getValue()).intValue())));
         return null;
     }
 }
@@ -5,7 +5,6 @@ import edu.kit.mima.core.data.MachineWord;
 import edu.kit.mima.core.interpretation.Value;
 import edu.kit.mima.core.interpretation.ValueType;
 import edu.kit.mima.core.interpretation.environment.Environment;
-import edu.kit.mima.core.logic.ArithmeticLogicUnit;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -27,10 +26,11 @@ public enum MimaXInstruction implements Instruction {
     ADC("ADC", 1) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
             final var argument = InstructionTools.getReferenceValue(arguments, 0);
-            mima.setAccumulator(
-                    arithmeticLogicUnit.add(mima.getAccumulator(), (MachineWord) argument.getValue()));
+            mima.setAccumulatorValue(mima.getArithmeticLogicUnit().add(
+                    mima.getAccumulatorValue(), ((MachineWord) argument.getValue()).intValue()));
             return null;
         }
     },
@@ -40,8 +40,9 @@ public enum MimaXInstruction implements Instruction {
     LDSP("LDSP", 0) {
         @Override
         protected MachineWord applyInternal(
-                final List<Value<?>> arguments, final Environment environment) {
-            mima.setAccumulator(mima.getStackPointer().clone());
+                final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
+            mima.setAccumulatorValue(mima.getStackPointerValue());
             return null;
         }
     },
@@ -51,9 +52,10 @@ public enum MimaXInstruction implements Instruction {
     STSP("STSP", 0) {
         @Override
         protected MachineWord applyInternal(
-                final List<Value<?>> arguments, final Environment environment) {
-            final int address = mima.getAccumulator().intValue();
-            mima.storeValue(address, mima.loadValue(address));
+                final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
+            final int address = mima.getAccumulatorValue();
+            mima.storeIntValue(address, mima.loadIntValue(address));
             mima.setStackPointer(address);
             return null;
         }
@@ -64,7 +66,8 @@ public enum MimaXInstruction implements Instruction {
     SP("SP", 0) {
         @Override
         protected MachineWord applyInternal(
-                final List<Value<?>> arguments, final Environment environment) {
+                final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
             return mima.getStackPointer().clone();
         }
     },
@@ -74,9 +77,10 @@ public enum MimaXInstruction implements Instruction {
     STVR("STVR", 2) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
             final int address = getOffsetAddress(arguments);
-            mima.storeValue(address, mima.getAccumulator());
+            mima.storeIntValue(address, mima.getAccumulatorValue());
             return null;
         }
     },
@@ -86,15 +90,14 @@ public enum MimaXInstruction implements Instruction {
     LDVR("LDVR", 2) {
         @Override
         protected MachineWord applyInternal(
-                @NotNull final List<Value<?>> arguments, final Environment environment) {
+                @NotNull final List<Value<?>> arguments, final Environment environment,
+                @NotNull final Mima mima) {
             final int address = getOffsetAddress(arguments);
-            mima.setAccumulator(mima.loadValue(address));
+            mima.setAccumulatorValue(mima.loadIntValue(address));
             return null;
         }
     };
 
-    private static Mima mima;
-    private static ArithmeticLogicUnit arithmeticLogicUnit;
     private final String instruction;
     private final int argNum;
 
@@ -108,16 +111,6 @@ public enum MimaXInstruction implements Instruction {
         this.argNum = argNum;
     }
 
-    /**
-     * Set the mima controlled by the instructions.
-     *
-     * @param mima Mima
-     */
-    public static void setMima(@NotNull final Mima mima) {
-        MimaXInstruction.mima = mima;
-        arithmeticLogicUnit = new ArithmeticLogicUnit(mima.getWordLength());
-    }
-
     /**
      * Get an offset address value.
      *
@@ -144,9 +137,10 @@ public enum MimaXInstruction implements Instruction {
     public void apply(
             @NotNull final List<Value<?>> arguments,
             final Environment environment,
+            @NotNull final Mima mima,
             @NotNull final Consumer<Value<?>> callback) {
         InstructionTools.checkArgNumber(arguments, this.argNum);
-        callback.accept(new Value<>(ValueType.NUMBER, this.applyInternal(arguments, environment)));
+        callback.accept(new Value<>(ValueType.NUMBER, this.applyInternal(arguments, environment, mima)));
     }
 
     /**
@@ -154,7 +148,9 @@ public enum MimaXInstruction implements Instruction {
      *
      * @param arguments   argument list
      * @param environment execution environment
+     * @param mima        the mima to execute on
      * @return return value of instruction
      */
-    protected abstract @Nullable MachineWord applyInternal(List<Value<?>> arguments, Environment environment);
+    protected abstract @Nullable MachineWord applyInternal(List<Value<?>> arguments, Environment environment,
+                                                           Mima mima);
 }
@@ -0,0 +1,213 @@
+package edu.kit.mima.core.interpretation;
+
+import edu.kit.mima.core.Mima;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Condition of a {@link ConditionalBreakpoint} on the state of the {@link Mima}.
+ * <p>
+ * Conditions compare values with {@code ==}, {@code !=}, {@code <}, {@code <=}, {@code >} and
+ * {@code >=} and combine comparisons with {@code &&} and {@code ||}, which bind in the usual order
+ * and may be grouped with parentheses. A value is a decimal number, {@code acc} for the
+ * accumulator, {@code sp} for the stack pointer or {@code mem[address]} for a memory cell, e.g.
+ * {@code acc >= 10 && mem[3] != 0}. The expression is compiled once, testing it doesn't parse or
+ * allocate anything.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class BreakCondition {
+
+    @NotNull
+    private final String expression;
+    @NotNull
+    private final Predicate<Mima> predicate;
+
+    @Contract(pure = true)
+    private BreakCondition(@NotNull final String expression, @NotNull final Predicate<Mima> predicate) {
+        this.expression = expression;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Compile a condition.
+     *
+     * @param expression the condition expression
+     * @return the compiled condition
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    @NotNull
+    public static BreakCondition compile(@NotNull final String expression) {
+        final ConditionParser parser = new ConditionParser(expression);
+        final Predicate<Mima> predicate = parser.parseOr();
+        parser.skipWhitespace();
+        if (!parser.isEnd()) {
+            throw parser.error("unexpected input");
+        }
+        return new BreakCondition(expression.trim(), predicate);
+    }
+
+    /**
+     * Test the condition.
+     *
+     * @param mima the mima to test
+     * @return true if the condition holds
+     */
+    public boolean test(@NotNull final Mima mima) {
+        return predicate.test(mima);
+    }
+
+    /**
+     * Get the expression the condition was compiled from.
+     *
+     * @return the expression
+     */
+    @NotNull
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /*
+     * Comparison of two values.
+     */
+    @FunctionalInterface
+    private interface IntComparison {
+        boolean test(int left, int right);
+    }
+
+    /*
+     * Recursive descent parser that builds the predicate while parsing.
+     */
+    private static final class ConditionParser {
+
+        @NotNull
+        private final String input;
+        private int position;
+
+        @Contract(pure = true)
+        private ConditionParser(@NotNull final String input) {
+            this.input = input;
+        }
+
+        @NotNull
+        private Predicate<Mima> parseOr() {
+            Predicate<Mima> result = parseAnd();
+            while (consume("||")) {
+                result = result.or(parseAnd());
+            }
+            return result;
+        }
+
+        @NotNull
+        private Predicate<Mima> parseAnd() {
+            Predicate<Mima> result = parseComparison();
+            while (consume("&&")) {
+                result = result.and(parseComparison());
+            }
+            return result;
+        }
+
+        @NotNull
+        private Predicate<Mima> parseComparison() {
+            if (consume("(")) {
+                final Predicate<Mima> result = parseOr();
+                expect(")");
+                return result;
+            }
+            final ToIntFunction<Mima> left = parseValue();
+            final IntComparison comparison = parseOperator();
+            final ToIntFunction<Mima> right = parseValue();
+            return mima -> comparison.test(left.applyAsInt(mima), right.applyAsInt(mima));
+        }
+
+        @NotNull
+        private IntComparison parseOperator() {
+            if (consume("==")) {
+                return (a, b) -> a == b;
+            } else if (consume("!=")) {
+                return (a, b) -> a != b;
+            } else if (consume("<=")) {
+                return (a, b) -> a <= b;
+            } else if (consume(">=")) {
+                return (a, b) -> a >= b;
+            } else if (consume("<")) {
+                return (a, b) -> a < b;
+            } else if (consume(">")) {
+                return (a, b) -> a > b;
+            }
+            throw error("expected comparison operator");
+        }
+
+        @NotNull
+        private ToIntFunction<Mima> parseValue() {
+            if (consume("acc")) {
+                return Mima::getAccumulatorValue;
+            } else if (consume("sp")) {
+                return Mima::getStackPointerValue;
+            } else if (consume("mem")) {
+                expect("[");
+                final int address = parseNumber();
+                expect("]");
+                return mima -> mima.getMemory().loadIntValue(address);
+            }
+            final int value = parseNumber();
+            return mima -> value;
+        }
+
+        private int parseNumber() {
+            skipWhitespace();
+            final int start = position;
+            if (position < input.length() && input.charAt(position) == '-') {
+                position++;
+            }
+            while (position < input.length() && Character.isDigit(input.charAt(position))) {
+                position++;
+            }
+            try {
+                return Integer.parseInt(input.substring(start, position));
+            } catch (@NotNull final NumberFormatException e) {
+                position = start;
+                throw error("expected number");
+            }
+        }
+
+        private void expect(@NotNull final String expected) {
+            if (!consume(expected)) {
+                throw error("expected '" + expected + "'");
+            }
+        }
+
+        private boolean consume(@NotNull final String expected) {
+            skipWhitespace();
+            if (input.startsWith(expected, position)) {
+                position += expected.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean isEnd() {
+            return position >= input.length();
+        }
+
+        @NotNull
+        private IllegalArgumentException error(@NotNull final String message) {
+            return new IllegalArgumentException(message + " at position " + position + " in \"" + input + "\"");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package edu.kit.mima.core.interpretation;
+
+import edu.kit.mima.core.Mima;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Breakpoint that only pauses if a {@link BreakCondition} holds and it has been hit a given number
+ * of times. Hits are only counted while the condition holds. Once the hit count is reached the
+ * breakpoint pauses on every further hit.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class ConditionalBreakpoint implements Breakpoint {
+    private final int lineIndex;
+    @Nullable
+    private final BreakCondition condition;
+    private final int hitCount;
+
+    /**
+     * Create new ConditionalBreakpoint.
+     *
+     * @param lineIndex the line of the breakpoint
+     * @param condition the condition. If null every hit is counted
+     * @param hitCount  number of hits before the breakpoint pauses. Values below 1 are treated as 1
+     */
+    @Contract(pure = true)
+    public ConditionalBreakpoint(final int lineIndex, @Nullable final BreakCondition condition,
+                                 final int hitCount) {
+        this.lineIndex = lineIndex;
+        this.condition = condition;
+        this.hitCount = Math.max(1, hitCount);
+    }
+
+    @Override
+    public int getLineIndex() {
+        return lineIndex;
+    }
+
+    /**
+     * Get the condition of the breakpoint.
+     *
+     * @return the condition. Null if the breakpoint is unconditional
+     */
+    @Nullable
+    public BreakCondition getCondition() {
+        return condition;
+    }
+
+    /**
+     * Get the number of hits before the breakpoint pauses.
+     *
+     * @return the hit count
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns whether the condition of the breakpoint holds.
+     *
+     * @param mima the mima to test
+     * @return true if there is no condition or it holds
+     */
+    public boolean test(@NotNull final Mima mima) {
+        return condition == null || condition.test(mima);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o instanceof Breakpoint) {
+            return ((Breakpoint) o).getLineIndex() == this.getLineIndex();
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return lineIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "Breakpoint[line=" + lineIndex + ", condition=" + condition + ", hitCount=" + hitCount + "]";
+    }
+}
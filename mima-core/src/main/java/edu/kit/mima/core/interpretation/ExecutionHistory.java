@@ -0,0 +1,471 @@
+package edu.kit.mima.core.interpretation;
+
+import edu.kit.mima.api.util.Tuple;
+import edu.kit.mima.core.data.WordMemory;
+import edu.kit.mima.core.interpretation.environment.Environment;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * History of a run of the iterative {@link Interpreter} that allows returning to the state before
+ * any recorded step. Every evaluated statement is a step of the history, including definitions and
+ * program scopes, so steps of the history are {@link Interpreter#getStatements() statements} rather
+ * than the executed instructions counted by {@link Interpreter#getSteps()}.
+ * <p>
+ * For every step the offset of the evaluated token and the previous values of the memory cells it
+ * writes are kept in an undo log of primitive ring buffers. Writes also record whether the cell was
+ * in use, so undoing the write that put a cell into use {@link WordMemory#release(int) releases}
+ * it again. Every {@link #getCheckpointInterval()}
+ * steps a checkpoint of the remaining state is taken: accumulator, stack pointer, return stack,
+ * the program scopes being evaluated and the definitions of their environments. Returning to a step
+ * undoes the memory writes back to the last checkpoint before it, restores the checkpoint and
+ * evaluates the steps in between again. Seeking back n steps therefore costs n undo operations and
+ * at most one checkpoint interval of evaluation.
+ * <p>
+ * The undo log and the checkpoints together use at most {@link #getMaxBytes()}, of which the undo
+ * log takes at most half. Once the log is full the oldest steps are discarded together with their
+ * checkpoints. Once the limit is exceeded the oldest checkpoints are discarded together with the
+ * steps up to the next checkpoint. The latest checkpoint is always kept, so it may exceed the limit
+ * if it doesn't fit on its own.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class ExecutionHistory {
+
+    /**
+     * Default number of steps between two checkpoints.
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1024;
+    /**
+     * Default memory limit of the undo log and checkpoints in bytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int STEP_BYTES = Integer.BYTES + Long.BYTES;
+    private static final int WRITE_BYTES = 2 * Integer.BYTES + 1;
+
+    private final long maxBytes;
+    private final int checkpointInterval;
+    private final int maxStepCapacity;
+    private final int maxWriteCapacity;
+    @NotNull
+    private final ArrayDeque<Checkpoint> checkpoints;
+    /*
+     * Step log: offset of the token and position of the first write in the write log.
+     */
+    @NotNull
+    private int[] offsets;
+    @NotNull
+    private long[] writeStarts;
+    /*
+     * Write log: address, previous value and previous use of written cells.
+     */
+    @NotNull
+    private int[] addresses;
+    @NotNull
+    private int[] values;
+    @NotNull
+    private boolean[] used;
+    private long firstStep;
+    private long nextStep;
+    private long firstWrite;
+    private long nextWrite;
+    private long checkpointBytes;
+    @Nullable
+    private RecordingMemory memory;
+
+    /**
+     * Create new ExecutionHistory with {@link #DEFAULT_MAX_BYTES} and {@link
+     * #DEFAULT_CHECKPOINT_INTERVAL}.
+     */
+    public ExecutionHistory() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Create new ExecutionHistory.
+     *
+     * @param maxBytes           memory limit of the undo log and checkpoints in bytes. Has to be
+     *                           at least {@link
+     *                           #getMinimumSize(int)} of the checkpoint interval.
+     * @param checkpointInterval number of steps between two checkpoints
+     * @throws IllegalArgumentException if the interval isn't positive or the limit is too small
+     */
+    public ExecutionHistory(final long maxBytes, final int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("checkpoint interval must be positive: " + checkpointInterval);
+        }
+        if (maxBytes < getMinimumSize(checkpointInterval)) {
+            throw new IllegalArgumentException("history limit of " + maxBytes
+                                               + " bytes can't hold two checkpoint intervals");
+        }
+        this.maxBytes = maxBytes;
+        this.checkpointInterval = checkpointInterval;
+        maxStepCapacity = capacity(maxBytes / 4 / STEP_BYTES);
+        maxWriteCapacity = capacity(maxBytes / 4 / WRITE_BYTES);
+        checkpoints = new ArrayDeque<>();
+        offsets = new int[Math.min(INITIAL_CAPACITY, maxStepCapacity)];
+        writeStarts = new long[offsets.length];
+        addresses = new int[Math.min(INITIAL_CAPACITY, maxWriteCapacity)];
+        values = new int[addresses.length];
+        used = new boolean[addresses.length];
+    }
+
+    /**
+     * Get the smallest memory limit whose undo log can hold the steps of two checkpoint intervals.
+     *
+     * @param checkpointInterval number of steps between two checkpoints
+     * @return minimum limit in bytes
+     */
+    public static long getMinimumSize(final int checkpointInterval) {
+        final long steps = Long.highestOneBit(2L * checkpointInterval - 1) << 1;
+        return 4 * steps * Math.max(STEP_BYTES, WRITE_BYTES);
+    }
+
+    /*
+     * Largest power of two not exceeding the given number of entries.
+     */
+    private static int capacity(final long entries) {
+        return (int) Long.highestOneBit(Math.min(entries, MAX_CAPACITY));
+    }
+
+    /**
+     * Wrap the given memory so that writes to it are recorded to this history. The mima the history
+     * is used with has to use the returned memory.
+     *
+     * @param memory the memory to record
+     * @return memory recording its writes
+     */
+    @NotNull
+    public WordMemory record(@NotNull final WordMemory memory) {
+        clear();
+        final RecordingMemory recordingMemory = new RecordingMemory(memory, this);
+        this.memory = recordingMemory;
+        return recordingMemory;
+    }
+
+    /**
+     * Returns whether writes to the given memory are recorded to this history.
+     *
+     * @param memory the memory
+     * @return true if the memory was created by {@link #record(WordMemory)}
+     */
+    @Contract(pure = true)
+    public boolean isRecording(@NotNull final WordMemory memory) {
+        return this.memory == memory;
+    }
+
+    /**
+     * Discard all recorded steps.
+     */
+    public void clear() {
+        firstStep = 0;
+        nextStep = 0;
+        firstWrite = 0;
+        nextWrite = 0;
+        checkpoints.clear();
+        checkpointBytes = 0;
+    }
+
+    /**
+     * Get the earliest step that can be returned to.
+     *
+     * @return the step. -1 if no step has been recorded.
+     */
+    public long getFirstStep() {
+        final Checkpoint first = checkpoints.peekFirst();
+        return first == null ? -1 : first.step;
+    }
+
+    /**
+     * Get the number of recorded steps, i.e. the step that will be recorded next.
+     *
+     * @return number of recorded steps
+     */
+    public long getStepCount() {
+        return nextStep;
+    }
+
+    /**
+     * Find the last step before the given one that can be returned to and evaluated a token at an
+     * offset matching the given predicate.
+     *
+     * @param offsetMatcher predicate for token offsets. Program scopes have offset -1.
+     * @param before        the step to search before
+     * @return the step. -1 if no step matches.
+     */
+    public long findStep(@NotNull final IntPredicate offsetMatcher, final long before) {
+        final long first = getFirstStep();
+        for (long step = Math.min(before, nextStep) - 1; step >= first && first >= 0; step--) {
+            if (offsetMatcher.test(offsets[(int) (step & (offsets.length - 1))])) {
+                return step;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the number of steps between two checkpoints.
+     *
+     * @return the checkpoint interval
+     */
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Get the memory limit of the undo log and checkpoints.
+     *
+     * @return limit in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Get the estimated memory used by the undo log and checkpoints.
+     *
+     * @return used memory in bytes
+     */
+    public long getMemoryUsage() {
+        return (long) offsets.length * STEP_BYTES + (long) addresses.length * WRITE_BYTES + checkpointBytes;
+    }
+
+    /**
+     * Returns whether a checkpoint has to be added before the given step is recorded.
+     *
+     * @param step the step
+     * @return true if a checkpoint is needed
+     */
+    /* default */ boolean needsCheckpoint(final long step) {
+        final Checkpoint last = checkpoints.peekLast();
+        return step % checkpointInterval == 0 && (last == null || last.step < step);
+    }
+
+    /**
+     * Add a checkpoint of the state before its step.
+     *
+     * @param checkpoint the checkpoint
+     */
+    /* default */ void addCheckpoint(@NotNull final Checkpoint checkpoint) {
+        checkpoints.addLast(checkpoint);
+        checkpointBytes += checkpoint.size();
+        trimCheckpoints();
+    }
+
+    /**
+     * Record the start of a step. Memory writes until the next step are attributed to it.
+     *
+     * @param step   the step. Has to be the {@link #getStepCount() next step}.
+     * @param offset offset of the evaluated token. -1 for program scopes.
+     */
+    /* default */ void beginStep(final long step, final int offset) {
+        assert step == nextStep : "steps have to be recorded in order";
+        if (nextStep - firstStep == offsets.length) {
+            if (offsets.length < maxStepCapacity) {
+                growSteps();
+            } else {
+                discardFirstStep();
+            }
+        }
+        final int index = (int) (nextStep & (offsets.length - 1));
+        offsets[index] = offset;
+        writeStarts[index] = nextWrite;
+        nextStep++;
+    }
+
+    /**
+     * Record a write to memory.
+     *
+     * @param address  the written address
+     * @param previous the value before the write
+     * @param wasUsed  whether the cell was in use before the write
+     */
+    /* default */ void recordWrite(final int address, final int previous, final boolean wasUsed) {
+        if (nextWrite - firstWrite == addresses.length) {
+            if (addresses.length < maxWriteCapacity) {
+                growWrites();
+            } else if (nextStep - firstStep > 1) {
+                discardFirstStep();
+            } else {
+                firstWrite++;
+            }
+        }
+        final int index = (int) (nextWrite & (addresses.length - 1));
+        addresses[index] = address;
+        values[index] = previous;
+        used[index] = wasUsed;
+        nextWrite++;
+    }
+
+    /**
+     * Return to the last checkpoint at or before the given step. Memory writes since the checkpoint
+     * are undone, releasing the cells they put into use, and all later steps and checkpoints are
+     * discarded. The remaining state has to be
+     * restored from the returned checkpoint.
+     *
+     * @param step the step to return to
+     * @return the checkpoint to continue from
+     * @throws IllegalArgumentException if the step can't be returned to
+     */
+    @NotNull
+    /* default */ Checkpoint rewind(final long step) {
+        final RecordingMemory target = memory;
+        if (target == null || checkpoints.isEmpty() || step < getFirstStep() || step > nextStep) {
+            throw new IllegalArgumentException("Step " + step + " is not part of the history");
+        }
+        Checkpoint checkpoint = checkpoints.getLast();
+        while (checkpoint.step > step) {
+            checkpoints.removeLast();
+            checkpointBytes -= checkpoint.size();
+            checkpoint = checkpoints.getLast();
+        }
+        final long start = checkpoint.step == nextStep
+                           ? nextWrite
+                           : writeStarts[(int) (checkpoint.step & (offsets.length - 1))];
+        final WordMemory delegate = target.getDelegate();
+        final int mask = addresses.length - 1;
+        for (long write = nextWrite - 1; write >= start; write--) {
+            final int index = (int) (write & mask);
+            if (used[index]) {
+                delegate.storeIntValue(addresses[index], values[index]);
+            } else {
+                delegate.release(addresses[index]);
+            }
+        }
+        nextWrite = start;
+        nextStep = checkpoint.step;
+        return checkpoint;
+    }
+
+    /*
+     * Discard the oldest step together with its writes and the checkpoint preceding it.
+     */
+    private void discardFirstStep() {
+        firstStep++;
+        firstWrite = firstStep == nextStep
+                     ? nextWrite
+                     : writeStarts[(int) (firstStep & (offsets.length - 1))];
+        final Iterator<Checkpoint> iterator = checkpoints.iterator();
+        while (iterator.hasNext()) {
+            final Checkpoint checkpoint = iterator.next();
+            if (checkpoint.step >= firstStep) {
+                break;
+            }
+            checkpointBytes -= checkpoint.size();
+            iterator.remove();
+        }
+    }
+
+    /*
+     * Discard the oldest checkpoints together with the steps up to the next one until the history
+     * fits into its limit. The latest checkpoint is kept.
+     */
+    private void trimCheckpoints() {
+        while (getMemoryUsage() > maxBytes && checkpoints.size() > 1) {
+            checkpointBytes -= checkpoints.removeFirst().size();
+            firstStep = checkpoints.getFirst().step;
+            firstWrite = firstStep == nextStep
+                         ? nextWrite
+                         : writeStarts[(int) (firstStep & (offsets.length - 1))];
+        }
+    }
+
+    private void growSteps() {
+        final int[] newOffsets = new int[offsets.length * 2];
+        final long[] newWriteStarts = new long[newOffsets.length];
+        for (long step = firstStep; step < nextStep; step++) {
+            final int from = (int) (step & (offsets.length - 1));
+            final int to = (int) (step & (newOffsets.length - 1));
+            newOffsets[to] = offsets[from];
+            newWriteStarts[to] = writeStarts[from];
+        }
+        offsets = newOffsets;
+        writeStarts = newWriteStarts;
+        trimCheckpoints();
+    }
+
+    private void growWrites() {
+        final int[] newAddresses = new int[addresses.length * 2];
+        final int[] newValues = new int[newAddresses.length];
+        final boolean[] newUsed = new boolean[newAddresses.length];
+        for (long write = firstWrite; write < nextWrite; write++) {
+            final int from = (int) (write & (addresses.length - 1));
+            final int to = (int) (write & (newAddresses.length - 1));
+            newAddresses[to] = addresses[from];
+            newValues[to] = values[from];
+            newUsed[to] = used[from];
+        }
+        addresses = newAddresses;
+        values = newValues;
+        used = newUsed;
+        trimCheckpoints();
+    }
+
+    /**
+     * State of the interpreter before a step that is not covered by the undo log.
+     */
+    /* default */ static final class Checkpoint {
+        /* default */ final long step;
+        /* default */ final long instructions;
+        /* default */ final int accumulator;
+        /* default */ final int stackPointer;
+        /*
+         * Program scopes being evaluated, top of the stack first.
+         */
+        @NotNull
+        /* default */ final Environment[] environments;
+        @NotNull
+        /* default */ final int[] indices;
+        @NotNull
+        /* default */ final int[] startIndices;
+        @NotNull
+        /* default */ final int[] repeats;
+        @NotNull
+        /* default */ final List<Tuple<Integer, Environment>> returnStack;
+        @NotNull
+        /* default */ final Map<Environment, Environment.State> states;
+
+        @Contract(pure = true)
+        /* default */ Checkpoint(final long step, final long instructions,
+                                 final int accumulator, final int stackPointer,
+                                 @NotNull final Environment[] environments,
+                                 @NotNull final int[] indices,
+                                 @NotNull final int[] startIndices,
+                                 @NotNull final int[] repeats,
+                                 @NotNull final List<Tuple<Integer, Environment>> returnStack,
+                                 @NotNull final Map<Environment, Environment.State> states) {
+            this.step = step;
+            this.instructions = instructions;
+            this.accumulator = accumulator;
+            this.stackPointer = stackPointer;
+            this.environments = environments;
+            this.indices = indices;
+            this.startIndices = startIndices;
+            this.repeats = repeats;
+            this.returnStack = returnStack;
+            this.states = states;
+        }
+
+        /*
+         * Estimated size in bytes.
+         */
+        private long size() {
+            long definitions = 0;
+            for (final Environment.State state : states.values()) {
+                definitions += state.size();
+            }
+            return 64 + 16L * (environments.length + returnStack.size() + states.size()) + 48 * definitions;
+        }
+    }
+}
@@ -1,33 +1,48 @@
 package edu.kit.mima.core.interpretation;
 
 import edu.kit.mima.api.lambda.LambdaUtil;
-import edu.kit.mima.api.logging.LogFormatter;
 import edu.kit.mima.api.util.Tuple;
+import edu.kit.mima.core.ExecutionLimits;
+import edu.kit.mima.core.LimitExceededException;
+import edu.kit.mima.core.Mima;
+import edu.kit.mima.core.Termination;
+import edu.kit.mima.core.bytecode.Opcode;
 import edu.kit.mima.core.controller.DebugController;
 import edu.kit.mima.core.data.MachineWord;
+import edu.kit.mima.core.data.WordMemory;
+import edu.kit.mima.core.instruction.Instruction;
 import edu.kit.mima.core.instruction.InstructionSet;
 import edu.kit.mima.core.interpretation.environment.Environment;
 import edu.kit.mima.core.interpretation.environment.GlobalEnvironment;
+import edu.kit.mima.core.interpretation.environment.JumpReference;
+import edu.kit.mima.core.interpretation.environment.SymbolResolver;
+import edu.kit.mima.core.interpretation.environment.SymbolSlot;
 import edu.kit.mima.core.interpretation.stack.Continuation;
 import edu.kit.mima.core.interpretation.stack.StackGuard;
 import edu.kit.mima.core.parsing.Parser;
+import edu.kit.mima.core.token.AtomToken;
 import edu.kit.mima.core.token.BinaryToken;
 import edu.kit.mima.core.token.EmptyToken;
 import edu.kit.mima.core.token.ListToken;
 import edu.kit.mima.core.token.ProgramToken;
 import edu.kit.mima.core.token.Token;
 import edu.kit.mima.core.token.TokenType;
+import edu.kit.mima.core.trace.TraceSink;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.logging.ConsoleHandler;
-import java.util.logging.Logger;
 
 /**
  * Interprets the result of {@link Parser}.
@@ -37,41 +52,66 @@ import java.util.logging.Logger;
  */
 public class Interpreter {
 
-    private static final Logger LOGGER = Logger.getLogger(Interpreter.class.getName());
-    static {
-        LOGGER.setUseParentHandlers(false);
-        ConsoleHandler handler = new ConsoleHandler();
-        handler.setFormatter(new LogFormatter());
-        LOGGER.addHandler(handler);
-    }
-
     private static final Value<MachineWord> VOID = new Value<>(ValueType.VOID,
                                                                new MachineWord(0, 0));
+    /*
+     * Number of steps between checks of the timeout.
+     */
+    private static final int TIME_CHECK_MASK = (1 << 8) - 1;
 
     private final int wordLength;
     @NotNull
+    private final Mima mima;
+    @NotNull
     private final StackGuard stackGuard;
+    @NotNull
+    private final Deque<Frame> frames;
     private final ExceptionHandler exceptionHandler;
     private DebugController debugController;
     private Token<?> currentToken;
     private Environment currentScope;
-    private boolean running;
+    private volatile boolean running;
+    private boolean iterative;
+    @Nullable
+    private Environment jumpEnvironment;
+    private int jumpIndex;
+    @NotNull
+    private ExecutionLimits limits;
+    private long steps;
+    private long statements;
+    private long deadline;
+    @Nullable
+    private Termination termination;
+    @Nullable
+    private Exception terminationCause;
+    @Nullable
+    private TraceSink traceSink;
+    @Nullable
+    private ExecutionHistory history;
+    private volatile long seekTarget;
+    private long replayTarget;
 
     /**
-     * Construct new Interpreter that uses the given number of bits in arguments.
+     * Construct new Interpreter that executes instructions on the given mima. Arguments use the
+     * constant word length of the mima.
      *
-     * @param wordLength       number of bits in arguments
+     * @param mima             the mima instructions are executed on
      * @param debugController  the debug controller
      * @param exceptionHandler the exception listener
      */
     @Contract(pure = true)
-    public Interpreter(final int wordLength,
+    public Interpreter(@NotNull final Mima mima,
                        final DebugController debugController,
                        final ExceptionHandler exceptionHandler) {
         this.debugController = debugController;
         this.exceptionHandler = exceptionHandler;
-        this.wordLength = wordLength;
+        this.mima = mima;
+        this.wordLength = mima.getConstWordLength();
         stackGuard = new StackGuard();
+        limits = ExecutionLimits.NONE;
+        frames = new ArrayDeque<>();
+        seekTarget = -1;
+        replayTarget = -1;
         running = false;
     }
 
@@ -84,17 +124,92 @@ public class Interpreter {
     public void evaluateTopLevel(@NotNull final ProgramToken program,
                                  @NotNull final Environment globalEnvironment) {
         running = true;
+        steps = 0;
+        statements = 0;
+        termination = null;
+        terminationCause = null;
+        seekTarget = -1;
+        replayTarget = -1;
+        mima.setWatchesSuspended(false);
+        Optional.ofNullable(history).ifPresent(ExecutionHistory::clear);
+        SymbolResolver.resolve(program, globalEnvironment);
         final Environment runtimeEnvironment = globalEnvironment.extend(program);
+        final WordMemory memory = mima.getMemory();
+        memory.setCellLimit(limits.getMaxMemoryCells());
         try {
             debugController.pause();
+            deadline = limits.getDeadline(System.nanoTime());
+            if (iterative) {
+                program.getJumps().forEach(
+                        (t, i) -> runtimeEnvironment.defineJump(t.getValue().toString(), i));
+                executeIterative(runtimeEnvironment);
+                return;
+            }
             execute(() -> {
                 program.getJumps().forEach(
                         (t, i) -> runtimeEnvironment.defineJump(t.getValue().toString(), i));
                 evaluateProgram(program, runtimeEnvironment, v -> {
+                    throw new InterpreterException("Reached end of program without HALT");
                 });
             });
+        } catch (@NotNull final LimitExceededException e) {
+            terminate(e.getTermination(), e);
         } catch (@NotNull final IllegalArgumentException | IllegalStateException e) {
+            terminate(Termination.FAILED, e);
             exceptionHandler.notifyException(e);
+        } finally {
+            memory.setCellLimit(Integer.MAX_VALUE);
+            terminate(Termination.STOPPED, null);
+            running = false;
+        }
+    }
+
+    /*
+     * Record why execution ended. Only the first reason is kept.
+     */
+    private void terminate(@NotNull final Termination reason, @Nullable final Exception cause) {
+        if (termination == null) {
+            termination = reason;
+            terminationCause = cause;
+        }
+    }
+
+    /*
+     * Count an evaluated statement. Statements that are instructions are counted as steps and
+     * checked against the limits.
+     */
+    private void countStatement(@NotNull final Token<?> statement) {
+        statements++;
+        if (isInstruction(statement)) {
+            step();
+        }
+    }
+
+    /*
+     * Whether the statement is a call of an instruction. Definitions, program scopes and plain
+     * values are not.
+     */
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private static boolean isInstruction(@NotNull final Token<?> statement) {
+        Token<?> token = statement;
+        while (token.getType() == TokenType.JUMP_POINT) {
+            token = ((Tuple<Token<?>, Token<?>>) token).getSecond();
+        }
+        return token.getType() == TokenType.CALL;
+    }
+
+    /*
+     * Count an executed instruction and check whether a limit has been reached.
+     */
+    private void step() {
+        if (steps == limits.getMaxSteps()) {
+            throw new LimitExceededException(Termination.STEP_LIMIT,
+                                             "more than " + steps + " steps executed");
+        }
+        steps++;
+        if ((steps & TIME_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+            final long timeout = Objects.requireNonNull(limits.getTimeout()).toMillis();
+            throw new LimitExceededException(Termination.TIMEOUT, "timeout of " + timeout + "ms expired");
         }
     }
 
@@ -115,9 +230,279 @@ public class Interpreter {
         }
     }
 
+    /**
+     * Execute the program of the given environment without recursion. Every entered program scope
+     * is a {@link Frame} on an explicit stack. Jumps do not evaluate the target program but are
+     * recorded by {@link #jump(Environment, int, Consumer)} and applied to the stack once the
+     * instruction has been evaluated.
+     * <p>
+     * The stack holds the same continuations as the recursive evaluation. Entering a scope or
+     * jumping suspends the current frame after the statement and pushes a frame for the target.
+     * Once a frame reaches the end of its program the suspended frame below it continues, so a
+     * jump out of a scope returns to the statement after the jump when the target program ends.
+     * <p>
+     * If a history is set every step is recorded to it before it is evaluated. Steps evaluated
+     * again after a {@link #seek(long) seek} don't notify the debug controller until the target
+     * step is reached.
+     *
+     * @param environment the environment to execute
+     */
+    private void executeIterative(@NotNull final Environment environment) {
+        frames.clear();
+        frames.push(new Frame(environment, environment.getExpressionIndex()));
+        while (running) {
+            final Frame frame = frames.peek();
+            if (frame == null) {
+                throw new InterpreterException("Reached end of program without HALT");
+            }
+            final Environment scope = frame.environment;
+            final int index = frame.index;
+            if (index < 0 || index >= frame.tokens.length) {
+                scope.setExpressionIndex(0);
+                frames.pop();
+                resume();
+                continue;
+            }
+            currentScope = scope;
+            currentToken = frame.tokens[index];
+            countStatement(currentToken);
+            if (replayTarget >= 0) {
+                if (statements - 1 == replayTarget) {
+                    replayTarget = -1;
+                    mima.setWatchesSuspended(false);
+                    debugController.afterInstruction(currentToken);
+                }
+            } else if (index != frame.startIndex || !(scope instanceof GlobalEnvironment)) {
+                debugController.afterInstruction(currentToken);
+            }
+            if (seekTarget >= 0) {
+                rewind(seekTarget);
+                continue;
+            }
+            if (history != null) {
+                record(history, statements - 1);
+            }
+            scope.setExpressionIndex(index);
+            final Frame next = evaluateStatement(currentToken, scope);
+            frame.index++;
+            if (jumpEnvironment != null) {
+                suspend(frame);
+                frames.push(new Frame(jumpEnvironment, jumpIndex));
+                jumpEnvironment = null;
+            } else if (next != null) {
+                suspend(frame);
+                frames.push(next);
+            }
+        }
+    }
+
+    /*
+     * Record the step of the current token. A checkpoint of the frames, the environments reachable
+     * from them and the registers is added every checkpoint interval.
+     */
+    private void record(@NotNull final ExecutionHistory history, final long step) {
+        if (history.needsCheckpoint(step)) {
+            final int size = frames.size();
+            final Environment[] environments = new Environment[size];
+            final int[] indices = new int[size];
+            final int[] startIndices = new int[size];
+            final int[] repeats = new int[size];
+            final Map<Environment, Environment.State> states = new IdentityHashMap<>();
+            int i = 0;
+            for (final Frame frame : frames) {
+                environments[i] = frame.environment;
+                indices[i] = frame.index;
+                startIndices[i] = frame.startIndex;
+                repeats[i] = frame.repeat;
+                saveStates(frame.environment, states);
+                i++;
+            }
+            final List<Tuple<Integer, Environment>> returnStack = mima.saveReturnStack();
+            returnStack.forEach(t -> saveStates(t.getSecond(), states));
+            history.addCheckpoint(new ExecutionHistory.Checkpoint(
+                    step, steps, mima.getAccumulatorValue(), mima.getStackPointerValue(),
+                    environments, indices, startIndices, repeats, returnStack, states));
+        }
+        history.beginStep(step, currentToken.getType() == TokenType.PROGRAM ? -1 : currentToken.getOffset());
+    }
+
+    /*
+     * Save the state of the environment and its parents.
+     */
+    private static void saveStates(@NotNull final Environment environment,
+                                   @NotNull final Map<Environment, Environment.State> states) {
+        for (Environment scope = environment; scope != null && !states.containsKey(scope);
+             scope = scope.returnToParent()) {
+            states.put(scope, scope.saveState());
+        }
+    }
+
+    /*
+     * Restore the last checkpoint before the target step. The steps up to the target are evaluated
+     * again by the main loop.
+     */
+    private void rewind(final long target) {
+        seekTarget = -1;
+        final ExecutionHistory.Checkpoint checkpoint = Objects.requireNonNull(history).rewind(target);
+        frames.clear();
+        for (int i = 0; i < checkpoint.environments.length; i++) {
+            final Frame frame = new Frame(checkpoint.environments[i], checkpoint.indices[i]);
+            frame.startIndex = checkpoint.startIndices[i];
+            frame.repeat = checkpoint.repeats[i];
+            frames.addLast(frame);
+        }
+        checkpoint.states.forEach(Environment::restoreState);
+        mima.restoreReturnStack(checkpoint.returnStack);
+        mima.setAccumulatorValue(checkpoint.accumulator);
+        mima.setStackPointer(checkpoint.stackPointer);
+        jumpEnvironment = null;
+        statements = checkpoint.step;
+        steps = checkpoint.instructions;
+        replayTarget = target;
+        mima.setWatchesSuspended(true);
+    }
+
+    /*
+     * Suspend the frame on top of the stack before a new frame is pushed. A frame at the end of its
+     * program would only return to the frame below it and is dropped. A frame equal to the one below
+     * it is counted as a repetition of it, so loops don't grow the stack.
+     */
+    private void suspend(@NotNull final Frame frame) {
+        if (frame.index < 0 || frame.index >= frame.tokens.length) {
+            frames.pop();
+            return;
+        }
+        final Iterator<Frame> iterator = frames.iterator();
+        iterator.next();
+        if (iterator.hasNext()) {
+            final Frame below = iterator.next();
+            if (below.environment == frame.environment && below.index == frame.index
+                && below.startIndex == frame.startIndex) {
+                frames.pop();
+                below.repeat++;
+            }
+        }
+    }
+
+    /*
+     * Continue with the suspended frame on top of the stack. A repeated frame continues as a copy,
+     * so the remaining repetitions stay suspended.
+     */
+    private void resume() {
+        final Frame frame = frames.peek();
+        if (frame != null && frame.repeat > 0) {
+            frame.repeat--;
+            final Frame copy = new Frame(frame.environment, frame.index);
+            copy.startIndex = frame.startIndex;
+            frames.push(copy);
+        }
+    }
+
+    /*
+     * Evaluate a single statement. Returns the frame of the program scope to enter if the statement
+     * is a program scope.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private Frame evaluateStatement(@NotNull final Token<?> statement,
+                                    @NotNull final Environment environment) {
+        switch (statement.getType()) {
+            case PROGRAM -> {
+                final ProgramToken programToken = (ProgramToken) statement;
+                final Environment scope = environment.extend(programToken);
+                scope.setReservedIndex(environment.getReservedIndex());
+                programToken.getJumps().forEach((t, i) -> scope.defineJump(t.getValue().toString(), i));
+                return new Frame(scope, scope.getExpressionIndex());
+            }
+            case JUMP_POINT -> {
+                return evaluateStatement(((Tuple<Token<?>, Token<?>>) statement).getSecond(), environment);
+            }
+            case DEFINITION -> {
+                for (final Token<?> token : ((ListToken<Token<?>>) statement.getValue()).getValue()) {
+                    final var definition = (BinaryToken<Token<?>, Token<?>>) token;
+                    switch (definition.getType()) {
+                        case CONSTANT -> evaluateSingleDefinition(definition, environment, true);
+                        case REFERENCE -> evaluateSingleDefinition(definition, environment, false);
+                        default -> fail("unexpected def type: " + definition.getType());
+                    }
+                }
+                return null;
+            }
+            default -> {
+                evaluateExpression(statement, environment);
+                return null;
+            }
+        }
+    }
+
+    /*
+     * Evaluate a definition of a constant or reference.
+     */
+    private void evaluateSingleDefinition(@NotNull final BinaryToken<Token<?>, Token<?>> definition,
+                                          @NotNull final Environment environment,
+                                          final boolean constant) {
+        final String name = definition.getFirst().getValue().toString();
+        if (!constant && definition.getSecond().getType() == TokenType.EMPTY) {
+            environment.defineVariable(name, evaluatePrecheckedNumber(environment.getReservedIndex()).getValue());
+            environment.setReservedIndex(environment.getReservedIndex() - 1);
+            return;
+        }
+        final Value<?> v = evaluateExpression(definition.getSecond(), environment);
+        if (Objects.equals(v, VOID)) {
+            fail("Not a definition body: " + definition.getSecond());
+        }
+        checkArgumentRange(v, environment);
+        if (constant) {
+            environment.defineConstant(name, (MachineWord) v.getValue());
+        } else {
+            environment.defineVariable(name, (MachineWord) v.getValue());
+        }
+    }
+
+    /*
+     * Evaluate an expression. Recursion is bounded by the nesting depth of the expression.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private Value<?> evaluateExpression(@NotNull final Token<?> expression,
+                                        @NotNull final Environment environment) {
+        switch (expression.getType()) {
+            case NUMBER -> {
+                return evaluateNumber((String) expression.getValue(), environment);
+            }
+            case EMPTY -> {
+                return VOID;
+            }
+            case BINARY -> {
+                return evaluateBinary((String) expression.getValue(), environment);
+            }
+            case IDENTIFICATION -> {
+                return evaluateIdentification(expression, environment);
+            }
+            case CALL -> {
+                final var call = (BinaryToken<Token<?>, ListToken<Token<?>>>) expression;
+                final List<Value<?>> args = new ArrayList<>();
+                for (final Token<?> argument : call.getSecond().getValue()) {
+                    args.add(evaluateExpression(argument, environment));
+                }
+                if (traceSink != null && replayTarget < 0) {
+                    trace(call, args, environment);
+                }
+                final Value<?>[] result = new Value<?>[]{VOID};
+                lookupFunction(call.getFirst(), environment).apply(args, environment, mima, v -> result[0] = v);
+                return result[0];
+            }
+            default -> {
+                return fail("Unexpected: " + expression);
+            }
+        }
+    }
+
     @NotNull
     private Value<MachineWord> fail(final String message) {
-        exceptionHandler.notifyException(new InterpreterException(message));
+        final InterpreterException exception = new InterpreterException(message);
+        terminate(Termination.FAILED, exception);
+        exceptionHandler.notifyException(exception);
         debugController.stop();
         running = false;
         return VOID;
@@ -154,10 +539,23 @@ public class Interpreter {
         }
     }
 
+    /**
+     * Continue execution at the given instruction of the given environment.
+     *
+     * @param toEnvironment    environment to jump to
+     * @param instructionIndex index of instruction to continue with
+     * @param callback         callback to invoke once the program of the environment has been
+     *                         evaluated. Not used if the interpreter is iterative.
+     */
     public void jump(@NotNull final Environment toEnvironment,
                      final int instructionIndex,
                      @NotNull final Consumer<Value<?>> callback) {
         toEnvironment.setExpressionIndex(instructionIndex);
+        if (iterative) {
+            jumpEnvironment = toEnvironment;
+            jumpIndex = instructionIndex;
+            return;
+        }
         evaluateProgram(toEnvironment.getProgramToken(), toEnvironment, callback);
     }
 
@@ -174,6 +572,7 @@ public class Interpreter {
             }
             if (i < tokens.length && i >= 0) {
                 currentToken = tokens[i];
+                countStatement(currentToken);
                 if (i != startIndex || !(environment instanceof GlobalEnvironment)) {
                     debugController.afterInstruction(currentToken);
                 }
@@ -257,7 +656,6 @@ public class Interpreter {
                                   @NotNull final Environment environment,
                                   final Consumer<Value<?>> callback) throws Continuation {
         stackGuard.guard(() -> evaluateFunction(value, environment, callback));
-        LOGGER.info("Evaluating " + value.simpleName());
         List<Token<?>> arguments = value.getSecond().getValue();
         BiConsumer<List<Value<?>>, Integer> loop = LambdaUtil.createRecursive(func -> (args, i) -> {
             if (i < arguments.size()) {
@@ -266,13 +664,51 @@ public class Interpreter {
                     func.accept(args, i + 1);
                 });
             } else {
-                var function = environment.getFunction(value.getFirst().getValue().toString());
-                function.apply(args, environment, callback);
+                if (traceSink != null) {
+                    trace(value, args, environment);
+                }
+                var function = lookupFunction(value.getFirst(), environment);
+                function.apply(args, environment, mima, callback);
             }
         });
         loop.accept(new ArrayList<>(), 0);
     }
 
+    /*
+     * Record the call of an instruction with its evaluated arguments to the trace sink. Calls of
+     * functions that are only used in expressions, such as SP, have no opcode and are not recorded.
+     * Jumps record the instruction index of their target, as the bytecode engine does.
+     */
+    private void trace(@NotNull final BinaryToken<Token<?>, ListToken<Token<?>>> call,
+                       @NotNull final List<Value<?>> args,
+                       @NotNull final Environment environment) {
+        final int opcode = Opcode.forName(call.getFirst().getValue().toString());
+        if (opcode < 0) {
+            return;
+        }
+        int operand = 0;
+        if (!args.isEmpty()) {
+            final Object argument = args.get(0).getValue();
+            if (argument instanceof MachineWord) {
+                operand = ((MachineWord) argument).intValue();
+                if (args.size() > 1 && args.get(1).getValue() instanceof MachineWord) {
+                    /* Relative instructions operate on the sum of their arguments */
+                    operand += ((MachineWord) args.get(1).getValue()).intValue();
+                }
+            } else if (argument instanceof JumpReference) {
+                final JumpReference reference = (JumpReference) argument;
+                operand = reference.getEnvironment().getProgramToken()
+                                  .getInstructionIndex(reference.getIndex());
+            } else if (args.get(0).getType() == ValueType.JUMP_REFERENCE) {
+                final String name = argument.toString();
+                operand = environment.lookupJump(name).getProgramToken()
+                                  .getInstructionIndex(environment.getJump(name));
+            }
+        }
+        Objects.requireNonNull(traceSink).record(steps - 1, call.getOffset(), opcode, operand,
+                                                 mima.getAccumulatorValue(), mima.getStackPointerValue());
+    }
+
     /*
      * Evaluate a number string
      */
@@ -325,6 +761,32 @@ public class Interpreter {
     @NotNull
     private Value<?> evaluateIdentification(@NotNull final Token<?> token,
                                             @NotNull final Environment environment) {
+        final SymbolSlot slot = token instanceof AtomToken ? ((AtomToken<?>) token).getSlot() : null;
+        if (slot != null) {
+            switch (slot.getKind()) {
+                case VARIABLE -> {
+                    final MachineWord variable = environment.getVariable(slot);
+                    if (variable != null) {
+                        return new Value<>(ValueType.MEMORY_REFERENCE, variable);
+                    }
+                }
+                case CONSTANT -> {
+                    final MachineWord constant = environment.getConstant(slot);
+                    if (constant != null) {
+                        return new Value<>(ValueType.CONSTANT, constant);
+                    }
+                }
+                case JUMP -> {
+                    final JumpReference jump = environment.getJump(slot, token.getValue().toString());
+                    if (jump != null) {
+                        return new Value<>(ValueType.JUMP_REFERENCE, jump);
+                    }
+                }
+                default -> {
+                    /* fall back to lookup by name */
+                }
+            }
+        }
         final MachineWord value;
         final ValueType type;
         final String name = token.getValue().toString();
@@ -342,6 +804,20 @@ public class Interpreter {
         return new Value<>(type, value);
     }
 
+    /*
+     * Get the function called by the given token. Uses the slot of the token if bound.
+     */
+    private Instruction lookupFunction(@NotNull final Token<?> token, @NotNull final Environment environment) {
+        final SymbolSlot slot = token instanceof AtomToken ? ((AtomToken<?>) token).getSlot() : null;
+        if (slot != null && slot.getKind() == SymbolSlot.Kind.FUNCTION) {
+            final Instruction function = environment.getFunction(slot);
+            if (function != null) {
+                return function;
+            }
+        }
+        return environment.getFunction(token.getValue().toString());
+    }
+
     /**
      * Returns whether the interpreter is running.
      *
@@ -351,6 +827,14 @@ public class Interpreter {
         return running;
     }
 
+    /**
+     * Halt the program. Execution ends with {@link Termination#HALTED}.
+     */
+    public void halt() {
+        terminate(Termination.HALTED, null);
+        running = false;
+    }
+
     /**
      * Set the current running status of the interpreter. If false no statements will be evaluated.
      * Is not a pause method, stopping the interpreter yields in returning out of the
@@ -362,6 +846,157 @@ public class Interpreter {
         this.running = running;
     }
 
+    /**
+     * Returns whether the interpreter evaluates programs iteratively.
+     *
+     * @return true if iterative
+     */
+    public boolean isIterative() {
+        return iterative;
+    }
+
+    /**
+     * Set whether programs should be evaluated iteratively. An iterative interpreter keeps entered
+     * program scopes on an explicit stack instead of evaluating them with nested calls and does not
+     * need to unwind the call stack with {@link Continuation}s. Can't be changed during execution.
+     *
+     * @param iterative true if iterative
+     */
+    public void setIterative(final boolean iterative) {
+        if (running) {
+            throw new IllegalStateException("Can't change evaluation mode during execution");
+        }
+        this.iterative = iterative;
+    }
+
+    /**
+     * Get the limits of execution.
+     *
+     * @return the limits
+     */
+    @NotNull
+    public ExecutionLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Set the limits for execution. Exceeding a limit ends execution with the corresponding {@link
+     * Termination} without notifying the exception handler. Can't be changed during execution.
+     *
+     * @param limits the limits
+     */
+    public void setLimits(@NotNull final ExecutionLimits limits) {
+        if (running) {
+            throw new IllegalStateException("Can't change limits during execution");
+        }
+        this.limits = limits;
+    }
+
+    /**
+     * Set the sink every evaluated instruction is recorded to. Can't be changed during execution.
+     *
+     * @param traceSink the trace sink. Null if execution should not be traced.
+     */
+    public void setTraceSink(@Nullable final TraceSink traceSink) {
+        if (running) {
+            throw new IllegalStateException("Can't change trace sink during execution");
+        }
+        this.traceSink = traceSink;
+    }
+
+    /**
+     * Get the history execution is recorded to.
+     *
+     * @return the history. Null if execution isn't recorded.
+     */
+    @Nullable
+    public ExecutionHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Set the history execution is recorded to. Only iterative evaluation is recorded and the
+     * memory of the mima has to be created by {@link ExecutionHistory#record(WordMemory)}. Can't be
+     * changed during execution.
+     *
+     * @param history the history. Null if execution should not be recorded.
+     * @throws IllegalArgumentException if the memory of the mima isn't recorded by the history
+     */
+    public void setHistory(@Nullable final ExecutionHistory history) {
+        if (running) {
+            throw new IllegalStateException("Can't change history during execution");
+        }
+        if (history != null && !history.isRecording(mima.getMemory())) {
+            throw new IllegalArgumentException("Memory of the mima isn't recorded by the history");
+        }
+        this.history = history;
+    }
+
+    /**
+     * Return to the state before the given step of the history was evaluated. Has to be called
+     * while execution is paused by the debug controller. The state is restored by the executing
+     * thread once it resumes, which then notifies the debug controller with the token of the target
+     * step.
+     *
+     * @param step the step to return to, counted in {@link #getStatements() statements}. Between
+     *             the {@link ExecutionHistory#getFirstStep() first step} of the history and the
+     *             current step.
+     * @throws IllegalStateException    if execution isn't recorded
+     * @throws IllegalArgumentException if the step isn't part of the history
+     */
+    public void seek(final long step) {
+        final ExecutionHistory executionHistory = history;
+        if (executionHistory == null || !iterative || !running) {
+            throw new IllegalStateException("Execution isn't recorded");
+        }
+        final long first = executionHistory.getFirstStep();
+        if (first < 0 || step < first || step > executionHistory.getStepCount()) {
+            throw new IllegalArgumentException("Step " + step + " is not part of the history");
+        }
+        seekTarget = step;
+    }
+
+    /**
+     * Get the number of instructions executed in the last or current run. Only statements that
+     * call an instruction are steps, definitions, program scopes and plain values are not.
+     *
+     * @return number of steps
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get the number of statements evaluated in the last or current run. Unlike {@link
+     * #getSteps()} this includes definitions and program scopes. The steps of the {@link
+     * ExecutionHistory} are counted in statements.
+     *
+     * @return number of evaluated statements
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    /**
+     * Get the reason the last run ended.
+     *
+     * @return the termination. Null if no run has finished yet or execution is still running.
+     */
+    @Nullable
+    public Termination getTermination() {
+        return running ? null : termination;
+    }
+
+    /**
+     * Get the exception that ended the last run.
+     *
+     * @return the cause. Null if the program halted or was stopped.
+     */
+    @Nullable
+    public Exception getTerminationCause() {
+        return terminationCause;
+    }
+
     /**
      * Set the debug controller for this interpreter.
      *
@@ -389,4 +1024,27 @@ public class Interpreter {
     public Environment getCurrentScope() {
         return currentScope;
     }
+
+    /*
+     * Program scope that is currently evaluated.
+     */
+    private static final class Frame {
+        @NotNull
+        private final Environment environment;
+        @NotNull
+        private final Token<?>[] tokens;
+        private int index;
+        private int startIndex;
+        /*
+         * Number of further suspended copies of this frame directly below it.
+         */
+        private int repeat;
+
+        private Frame(@NotNull final Environment environment, final int index) {
+            this.environment = environment;
+            this.tokens = environment.getProgramToken().getValue();
+            this.index = index;
+            this.startIndex = index;
+        }
+    }
 }
@@ -0,0 +1,139 @@
+package edu.kit.mima.core.interpretation;
+
+import edu.kit.mima.core.data.MachineWord;
+import edu.kit.mima.core.data.WordMemory;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * {@link WordMemory} that records the previous value of every written cell and whether it was in
+ * use to an {@link ExecutionHistory} before delegating the write.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+final class RecordingMemory implements WordMemory {
+
+    @NotNull
+    private final WordMemory delegate;
+    @NotNull
+    private final ExecutionHistory history;
+
+    @Contract(pure = true)
+    /* default */ RecordingMemory(@NotNull final WordMemory delegate,
+                                  @NotNull final ExecutionHistory history) {
+        this.delegate = delegate;
+        this.history = history;
+    }
+
+    /**
+     * Get the memory writes are delegated to. Writes to it are not recorded.
+     *
+     * @return the underlying memory
+     */
+    @NotNull
+    /* default */ WordMemory getDelegate() {
+        return delegate;
+    }
+
+    @NotNull
+    @Override
+    public MachineWord loadValue(final int index) {
+        return delegate.loadValue(index);
+    }
+
+    @Override
+    public void storeValue(final int index, final MachineWord value) {
+        record(index);
+        delegate.storeValue(index, value);
+    }
+
+    @Override
+    public int loadIntValue(final int index) {
+        return delegate.loadIntValue(index);
+    }
+
+    @Override
+    public void storeIntValue(final int index, final int value) {
+        record(index);
+        delegate.storeIntValue(index, value);
+    }
+
+    /*
+     * Record the state of the cell before it is written. Has to check whether the cell is in use
+     * first, as loading may put it into use.
+     */
+    private void record(final int index) {
+        final boolean used = delegate.isUsed(index);
+        history.recordWrite(index, delegate.loadIntValue(index), used);
+    }
+
+    @Override
+    public Map<Integer, MachineWord> getMapping() {
+        return delegate.getMapping();
+    }
+
+    @Override
+    public void reset() {
+        delegate.reset();
+    }
+
+    @Override
+    public int getWordLength() {
+        return delegate.getWordLength();
+    }
+
+    @Override
+    public void empty() {
+        delegate.empty();
+    }
+
+    @Override
+    public boolean isUsed(final int index) {
+        return delegate.isUsed(index);
+    }
+
+    /**
+     * {@inheritDoc} Releasing a cell is not recorded.
+     */
+    @Override
+    public void release(final int index) {
+        delegate.release(index);
+    }
+
+    @Override
+    public int getUsedCellCount() {
+        return delegate.getUsedCellCount();
+    }
+
+    @NotNull
+    @Override
+    public int[] getUsedAddresses() {
+        return delegate.getUsedAddresses();
+    }
+
+    @Override
+    public void setCellLimit(final int cellLimit) {
+        delegate.setCellLimit(cellLimit);
+    }
+
+    /**
+     * {@inheritDoc} Writes to the copy are not recorded.
+     */
+    @NotNull
+    @Override
+    public WordMemory fork() {
+        return delegate.fork();
+    }
+
+    /**
+     * {@inheritDoc} The recorded history can't be undone across a restore and is cleared.
+     */
+    @Override
+    public void restore(@NotNull final WordMemory source) {
+        history.clear();
+        delegate.restore(source);
+    }
+}
@@ -0,0 +1,141 @@
+package edu.kit.mima.core.interpretation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compiled {@link Watchpoint}s checked by the {@link edu.kit.mima.core.Mima} on every memory
+ * access.
+ * <p>
+ * Access flags are kept in lazily allocated pages indexed by address, like the pages of {@link
+ * edu.kit.mima.core.data.PagedMemory}. An access to an address on an unwatched page costs one array
+ * load. Only if the flags of the address match the access the watchpoints are searched and the
+ * listener is notified.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class WatchTable {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int READ = Watchpoint.Access.READ.flag();
+    private static final int WRITES = Watchpoint.Access.WRITE.flag() | Watchpoint.Access.CHANGE.flag();
+
+    @NotNull
+    private final List<Watchpoint> watchpoints;
+    @NotNull
+    private final Consumer<WatchpointHit> listener;
+    private final int addressMask;
+    private final int signShift;
+    @NotNull
+    private final byte[][] pages;
+
+    /**
+     * Create new WatchTable.
+     *
+     * @param watchpoints the watchpoints
+     * @param addressBits number of bits in an address. Addresses are mapped into this range as the
+     *                    memory does.
+     * @param listener    listener notified for every access that triggers a watchpoint
+     */
+    public WatchTable(@NotNull final Collection<Watchpoint> watchpoints, final int addressBits,
+                      @NotNull final Consumer<WatchpointHit> listener) {
+        this.watchpoints = new ArrayList<>(watchpoints);
+        this.listener = listener;
+        this.addressMask = (1 << addressBits) - 1;
+        this.signShift = Integer.SIZE - addressBits;
+        pages = new byte[1 << Math.max(0, addressBits - PAGE_BITS)][];
+        for (final Watchpoint watchpoint : watchpoints) {
+            final long count = Math.min((long) watchpoint.getLastAddress() - watchpoint.getFirstAddress() + 1,
+                                        (long) addressMask + 1);
+            final byte flag = (byte) watchpoint.getAccess().flag();
+            for (long i = 0; i < count; i++) {
+                final int address = (int) (watchpoint.getFirstAddress() + i) & addressMask;
+                final int page = address >>> PAGE_BITS;
+                if (pages[page] == null) {
+                    pages[page] = new byte[PAGE_SIZE];
+                }
+                pages[page][address & PAGE_MASK] |= flag;
+            }
+        }
+    }
+
+    /**
+     * Returns whether stores to the address have to be reported with {@link #stored(int, int,
+     * int)}.
+     *
+     * @param address the address
+     * @return true if writes or changes of the address are watched
+     */
+    public boolean watchesWrite(final int address) {
+        return (flags(address) & WRITES) != 0;
+    }
+
+    /**
+     * Report a load from memory.
+     *
+     * @param address the address
+     * @param value   the loaded value
+     */
+    public void loaded(final int address, final int value) {
+        if ((flags(address) & READ) != 0) {
+            notify(Watchpoint.Access.READ, address, value, value);
+        }
+    }
+
+    /**
+     * Report a store to an address {@link #watchesWrite(int) watched for writes}.
+     *
+     * @param address  the address
+     * @param oldValue value before the store
+     * @param newValue value after the store
+     */
+    public void stored(final int address, final int oldValue, final int newValue) {
+        notify(Watchpoint.Access.WRITE, address, oldValue, newValue);
+        if (oldValue != newValue) {
+            notify(Watchpoint.Access.CHANGE, address, oldValue, newValue);
+        }
+    }
+
+    /**
+     * Get the compiled watchpoints.
+     *
+     * @return the watchpoints
+     */
+    @NotNull
+    public List<Watchpoint> getWatchpoints() {
+        return watchpoints;
+    }
+
+    private int flags(final int address) {
+        final int masked = address & addressMask;
+        final byte[] page = pages[masked >>> PAGE_BITS];
+        return page == null ? 0 : page[masked & PAGE_MASK];
+    }
+
+    /*
+     * Notify the listener about the first watchpoint of the given kind containing the address,
+     * either as unsigned or as two's complement address.
+     */
+    private void notify(@NotNull final Watchpoint.Access access, final int address,
+                        final int oldValue, final int newValue) {
+        if ((flags(address) & access.flag()) == 0) {
+            return;
+        }
+        final int masked = address & addressMask;
+        final int signed = (masked << signShift) >> signShift;
+        for (final Watchpoint watchpoint : watchpoints) {
+            if (watchpoint.getAccess() == access
+                && (watchpoint.contains(masked) || watchpoint.contains(signed))) {
+                listener.accept(new WatchpointHit(watchpoint, address, oldValue, newValue));
+                return;
+            }
+        }
+    }
+}
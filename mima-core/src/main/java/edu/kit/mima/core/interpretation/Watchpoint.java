@@ -0,0 +1,135 @@
+package edu.kit.mima.core.interpretation;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Data breakpoint that pauses execution after an instruction accessed a watched memory address.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class Watchpoint {
+
+    /**
+     * Kind of memory access a watchpoint reacts to.
+     */
+    public enum Access {
+        /**
+         * Any load from the address.
+         */
+        READ,
+        /**
+         * Any store to the address, even if the value stays the same.
+         */
+        WRITE,
+        /**
+         * A store to the address that changes its value.
+         */
+        CHANGE;
+
+        /* default */ int flag() {
+            return 1 << ordinal();
+        }
+    }
+
+    private final int firstAddress;
+    private final int lastAddress;
+    @NotNull
+    private final Access access;
+
+    /**
+     * Create new Watchpoint for a range of addresses.
+     *
+     * @param firstAddress first watched address
+     * @param lastAddress  last watched address (inclusive)
+     * @param access       the kind of access to watch
+     * @throws IllegalArgumentException if lastAddress is smaller than firstAddress
+     */
+    @Contract(pure = true)
+    public Watchpoint(final int firstAddress, final int lastAddress, @NotNull final Access access) {
+        if (lastAddress < firstAddress) {
+            throw new IllegalArgumentException("Empty address range " + firstAddress + ".." + lastAddress);
+        }
+        this.firstAddress = firstAddress;
+        this.lastAddress = lastAddress;
+        this.access = access;
+    }
+
+    /**
+     * Create new Watchpoint for a single address.
+     *
+     * @param address the watched address
+     * @param access  the kind of access to watch
+     */
+    @Contract(pure = true)
+    public Watchpoint(final int address, @NotNull final Access access) {
+        this(address, address, access);
+    }
+
+    /**
+     * Get the first watched address.
+     *
+     * @return the first address
+     */
+    public int getFirstAddress() {
+        return firstAddress;
+    }
+
+    /**
+     * Get the last watched address.
+     *
+     * @return the last address (inclusive)
+     */
+    public int getLastAddress() {
+        return lastAddress;
+    }
+
+    /**
+     * Get the kind of access that is watched.
+     *
+     * @return the access kind
+     */
+    @NotNull
+    public Access getAccess() {
+        return access;
+    }
+
+    /**
+     * Returns whether the address is watched.
+     *
+     * @param address the address
+     * @return true if the address is in range
+     */
+    public boolean contains(final int address) {
+        return address >= firstAddress && address <= lastAddress;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Watchpoint)) {
+            return false;
+        }
+        final Watchpoint other = (Watchpoint) o;
+        return firstAddress == other.firstAddress && lastAddress == other.lastAddress
+               && access == other.access;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(firstAddress, lastAddress, access);
+    }
+
+    @Override
+    public String toString() {
+        final String range = firstAddress == lastAddress
+                             ? String.valueOf(firstAddress)
+                             : firstAddress + ".." + lastAddress;
+        return "Watchpoint[" + access + " " + range + "]";
+    }
+}
@@ -0,0 +1,78 @@
+package edu.kit.mima.core.interpretation;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Memory access that triggered a {@link Watchpoint}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class WatchpointHit {
+
+    @NotNull
+    private final Watchpoint watchpoint;
+    private final int address;
+    private final int oldValue;
+    private final int newValue;
+
+    /**
+     * Create new WatchpointHit.
+     *
+     * @param watchpoint the triggered watchpoint
+     * @param address    the accessed address
+     * @param oldValue   value of the address before the access
+     * @param newValue   value of the address after the access. Equal to oldValue for reads
+     */
+    @Contract(pure = true)
+    public WatchpointHit(@NotNull final Watchpoint watchpoint, final int address,
+                         final int oldValue, final int newValue) {
+        this.watchpoint = watchpoint;
+        this.address = address;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    /**
+     * Get the triggered watchpoint.
+     *
+     * @return the watchpoint
+     */
+    @NotNull
+    public Watchpoint getWatchpoint() {
+        return watchpoint;
+    }
+
+    /**
+     * Get the accessed address.
+     *
+     * @return the address
+     */
+    public int getAddress() {
+        return address;
+    }
+
+    /**
+     * Get the value of the address before the access.
+     *
+     * @return the old value
+     */
+    public int getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * Get the value of the address after the access.
+     *
+     * @return the new value
+     */
+    public int getNewValue() {
+        return newValue;
+    }
+
+    @Override
+    public String toString() {
+        return watchpoint.getAccess() + " at " + address + ": " + oldValue + " -> " + newValue;
+    }
+}
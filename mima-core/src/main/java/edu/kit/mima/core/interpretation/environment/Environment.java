@@ -8,9 +8,11 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -38,6 +40,20 @@ public class Environment {
     private final HashMap<String, Integer> jumps;
     private final int instructionRangeStart;
     private final int instructionRangeEnd;
+    /*
+     * Slots of the symbols defined in this environment as given by the layout. Mirror the maps above
+     * for all names contained in the layout.
+     */
+    @Nullable
+    private ScopeLayout layout;
+    @NotNull
+    private MachineWord[] variableSlots;
+    @NotNull
+    private MachineWord[] constantSlots;
+    @NotNull
+    private int[] jumpSlots;
+    @NotNull
+    private Instruction[] functionSlots;
 
     /**
      * Index of current expression.
@@ -72,6 +88,7 @@ public class Environment {
         jumps = new HashMap<>();
         expressionIndex = 0;
         reservedIndex = -1;
+        installLayout(null);
     }
 
     /**
@@ -120,8 +137,39 @@ public class Environment {
     @NotNull
     public Environment extend(final ProgramToken programToken) {
         final int startIndex = programToken.getLineIndex();
-        return new Environment(this, programToken,instructionSet, startIndex,
-                               startIndex + programToken.getLength() - 1);
+        final Environment environment = new Environment(this, programToken, instructionSet, startIndex,
+                                                        startIndex + programToken.getLength() - 1);
+        environment.installLayout(programToken.getLayout());
+        return environment;
+    }
+
+    /**
+     * Install the slot layout of this environment. Symbols that are already defined are copied to
+     * their slots.
+     *
+     * @param layout the layout. Null if symbols should only be looked up by name.
+     */
+    /* default */ void installLayout(@Nullable final ScopeLayout layout) {
+        this.layout = layout;
+        variableSlots = new MachineWord[layout == null ? 0 : layout.size(SymbolSlot.Kind.VARIABLE)];
+        constantSlots = new MachineWord[layout == null ? 0 : layout.size(SymbolSlot.Kind.CONSTANT)];
+        jumpSlots = new int[layout == null ? 0 : layout.size(SymbolSlot.Kind.JUMP)];
+        functionSlots = new Instruction[layout == null ? 0 : layout.size(SymbolSlot.Kind.FUNCTION)];
+        Arrays.fill(jumpSlots, -1);
+        variables.forEach((name, value) -> setSlot(variableSlots, SymbolSlot.Kind.VARIABLE, name, value));
+        constants.forEach((name, value) -> setSlot(constantSlots, SymbolSlot.Kind.CONSTANT, name, value));
+        functions.forEach((name, value) -> setSlot(functionSlots, SymbolSlot.Kind.FUNCTION, name, value));
+        jumps.forEach(this::setJumpSlot);
+    }
+
+    /**
+     * Get the names of the functions defined in this environment.
+     *
+     * @return set of function names
+     */
+    @NotNull
+    /* default */ Set<String> getFunctionNames() {
+        return functions.keySet();
     }
 
     /**
@@ -209,6 +257,78 @@ public class Environment {
         return EMPTY_ENV;
     }
 
+    /**
+     * Returns the environment the given slot refers to when used in this environment.
+     *
+     * @param slot the slot
+     * @return Environment defining the slot. {@link #EMPTY_ENV} if the slot does not refer to a
+     *         parent of this environment.
+     */
+    @NotNull
+    public Environment lookup(@NotNull final SymbolSlot slot) {
+        Environment scope = this;
+        for (int i = slot.getDepth(); i > 0 && scope != null; i--) {
+            scope = scope.parent;
+        }
+        return scope != null && scope.layout == slot.getScope() ? scope : EMPTY_ENV;
+    }
+
+    /**
+     * Get the value of the variable with the given slot.
+     *
+     * @param slot slot of variable
+     * @return value of the variable. Null if it is not defined (yet).
+     */
+    @Nullable
+    public MachineWord getVariable(@NotNull final SymbolSlot slot) {
+        assert slot.getKind() == SymbolSlot.Kind.VARIABLE : "not a variable slot";
+        final Environment scope = lookup(slot);
+        return scope == EMPTY_ENV ? null : scope.variableSlots[slot.getIndex()];
+    }
+
+    /**
+     * Get the value of the constant with the given slot.
+     *
+     * @param slot slot of constant
+     * @return value of the constant. Null if it is not defined (yet).
+     */
+    @Nullable
+    public MachineWord getConstant(@NotNull final SymbolSlot slot) {
+        assert slot.getKind() == SymbolSlot.Kind.CONSTANT : "not a constant slot";
+        final Environment scope = lookup(slot);
+        return scope == EMPTY_ENV ? null : scope.constantSlots[slot.getIndex()];
+    }
+
+    /**
+     * Get the function with the given slot.
+     *
+     * @param slot slot of function
+     * @return the function. Null if it is not defined.
+     */
+    @Nullable
+    public Instruction getFunction(@NotNull final SymbolSlot slot) {
+        assert slot.getKind() == SymbolSlot.Kind.FUNCTION : "not a function slot";
+        final Environment scope = lookup(slot);
+        return scope == EMPTY_ENV ? null : scope.functionSlots[slot.getIndex()];
+    }
+
+    /**
+     * Get the jump point with the given slot.
+     *
+     * @param slot slot of jump point
+     * @param name name of jump point
+     * @return the resolved jump point. Null if it is not defined.
+     */
+    @Nullable
+    public JumpReference getJump(@NotNull final SymbolSlot slot, @NotNull final String name) {
+        assert slot.getKind() == SymbolSlot.Kind.JUMP : "not a jump slot";
+        final Environment scope = lookup(slot);
+        if (scope == EMPTY_ENV || scope.jumpSlots[slot.getIndex()] < 0) {
+            return null;
+        }
+        return new JumpReference(name, scope, scope.jumpSlots[slot.getIndex()]);
+    }
+
     /**
      * Get the current expression index.
      *
@@ -299,6 +419,7 @@ public class Environment {
      */
     public void defineFunction(@NotNull final String name, final Instruction function) {
         define(name, function, functions, List.of(functions));
+        setSlot(functionSlots, SymbolSlot.Kind.FUNCTION, name, function);
     }
 
     /**
@@ -309,6 +430,7 @@ public class Environment {
      */
     public void defineVariable(@NotNull final String name, final MachineWord value) {
         define(name, value, variables, List.of(variables, constants));
+        setSlot(variableSlots, SymbolSlot.Kind.VARIABLE, name, value);
     }
 
     /**
@@ -319,6 +441,7 @@ public class Environment {
      */
     public void defineConstant(@NotNull final String name, final MachineWord value) {
         define(name, value, constants, List.of(variables, constants));
+        setSlot(constantSlots, SymbolSlot.Kind.CONSTANT, name, value);
     }
 
     /**
@@ -329,6 +452,22 @@ public class Environment {
      */
     public void defineJump(@NotNull final String name, final Integer index) {
         define(name, index, jumps, List.of(jumps));
+        setJumpSlot(name, index);
+    }
+
+    private <T> void setSlot(@NotNull final T[] slots, @NotNull final SymbolSlot.Kind kind,
+                             @NotNull final String name, final T value) {
+        final int index = layout == null ? -1 : layout.indexOf(kind, name);
+        if (index >= 0) {
+            slots[index] = value;
+        }
+    }
+
+    private void setJumpSlot(@NotNull final String name, final int value) {
+        final int index = layout == null ? -1 : layout.indexOf(SymbolSlot.Kind.JUMP, name);
+        if (index >= 0) {
+            jumpSlots[index] = value;
+        }
     }
 
     /**
@@ -371,4 +510,66 @@ public class Environment {
     public void setReservedIndex(final int reservedIndex) {
         this.reservedIndex = reservedIndex;
     }
+
+    /**
+     * Save the runtime state of this environment, i.e. the expression index, the reserved index
+     * and the defined variables and constants. Functions and jump points are not part of the state
+     * as they are defined once the environment is entered.
+     *
+     * @return the saved state
+     */
+    @NotNull
+    public State saveState() {
+        return new State(expressionIndex, reservedIndex, new HashMap<>(variables), new HashMap<>(constants));
+    }
+
+    /**
+     * Restore a state saved with {@link #saveState()}. Variables and constants defined after the
+     * state was saved are removed.
+     *
+     * @param state the state to restore
+     */
+    public void restoreState(@NotNull final State state) {
+        expressionIndex = state.expressionIndex;
+        reservedIndex = state.reservedIndex;
+        variables.clear();
+        variables.putAll(state.variables);
+        constants.clear();
+        constants.putAll(state.constants);
+        Arrays.fill(variableSlots, null);
+        Arrays.fill(constantSlots, null);
+        variables.forEach((name, value) -> setSlot(variableSlots, SymbolSlot.Kind.VARIABLE, name, value));
+        constants.forEach((name, value) -> setSlot(constantSlots, SymbolSlot.Kind.CONSTANT, name, value));
+    }
+
+    /**
+     * Runtime state of an environment. See {@link #saveState()}.
+     */
+    public static final class State {
+        private final int expressionIndex;
+        private final int reservedIndex;
+        @NotNull
+        private final Map<String, MachineWord> variables;
+        @NotNull
+        private final Map<String, MachineWord> constants;
+
+        @Contract(pure = true)
+        private State(final int expressionIndex, final int reservedIndex,
+                      @NotNull final Map<String, MachineWord> variables,
+                      @NotNull final Map<String, MachineWord> constants) {
+            this.expressionIndex = expressionIndex;
+            this.reservedIndex = reservedIndex;
+            this.variables = variables;
+            this.constants = constants;
+        }
+
+        /**
+         * Get the number of saved definitions.
+         *
+         * @return number of variables and constants
+         */
+        public int size() {
+            return variables.size() + constants.size();
+        }
+    }
 }
@@ -2,7 +2,6 @@ package edu.kit.mima.core.interpretation.environment;
 
 import edu.kit.mima.api.util.Tuple;
 import edu.kit.mima.api.util.ValueTuple;
-import edu.kit.mima.core.Mima;
 import edu.kit.mima.core.Program;
 import edu.kit.mima.core.data.MachineWord;
 import edu.kit.mima.core.instruction.Instruction;
@@ -29,28 +28,21 @@ public class GlobalEnvironment extends Environment {
 
     private final Consumer<Value<?>> callback;
     private final Interpreter interpreter;
-    @NotNull
-    private final Mima mima;
 
     /**
      * Create global environment.
      *
      * @param program programToken for this environment
-     * @param mima         the {@link Mima} for this global environment
      * @param interpreter  the {@link Interpreter} for this global environment
      * @param callback     final callback when halting the program.
      */
     public GlobalEnvironment(final Program program,
-                             @NotNull final Mima mima,
                              final Interpreter interpreter,
                              final Consumer<Value<?>> callback) {
         super(null, program.getProgramToken(), program.getInstructionSet(),
               0, program.getProgramToken().getLength());
-        this.mima = mima;
         this.interpreter = interpreter;
         this.callback = callback;
-        MimaInstruction.setMima(mima);
-        MimaXInstruction.setMima(mima);
         setupDefaultInstructions();
     }
 
@@ -70,17 +62,17 @@ public class GlobalEnvironment extends Environment {
      */
     private void setupDefaultInstructions() {
         // Halt Instruction
-        defineNewFunction("HALT", 0, (args, env, call) -> {
-            interpreter.setRunning(false);
+        defineNewFunction("HALT", 0, (args, env, mima, call) -> {
+            interpreter.halt();
             GlobalEnvironment.this.callback.accept(new Value<>(ValueType.NUMBER, mima.getAccumulator()));
         });
         // Jump Instruction
-        defineNewFunction("JMP", 1, (args, env, call) -> {
+        defineNewFunction("JMP", 1, (args, env, mima, call) -> {
             final Tuple<Environment, Integer> info = getJumpInformation(args, env);
             interpreter.jump(info.getFirst(), info.getSecond(), call);
         });
         // Jump if negative Instruction
-        defineNewFunction("JMN", 1, (args, env, call) -> {
+        defineNewFunction("JMN", 1, (args, env, mima, call) -> {
             final Tuple<Environment, Integer> info = getJumpInformation(args, env);
             if (mima.getAccumulator().msb() == 1) {
                 interpreter.jump(info.getFirst(), info.getSecond(), call);
@@ -89,7 +81,7 @@ public class GlobalEnvironment extends Environment {
             }
         });
         // Jump Indirect Instruction
-        defineNewFunction("JIND", 1, (args, env, call) -> {
+        defineNewFunction("JIND", 1, (args, env, mima, call) -> {
             final var argument = InstructionTools.getMemoryReference(args, 0);
             final MachineWord target = mima.loadValue(((MachineWord) argument.getValue()).intValue());
             final Tuple<Environment, Integer> info = getJumpInformation(
@@ -104,7 +96,11 @@ public class GlobalEnvironment extends Environment {
         final var argument = InstructionTools.getJumpReference(args, 0);
         final Environment jumpEnv;
         final int jumpIndex;
-        if (argument.getType() == ValueType.JUMP_REFERENCE) {
+        if (argument.getValue() instanceof JumpReference) {
+            final JumpReference reference = (JumpReference) argument.getValue();
+            jumpEnv = reference.getEnvironment();
+            jumpIndex = reference.getIndex();
+        } else if (argument.getType() == ValueType.JUMP_REFERENCE) {
             jumpEnv = env.lookupJump(argument.getValue().toString());
             jumpIndex = env.getJump(argument.getValue().toString());
         } else {
@@ -127,15 +123,20 @@ public class GlobalEnvironment extends Environment {
      */
     public void setupExtendedInstructionSet() {
         // CALL subroutine
-        defineNewFunction("CALL", 1, (args, env, call) -> {
+        defineNewFunction("CALL", 1, (args, env, mima, call) -> {
             final var argument = InstructionTools.getJumpReference(args, 0);
             mima.pushRoutine(env.getExpressionIndex() + 1, env);
+            if (argument.getValue() instanceof JumpReference) {
+                final JumpReference reference = (JumpReference) argument.getValue();
+                interpreter.jump(reference.getEnvironment(), reference.getIndex(), call);
+                return;
+            }
             final Environment jumpEnv = env.lookupJump(argument.getValue().toString());
             final int jumpIndex = env.getJump(argument.getValue().toString());
             interpreter.jump(jumpEnv, jumpIndex, call);
         });
         // Return from subroutine
-        defineNewFunction("RET", 0, (args, env, call) -> {
+        defineNewFunction("RET", 0, (args, env, mima, call) -> {
             if (mima.hasEmptyReturnStack()) {
                 throw new IllegalStateException("nowhere to return to");
             }
@@ -153,9 +154,9 @@ public class GlobalEnvironment extends Environment {
      */
     private void defineNewFunction(@NotNull final String name, final int argNum,
                                    @NotNull final Instruction instruction) {
-        defineFunction(name, (args, env, call) -> {
+        defineFunction(name, (args, env, mima, call) -> {
             InstructionTools.checkArgNumber(args, argNum);
-            instruction.apply(args, env, call);
+            instruction.apply(args, env, mima, call);
         });
     }
 }
@@ -0,0 +1,63 @@
+package edu.kit.mima.core.interpretation.environment;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Jump point that has already been resolved to its environment and instruction index. Used as the
+ * content of jump reference values of resolved symbols.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class JumpReference {
+
+    @NotNull
+    private final String name;
+    @NotNull
+    private final Environment environment;
+    private final int index;
+
+    /**
+     * Create new JumpReference.
+     *
+     * @param name        name of the jump point
+     * @param environment environment the jump point is defined in
+     * @param index       index of the instruction in the environment
+     */
+    public JumpReference(@NotNull final String name, @NotNull final Environment environment,
+                         final int index) {
+        this.name = name;
+        this.environment = environment;
+        this.index = index;
+    }
+
+    /**
+     * Get the environment the jump point is defined in.
+     *
+     * @return the environment
+     */
+    @NotNull
+    public Environment getEnvironment() {
+        return environment;
+    }
+
+    /**
+     * Get the index of the instruction in the environment.
+     *
+     * @return the instruction index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the name of the jump point.
+     *
+     * @return the name
+     */
+    @NotNull
+    @Override
+    public String toString() {
+        return name;
+    }
+}
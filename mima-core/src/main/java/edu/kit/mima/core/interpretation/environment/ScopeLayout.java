@@ -0,0 +1,79 @@
+package edu.kit.mima.core.interpretation.environment;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Slot layout of a single scope. Assigns an index to every symbol a scope may define, separately
+ * for each {@link SymbolSlot.Kind}. Created by {@link SymbolResolver} and never changed after the
+ * program has been resolved.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class ScopeLayout {
+
+    @Nullable
+    private final ScopeLayout parent;
+    @NotNull
+    private final Map<SymbolSlot.Kind, Map<String, Integer>> slots;
+
+    /**
+     * Create new empty ScopeLayout.
+     *
+     * @param parent layout of the enclosing scope. Null for the global scope.
+     */
+    /* default */ ScopeLayout(@Nullable final ScopeLayout parent) {
+        this.parent = parent;
+        slots = new EnumMap<>(SymbolSlot.Kind.class);
+        for (final SymbolSlot.Kind kind : SymbolSlot.Kind.values()) {
+            slots.put(kind, new HashMap<>());
+        }
+    }
+
+    /**
+     * Add a symbol to the layout. Adding a symbol twice has no effect.
+     *
+     * @param kind kind of the symbol
+     * @param name name of the symbol
+     */
+    /* default */ void add(@NotNull final SymbolSlot.Kind kind, @NotNull final String name) {
+        final Map<String, Integer> map = slots.get(kind);
+        map.putIfAbsent(name, map.size());
+    }
+
+    /**
+     * Get the layout of the enclosing scope.
+     *
+     * @return the parent layout. Null for the global scope.
+     */
+    @Nullable
+    public ScopeLayout getParent() {
+        return parent;
+    }
+
+    /**
+     * Get the index of the given symbol.
+     *
+     * @param kind kind of the symbol
+     * @param name name of the symbol
+     * @return the index or -1 if the scope does not define the symbol
+     */
+    public int indexOf(@NotNull final SymbolSlot.Kind kind, @NotNull final String name) {
+        return slots.get(kind).getOrDefault(name, -1);
+    }
+
+    /**
+     * Get the number of symbols of the given kind.
+     *
+     * @param kind the kind
+     * @return number of symbols
+     */
+    public int size(@NotNull final SymbolSlot.Kind kind) {
+        return slots.get(kind).size();
+    }
+}
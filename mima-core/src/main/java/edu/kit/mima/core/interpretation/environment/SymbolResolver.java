@@ -0,0 +1,161 @@
+package edu.kit.mima.core.interpretation.environment;
+
+import edu.kit.mima.api.util.Tuple;
+import edu.kit.mima.core.token.AtomToken;
+import edu.kit.mima.core.token.BinaryToken;
+import edu.kit.mima.core.token.ListToken;
+import edu.kit.mima.core.token.ProgramToken;
+import edu.kit.mima.core.token.Token;
+import edu.kit.mima.core.token.TokenType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Resolution pass that binds identifiers of a program to {@link SymbolSlot}s.
+ * <p>
+ * Every {@link ProgramToken} gets a {@link ScopeLayout} containing the definitions and jump points
+ * of the scope and every identifier gets the slot it would be looked up in by the {@link
+ * Environment}: variables in any enclosing scope first, then constants and then jump points. The
+ * called identifier of function calls is bound to a function of the global environment.
+ * Identifiers that can't be resolved are left unbound. A bound slot is only a hint, if it has not
+ * been defined when it is used the environment falls back to looking up the name.
+ * <p>
+ * A program is only resolved once. Compiled programs are shared between runs, e.g. by the {@link
+ * edu.kit.mima.core.batch.BatchRunner}, so resolving again would overwrite the bindings of runs
+ * in progress. Later calls reuse the bindings of the first one and only install the global layout
+ * in the given environment. Resolution happens while holding the lock of the program, so every run
+ * sees the complete bindings after {@link #resolve(ProgramToken, Environment)} has returned.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class SymbolResolver {
+
+    private static final SymbolSlot.Kind[] IDENTIFIER_KINDS = new SymbolSlot.Kind[]{
+            SymbolSlot.Kind.VARIABLE, SymbolSlot.Kind.CONSTANT, SymbolSlot.Kind.JUMP
+    };
+
+    /*
+     * Layouts of the enclosing scopes. Innermost scope first.
+     */
+    @NotNull
+    private final Deque<ScopeLayout> scopes;
+
+    private SymbolResolver() {
+        scopes = new ArrayDeque<>();
+    }
+
+    /**
+     * Resolve all identifiers of the program if it hasn't been resolved yet and install the global
+     * layout in the global environment. The functions of the global environment are bound to slots
+     * of the global environment. Functions that weren't defined by the environment the program was
+     * first resolved with are looked up by name.
+     *
+     * @param program           the program to resolve
+     * @param globalEnvironment the environment the program is executed in. Must define all
+     *                          functions before resolving.
+     */
+    public static void resolve(@NotNull final ProgramToken program,
+                               @NotNull final Environment globalEnvironment) {
+        final ScopeLayout globalLayout;
+        synchronized (program) {
+            if (program.getLayout() == null) {
+                final ScopeLayout layout = new ScopeLayout(null);
+                globalEnvironment.getFunctionNames().forEach(n -> layout.add(SymbolSlot.Kind.FUNCTION, n));
+                final SymbolResolver resolver = new SymbolResolver();
+                resolver.scopes.push(layout);
+                resolver.resolveScope(program);
+            }
+            globalLayout = program.getLayout().getParent();
+        }
+        globalEnvironment.installLayout(globalLayout);
+    }
+
+    /*
+     * Create the layout of the scope and resolve its statements.
+     */
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private void resolveScope(@NotNull final ProgramToken program) {
+        final ScopeLayout layout = new ScopeLayout(scopes.peek());
+        for (final Token<?> statement : program.getValue()) {
+            final Token<?> unwrapped = unwrap(statement);
+            if (unwrapped.getType() == TokenType.DEFINITION) {
+                for (final Token<?> token : ((ListToken<Token<?>>) unwrapped.getValue()).getValue()) {
+                    final var definition = (BinaryToken<Token<?>, Token<?>>) token;
+                    final String name = definition.getFirst().getValue().toString();
+                    layout.add(definition.getType() == TokenType.CONSTANT
+                               ? SymbolSlot.Kind.CONSTANT : SymbolSlot.Kind.VARIABLE, name);
+                }
+            }
+        }
+        program.getJumps().keySet().forEach(t -> layout.add(SymbolSlot.Kind.JUMP, t.getValue().toString()));
+        program.setLayout(layout);
+        scopes.push(layout);
+        for (final Token<?> statement : program.getValue()) {
+            resolveStatement(unwrap(statement));
+        }
+        scopes.pop();
+    }
+
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private void resolveStatement(@NotNull final Token<?> statement) {
+        switch (statement.getType()) {
+            case PROGRAM -> resolveScope((ProgramToken) statement);
+            case DEFINITION -> {
+                for (final Token<?> token : ((ListToken<Token<?>>) statement.getValue()).getValue()) {
+                    resolveExpression(((BinaryToken<Token<?>, Token<?>>) token).getSecond());
+                }
+            }
+            default -> resolveExpression(statement);
+        }
+    }
+
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private void resolveExpression(@NotNull final Token<?> expression) {
+        switch (expression.getType()) {
+            case IDENTIFICATION -> bind(expression, IDENTIFIER_KINDS);
+            case CALL -> {
+                final var call = (BinaryToken<Token<?>, ListToken<Token<?>>>) expression;
+                bind(call.getFirst(), SymbolSlot.Kind.FUNCTION);
+                call.getSecond().getValue().forEach(this::resolveExpression);
+            }
+            default -> {
+                /* nothing to resolve */
+            }
+        }
+    }
+
+    /*
+     * Bind the token to the innermost scope defining it with the first matching kind.
+     */
+    private void bind(@NotNull final Token<?> token, @NotNull final SymbolSlot.Kind... kinds) {
+        if (!(token instanceof AtomToken)) {
+            return;
+        }
+        final String name = token.getValue().toString();
+        for (final SymbolSlot.Kind kind : kinds) {
+            int depth = 0;
+            for (final ScopeLayout layout : scopes) {
+                final int index = layout.indexOf(kind, name);
+                if (index >= 0) {
+                    ((AtomToken<?>) token).setSlot(new SymbolSlot(kind, depth, index, layout));
+                    return;
+                }
+                depth++;
+            }
+        }
+        ((AtomToken<?>) token).setSlot(null);
+    }
+
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    @NotNull
+    private static Token<?> unwrap(@NotNull final Token<?> statement) {
+        Token<?> token = statement;
+        while (token.getType() == TokenType.JUMP_POINT) {
+            token = ((Tuple<Token<?>, Token<?>>) token).getSecond();
+        }
+        return token;
+    }
+}
@@ -0,0 +1,102 @@
+package edu.kit.mima.core.interpretation.environment;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Resolved position of a symbol created by {@link SymbolResolver}. The symbol is defined in the
+ * environment {@link #getDepth()} levels above the environment it is used in at the given index of
+ * the {@link ScopeLayout} of that environment.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class SymbolSlot {
+
+    /**
+     * Kinds of symbols.
+     */
+    public enum Kind {
+        /**
+         * Memory variable.
+         */
+        VARIABLE,
+        /**
+         * Constant value.
+         */
+        CONSTANT,
+        /**
+         * Jump point.
+         */
+        JUMP,
+        /**
+         * Function.
+         */
+        FUNCTION
+    }
+
+    @NotNull
+    private final Kind kind;
+    private final int depth;
+    private final int index;
+    @NotNull
+    private final ScopeLayout scope;
+
+    /**
+     * Create new SymbolSlot.
+     *
+     * @param kind  kind of the symbol
+     * @param depth number of parent environments between usage and definition
+     * @param index index of the symbol in the layout of the defining scope
+     * @param scope layout of the defining scope
+     */
+    /* default */ SymbolSlot(@NotNull final Kind kind, final int depth, final int index,
+                             @NotNull final ScopeLayout scope) {
+        this.kind = kind;
+        this.depth = depth;
+        this.index = index;
+        this.scope = scope;
+    }
+
+    /**
+     * Get the kind of the symbol.
+     *
+     * @return the kind
+     */
+    @NotNull
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the number of parent environments between usage and definition.
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Get the index of the symbol in the defining scope.
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Get the layout of the defining scope.
+     *
+     * @return the scope layout
+     */
+    @NotNull
+    public ScopeLayout getScope() {
+        return scope;
+    }
+
+    @Override
+    public String toString() {
+        return kind + "@" + depth + ":" + index;
+    }
+}
@@ -4,8 +4,6 @@ import edu.kit.mima.core.Mima;
 import edu.kit.mima.core.data.MachineWord;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.function.BinaryOperator;
-
 /**
  * The ALU in {@link Mima}.
  *
@@ -35,22 +33,18 @@ public class ArithmeticLogicUnit {
     @NotNull
     public MachineWord add(@NotNull final MachineWord x, @NotNull final MachineWord y) {
         checkWord(x, y);
-        final boolean[] bits = new boolean[machineWordLength];
-        final boolean[] bitsX = x.getBits();
-        final boolean[] bitsY = y.getBits();
-        boolean carry = false;
-        for (int i = 0; i < machineWordLength; i++) {
-            if (bitsX[i] && bitsY[i]) {
-                bits[i] = carry;
-                carry = true;
-            } else if (bitsX[i] || bitsY[i]) {
-                bits[i] = !carry;
-            } else {
-                bits[i] = carry;
-                carry = false;
-            }
-        }
-        return new MachineWord(bits, machineWordLength);
+        return word(add(x.intValue(), y.intValue()));
+    }
+
+    /**
+     * Add two packed values. Is commutative.
+     *
+     * @param x first value
+     * @param y second value
+     * @return x + y truncated to the word length
+     */
+    public int add(final int x, final int y) {
+        return MachineWord.normalize(x + y, machineWordLength);
     }
 
     /**
@@ -63,7 +57,18 @@ public class ArithmeticLogicUnit {
     @NotNull
     public MachineWord xor(@NotNull final MachineWord x, @NotNull final MachineWord y) {
         checkWord(x, y);
-        return new MachineWord(bitwise(x, y, (v, w) -> v ^ w), machineWordLength);
+        return word(xor(x.intValue(), y.intValue()));
+    }
+
+    /**
+     * Perform xor on two packed values. Is commutative.
+     *
+     * @param x first value
+     * @param y second value
+     * @return x xor y
+     */
+    public int xor(final int x, final int y) {
+        return MachineWord.normalize(x ^ y, machineWordLength);
     }
 
     /**
@@ -76,7 +81,18 @@ public class ArithmeticLogicUnit {
     @NotNull
     public MachineWord and(@NotNull final MachineWord x, @NotNull final MachineWord y) {
         checkWord(x, y);
-        return new MachineWord(bitwise(x, y, (v, w) -> v & w), machineWordLength);
+        return word(and(x.intValue(), y.intValue()));
+    }
+
+    /**
+     * Perform and on two packed values. Is commutative.
+     *
+     * @param x first value
+     * @param y second value
+     * @return x & y
+     */
+    public int and(final int x, final int y) {
+        return MachineWord.normalize(x & y, machineWordLength);
     }
 
     /**
@@ -89,7 +105,18 @@ public class ArithmeticLogicUnit {
     @NotNull
     public MachineWord or(@NotNull final MachineWord x, @NotNull final MachineWord y) {
         checkWord(x, y);
-        return new MachineWord(bitwise(x, y, (v, w) -> v | w), machineWordLength);
+        return word(or(x.intValue(), y.intValue()));
+    }
+
+    /**
+     * Perform or on two packed values. Is commutative.
+     *
+     * @param x first value
+     * @param y second value
+     * @return x | y
+     */
+    public int or(final int x, final int y) {
+        return MachineWord.normalize(x | y, machineWordLength);
     }
 
     /**
@@ -102,9 +129,19 @@ public class ArithmeticLogicUnit {
     @NotNull
     public MachineWord negativeIfEquals(@NotNull final MachineWord x, @NotNull final MachineWord y) {
         checkWord(x, y);
-        final MachineWord comp =
-                new MachineWord(bitwise(x, y, (v, w) -> v ? w : !w), machineWordLength);
-        return comp.intValue() == -1 ? comp : new MachineWord(0, machineWordLength);
+        return word(negativeIfEquals(x.intValue(), y.intValue()));
+    }
+
+    /**
+     * Checks of two packed values are equal. Is symmetric.
+     *
+     * @param x first value
+     * @param y second value
+     * @return -1 if x == y else 0
+     */
+    public int negativeIfEquals(final int x, final int y) {
+        return MachineWord.normalize(x, machineWordLength) == MachineWord.normalize(y, machineWordLength)
+               ? -1 : 0;
     }
 
     /**
@@ -116,28 +153,53 @@ public class ArithmeticLogicUnit {
     @NotNull
     public MachineWord rar(@NotNull final MachineWord a) {
         checkWord(a);
-        final boolean[] bits = a.getBits();
-        final boolean tmp = bits[0];
-        System.arraycopy(bits, 1, bits, 0, bits.length - 1);
-        bits[bits.length - 1] = tmp;
-        return new MachineWord(bits, machineWordLength);
+        return word(rar(a.intValue()));
+    }
+
+    /**
+     * Rotate the bits in the packed value one place to the right.
+     *
+     * @param a value
+     * @return rotated value
+     */
+    public int rar(final int a) {
+        final int lsb = a & 1;
+        final int rotated = ((a & mask()) >>> 1) | (lsb << (machineWordLength - 1));
+        return MachineWord.normalize(rotated, machineWordLength);
+    }
+
+    /**
+     * Invert all bits in the packed value.
+     *
+     * @param a value
+     * @return inverted value
+     */
+    public int not(final int a) {
+        return MachineWord.normalize(~a, machineWordLength);
+    }
+
+    /**
+     * Get the number of bits used for calculations.
+     *
+     * @return number of bits in one machineWord
+     */
+    public int getWordLength() {
+        return machineWordLength;
+    }
+
+    /*
+     * Bit mask covering the word length
+     */
+    private int mask() {
+        return machineWordLength >= Integer.SIZE ? -1 : (1 << machineWordLength) - 1;
     }
 
     /*
-     * Perform an bitwise operator on two machine words
+     * Wrap a packed value in a new machine word
      */
     @NotNull
-    private boolean[] bitwise(
-            @NotNull final MachineWord x,
-            @NotNull final MachineWord y,
-            @NotNull final BinaryOperator<Boolean> operator) {
-        final boolean[] bits = new boolean[machineWordLength];
-        final boolean[] aBits = x.getBits();
-        final boolean[] bBits = y.getBits();
-        for (int i = 0; i < machineWordLength; i++) {
-            bits[i] = operator.apply(aBits[i], bBits[i]);
-        }
-        return bits;
+    private MachineWord word(final int value) {
+        return new MachineWord(value, machineWordLength);
     }
 
     /*
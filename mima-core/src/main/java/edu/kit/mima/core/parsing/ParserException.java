@@ -37,6 +37,14 @@ public class ParserException extends RuntimeException {
         return message + "(line: " + line + "|column: " + column + ')';
     }
 
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
     public int getPosition() {
         return position;
     }
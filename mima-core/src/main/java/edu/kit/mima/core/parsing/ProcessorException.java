@@ -17,6 +17,18 @@ public class ProcessorException extends ParserException {
         super(message, 0, 0, 0);
     }
 
+    /**
+     * Create new ProcessorException for an error inside an included file.
+     *
+     * @param file      path of the included file
+     * @param cause     error found in the processed input
+     * @param firstLine line of the processed input the included file starts at
+     */
+    public ProcessorException(final String file, final ParserException cause, final int firstLine) {
+        this(file + ": " + cause.message
+             + "(line: " + (cause.getLine() - firstLine) + "|column: " + cause.getColumn() + ')');
+    }
+
     @Override
     public String getMessage() {
         return message;
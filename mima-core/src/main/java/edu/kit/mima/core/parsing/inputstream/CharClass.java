@@ -0,0 +1,91 @@
+package edu.kit.mima.core.parsing.inputstream;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.regex.Pattern;
+
+/**
+ * Immutable set of characters used by the {@link TokenStream}s to classify input.
+ * <p>
+ * Membership of the first 256 characters, i.e. ASCII and Latin-1, is precomputed in a bitmap, so
+ * testing them is a single array lookup. All other characters are tested with the definition the
+ * class was created from.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class CharClass implements CharPredicate {
+
+    private static final int TABLE_SIZE = 256;
+
+    @NotNull
+    private final long[] table;
+    @NotNull
+    private final CharPredicate fallback;
+
+    private CharClass(@NotNull final CharPredicate fallback) {
+        this.fallback = fallback;
+        table = new long[TABLE_SIZE / Long.SIZE];
+        for (char c = 0; c < TABLE_SIZE; c++) {
+            if (fallback.test(c)) {
+                table[c >>> 6] |= 1L << c;
+            }
+        }
+    }
+
+    /**
+     * Create a class containing the given characters.
+     *
+     * @param chars the characters
+     * @return the character class
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public static CharClass of(@NotNull final String chars) {
+        return new CharClass(c -> chars.indexOf(c) >= 0);
+    }
+
+    /**
+     * Create a class containing the characters matched by a regular expression.
+     *
+     * @param regex expression matching a single character, e.g. {@code [a-z]}
+     * @return the character class
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public static CharClass matching(@NotNull final String regex) {
+        final Pattern pattern = Pattern.compile(regex);
+        return new CharClass(c -> pattern.matcher(String.valueOf(c)).matches());
+    }
+
+    /**
+     * Create a class containing the characters of this and another class.
+     *
+     * @param other the other class
+     * @return the union of both classes
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public CharClass union(@NotNull final CharClass other) {
+        return new CharClass(c -> contains(c) || other.contains(c));
+    }
+
+    /**
+     * Returns whether the character is part of the class.
+     *
+     * @param c the character
+     * @return true if contained
+     */
+    public boolean contains(final char c) {
+        if (c < TABLE_SIZE) {
+            return (table[c >>> 6] & (1L << c)) != 0;
+        }
+        return fallback.test(c);
+    }
+
+    @Override
+    public boolean test(final char c) {
+        return contains(c);
+    }
+}
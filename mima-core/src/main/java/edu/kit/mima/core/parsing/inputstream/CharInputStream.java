@@ -112,6 +112,17 @@ public class CharInputStream {
         return position;
     }
 
+    /**
+     * Get the input read since the given position.
+     *
+     * @param start position to start at
+     * @return the input from start up to the current position
+     */
+    @NotNull
+    public String getText(final int start) {
+        return input.substring(start, position);
+    }
+
     /**
      * Get current position as Point.
      *
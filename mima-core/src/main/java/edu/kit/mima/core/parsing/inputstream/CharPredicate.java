@@ -0,0 +1,19 @@
+package edu.kit.mima.core.parsing.inputstream;
+
+/**
+ * Predicate on characters that doesn't box its argument.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+@FunctionalInterface
+public interface CharPredicate {
+
+    /**
+     * Test the character.
+     *
+     * @param c the character to test
+     * @return true if the character matches
+     */
+    boolean test(char c);
+}
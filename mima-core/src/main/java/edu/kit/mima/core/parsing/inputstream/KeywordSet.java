@@ -0,0 +1,92 @@
+package edu.kit.mima.core.parsing.inputstream;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable set of keywords using a perfect hash.
+ * <p>
+ * On construction a seed for the hash function is searched such that no two keywords share a slot
+ * of the table. Looking up an identifier hashes its characters once and compares it with at most
+ * one keyword. Identifiers longer than every keyword are rejected without hashing.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class KeywordSet {
+
+    private static final int MAX_SEED = 1 << 10;
+
+    @NotNull
+    private final String[] table;
+    private final int mask;
+    private final int seed;
+    private final int maxLength;
+
+    /**
+     * Create new KeywordSet.
+     *
+     * @param keywords the keywords
+     */
+    public KeywordSet(@NotNull final String... keywords) {
+        final Set<String> distinct = new LinkedHashSet<>(Arrays.asList(keywords));
+        int size = Integer.highestOneBit(Math.max(1, distinct.size() * 2 - 1)) << 1;
+        while (true) {
+            for (int s = 1; s < MAX_SEED; s += 2) {
+                final String[] candidate = fill(distinct, size, s);
+                if (candidate != null) {
+                    table = candidate;
+                    mask = size - 1;
+                    seed = s;
+                    maxLength = distinct.stream().mapToInt(String::length).max().orElse(0);
+                    return;
+                }
+            }
+            size <<= 1;
+        }
+    }
+
+    /*
+     * Put the keywords into a table of the given size. Null if two keywords collide.
+     */
+    @Nullable
+    private static String[] fill(@NotNull final Set<String> keywords, final int size, final int seed) {
+        final String[] table = new String[size];
+        for (final String keyword : keywords) {
+            final int slot = hash(keyword, seed) & (size - 1);
+            if (table[slot] != null) {
+                return null;
+            }
+            table[slot] = keyword;
+        }
+        return table;
+    }
+
+    @Contract(pure = true)
+    private static int hash(@NotNull final String identifier, final int seed) {
+        int hash = identifier.length();
+        for (int i = 0; i < identifier.length(); i++) {
+            hash = hash * seed + identifier.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns whether the identifier is a keyword.
+     *
+     * @param identifier the identifier to check
+     * @return true if it is a keyword
+     */
+    public boolean contains(@Nullable final String identifier) {
+        if (identifier == null || identifier.length() > maxLength) {
+            return false;
+        }
+        final String keyword = table[hash(identifier, seed) & mask];
+        return keyword != null && keyword.equals(identifier);
+    }
+}
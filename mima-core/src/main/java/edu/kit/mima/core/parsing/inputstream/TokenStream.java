@@ -11,12 +11,11 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
-import java.util.function.Predicate;
-import java.util.regex.Pattern;
-
 /**
  * The TokenStream uses an {@link CharInputStream} to construct simple tokens.
+ * <p>
+ * Characters are classified with precomputed {@link CharClass}es and keywords are looked up in a
+ * {@link KeywordSet}, so reading a token doesn't allocate anything but the token and its text.
  *
  * @author Jannis Weis
  * @since 2018
@@ -24,13 +23,15 @@ import java.util.regex.Pattern;
 public class TokenStream {
     protected static final char NEW_LINE = '\n';
     public static final Token<?> EMPTY = new EmptyToken();
-    private static final List<String> KEYWORDS = List.of(Keyword.getKeywords());
-    private static final Pattern WHITESPACE = Pattern.compile("[ \t\n\r\f]");
-    private static final Pattern NUMBER_START = Pattern.compile(Symbol.NUMBER_SIGNED);
-    private static final Pattern NUMBER = Pattern.compile(Symbol.NUMBERS);
-    private static final Pattern LETTER = Pattern.compile(Symbol.LETTERS);
-    private static final Pattern PUNCTUATION =
-            Pattern.compile('[' + String.valueOf(Punctuation.getPunctuation()) + ']');
+    private static final KeywordSet KEYWORDS = new KeywordSet(Keyword.getKeywords());
+    private static final CharClass WHITESPACE = CharClass.of(" \t\n\r\f");
+    private static final CharClass NUMBER_START = CharClass.matching(Symbol.NUMBER_SIGNED);
+    private static final CharClass NUMBER = CharClass.matching(Symbol.NUMBERS);
+    private static final CharClass IDENTIFICATION_START =
+            CharClass.matching(Symbol.LETTERS).union(CharClass.of(String.valueOf(Punctuation.INTERNAL_JUMP)));
+    private static final CharClass IDENTIFICATION =
+            IDENTIFICATION_START.union(CharClass.of(Symbol.ALLOWED_SYMBOLS));
+    private static final CharClass PUNCTUATION = CharClass.of(String.valueOf(Punctuation.getPunctuation()));
     @NotNull
     protected final CharInputStream input;
 
@@ -67,7 +68,7 @@ public class TokenStream {
      * @return true if whitespace
      */
     protected boolean isWhitespace(final char c) {
-        return WHITESPACE.matcher(String.valueOf(c)).matches();
+        return WHITESPACE.contains(c);
     }
 
     /**
@@ -77,7 +78,7 @@ public class TokenStream {
      * @return true if start of digit.
      */
     protected boolean isDigitStart(final char c) {
-        return NUMBER_START.matcher(String.valueOf(c)).matches();
+        return NUMBER_START.contains(c);
     }
 
     /**
@@ -87,7 +88,7 @@ public class TokenStream {
      * @return true if digit.
      */
     protected boolean isDigit(final char c) {
-        return NUMBER.matcher(String.valueOf(c)).matches();
+        return NUMBER.contains(c);
     }
 
     /**
@@ -97,7 +98,7 @@ public class TokenStream {
      * @return true if start of identification.
      */
     protected boolean isIdentificationStart(final char c) {
-        return LETTER.matcher(String.valueOf(c)).matches() || c == Punctuation.INTERNAL_JUMP;
+        return IDENTIFICATION_START.contains(c);
     }
 
     /**
@@ -107,7 +108,7 @@ public class TokenStream {
      * @return true if punctuation
      */
     protected static boolean isPunctuationChar(final char c) {
-        return PUNCTUATION.matcher(String.valueOf(c)).matches();
+        return PUNCTUATION.contains(c);
     }
 
     /**
@@ -117,7 +118,7 @@ public class TokenStream {
      * @return true if identification char
      */
     protected boolean isIdentification(final char c) {
-        return isIdentificationStart(c) || (Symbol.ALLOWED_SYMBOLS.indexOf(c) >= 0);
+        return IDENTIFICATION.contains(c);
     }
 
     /**
@@ -127,7 +128,7 @@ public class TokenStream {
      * @return true if keyword.
      */
     protected boolean isKeyword(@Nullable final String identifier) {
-        return KEYWORDS.stream().anyMatch(keyword -> keyword.equals(identifier));
+        return KEYWORDS.contains(identifier);
     }
 
     /**
@@ -199,22 +200,29 @@ public class TokenStream {
      * Read while a predicate is true
      */
     @NotNull
-    protected String readWhile(@NotNull final Predicate<Character> predicate) {
-        final StringBuilder string = new StringBuilder();
+    protected String readWhile(@NotNull final CharPredicate predicate) {
+        final int start = input.getPosition();
+        skipWhile(predicate);
+        return input.getText(start);
+    }
+
+    /*
+     * Skip input while a predicate is true
+     */
+    protected void skipWhile(@NotNull final CharPredicate predicate) {
         while (!input.isEmpty() && predicate.test(input.peek())) {
-            string.append(input.next());
+            input.next();
         }
-        return string.toString();
     }
 
     protected void skipComment() {
         if (input.peek() == Punctuation.COMMENT_BLOCK_MOD) {
             while (!input.isEmpty() && input.peek() != Punctuation.COMMENT) {
-                readWhile(c -> c != Punctuation.COMMENT_BLOCK_MOD);
+                skipWhile(c -> c != Punctuation.COMMENT_BLOCK_MOD);
                 input.next();
             }
         } else {
-            readWhile(c -> c != NEW_LINE && c != Punctuation.COMMENT);
+            skipWhile(c -> c != NEW_LINE && c != Punctuation.COMMENT);
         }
         input.next();
     }
@@ -223,7 +231,7 @@ public class TokenStream {
      * Read the next token
      */
     protected @Nullable Token<?> readNext() {
-        readWhile(this::isWhitespace);
+        skipWhile(this::isWhitespace);
         if (input.isEmpty()) {
             return EMPTY;
         }
@@ -22,8 +22,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Preprocessor for Mima files.
@@ -41,6 +43,13 @@ public final class PreProcessor extends Processor<Token<?>, TokenStream> {
     private final StringBuilder processedInput;
     @NotNull
     private final Set<File> processedFiles;
+    @NotNull
+    private final SourceLoader loader;
+    /*
+     * Path of every included file by the offset its text starts at in the processed input.
+     */
+    @NotNull
+    private final NavigableMap<Integer, String> includedFiles;
     private List<ParserException> errors;
     private boolean recursive;
     private boolean isHome = false;
@@ -60,6 +69,26 @@ public final class PreProcessor extends Processor<Token<?>, TokenStream> {
             @NotNull final String workingDirectory,
             @NotNull final String mimaDirectory,
             final boolean recursive) {
+        this(inputString, inputPath, workingDirectory, mimaDirectory, recursive, IoTools::loadFile);
+    }
+
+    /**
+     * Create new PreProcessor to process preProcessor Statements.
+     *
+     * @param inputString      string to process
+     * @param inputPath        path to input file.
+     * @param workingDirectory working directory
+     * @param mimaDirectory    mima directory
+     * @param recursive        whether to recursively parse and input included files
+     * @param loader           loader for included files
+     */
+    public PreProcessor(
+            @NotNull final String inputString,
+            @NotNull final String inputPath,
+            @NotNull final String workingDirectory,
+            @NotNull final String mimaDirectory,
+            final boolean recursive,
+            @NotNull final SourceLoader loader) {
         super(new TokenStream(inputString));
         this.workingDirectory = workingDirectory;
         this.mimaDirectory = mimaDirectory;
@@ -68,6 +97,8 @@ public final class PreProcessor extends Processor<Token<?>, TokenStream> {
         processedFiles.add(new File(inputPath));
         this.errors = new ArrayList<>();
         this.recursive = recursive;
+        this.loader = loader;
+        this.includedFiles = new TreeMap<>();
     }
 
     /**
@@ -78,13 +109,15 @@ public final class PreProcessor extends Processor<Token<?>, TokenStream> {
      * @param workingDirectory working directory
      * @param mimaDirectory    mima directory
      * @param isHome           whether the file to process is on the working directory
+     * @param loader           loader for included files
      */
     private PreProcessor(
             @NotNull final String inputString,
             @NotNull final Set<File> processedFiles,
             @NotNull final String workingDirectory,
             @NotNull final String mimaDirectory,
-            final boolean isHome) {
+            final boolean isHome,
+            @NotNull final SourceLoader loader) {
         super(new TokenStream(inputString));
         this.workingDirectory = workingDirectory;
         this.mimaDirectory = mimaDirectory;
@@ -92,10 +125,17 @@ public final class PreProcessor extends Processor<Token<?>, TokenStream> {
         this.processedFiles = processedFiles;
         this.isHome = isHome;
         this.errors = new ArrayList<>();
+        this.loader = loader;
+        this.includedFiles = new TreeMap<>();
     }
 
     /**
      * Process the String.
+     * <p>
+     * Statements are replaced by whitespace, so the input keeps its positions in the processed
+     * String. Included files are appended. Errors of included files are {@link
+     * ProcessorException}s without position. Use {@link #locate(ParserException)} for errors found
+     * when parsing the processed String.
      *
      * @return processed String.
      */
@@ -104,25 +144,60 @@ public final class PreProcessor extends Processor<Token<?>, TokenStream> {
     public Tuple<String, List<ParserException>> process() {
         final List<Point> deleteRanges = new ArrayList<>();
         errors = new ArrayList<>();
+        includedFiles.clear();
         errors.addAll(skipError());
         while (!input.isEmpty()) {
             Optional.ofNullable(processCurrent()).ifPresent(deleteRanges::add);
         }
-        deleteRanges.sort((p, q) -> Integer.compare(q.y, p.y));
         for (final Point p : deleteRanges) {
-            processedInput.delete(p.x, p.y);
+            blank(p.x, p.y);
         }
         return new ValueTuple<>(processedInput.toString(), errors);
     }
 
+    /**
+     * Attribute an error found when parsing the processed String to the file it is located in.
+     * Errors of the input are returned unchanged. Errors of included files are converted to
+     * {@link ProcessorException}s without position, with the line inside the included file.
+     *
+     * @param e the error
+     * @return the error located in its file
+     */
+    @NotNull
+    public ParserException locate(@NotNull final ParserException e) {
+        final var file = includedFiles.floorEntry(e.getPosition());
+        if (file == null) {
+            return e;
+        }
+        int firstLine = 0;
+        for (int i = 0; i < file.getKey(); i++) {
+            if (processedInput.charAt(i) == '\n') {
+                firstLine++;
+            }
+        }
+        return new ProcessorException(file.getValue(), e, firstLine);
+    }
+
+    /*
+     * Replace a range of the input with whitespace, keeping line breaks.
+     */
+    private void blank(final int start, final int end) {
+        for (int i = Math.max(0, start); i < Math.min(end, processedInput.length()); i++) {
+            if (processedInput.charAt(i) != '\n') {
+                processedInput.setCharAt(i, ' ');
+            }
+        }
+    }
+
     private @Nullable Point processCurrent() {
         final int index = input.getPosition();
         Point p = null;
         try {
             if (isPunctuation(Punctuation.PRE_PROC)) {
                 p = processStatement(index - 1);
+            } else {
+                input.next();
             }
-            input.next();
         } catch (@NotNull final ParserException e) {
             errors.add(e);
             errors.addAll(skipError());
@@ -141,6 +216,7 @@ public final class PreProcessor extends Processor<Token<?>, TokenStream> {
     @NotNull
     @Contract("_ -> new")
     private Point processStatement(final int beginIndex) {
+        input.next();
         if (isKeyword(Keyword.INPUT)) {
             input.next();
             processInput();
@@ -201,16 +277,21 @@ public final class PreProcessor extends Processor<Token<?>, TokenStream> {
         boolean success;
         if (processedFiles.add(filePath)) {
             try {
-                final String file = IoTools.loadFile(path);
+                final String file = loader.load(path);
                 processedInput.append("\n#<<File = ").append(path).append(">>#\n");
-                final var processed =
-                        new PreProcessor(file, processedFiles, workingDirectory, mimaDirectory, isHome)
-                                .process();
+                final var preProcessor =
+                        new PreProcessor(file, processedFiles, workingDirectory, mimaDirectory, isHome, loader);
+                final var processed = preProcessor.process();
                 final List<ParserException> err = processed.getSecond();
                 if (!err.isEmpty()) {
                     errors.add(new ProcessorException("File not found: \"" + path + "\""));
-                    errors.addAll(err);
+                    for (final ParserException e : err) {
+                        errors.add(new ProcessorException(path + ": " + e.getMessage()));
+                    }
                 }
+                final int start = processedInput.length();
+                includedFiles.put(start, path);
+                preProcessor.includedFiles.forEach((offset, included) -> includedFiles.put(start + offset, included));
                 processedInput.append(processed.getFirst());
                 processedInput.append("\n#<<File>>#\n");
                 success = true;
@@ -224,7 +305,8 @@ public final class PreProcessor extends Processor<Token<?>, TokenStream> {
     }
 
     /**
-     * Convert path from being split by '.' to '\'. Additional '\' is inserted in front.
+     * Convert path from being split by '.' to the file separator. An additional separator is
+     * inserted in front.
      *
      * @param path path to convert
      * @return converted path
@@ -234,7 +316,7 @@ public final class PreProcessor extends Processor<Token<?>, TokenStream> {
         final String[] hierarchy = path.replaceAll("\\s+", "").split("\\.");
         final StringBuilder newPath = new StringBuilder();
         for (final String s : hierarchy) {
-            newPath.append('\\').append(s);
+            newPath.append(File.separatorChar).append(s);
         }
         return newPath.toString();
     }
@@ -0,0 +1,25 @@
+package edu.kit.mima.core.parsing.preprocessor;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Loader for the files included by the {@link PreProcessor}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+@FunctionalInterface
+public interface SourceLoader {
+
+    /**
+     * Load the content of a file.
+     *
+     * @param path path of the file
+     * @return the content of the file
+     * @throws IOException if the file can't be loaded
+     */
+    @NotNull
+    String load(@NotNull String path) throws IOException;
+}
@@ -0,0 +1,397 @@
+package edu.kit.mima.core.profile;
+
+import edu.kit.mima.api.util.Tuple;
+import edu.kit.mima.core.bytecode.Opcode;
+import edu.kit.mima.core.token.ProgramToken;
+import edu.kit.mima.core.token.Token;
+import edu.kit.mima.core.token.TokenType;
+import edu.kit.mima.core.trace.TraceSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TraceSink} that counts how often the instructions of a program are executed.
+ * <p>
+ * Instructions are numbered in source order when the profiler is created, counting only needs an
+ * array lookup by token offset and an increment. Subroutines are tracked on {@code CALL} and {@code
+ * RET}: the instruction executed after a call is the target of the call. Steps are attributed to
+ * the stack of call targets they are executed in, which yields exclusive and inclusive step counts
+ * per subroutine and collapsed stacks for flame graph tools. Steps of a jump point block, i.e. the
+ * instructions from a jump point up to the next one, are summed up on request.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class Profiler implements TraceSink {
+
+    /**
+     * Name of the stack frame of code that is not part of a subroutine.
+     */
+    public static final String ROOT_NAME = "main";
+
+    /*
+     * Instruction index of every token offset. -1 for offsets that aren't instructions.
+     */
+    @NotNull
+    private final int[] instructionIndices;
+    @NotNull
+    private final int[] offsets;
+    /*
+     * Name of the jump point of each instruction. Null if the instruction has none.
+     */
+    @NotNull
+    private final String[] labels;
+    /*
+     * Instruction index of the jump point starting the block of each instruction. -1 if the
+     * instruction is not preceded by a jump point in its scope.
+     */
+    @NotNull
+    private final int[] blocks;
+    @NotNull
+    private final long[] counts;
+    @NotNull
+    private final long[] calls;
+    /*
+     * Tree of call stacks. Node 0 is the root, every other node is a call target entered from its
+     * parent node. Children are found in an open addressing table keyed by parent and target, -1
+     * marks free slots.
+     */
+    @NotNull
+    private long[] childKeys;
+    @NotNull
+    private int[] childNodes;
+    @NotNull
+    private int[] parents;
+    @NotNull
+    private int[] targets;
+    @NotNull
+    private long[] selfSteps;
+    private int nodeCount;
+    private int node;
+    private boolean callPending;
+    private long steps;
+
+    /**
+     * Create new Profiler for the given program.
+     *
+     * @param program the program to profile
+     */
+    public Profiler(@NotNull final ProgramToken program) {
+        final List<Token<?>> instructions = new ArrayList<>();
+        final List<String> labelList = new ArrayList<>();
+        final List<Integer> blockList = new ArrayList<>();
+        collect(program, instructions, labelList, blockList, null);
+        int maxOffset = 0;
+        for (final Token<?> instruction : instructions) {
+            maxOffset = Math.max(maxOffset, Math.max(instruction.getOffset(), innerOffset(instruction)));
+        }
+        instructionIndices = new int[maxOffset + 1];
+        Arrays.fill(instructionIndices, -1);
+        final int size = instructions.size();
+        offsets = new int[size];
+        labels = labelList.toArray(new String[0]);
+        blocks = new int[size];
+        for (int i = 0; i < size; i++) {
+            final Token<?> instruction = instructions.get(i);
+            offsets[i] = instruction.getOffset();
+            blocks[i] = blockList.get(i);
+            setIndex(instruction.getOffset(), i);
+            setIndex(innerOffset(instruction), i);
+        }
+        counts = new long[size];
+        calls = new long[size];
+        childKeys = new long[32];
+        childNodes = new int[32];
+        parents = new int[16];
+        targets = new int[16];
+        selfSteps = new long[16];
+        reset();
+    }
+
+    /*
+     * Collect the instructions of the program and its nested scopes in source order. The first
+     * instruction of a scope gets the name of the jump point of the scope.
+     */
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private static void collect(@NotNull final ProgramToken program,
+                                @NotNull final List<Token<?>> instructions,
+                                @NotNull final List<String> labels,
+                                @NotNull final List<Integer> blocks,
+                                @Nullable final String scopeLabel) {
+        int block = -1;
+        String pendingLabel = scopeLabel;
+        for (final Token<?> statement : program.getValue()) {
+            Token<?> instruction = statement;
+            String label = null;
+            if (statement.getType() == TokenType.JUMP_POINT) {
+                final var jumpPoint = (Tuple<Token<?>, Token<?>>) statement;
+                label = jumpPoint.getFirst().getValue().toString();
+                instruction = jumpPoint.getSecond();
+            }
+            if (instruction.getType() == TokenType.PROGRAM) {
+                collect((ProgramToken) instruction, instructions, labels, blocks, label);
+                continue;
+            }
+            if (instruction.getType() != TokenType.CALL) {
+                continue;
+            }
+            if (label == null) {
+                label = pendingLabel;
+            }
+            pendingLabel = null;
+            if (label != null) {
+                block = instructions.size();
+            }
+            instructions.add(statement);
+            labels.add(label);
+            blocks.add(block);
+        }
+    }
+
+    /*
+     * Offset of the instruction inside a jump point. Tracers may report either offset.
+     */
+    @SuppressWarnings("unchecked") /*Construction of tokens guarantees these types*/
+    private static int innerOffset(@NotNull final Token<?> instruction) {
+        if (instruction.getType() != TokenType.JUMP_POINT) {
+            return instruction.getOffset();
+        }
+        return ((Tuple<Token<?>, Token<?>>) instruction).getSecond().getOffset();
+    }
+
+    private void setIndex(final int offset, final int index) {
+        if (offset >= 0) {
+            instructionIndices[offset] = index;
+        }
+    }
+
+    @Override
+    public void record(final long step, final int offset, final int opcode, final int operand,
+                       final int accumulator, final int stackPointer) {
+        steps++;
+        final int index = offset >= 0 && offset < instructionIndices.length ? instructionIndices[offset] : -1;
+        if (index >= 0) {
+            counts[index]++;
+            if (callPending) {
+                callPending = false;
+                calls[index]++;
+                node = child(node, index);
+            }
+        }
+        selfSteps[node]++;
+        if (opcode == Opcode.CALL) {
+            callPending = true;
+        } else if (opcode == Opcode.RET && node != 0) {
+            node = parents[node];
+        }
+    }
+
+    /*
+     * Get the node for calling the given target from the given node.
+     */
+    private int child(final int parent, final int target) {
+        final long key = ((long) parent << Integer.SIZE) | target;
+        final int mask = childKeys.length - 1;
+        int slot = slot(key, mask);
+        while (childKeys[slot] != -1) {
+            if (childKeys[slot] == key) {
+                return childNodes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (nodeCount == parents.length) {
+            parents = Arrays.copyOf(parents, nodeCount * 2);
+            targets = Arrays.copyOf(targets, nodeCount * 2);
+            selfSteps = Arrays.copyOf(selfSteps, nodeCount * 2);
+        }
+        parents[nodeCount] = parent;
+        targets[nodeCount] = target;
+        childKeys[slot] = key;
+        childNodes[slot] = nodeCount;
+        if (2 * nodeCount >= childKeys.length) {
+            growChildren();
+        }
+        return nodeCount++;
+    }
+
+    /*
+     * Double the size of the child table. Keeps the table at most half full.
+     */
+    private void growChildren() {
+        final long[] keys = childKeys;
+        final int[] nodes = childNodes;
+        childKeys = new long[keys.length * 2];
+        childNodes = new int[keys.length * 2];
+        Arrays.fill(childKeys, -1);
+        final int mask = childKeys.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != -1) {
+                int slot = slot(keys[i], mask);
+                while (childKeys[slot] != -1) {
+                    slot = (slot + 1) & mask;
+                }
+                childKeys[slot] = keys[i];
+                childNodes[slot] = nodes[i];
+            }
+        }
+    }
+
+    private static int slot(final long key, final int mask) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> Integer.SIZE) & mask;
+    }
+
+    /**
+     * Discard all counts.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(calls, 0);
+        Arrays.fill(childKeys, -1);
+        parents[0] = -1;
+        targets[0] = -1;
+        Arrays.fill(selfSteps, 0);
+        nodeCount = 1;
+        node = 0;
+        callPending = false;
+        steps = 0;
+    }
+
+    /**
+     * Get the number of recorded steps.
+     *
+     * @return number of steps
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get the number of executions of the instruction at the given offset.
+     *
+     * @param offset offset of the instruction token
+     * @return number of executions. 0 if there is no instruction at the offset.
+     */
+    public long getCount(final int offset) {
+        final int index = offset >= 0 && offset < instructionIndices.length ? instructionIndices[offset] : -1;
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * Get the execution counts of all executed instructions.
+     *
+     * @return map from instruction offset to number of executions in source order
+     */
+    @NotNull
+    public Map<Integer, Long> getInstructionCounts() {
+        final Map<Integer, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result.put(offsets[i], counts[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the steps executed in jump point blocks. A block consists of a jump point and the
+     * following instructions of its scope up to the next jump point.
+     *
+     * @return map from jump point name to number of steps in source order
+     */
+    @NotNull
+    public Map<String, Long> getBlockCounts() {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (blocks[i] >= 0) {
+                result.merge(labels[blocks[i]], counts[i], Long::sum);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the profiles of all called subroutines.
+     *
+     * @return profiles in source order of the call targets
+     */
+    @NotNull
+    public List<RoutineProfile> getRoutines() {
+        final long[] exclusive = new long[counts.length];
+        final long[] inclusive = new long[counts.length];
+        for (int n = 1; n < nodeCount; n++) {
+            exclusive[targets[n]] += selfSteps[n];
+            for (int scope = n; scope > 0; scope = parents[scope]) {
+                if (!isRecursion(scope, targets[scope])) {
+                    inclusive[targets[scope]] += selfSteps[n];
+                }
+            }
+        }
+        final List<RoutineProfile> result = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (calls[i] > 0) {
+                result.add(new RoutineProfile(getName(i), offsets[i], calls[i], inclusive[i], exclusive[i]));
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Returns whether the target is already called by an ancestor of the node.
+     */
+    private boolean isRecursion(final int node, final int target) {
+        for (int scope = parents[node]; scope > 0; scope = parents[scope]) {
+            if (targets[scope] == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write the steps of every call stack in collapsed stack format, i.e. one line per stack with
+     * the frames separated by semicolons followed by a space and the number of steps. The first
+     * frame is always {@link #ROOT_NAME}.
+     *
+     * @param out the output to write to
+     * @throws IOException if writing fails
+     */
+    public void writeCollapsedStacks(@NotNull final Appendable out) throws IOException {
+        final StringBuilder stack = new StringBuilder();
+        for (int n = 0; n < nodeCount; n++) {
+            if (selfSteps[n] == 0) {
+                continue;
+            }
+            stack.setLength(0);
+            appendStack(stack, n);
+            out.append(stack).append(' ').append(Long.toString(selfSteps[n])).append('\n');
+        }
+    }
+
+    private void appendStack(@NotNull final StringBuilder stack, final int node) {
+        final Deque<String> frames = new ArrayDeque<>();
+        for (int scope = node; scope > 0; scope = parents[scope]) {
+            frames.push(getName(targets[scope]));
+        }
+        stack.append(ROOT_NAME);
+        frames.forEach(frame -> stack.append(';').append(frame));
+    }
+
+    /*
+     * Name of a call target. Its jump point or its offset if it has none.
+     */
+    @NotNull
+    private String getName(final int index) {
+        @Nullable final String label = labels[index];
+        return label == null ? "@" + offsets[index] : label;
+    }
+}
@@ -0,0 +1,92 @@
+package edu.kit.mima.core.profile;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Step counts of a subroutine, i.e. the target of {@code CALL} instructions, recorded by a {@link
+ * Profiler}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class RoutineProfile {
+
+    @NotNull
+    private final String name;
+    private final int offset;
+    private final long calls;
+    private final long inclusiveSteps;
+    private final long exclusiveSteps;
+
+    /**
+     * Create new RoutineProfile.
+     *
+     * @param name           name of the jump point of the subroutine
+     * @param offset         offset of the first instruction of the subroutine
+     * @param calls          number of calls
+     * @param inclusiveSteps steps executed in the subroutine including the subroutines it calls
+     * @param exclusiveSteps steps executed in the subroutine itself
+     */
+    @Contract(pure = true)
+    public RoutineProfile(@NotNull final String name, final int offset, final long calls,
+                          final long inclusiveSteps, final long exclusiveSteps) {
+        this.name = name;
+        this.offset = offset;
+        this.calls = calls;
+        this.inclusiveSteps = inclusiveSteps;
+        this.exclusiveSteps = exclusiveSteps;
+    }
+
+    /**
+     * Get the name of the jump point of the subroutine.
+     *
+     * @return the name
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the offset of the first instruction of the subroutine.
+     *
+     * @return the offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the number of calls of the subroutine.
+     *
+     * @return number of calls
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Get the number of steps executed in the subroutine including the subroutines it calls.
+     * Recursive calls are only counted once.
+     *
+     * @return inclusive steps
+     */
+    public long getInclusiveSteps() {
+        return inclusiveSteps;
+    }
+
+    /**
+     * Get the number of steps executed in the subroutine itself.
+     *
+     * @return exclusive steps
+     */
+    public long getExclusiveSteps() {
+        return exclusiveSteps;
+    }
+
+    @Override
+    public String toString() {
+        return name + "[calls=" + calls + ", inclusive=" + inclusiveSteps + ", exclusive=" + exclusiveSteps + "]";
+    }
+}
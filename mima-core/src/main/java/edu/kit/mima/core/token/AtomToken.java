@@ -1,6 +1,8 @@
 package edu.kit.mima.core.token;
 
 import edu.kit.mima.api.util.ValueTuple;
+import edu.kit.mima.core.interpretation.environment.SymbolResolver;
+import edu.kit.mima.core.interpretation.environment.SymbolSlot;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -18,6 +20,8 @@ public class AtomToken<T> extends ValueTuple<T, TokenType> implements Token<T> {
 
     private final int filePos;
     private final int index;
+    @Nullable
+    private SymbolSlot slot;
 
     /**
      * Plain Token that holds any value type.
@@ -43,6 +47,26 @@ public class AtomToken<T> extends ValueTuple<T, TokenType> implements Token<T> {
         this(type, value, -1, -1);
     }
 
+    /**
+     * Get the slot this token has been bound to by {@link SymbolResolver}.
+     *
+     * @return the slot. Null if not bound.
+     */
+    @Nullable
+    public SymbolSlot getSlot() {
+        return slot;
+    }
+
+    /**
+     * Bind the token to a slot. Does not affect equality. Only to be used by {@link
+     * SymbolResolver} while it holds the lock of the resolved program.
+     *
+     * @param slot the slot. Null to unbind.
+     */
+    public void setSlot(@Nullable final SymbolSlot slot) {
+        this.slot = slot;
+    }
+
     @Override
     public int getLineIndex() {
         return index;
@@ -1,6 +1,8 @@
 package edu.kit.mima.core.token;
 
 import edu.kit.mima.core.file.FileObjectAdapter;
+import edu.kit.mima.core.interpretation.environment.ScopeLayout;
+import edu.kit.mima.core.interpretation.environment.SymbolResolver;
 import edu.kit.mima.core.query.programquery.ProgramQuery;
 import edu.kit.mima.core.query.programquery.ProgramQueryResult;
 import org.jetbrains.annotations.Contract;
@@ -34,6 +36,8 @@ public class ProgramToken extends FileObjectAdapter implements Token<Token<?>[]>
     private final Map<Token<?>, Integer> jumpMap;
     @NotNull
     private final Token<?>[] program;
+    @Nullable
+    private ScopeLayout layout;
 
     /**
      * Program token that holds an array of Tokens.
@@ -67,10 +71,42 @@ public class ProgramToken extends FileObjectAdapter implements Token<Token<?>[]>
         }
     }
 
+    /**
+     * Get the slot layout of this scope created by {@link SymbolResolver}.
+     *
+     * @return the layout. Null if not resolved.
+     */
+    @Nullable
+    public ScopeLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Set the slot layout of this scope. Does not affect equality. Only to be used by {@link
+     * SymbolResolver} while it holds the lock of the resolved program.
+     *
+     * @param layout the layout
+     */
+    public void setLayout(@Nullable final ScopeLayout layout) {
+        this.layout = layout;
+    }
+
     public List<Integer> getIndexList() {
         return indexList;
     }
 
+    /**
+     * Get the instruction index of the statement with the given index in this program. For a
+     * scope it is the instruction index of the following statement.
+     *
+     * @param statementIndex index of the statement
+     * @return the instruction index or -1 if there is no such statement
+     */
+    public int getInstructionIndex(final int statementIndex) {
+        return statementIndex >= 0 && statementIndex < indexList.size()
+               ? indexList.get(statementIndex) : -1;
+    }
+
     /**
      * Returns the jump associations for this program token.
      *
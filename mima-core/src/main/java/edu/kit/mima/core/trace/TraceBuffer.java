@@ -0,0 +1,149 @@
+package edu.kit.mima.core.trace;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link TraceSink} that keeps the most recent records in a preallocated ring buffer of primitive
+ * arrays. Recording never allocates.
+ * <p>
+ * If a spill sink is set, every record is passed on to it before it is overwritten, e.g. to a
+ * {@link TraceWriter} to keep the complete trace on disk. Records are spilled in blocks whenever
+ * the buffer has been filled once and the remaining records on {@link #flush()}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class TraceBuffer implements TraceSink {
+
+    private final int mask;
+    @NotNull
+    private final long[] steps;
+    @NotNull
+    private final int[] offsets;
+    @NotNull
+    private final int[] opcodes;
+    @NotNull
+    private final int[] operands;
+    @NotNull
+    private final int[] accumulators;
+    @NotNull
+    private final int[] stackPointers;
+    private long count;
+    private long spilled;
+    @Nullable
+    private TraceSink spill;
+
+    /**
+     * Create new TraceBuffer.
+     *
+     * @param capacity number of records to keep. Rounded up to the next power of two.
+     */
+    public TraceBuffer(final int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        final int size = Integer.highestOneBit(capacity) == capacity
+                         ? capacity
+                         : Integer.highestOneBit(capacity) << 1;
+        mask = size - 1;
+        steps = new long[size];
+        offsets = new int[size];
+        opcodes = new int[size];
+        operands = new int[size];
+        accumulators = new int[size];
+        stackPointers = new int[size];
+    }
+
+    @Override
+    public void record(final long step, final int offset, final int opcode, final int operand,
+                       final int accumulator, final int stackPointer) {
+        final int index = (int) (count & mask);
+        steps[index] = step;
+        offsets[index] = offset;
+        opcodes[index] = opcode;
+        operands[index] = operand;
+        accumulators[index] = accumulator;
+        stackPointers[index] = stackPointer;
+        count++;
+        if (spill != null && count - spilled > mask) {
+            flush();
+        }
+    }
+
+    /**
+     * Pass all records that have not been spilled yet to the spill sink.
+     */
+    public void flush() {
+        final TraceSink sink = spill;
+        if (sink == null) {
+            return;
+        }
+        for (long i = spilled; i < count; i++) {
+            final int index = (int) (i & mask);
+            sink.record(steps[index], offsets[index], opcodes[index], operands[index],
+                        accumulators[index], stackPointers[index]);
+        }
+        spilled = count;
+    }
+
+    /**
+     * Set the sink records are spilled to before they are overwritten. Records recorded before are
+     * not spilled.
+     *
+     * @param spill the spill sink. Null if records should be discarded.
+     */
+    public void setSpill(@Nullable final TraceSink spill) {
+        this.spill = spill;
+        spilled = count;
+    }
+
+    /**
+     * Pass the records in the buffer to the given sink, oldest first.
+     *
+     * @param sink the sink to pass the records to
+     */
+    public void replay(@NotNull final TraceSink sink) {
+        for (long i = count - size(); i < count; i++) {
+            final int index = (int) (i & mask);
+            sink.record(steps[index], offsets[index], opcodes[index], operands[index],
+                        accumulators[index], stackPointers[index]);
+        }
+    }
+
+    /**
+     * Discard all records.
+     */
+    public void clear() {
+        count = 0;
+        spilled = 0;
+    }
+
+    /**
+     * Get the number of records in the buffer.
+     *
+     * @return number of records
+     */
+    public int size() {
+        return (int) Math.min(count, mask + 1L);
+    }
+
+    /**
+     * Get the number of records kept by the buffer.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Get the number of records recorded since the buffer was created or cleared, including the
+     * ones that have been overwritten.
+     *
+     * @return total number of records
+     */
+    public long getRecordCount() {
+        return count;
+    }
+}
@@ -0,0 +1,76 @@
+package edu.kit.mima.core.trace;
+
+import edu.kit.mima.core.bytecode.Opcode;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * {@link TraceSink} that writes records as comma separated values with one record per line.
+ * Opcodes are written by name.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class TraceCsvExporter implements TraceSink {
+
+    /**
+     * Header line of the exported values.
+     */
+    public static final String HEADER = "step,offset,opcode,operand,accumulator,stackPointer";
+
+    @NotNull
+    private final Appendable out;
+
+    /**
+     * Create new TraceCsvExporter. The {@link #HEADER} is written immediately.
+     *
+     * @param out the output to write to
+     * @throws UncheckedIOException if writing fails
+     */
+    public TraceCsvExporter(@NotNull final Appendable out) {
+        this.out = out;
+        append(HEADER);
+    }
+
+    /**
+     * Export a trace file created by {@link TraceWriter} to a csv file.
+     *
+     * @param trace  the trace file
+     * @param target the file to write to
+     * @throws IOException if reading or writing fails
+     */
+    public static void export(@NotNull final Path trace, @NotNull final Path target) throws IOException {
+        final TraceReader reader = new TraceReader(trace);
+        try (Writer writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            reader.replay(new TraceCsvExporter(writer));
+        } catch (@NotNull final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if writing fails
+     */
+    @Override
+    public void record(final long step, final int offset, final int opcode, final int operand,
+                       final int accumulator, final int stackPointer) {
+        append(step + "," + offset + "," + (opcode < 0 ? "" : Opcode.name(opcode)) + ","
+               + operand + "," + accumulator + "," + stackPointer);
+    }
+
+    private void append(@NotNull final String line) {
+        try {
+            out.append(line).append('\n');
+        } catch (@NotNull final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package edu.kit.mima.core.trace;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader for trace files created by {@link TraceWriter}. The file is memory-mapped, records are
+ * decoded on access.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public final class TraceReader {
+
+    /*
+     * Maximum number of records mapped at once.
+     */
+    private static final int CHUNK_RECORDS = 1 << 20;
+
+    @NotNull
+    private final Path file;
+    private final long recordCount;
+
+    /**
+     * Create new TraceReader.
+     *
+     * @param file the trace file
+     * @throws IOException if the file can't be read or is not a trace file
+     */
+    public TraceReader(@NotNull final Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < TraceWriter.HEADER_SIZE) {
+                throw new IOException("Not a trace file: " + file);
+            }
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                                                        TraceWriter.HEADER_SIZE);
+            if (header.getInt() != TraceWriter.MAGIC) {
+                throw new IOException("Not a trace file: " + file);
+            }
+            final short version = header.getShort();
+            final short recordSize = header.getShort();
+            if (version != TraceWriter.VERSION || recordSize != TraceWriter.RECORD_SIZE) {
+                throw new IOException("Unsupported trace format version " + version);
+            }
+            recordCount = header.getLong(TraceWriter.COUNT_POSITION);
+            if (TraceWriter.HEADER_SIZE + recordCount * TraceWriter.RECORD_SIZE > channel.size()) {
+                throw new IOException("Truncated trace file: " + file);
+            }
+        }
+    }
+
+    /**
+     * Get the number of records in the file.
+     *
+     * @return number of records
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Pass all records of the file to the given sink in the order they were written.
+     *
+     * @param sink the sink to pass the records to
+     * @throws IOException if the file can't be read
+     */
+    public void replay(@NotNull final TraceSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long remaining = recordCount;
+            long position = TraceWriter.HEADER_SIZE;
+            while (remaining > 0) {
+                final int records = (int) Math.min(remaining, CHUNK_RECORDS);
+                final MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                                                           (long) records * TraceWriter.RECORD_SIZE);
+                for (int i = 0; i < records; i++) {
+                    sink.record(chunk.getLong(), chunk.getInt(), chunk.getInt(), chunk.getInt(),
+                                chunk.getInt(), chunk.getInt());
+                }
+                remaining -= records;
+                position += (long) records * TraceWriter.RECORD_SIZE;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package edu.kit.mima.core.trace;
+
+import edu.kit.mima.core.bytecode.Opcode;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receiver of execution trace records. A record is emitted for every executed instruction before it
+ * is executed, so accumulator and stack pointer hold the values the instruction operates on.
+ * <p>
+ * Sinks are called on the execution thread for every instruction and should neither block nor
+ * allocate.
+ * <p>
+ * The interpreter and the bytecode engine record the same sequence for a program, as long as no
+ * instruction fails. A failing instruction may be recorded by one engine and not by the other, as
+ * the bytecode engine already rejects some instructions at compile time.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+@FunctionalInterface
+public interface TraceSink {
+
+    /**
+     * Record the execution of an instruction.
+     *
+     * @param step         number of instructions executed before this one, counted as in {@link
+     *                     edu.kit.mima.core.ExecutionLimits}
+     * @param offset       offset of the instruction token in the source file. -1 if unknown.
+     * @param opcode       the {@link Opcode} of the instruction. -1 if unknown.
+     * @param operand      the operand of the instruction. For JMP, JMN and CALL the instruction index
+     *                     of the target, for JIND the address holding it and for LDVR and STVR
+     *                     the sum of both arguments. 0 if it has none.
+     * @param accumulator  value of the accumulator
+     * @param stackPointer value of the stack pointer
+     */
+    void record(long step, int offset, int opcode, int operand, int accumulator, int stackPointer);
+
+    /**
+     * Create a sink that passes every record to this sink and then to the given one.
+     *
+     * @param after the sink to pass records to after this one
+     * @return the composed sink
+     */
+    @NotNull
+    default TraceSink andThen(@NotNull final TraceSink after) {
+        return (step, offset, opcode, operand, accumulator, stackPointer) -> {
+            record(step, offset, opcode, operand, accumulator, stackPointer);
+            after.record(step, offset, opcode, operand, accumulator, stackPointer);
+        };
+    }
+}
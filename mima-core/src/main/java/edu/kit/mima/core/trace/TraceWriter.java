@@ -0,0 +1,130 @@
+package edu.kit.mima.core.trace;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link TraceSink} that writes records to a memory-mapped binary trace file.
+ * <p>
+ * The file starts with a header of {@link #HEADER_SIZE} bytes: the magic number {@link #MAGIC},
+ * the format {@link #VERSION} and record size as shorts and the number of records as long. It is
+ * followed by the records of {@link #RECORD_SIZE} bytes each: step as long followed by offset,
+ * opcode, operand, accumulator and stack pointer as ints. All values are big endian. The file is
+ * mapped in chunks, so it may be longer than the records it contains. The record count is written
+ * on {@link #close()}. Use {@link TraceReader} to read the file.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+public class TraceWriter implements TraceSink, Closeable {
+
+    /**
+     * Magic number at the start of a trace file ("MTRC").
+     */
+    public static final int MAGIC = 0x4D545243;
+    /**
+     * Version of the file format.
+     */
+    public static final short VERSION = 1;
+    /**
+     * Size of the file header in bytes.
+     */
+    public static final int HEADER_SIZE = 16;
+    /**
+     * Size of a single record in bytes.
+     */
+    public static final int RECORD_SIZE = Long.BYTES + 5 * Integer.BYTES;
+    /*
+     * Position of the record count in the header.
+     */
+    /* default */ static final int COUNT_POSITION = 8;
+
+    private static final int CHUNK_RECORDS = 1 << 16;
+
+    @NotNull
+    private final FileChannel channel;
+    @NotNull
+    private MappedByteBuffer chunk;
+    private long chunkStart;
+    private long count;
+
+    /**
+     * Create new TraceWriter. An existing file is overwritten.
+     *
+     * @param file the file to write to
+     * @throws IOException if the file can't be opened
+     */
+    public TraceWriter(@NotNull final Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE).putLong(0);
+        header.flip();
+        channel.write(header, 0);
+        chunkStart = HEADER_SIZE;
+        chunk = map(chunkStart);
+    }
+
+    private MappedByteBuffer map(final long position) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, position, (long) CHUNK_RECORDS * RECORD_SIZE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if the next chunk of the file can't be mapped
+     */
+    @Override
+    public void record(final long step, final int offset, final int opcode, final int operand,
+                       final int accumulator, final int stackPointer) {
+        if (!chunk.hasRemaining()) {
+            try {
+                chunkStart += chunk.capacity();
+                chunk = map(chunkStart);
+            } catch (@NotNull final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        chunk.putLong(step)
+                .putInt(offset)
+                .putInt(opcode)
+                .putInt(operand)
+                .putInt(accumulator)
+                .putInt(stackPointer);
+        count++;
+    }
+
+    /**
+     * Get the number of records written.
+     *
+     * @return number of records
+     */
+    public long getRecordCount() {
+        return count;
+    }
+
+    /**
+     * Write the record count to the header and close the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            chunk.force();
+            final ByteBuffer recordCount = ByteBuffer.allocate(Long.BYTES).putLong(count);
+            recordCount.flip();
+            channel.write(recordCount, COUNT_POSITION);
+        } finally {
+            channel.close();
+        }
+    }
+}
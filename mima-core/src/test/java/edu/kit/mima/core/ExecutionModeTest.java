@@ -0,0 +1,186 @@
+package edu.kit.mima.core;
+
+import edu.kit.mima.core.bytecode.Opcode;
+import edu.kit.mima.core.token.ProgramToken;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Tests that every {@link ExecutionMode} executes a program the same way. The recursive {@link
+ * ExecutionMode#INTERPRETER} is the reference.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+class ExecutionModeTest {
+
+    private static final long MAX_STEPS = 10_000;
+    private static final String FILE_NAME = "test.mimax";
+    private static final Path SAMPLE_DIRECTORY = Path.of("..", "sample");
+
+    @Test
+    void samplesRunTheSameInEveryMode() throws IOException {
+        final List<Path> samples;
+        try (Stream<Path> files = Files.list(SAMPLE_DIRECTORY)) {
+            samples = files.sorted().collect(Collectors.toList());
+        }
+        assertFalse(samples.isEmpty());
+        for (final Path sample : samples) {
+            final Outcome outcome = assertSameOutcome(Files.readString(sample), sample.getFileName().toString(),
+                                                      SAMPLE_DIRECTORY.toString());
+            assertNotEquals(Termination.FAILED, outcome.termination, sample.toString());
+        }
+    }
+
+    @Test
+    void jumpOutOfScopeContinuesAfterJumpOnceTargetProgramEnds() {
+        assertHalts(5, "{ JMP(L); } HALT(); L: LDC(5);");
+        assertHalts(7, "{ JMP(L); LDC(7); } HALT(); L: LDC(5);");
+        assertHalts(3, "LDC(0); { JMP(L); } ADC(2); HALT(); L: ADC(1);");
+    }
+
+    @Test
+    void jumpToEnclosingScopeContinuesAfterJumpOnceTargetProgramEnds() {
+        assertHalts(5, "{ L: LDC(1); { JMP(M); ADC(3); } HALT(); } M: ADC(1);");
+    }
+
+    @Test
+    void subroutineCalledInLoop() {
+        assertHalts(0, "LDC(-3); L: CALL(F); JMN(L); HALT(); F: ADC(1); RET();");
+    }
+
+    @Test
+    void repeatedDefinitionFails() {
+        assertEquals(Termination.FAILED, assertSameOutcome("L: §define x = 5; LDV(x); JMP(L);").termination);
+    }
+
+    @Test
+    void skippedDefinitionFails() {
+        assertEquals(Termination.FAILED,
+                     assertSameOutcome("JMP(L); §define x = 5; L: LDV(x); HALT();").termination);
+        assertEquals(Termination.FAILED,
+                     assertSameOutcome("§define const c = 3; JMP(c); §define x = 5; LDV(x); HALT();").termination);
+    }
+
+    @Test
+    void definitionDependingOnStackPointer() {
+        assertHalts(3, "§define x = SP(); LDC(3); STV(x); LDC(0); LDV(x); HALT();");
+    }
+
+    @Test
+    void endOfProgramWithoutHaltFails() {
+        assertEquals(Termination.FAILED, assertSameOutcome("LDC(1); LDC(2);").termination);
+        assertEquals(Termination.FAILED, assertSameOutcome("{ LDC(1); }").termination);
+    }
+
+    @Test
+    void endlessLoopExceedsStepLimit() {
+        final Outcome outcome = assertSameOutcome("L: LDC(1); JMP(L);");
+        assertEquals(Termination.STEP_LIMIT, outcome.termination);
+        assertEquals(MAX_STEPS, outcome.steps);
+    }
+
+    /*
+     * Assert that the program halts with the given accumulator in every mode.
+     */
+    private static void assertHalts(final int accumulator, @NotNull final String source) {
+        final Outcome outcome = assertSameOutcome(source);
+        assertEquals(Termination.HALTED, outcome.termination, source);
+        assertEquals(accumulator, outcome.accumulator, source);
+    }
+
+    /*
+     * Assert that the program has the same outcome in every mode and return it.
+     */
+    @NotNull
+    private static Outcome assertSameOutcome(@NotNull final String source) {
+        return assertSameOutcome(source, FILE_NAME, ".");
+    }
+
+    /*
+     * Assert that the program has the same outcome in every mode and return it.
+     */
+    @NotNull
+    private static Outcome assertSameOutcome(@NotNull final String source,
+                                             @NotNull final String fileName,
+                                             @NotNull final String directory) {
+        final Outcome expected = run(source, fileName, directory, ExecutionMode.INTERPRETER);
+        for (final ExecutionMode mode : ExecutionMode.values()) {
+            final Outcome actual = run(source, fileName, directory, mode);
+            final String message = fileName + " in mode " + mode;
+            assertEquals(expected.termination, actual.termination, message);
+            assertEquals(expected.steps, actual.steps, message);
+            assertEquals(expected.accumulator, actual.accumulator, message);
+            assertEquals(expected.memory, actual.memory, message);
+            assertEquals(expected.trace, actual.trace, message);
+        }
+        return expected;
+    }
+
+    @NotNull
+    private static Outcome run(@NotNull final String source, @NotNull final String fileName,
+                               @NotNull final String directory, @NotNull final ExecutionMode mode) {
+        final ProgramToken programToken = new MimaCompiler().compile(source, fileName, directory, directory,
+                                                                     true, true, false);
+        final MimaRunner runner = new MimaRunner();
+        runner.setProgram(new Program(programToken, MimaConstants.instructionSetForFile(fileName)));
+        runner.setExecutionMode(mode);
+        runner.setLimits(ExecutionLimits.NONE.withMaxSteps(MAX_STEPS));
+        final List<String> trace = new ArrayList<>();
+        runner.setTraceSink((step, offset, opcode, operand, accumulator, stackPointer) -> trace.add(
+                step + " @" + offset + ' ' + Opcode.name(opcode) + ' ' + operand
+                + " acc=" + accumulator + " sp=" + stackPointer));
+        Termination termination;
+        long steps;
+        try {
+            final ExecutionResult result = runner.start(v -> {
+            });
+            termination = result.getTermination();
+            steps = result.getSteps();
+        } catch (@NotNull final RuntimeException e) {
+            termination = Termination.FAILED;
+            steps = -1;
+        }
+        final Mima mima = runner.getMima();
+        final Map<Integer, Integer> memory = new TreeMap<>();
+        mima.getMemory().getMapping().forEach((address, value) -> memory.put(address, value.intValue()));
+        return new Outcome(termination, steps, mima.getAccumulatorValue(), memory, trace);
+    }
+
+    /*
+     * Observable result of running a program.
+     */
+    private static final class Outcome {
+        @NotNull
+        private final Termination termination;
+        private final long steps;
+        private final int accumulator;
+        @NotNull
+        private final Map<Integer, Integer> memory;
+        @NotNull
+        private final List<String> trace;
+
+        private Outcome(@NotNull final Termination termination, final long steps, final int accumulator,
+                        @NotNull final Map<Integer, Integer> memory, @NotNull final List<String> trace) {
+            this.termination = termination;
+            this.steps = steps;
+            this.accumulator = accumulator;
+            this.memory = memory;
+            this.trace = trace;
+        }
+    }
+}
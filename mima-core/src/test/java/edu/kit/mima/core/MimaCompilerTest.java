@@ -0,0 +1,119 @@
+package edu.kit.mima.core;
+
+import edu.kit.mima.core.parsing.ProcessorException;
+import edu.kit.mima.core.token.ProgramToken;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Tests for the caching and preprocessing of the {@link MimaCompiler}. A cached compilation returns
+ * the same {@link ProgramToken} instance again.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+class MimaCompilerTest {
+
+    private static final String FILE_NAME = "main.mima";
+    private static final String INPUT = "!include 'lib';\nHALT();";
+
+    private Path directory;
+    private Path workingDirectory;
+    private Path mimaDirectory;
+    private MimaCompiler compiler;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("compiler");
+        workingDirectory = Files.createDirectory(directory.resolve("work"));
+        mimaDirectory = Files.createDirectory(directory.resolve("home"));
+        compiler = new MimaCompiler();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        final List<Path> paths;
+        try (Stream<Path> files = Files.walk(directory)) {
+            paths = files.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (final Path path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void unchangedIncludeIsCached() throws IOException {
+        Files.writeString(workingDirectory.resolve("lib.mima"), "LDC(1);");
+        final ProgramToken first = compile(INPUT);
+        assertSame(first, compile(INPUT));
+    }
+
+    @Test
+    void changedIncludeIsCompiledAgain() throws IOException {
+        final Path library = workingDirectory.resolve("lib.mima");
+        Files.writeString(library, "LDC(1);");
+        final ProgramToken first = compile(INPUT);
+        Files.writeString(library, "LDC(2);");
+        final ProgramToken second = compile(INPUT);
+        assertNotSame(first, second);
+        assertSame(second, compile(INPUT));
+    }
+
+    @Test
+    void includeWithHigherPrecedenceIsCompiledAgain() throws IOException {
+        Files.writeString(mimaDirectory.resolve("lib.mima"), "LDC(1);");
+        final ProgramToken first = compile(INPUT);
+        assertSame(first, compile(INPUT));
+        Files.writeString(workingDirectory.resolve("lib.mima"), "LDC(2);");
+        assertNotSame(first, compile(INPUT));
+    }
+
+    @Test
+    void statementsAfterIncludeAreParsed() throws IOException {
+        Files.writeString(workingDirectory.resolve("lib.mima"), "F: LDC(3);\nJMP(G);");
+        Files.writeString(workingDirectory.resolve("other.mima"), "G: HALT();");
+        final ProgramToken program = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> compile(
+                "!include 'lib';\n!include 'other';\nJMP(F);"));
+        final MimaRunner runner = new MimaRunner();
+        runner.setProgram(new Program(program, MimaConstants.instructionSetForFile(FILE_NAME)));
+        final ExecutionResult result = runner.start(v -> {
+        });
+        assertEquals(Termination.HALTED, result.getTermination());
+        assertEquals(3, runner.getMima().getAccumulatorValue());
+    }
+
+    @Test
+    void errorsOfIncludedFilesNameTheFile() throws IOException {
+        final Path library = workingDirectory.resolve("lib.mima");
+        Files.writeString(library, "LDC(1)\nSTV(x);");
+        final List<Exception> errors = compiler.diagnose(
+                "§define x = 5;\n!include 'lib';\nLDV(x);\nHALT();", workingDirectory.resolve(FILE_NAME).toString(),
+                workingDirectory.toString(), mimaDirectory.toString()).getFirst();
+        assertEquals(1, errors.size(), errors.toString());
+        assertEquals(ProcessorException.class, errors.get(0).getClass());
+        assertEquals(library + ": Expecting symbol: \";\"(line: 1|column: 3)", errors.get(0).getMessage());
+    }
+
+    @NotNull
+    private ProgramToken compile(@NotNull final String input) {
+        return compiler.compile(input, workingDirectory.resolve(FILE_NAME).toString(),
+                                workingDirectory.toString(), mimaDirectory.toString(),
+                                true, true, false);
+    }
+}
\ No newline at end of file
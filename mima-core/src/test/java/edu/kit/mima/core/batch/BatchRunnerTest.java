@@ -0,0 +1,107 @@
+package edu.kit.mima.core.batch;
+
+import edu.kit.mima.core.ExecutionLimits;
+import edu.kit.mima.core.ExecutionMode;
+import edu.kit.mima.core.Termination;
+import edu.kit.mima.core.instruction.InstructionSet;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Tests for {@link BatchRunner}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+class BatchRunnerTest {
+
+    private static final long MAX_STEPS = 1000;
+
+    @Test
+    void failuresAndLimitsAreReported() {
+        final BatchJob invalid = new BatchJob("invalid", "LDC(;", InstructionSet.MIMA);
+        final BatchJob noHalt = new BatchJob("noHalt", "LDC(1);", InstructionSet.MIMA);
+        final BatchJob endless = new BatchJob("endless", "L: JMP(L);", InstructionSet.MIMA);
+        for (final ExecutionMode mode : ExecutionMode.values()) {
+            try (BatchRunner runner = new BatchRunner(2)) {
+                runner.setExecutionMode(mode);
+                runner.setLimits(ExecutionLimits.NONE.withMaxSteps(MAX_STEPS));
+                final List<BatchResult> results = runner.run(List.of(invalid, noHalt, endless));
+                assertEquals(Termination.FAILED, results.get(0).getTermination(), mode.toString());
+                assertNotNull(results.get(0).getError(), mode.toString());
+                assertEquals(Termination.FAILED, results.get(1).getTermination(), mode.toString());
+                assertNotNull(results.get(1).getError(), mode.toString());
+                assertEquals(Termination.STEP_LIMIT, results.get(2).getTermination(), mode.toString());
+                assertEquals(MAX_STEPS, results.get(2).getSteps(), mode.toString());
+            }
+        }
+    }
+
+    @Test
+    void includesAreResolvedAgainstWorkingDirectory() throws IOException {
+        final Path directory = Files.createTempDirectory("batch");
+        final Path library = directory.resolve("lib.mima");
+        try {
+            Files.writeString(library, "F: LDC(3); JMP(R);");
+            for (final ExecutionMode mode : ExecutionMode.values()) {
+                try (BatchRunner runner = new BatchRunner(2)) {
+                    runner.setExecutionMode(mode);
+                    runner.setWorkingDirectory(directory.toString());
+                    final BatchResult result = run(runner, new BatchJob(
+                            "include", "!include 'lib';\nJMP(F);\nR: HALT();", InstructionSet.MIMA));
+                    assertEquals(Termination.HALTED, result.getTermination(), mode.toString());
+                    assertEquals(3, result.getAccumulator().intValue(), mode.toString());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(library);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void modesAgree() {
+        final BatchJob job = new BatchJob("loop", "L: LDV(0); ADD(1); STV(0); LDV(0); ADD(2); JMN(L); HALT();",
+                                          InstructionSet.MIMA, Map.of(1, 1, 2, -5));
+        BatchResult expected = null;
+        for (final ExecutionMode mode : ExecutionMode.values()) {
+            try (BatchRunner runner = new BatchRunner(2)) {
+                runner.setExecutionMode(mode);
+                final BatchResult result = run(runner, job);
+                assertEquals(Termination.HALTED, result.getTermination(), mode.toString());
+                if (expected == null) {
+                    expected = result;
+                } else {
+                    assertEquals(expected.getAccumulator().intValue(), result.getAccumulator().intValue(),
+                                 mode.toString());
+                    assertEquals(values(expected), values(result), mode.toString());
+                    assertEquals(expected.getSteps(), result.getSteps(), mode.toString());
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static Map<Integer, Integer> values(@NotNull final BatchResult result) {
+        final Map<Integer, Integer> values = new TreeMap<>();
+        result.getMemory().forEach((address, value) -> values.put(address, value.intValue()));
+        return values;
+    }
+
+    @NotNull
+    private static BatchResult run(@NotNull final BatchRunner runner, @NotNull final BatchJob job) {
+        final List<BatchResult> results = runner.run(List.of(job));
+        assertEquals(1, results.size());
+        return results.get(0);
+    }
+}
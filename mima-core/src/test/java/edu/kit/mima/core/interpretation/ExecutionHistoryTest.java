@@ -0,0 +1,80 @@
+package edu.kit.mima.core.interpretation;
+
+import edu.kit.mima.core.data.PagedMemory;
+import edu.kit.mima.core.data.WordMemory;
+import edu.kit.mima.core.interpretation.environment.Environment;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ExecutionHistory}.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+class ExecutionHistoryTest {
+
+    private static final int WORD_LENGTH = 24;
+    private static final int CHECKPOINT_INTERVAL = 4;
+
+    @Test
+    void rewindReleasesCellsFirstWrittenAfterTarget() {
+        final ExecutionHistory history = new ExecutionHistory();
+        final WordMemory memory = history.record(new PagedMemory(WORD_LENGTH));
+        memory.storeIntValue(3, 9);
+        history.addCheckpoint(checkpoint(0));
+        history.beginStep(0, 0);
+        memory.storeIntValue(1, 5);
+        memory.storeIntValue(3, 4);
+        history.beginStep(1, 1);
+        memory.storeIntValue(2, 7);
+        memory.storeIntValue(1, 6);
+        assertEquals(3, memory.getUsedCellCount());
+
+        history.rewind(0);
+        assertEquals(1, memory.getUsedCellCount());
+        assertFalse(memory.isUsed(1));
+        assertFalse(memory.isUsed(2));
+        assertTrue(memory.isUsed(3));
+        assertEquals(Map.of(3, 9), values(memory));
+    }
+
+    @Test
+    void checkpointsCountAgainstLimit() {
+        final long maxBytes = ExecutionHistory.getMinimumSize(CHECKPOINT_INTERVAL);
+        final ExecutionHistory history = new ExecutionHistory(maxBytes, CHECKPOINT_INTERVAL);
+        final WordMemory memory = history.record(new PagedMemory(WORD_LENGTH));
+        for (int step = 0; step < 100 * CHECKPOINT_INTERVAL; step++) {
+            if (history.needsCheckpoint(step)) {
+                history.addCheckpoint(checkpoint(step));
+            }
+            history.beginStep(step, step);
+            memory.storeIntValue(step % 16, step);
+            assertTrue(history.getMemoryUsage() <= maxBytes, "memory usage at step " + step);
+        }
+        final long first = history.getFirstStep();
+        assertTrue(first >= 0);
+        assertEquals(first, history.rewind(first).step);
+    }
+
+    @NotNull
+    private static ExecutionHistory.Checkpoint checkpoint(final long step) {
+        return new ExecutionHistory.Checkpoint(step, step, 0, 0, new Environment[0], new int[0], new int[0],
+                                               new int[0], List.of(), Map.of());
+    }
+
+    @NotNull
+    private static Map<Integer, Integer> values(@NotNull final WordMemory memory) {
+        final Map<Integer, Integer> values = new HashMap<>();
+        memory.getMapping().forEach((address, value) -> values.put(address, value.intValue()));
+        return values;
+    }
+}
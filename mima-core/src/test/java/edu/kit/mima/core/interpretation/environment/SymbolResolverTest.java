@@ -0,0 +1,83 @@
+package edu.kit.mima.core.interpretation.environment;
+
+import edu.kit.mima.core.ExecutionResult;
+import edu.kit.mima.core.MimaCompiler;
+import edu.kit.mima.core.MimaConstants;
+import edu.kit.mima.core.MimaRunner;
+import edu.kit.mima.core.Program;
+import edu.kit.mima.core.Termination;
+import edu.kit.mima.core.token.ProgramToken;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests that resolved programs can be shared between runs.
+ *
+ * @author Jannis Weis
+ * @since 2019
+ */
+class SymbolResolverTest {
+
+    private static final String FILE_NAME = "test.mimax";
+    private static final String SOURCE = "§define const one = 1;\n"
+                                         + "§define count = 100;\n"
+                                         + "LDC(0); STV(count);\n"
+                                         + "L: LDV(count); ADC(one); STV(count); CALL(F); JMN(L);\n"
+                                         + "LDV(count); HALT();\n"
+                                         + "F: { §define x = 101; LDV(count); ADC(-50); STV(x); RET(); }";
+    private static final int THREADS = 8;
+    private static final int RUNS = 64;
+
+    @Test
+    void resolvingAgainKeepsBindings() {
+        final Program program = new Program(compile(), MimaConstants.instructionSetForFile(FILE_NAME));
+        assertEquals(50, run(program));
+        final ScopeLayout layout = program.getProgramToken().getLayout();
+        assertEquals(50, run(program));
+        assertSame(layout, program.getProgramToken().getLayout());
+    }
+
+    @Test
+    void sharedProgramRunsConcurrently() throws InterruptedException, ExecutionException {
+        final Program program = new Program(compile(), MimaConstants.instructionSetForFile(FILE_NAME));
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < RUNS; i++) {
+                results.add(executor.submit(() -> run(program)));
+            }
+            for (final Future<Integer> result : results) {
+                assertEquals(50, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @NotNull
+    private static ProgramToken compile() {
+        return new MimaCompiler().compile(SOURCE, FILE_NAME, ".", ".", true, true, false);
+    }
+
+    /*
+     * Run the program and return the accumulator it halted with.
+     */
+    private static int run(@NotNull final Program program) {
+        final MimaRunner runner = new MimaRunner();
+        runner.setProgram(program);
+        final ExecutionResult result = runner.start(v -> {
+        });
+        assertEquals(Termination.HALTED, result.getTermination());
+        return runner.getMima().getAccumulatorValue();
+    }
+}
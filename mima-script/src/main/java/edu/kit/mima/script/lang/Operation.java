@@ -1,6 +1,7 @@
 package edu.kit.mima.script.lang;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -37,6 +38,16 @@ public enum Operation {
     UNARY_PLUS("+", 13),
     UNARY_MINUS("-", 13);
 
+    /*
+     * Operations by their string. Strings shared by several operations map to the first one.
+     */
+    private static final Map<String, Operation> OPERATIONS = new HashMap<>();
+
+    static {
+        for (final Operation operation : values()) {
+            OPERATIONS.putIfAbsent(operation.op, operation);
+        }
+    }
 
     private final String op;
     private final int precedence;
@@ -51,7 +62,7 @@ public enum Operation {
     }
 
     public static Operation getOperationForString(final String op) {
-        return Arrays.stream(values()).filter(o -> o.toString().equals(op)).findFirst().orElse(null);
+        return OPERATIONS.get(op);
     }
 
     public static int getPrecedenceForString(final String op) {
@@ -1,5 +1,7 @@
 package edu.kit.mima.script.parser;
 
+import edu.kit.mima.core.parsing.inputstream.CharClass;
+import edu.kit.mima.core.parsing.inputstream.KeywordSet;
 import edu.kit.mima.core.parsing.inputstream.TokenStream;
 import edu.kit.mima.core.parsing.lang.Punctuation;
 import edu.kit.mima.core.token.AtomToken;
@@ -9,8 +11,6 @@ import edu.kit.mima.script.lang.Operation;
 import edu.kit.mima.script.lang.ScriptKeyword;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
-
 /**
  * Adapted TokenStream for the mima script language.
  *
@@ -19,7 +19,8 @@ import java.util.List;
  */
 public class ScriptTokenStream extends TokenStream {
 
-    private static final List<String> KEYWORDS = List.of(ScriptKeyword.getKeywords());
+    private static final KeywordSet KEYWORDS = new KeywordSet(ScriptKeyword.getKeywords());
+    private static final CharClass OPERATION_CHARS = CharClass.of(Operation.getOperationChars());
 
     public ScriptTokenStream(final String input) {
         super(input);
@@ -27,18 +28,18 @@ public class ScriptTokenStream extends TokenStream {
 
     @Override
     protected boolean isKeyword(@Nullable final String identifier) {
-        return KEYWORDS.stream().anyMatch(keyword -> keyword.equals(identifier));
+        return KEYWORDS.contains(identifier);
     }
 
     protected boolean isOperationChar(final char c) {
-        return Operation.getOperationChars().indexOf(c) >= 0;
+        return OPERATION_CHARS.contains(c);
     }
 
     /*
      * Read the next token
      */
     protected @Nullable Token<?> readNext() {
-        readWhile(this::isWhitespace);
+        skipWhile(this::isWhitespace);
         if (input.isEmpty()) {
             return EMPTY;
         }